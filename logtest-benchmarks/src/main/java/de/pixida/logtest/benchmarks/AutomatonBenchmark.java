@@ -0,0 +1,121 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.pixida.logtest.automatondefinitions.GenericNode;
+import de.pixida.logtest.automatondefinitions.INodeDefinition;
+import de.pixida.logtest.automatondefinitions.TestAutomaton;
+import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.logreaders.ILogEntry;
+
+/**
+ * Feeds log entries into an automaton which loops on its initial node over an edge with a single kind of condition. This isolates the
+ * per entry cost of the condition. One operation is one entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class AutomatonBenchmark
+{
+    /** Kind of condition on the looping edge */
+    public enum Condition
+    {
+        REG_EXP,
+        TIME_INTERVAL,
+        CHECK_EXP,
+        ON_WALK
+    }
+
+    @Param({"REG_EXP", "TIME_INTERVAL", "CHECK_EXP", "ON_WALK"})
+    private Condition condition;
+
+    private List<ILogEntry> entries;
+    private ILogEntry[] entryArray;
+    private TestAutomaton definition;
+
+    public AutomatonBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        this.entries = Fixtures.readEntries(Fixtures.createSyntheticLog());
+        this.entryArray = this.entries.toArray(new ILogEntry[this.entries.size()]);
+        this.definition = new TestAutomaton();
+        final GenericNode initial = this.definition.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final TestAutomaton.GenericEdgeBuilder edge = this.definition.createEdge(initial, initial);
+        switch (this.condition)
+        {
+            case REG_EXP:
+                edge.withRegExp("T=([0-9]+)°C");
+                break;
+            case TIME_INTERVAL:
+                edge.withTimeIntervalSinceLastMicrotransition(">= 0");
+                break;
+            case CHECK_EXP:
+                edge.withCheckExp("engine.getLogEntryPayload().length > 3");
+                break;
+            case ON_WALK:
+                this.definition.withOnLoad("var count = 0;");
+                edge.withTriggerAlways().withOnWalk("count++;");
+                break;
+            default:
+                throw new IllegalStateException("Unknown condition: " + this.condition);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixtures.NUM_SYNTHETIC_LOG_ENTRIES)
+    public boolean proceedWithLogEntries()
+    {
+        final Automaton automaton = new Automaton(this.definition, Collections.emptyMap());
+        for (final ILogEntry entry : this.entries)
+        {
+            automaton.proceedWithLogEntry(entry);
+        }
+        automaton.pushEof();
+        return automaton.canProceed();
+    }
+
+    // Like proceedWithLogEntries(), but passes the entries in batches like the job executor does
+    @Benchmark
+    @OperationsPerInvocation(Fixtures.NUM_SYNTHETIC_LOG_ENTRIES)
+    public boolean proceedWithLogEntriesInBatches()
+    {
+        final Automaton automaton = new Automaton(this.definition, Collections.emptyMap());
+        final int batchSize = 256;
+        for (int offset = 0; offset < this.entryArray.length; offset += batchSize)
+        {
+            automaton.proceedWithLogEntries(this.entryArray, offset, Math.min(batchSize, this.entryArray.length - offset));
+        }
+        automaton.pushEof();
+        return automaton.canProceed();
+    }
+}
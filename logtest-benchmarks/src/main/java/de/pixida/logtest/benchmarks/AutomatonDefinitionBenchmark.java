@@ -0,0 +1,54 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.pixida.logtest.automatondefinitions.JsonAutomatonDefinition;
+
+/** Parses the test automaton of the core library, which uses all features of the file format. One operation is one definition. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class AutomatonDefinitionBenchmark
+{
+    private String json;
+
+    public AutomatonDefinitionBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        this.json = Fixtures.getTestAutomatonJson();
+    }
+
+    @Benchmark
+    public JsonAutomatonDefinition loadDefinition()
+    {
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition("test-automaton", this.json);
+        definition.load();
+        return definition;
+    }
+}
@@ -0,0 +1,293 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONObject;
+
+import de.pixida.logtest.automatondefinitions.AutomatonDefinitionToJsonConverter;
+import de.pixida.logtest.automatondefinitions.GenericNode;
+import de.pixida.logtest.automatondefinitions.INodeDefinition;
+import de.pixida.logtest.automatondefinitions.TestAutomaton;
+import de.pixida.logtest.logreaders.GenericLogReader.HandlingOfNonHeadlineLines;
+
+/**
+ * Generates trace logs in the format of the generic log reader and a matching suite of automatons. The output only depends on the seed
+ * and the settings, so large inputs can be reproduced on every machine.
+ *
+ * Each headline reads "&lt;time&gt; [&lt;channel&gt;] &lt;payload&gt;" (the channel part is omitted for the default channel) and may be
+ * followed by indented continuation lines. Interspersed are "interesting" events: Automaton k of the suite waits for "EVENT k begin" and
+ * then for "EVENT k end" on its channel and fails if the log ends in between. The generator closes all events before the log ends, so the
+ * whole suite succeeds.
+ */
+public class CorpusGenerator
+{
+    public static final String HEADLINE_PATTERN = "^(([0-9]+)(?: \\[([a-z0-9]+)\\])? )";
+    public static final int HEADLINE_PATTERN_INDEX_OF_TIMESTAMP = 2;
+    public static final int HEADLINE_PATTERN_INDEX_OF_CHANNEL = 3;
+
+    private static final String AUTOMATON_FILE_PREFIX = "automaton-";
+    private static final String AUTOMATON_FILE_SUFFIX = ".json";
+    private static final int MAX_CONTINUATION_LINES = 3;
+    private static final int MAX_NUMBER_IN_PAYLOAD = 1000;
+    private static final int JSON_INDENTATION = 4;
+    private static final String[] PAYLOADS = {
+        "Temperature T=%d C",
+        "Heartbeat seq=%d",
+        "Door state changed: %d",
+        "Request %d processed",
+        "Cache hit ratio %d percent",
+    };
+
+    private final long seed;
+    private int numEntries = 100000;
+    private List<String> channels = Collections.singletonList(null);
+    private double multilineRatio = 0.05;
+    private long minTimestampSpacingMs = 0;
+    private long maxTimestampSpacingMs = 100;
+    private double interestingEventRatio = 0.01;
+    private int suiteWidth = 10;
+
+    public CorpusGenerator(final long aSeed)
+    {
+        this.seed = aSeed;
+    }
+
+    /** @param value Number of log entries (headlines) per log */
+    public void setNumEntries(final int value)
+    {
+        Validate.isTrue(value >= 0, "Number of entries must not be negative");
+        this.numEntries = value;
+    }
+
+    /**
+     * @param value Channels the entries are distributed over uniformly; list a channel several times to weight it; null is the default
+     *            channel
+     */
+    public void setChannels(final List<String> value)
+    {
+        Validate.notEmpty(value, "At least one channel is required");
+        this.channels = new ArrayList<>(value);
+    }
+
+    /** @param value Ratio of entries which span several lines */
+    public void setMultilineRatio(final double value)
+    {
+        Validate.inclusiveBetween(0.0, 1.0, value, "Multiline ratio must be between 0 and 1");
+        this.multilineRatio = value;
+    }
+
+    /**
+     * Set the range from which the distance between the timestamps of consecutive entries is drawn uniformly.
+     *
+     * @param min Min. distance in milliseconds
+     * @param max Max. distance in milliseconds
+     */
+    public void setTimestampSpacingMs(final long min, final long max)
+    {
+        Validate.isTrue(min >= 0 && min <= max, "Invalid timestamp spacing range");
+        this.minTimestampSpacingMs = min;
+        this.maxTimestampSpacingMs = max;
+    }
+
+    /** @param value Ratio of entries which are events of the automaton suite */
+    public void setInterestingEventRatio(final double value)
+    {
+        Validate.inclusiveBetween(0.0, 1.0, value, "Interesting event ratio must be between 0 and 1");
+        this.interestingEventRatio = value;
+    }
+
+    /** @param value Number of automatons in the suite */
+    public void setSuiteWidth(final int value)
+    {
+        Validate.isTrue(value > 0, "Suite width must be positive");
+        this.suiteWidth = value;
+    }
+
+    public int getNumEntries()
+    {
+        return this.numEntries;
+    }
+
+    public int getSuiteWidth()
+    {
+        return this.suiteWidth;
+    }
+
+    /** @return Configuration for the generic log reader which parses the generated logs */
+    public JSONObject getLogReaderConfiguration()
+    {
+        final JSONObject result = new JSONObject();
+        result.put("headlinePattern", HEADLINE_PATTERN);
+        result.put("headlinePatternIndexOfTimestamp", HEADLINE_PATTERN_INDEX_OF_TIMESTAMP);
+        result.put("headlinePatternIndexOfChannel", HEADLINE_PATTERN_INDEX_OF_CHANNEL);
+        result.put("handlingOfNonHeadlineLines", HandlingOfNonHeadlineLines.CREATE_MULTILINE_ENTRY.toString());
+        return result;
+    }
+
+    /**
+     * Writes a log. Logs with different indexes differ from each other, but each of them is reproducible.
+     *
+     * @param file File to write the log to
+     * @param index Index of the log
+     * @return The number of entries written
+     * @throws IOException If the log cannot be written
+     */
+    public int writeLog(final File file, final int index) throws IOException
+    {
+        final Random random = new Random(this.seed + index);
+        final boolean[] eventOpen = new boolean[this.suiteWidth];
+        int numOpenEvents = 0;
+        long time = 0;
+        try (final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+        {
+            for (int i = 0; i < this.numEntries; i++)
+            {
+                time += this.minTimestampSpacingMs
+                    + (long) (random.nextDouble() * (this.maxTimestampSpacingMs - this.minTimestampSpacingMs + 1));
+                final int remainingEntries = this.numEntries - i;
+                if (numOpenEvents > 0 && remainingEntries <= numOpenEvents)
+                {
+                    // Close the events which are still open, otherwise the automatons would fail
+                    final int automaton = this.firstOpenEvent(eventOpen);
+                    eventOpen[automaton] = false;
+                    numOpenEvents--;
+                    this.writeEvent(writer, time, automaton, false);
+                }
+                else if (random.nextDouble() < this.interestingEventRatio)
+                {
+                    final int automaton = random.nextInt(this.suiteWidth);
+                    final boolean begin = !eventOpen[automaton];
+                    if (begin && remainingEntries <= numOpenEvents + 1)
+                    {
+                        // No space left to close the event
+                        this.writeRegularEntry(writer, time, random);
+                        continue;
+                    }
+                    eventOpen[automaton] = begin;
+                    numOpenEvents += begin ? 1 : -1;
+                    this.writeEvent(writer, time, automaton, begin);
+                }
+                else
+                {
+                    this.writeRegularEntry(writer, time, random);
+                }
+            }
+        }
+        return this.numEntries;
+    }
+
+    /**
+     * @param directory Directory to write the automatons to
+     * @return The file names of the automatons, relative to the directory
+     * @throws IOException If an automaton cannot be written
+     */
+    public List<String> writeAutomatons(final File directory) throws IOException
+    {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < this.suiteWidth; i++)
+        {
+            final String fileName = AUTOMATON_FILE_PREFIX + i + AUTOMATON_FILE_SUFFIX;
+            FileUtils.write(new File(directory, fileName),
+                AutomatonDefinitionToJsonConverter.convert(this.createAutomaton(i)).toString(JSON_INDENTATION), StandardCharsets.UTF_8);
+            result.add(fileName);
+        }
+        return result;
+    }
+
+    private TestAutomaton createAutomaton(final int index)
+    {
+        final String channel = this.getChannelOfAutomaton(index);
+        final TestAutomaton automaton = new TestAutomaton().withDescription("Generated automaton " + index + " of " + this.suiteWidth);
+        final GenericNode idle = automaton.createNode("idle").withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode open = automaton.createNode("open").get();
+        final GenericNode success = automaton.createNode("success").withType(INodeDefinition.Type.SUCCESS).get();
+        final GenericNode failure = automaton.createNode("failure").withType(INodeDefinition.Type.FAILURE).get();
+        automaton.createEdge(idle, open).withRegExp("^" + this.getEventPayload(index, true) + "$").withChannel(channel);
+        automaton.createEdge(open, idle).withRegExp("^" + this.getEventPayload(index, false) + "$").withChannel(channel);
+        automaton.createEdge(idle, success).withEofCondition();
+        automaton.createEdge(open, failure).withEofCondition();
+        return automaton;
+    }
+
+    private int firstOpenEvent(final boolean[] eventOpen)
+    {
+        for (int i = 0; i < eventOpen.length; i++)
+        {
+            if (eventOpen[i])
+            {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No open event");
+    }
+
+    private String getChannelOfAutomaton(final int index)
+    {
+        return this.channels.get(index % this.channels.size());
+    }
+
+    private String getEventPayload(final int automaton, final boolean begin)
+    {
+        return "EVENT " + automaton + (begin ? " begin" : " end");
+    }
+
+    private void writeEvent(final Writer writer, final long time, final int automaton, final boolean begin) throws IOException
+    {
+        this.writeHeadline(writer, time, this.getChannelOfAutomaton(automaton), this.getEventPayload(automaton, begin));
+    }
+
+    private void writeRegularEntry(final Writer writer, final long time, final Random random) throws IOException
+    {
+        final String channel = this.channels.get(random.nextInt(this.channels.size()));
+        final String payload = String.format(PAYLOADS[random.nextInt(PAYLOADS.length)], random.nextInt(MAX_NUMBER_IN_PAYLOAD));
+        this.writeHeadline(writer, time, channel, payload);
+        if (random.nextDouble() < this.multilineRatio)
+        {
+            final int numContinuationLines = 1 + random.nextInt(MAX_CONTINUATION_LINES);
+            for (int i = 0; i < numContinuationLines; i++)
+            {
+                writer.write("    at de.example.Component.method" + i + "(Component.java:" + random.nextInt(MAX_NUMBER_IN_PAYLOAD) + ")\n");
+            }
+        }
+    }
+
+    private void writeHeadline(final Writer writer, final long time, final String channel, final String payload) throws IOException
+    {
+        writer.write(String.valueOf(time));
+        if (channel != null)
+        {
+            writer.write(" [" + channel + "]");
+        }
+        writer.write(' ');
+        writer.write(payload);
+        writer.write('\n');
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        return "CorpusGenerator [seed=" + this.seed + ", numEntries=" + this.numEntries + ", channels=" + this.channels
+            + ", multilineRatio=" + this.multilineRatio + ", timestampSpacingMs=" + Arrays.asList(this.minTimestampSpacingMs,
+                this.maxTimestampSpacingMs) + ", interestingEventRatio=" + this.interestingEventRatio + ", suiteWidth=" + this.suiteWidth
+            + "]";
+    }
+}
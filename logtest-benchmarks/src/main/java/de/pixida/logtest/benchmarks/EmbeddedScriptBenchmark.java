@@ -0,0 +1,68 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.engine.EmbeddedScript;
+
+/** Evaluates a precompiled boolean script, i.e. the cost of a check expression without the rest of the automaton. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class EmbeddedScriptBenchmark
+{
+    @Param({Automaton.DEFAULT_SCRIPTING_LANGUAGE, "python"})
+    private String language;
+
+    private EmbeddedScript script;
+
+    public EmbeddedScriptBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        final ScriptEngine engine = new ScriptEngineManager().getEngineByName(this.language);
+        if (engine == null)
+        {
+            throw new IllegalStateException("Scripting engine not available: " + this.language);
+        }
+        engine.put("a", 1);
+        engine.put("b", 1 + 1);
+        this.script = new EmbeddedScript("a < b");
+        this.script.compile(engine);
+    }
+
+    @Benchmark
+    public boolean runScript()
+    {
+        return this.script.runAndGetBooleanResult();
+    }
+}
@@ -0,0 +1,106 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+import de.pixida.logtest.automatondefinitions.JsonAutomatonDefinition;
+import de.pixida.logtest.logreaders.GenericLogReader;
+import de.pixida.logtest.logreaders.ILogEntry;
+
+/** Test data shared by the benchmarks: The tutorial of the wiki and the test automaton of the core library */
+public abstract class Fixtures
+{
+    static final int WARMUP_ITERATIONS = 3;
+    static final int MEASUREMENT_ITERATIONS = 5;
+    static final String LOG_CONFIGURATION = "-Dlog4j.configuration=log4j-benchmarks.xml";
+
+    /** Number of entries of the synthetic log, which is the tutorial log repeated with increasing timestamps */
+    static final int NUM_SYNTHETIC_LOG_ENTRIES = 1000;
+
+    /** Number of entries of the tutorial log */
+    static final int NUM_TUTORIAL_LOG_ENTRIES = 25;
+
+    static final List<String> TUTORIAL_AUTOMATONS = Collections.unmodifiableList(Arrays.asList("fridge-starts-up-correctly",
+        "fridge-runs-steadily", "fridge-runs-steadily-fixed", "light-goes-off-when-door-is-closed",
+        "temperature-decreases-when-door-is-closed"));
+
+    private static final String TUTORIAL_FOLDER = "/tutorial/";
+    private static final String TEST_AUTOMATON = "/de/pixida/logtest/automatondefinitions/test-automaton.json";
+
+    static String readResource(final String path)
+    {
+        try (final InputStream is = Fixtures.class.getResourceAsStream(path))
+        {
+            if (is == null)
+            {
+                throw new IllegalStateException("Resource not found: " + path);
+            }
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+        catch (final IOException ioe)
+        {
+            throw new IllegalStateException("Failed to read resource: " + path, ioe);
+        }
+    }
+
+    static String getTutorialLog()
+    {
+        return readResource(TUTORIAL_FOLDER + "log.txt");
+    }
+
+    static JsonAutomatonDefinition getTutorialAutomaton(final String name)
+    {
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition(name, readResource(TUTORIAL_FOLDER + name + ".json"));
+        definition.load();
+        return definition;
+    }
+
+    static String getTestAutomatonJson()
+    {
+        return readResource(TEST_AUTOMATON);
+    }
+
+    static List<ILogEntry> readEntries(final String log)
+    {
+        final GenericLogReader reader = new GenericLogReader(new BufferedReader(new StringReader(log)));
+        reader.open();
+        final List<ILogEntry> result = new ArrayList<>();
+        ILogEntry entry;
+        while ((entry = reader.getNextEntry()) != null)
+        {
+            result.add(entry);
+        }
+        reader.close();
+        return result;
+    }
+
+    static String createSyntheticLog()
+    {
+        final List<ILogEntry> tutorialEntries = readEntries(getTutorialLog());
+        final long timeOffsetPerRepetition = tutorialEntries.get(tutorialEntries.size() - 1).getTime() + 1;
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NUM_SYNTHETIC_LOG_ENTRIES; i++)
+        {
+            final ILogEntry entry = tutorialEntries.get(i % tutorialEntries.size());
+            final long time = i / tutorialEntries.size() * timeOffsetPerRepetition + entry.getTime();
+            sb.append(time).append(' ').append(entry.getPayload()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,71 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.pixida.logtest.logreaders.GenericLogReader;
+import de.pixida.logtest.logreaders.ILogEntry;
+import de.pixida.logtest.regexp.RegExpEngine;
+
+/** Splits a log into entries with the default headline pattern. One operation is one entry. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class GenericLogReaderBenchmark
+{
+    @Param({"JAVA", "LINEAR"})
+    private RegExpEngine engine;
+
+    private String log;
+
+    public GenericLogReaderBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        this.log = Fixtures.createSyntheticLog();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixtures.NUM_SYNTHETIC_LOG_ENTRIES)
+    public void readLog(final Blackhole blackhole)
+    {
+        final GenericLogReader reader = new GenericLogReader(new BufferedReader(new StringReader(this.log)));
+        reader.setRegExpEngine(this.engine);
+        reader.open();
+        ILogEntry entry;
+        while ((entry = reader.getNextEntry()) != null)
+        {
+            blackhole.consume(entry);
+        }
+        reader.close();
+    }
+}
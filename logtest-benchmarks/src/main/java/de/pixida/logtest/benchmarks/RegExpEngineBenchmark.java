@@ -0,0 +1,120 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.logreaders.ILogEntry;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpEngine;
+import de.pixida.logtest.regexp.RegExpPatterns;
+
+/**
+ * Compares the regular expression engines on the edge conditions of the tutorial automatons and on a pattern which backtracks
+ * catastrophically. For the tutorial, one operation is one entry matched against all expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class RegExpEngineBenchmark
+{
+    private static final String BACKTRACKING_PATTERN = "^(a+)+b";
+    private static final int BACKTRACKING_PAYLOAD_LENGTH = 22;
+
+    @Param({"JAVA", "LINEAR"})
+    private RegExpEngine engine;
+
+    private final List<IRegExpPattern> patterns = new ArrayList<>();
+    private final List<String> payloads = new ArrayList<>();
+    private IRegExpPattern backtrackingPattern;
+    private String backtrackingPayload;
+
+    public RegExpEngineBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        this.patterns.clear();
+        for (final String automatonName : Fixtures.TUTORIAL_AUTOMATONS)
+        {
+            for (final IEdgeDefinition edge : Fixtures.getTutorialAutomaton(automatonName).getEdges())
+            {
+                // Parameterized expressions cannot be compiled without a parameter map
+                if (edge.getRegExp() != null && !edge.getRegExp().contains("${"))
+                {
+                    this.patterns.add(RegExpPatterns.compile(edge.getRegExp(), this.engine));
+                }
+            }
+        }
+        this.payloads.clear();
+        for (final ILogEntry entry : Fixtures.readEntries(Fixtures.getTutorialLog()))
+        {
+            this.payloads.add(entry.getPayload());
+        }
+        if (this.payloads.size() != Fixtures.NUM_TUTORIAL_LOG_ENTRIES)
+        {
+            throw new IllegalStateException("Unexpected number of tutorial log entries: " + this.payloads.size());
+        }
+        if (this.matchTutorialAutomatons() == 0)
+        {
+            throw new IllegalStateException("Nothing matched; the benchmark does not measure anything useful");
+        }
+
+        this.backtrackingPattern = RegExpPatterns.compile(BACKTRACKING_PATTERN, this.engine);
+        this.backtrackingPayload = StringUtils.repeat('a', BACKTRACKING_PAYLOAD_LENGTH) + "c";
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixtures.NUM_TUTORIAL_LOG_ENTRIES)
+    public int matchTutorialAutomatons()
+    {
+        int matches = 0;
+        for (final String payload : this.payloads)
+        {
+            for (final IRegExpPattern pattern : this.patterns)
+            {
+                if (pattern.matcher(payload).find())
+                {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean matchBacktrackingPattern()
+    {
+        return this.backtrackingPattern.matcher(this.backtrackingPayload).find();
+    }
+}
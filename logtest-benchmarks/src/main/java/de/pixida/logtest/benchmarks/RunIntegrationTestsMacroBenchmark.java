@@ -0,0 +1,228 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
+
+import de.pixida.logtest.buildserver.RunIntegrationTests;
+
+/**
+ * Drives {@link RunIntegrationTests} end to end - command line parsing, job execution and reporting - on a generated corpus and prints
+ * wall time, entries per second and peak heap usage of each run. Runs are started via {@link RunIntegrationTests#run}, which does the same
+ * as its main method without exiting the JVM.
+ */
+public abstract class RunIntegrationTestsMacroBenchmark
+{
+    private static final String SEED_SWITCH = "seed";
+    private static final String NUM_LOGS_SWITCH = "logs";
+    private static final String NUM_ENTRIES_SWITCH = "entries";
+    private static final String CHANNELS_SWITCH = "channels";
+    private static final String MULTILINE_RATIO_SWITCH = "multilineRatio";
+    private static final String TIMESTAMP_SPACING_SWITCH = "timestampSpacingMs";
+    private static final String INTERESTING_EVENT_RATIO_SWITCH = "interestingEventRatio";
+    private static final String SUITE_WIDTH_SWITCH = "suiteWidth";
+    private static final String RUNS_SWITCH = "runs";
+    private static final String DIRECTORY_SWITCH = "directory";
+    private static final String HELP_SWITCH = "help";
+
+    private static final String DEFAULT_NUM_LOGS = "4";
+    private static final String DEFAULT_RUNS = "3";
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    public static void main(final String[] args) throws IOException
+    {
+        final Options options = createOptions();
+        final CommandLine params;
+        try
+        {
+            params = new DefaultParser().parse(options, args);
+        }
+        catch (final ParseException e)
+        {
+            // CHECKSTYLE:OFF We intentionally print to STDERR here
+            System.err.println(e.getMessage());
+            // CHECKSTYLE:ON
+            printHelp(options);
+            return;
+        }
+        if (params.hasOption(HELP_SWITCH))
+        {
+            printHelp(options);
+            return;
+        }
+
+        final CorpusGenerator generator = createGenerator(params);
+        final int numLogs = Integer.parseInt(params.getOptionValue(NUM_LOGS_SWITCH, DEFAULT_NUM_LOGS));
+        final int numRuns = Integer.parseInt(params.getOptionValue(RUNS_SWITCH, DEFAULT_RUNS));
+        final boolean deleteDirectory = !params.hasOption(DIRECTORY_SWITCH);
+        final File directory = deleteDirectory ? Files.createTempDirectory("logtest-corpus").toFile()
+            : new File(params.getOptionValue(DIRECTORY_SWITCH));
+        try
+        {
+            final String[] runArgs = generateCorpus(generator, numLogs, directory);
+            final long numEntries = (long) numLogs * generator.getNumEntries();
+            print("Corpus: %d logs, %d entries, %d automatons in '%s'; %s", numLogs, numEntries, generator.getSuiteWidth(),
+                directory.getAbsolutePath(), generator);
+            for (int run = 1; run <= numRuns; run++)
+            {
+                runOnce(run, runArgs, numEntries);
+            }
+        }
+        finally
+        {
+            if (deleteDirectory)
+            {
+                FileUtils.deleteQuietly(directory);
+            }
+        }
+    }
+
+    private static String[] generateCorpus(final CorpusGenerator generator, final int numLogs, final File directory) throws IOException
+    {
+        final File logDirectory = new File(directory, "logs");
+        final File automatonDirectory = new File(directory, "automatons");
+        FileUtils.forceMkdir(logDirectory);
+        FileUtils.forceMkdir(automatonDirectory);
+        final List<String> automatons = generator.writeAutomatons(automatonDirectory);
+
+        final List<String> result = new ArrayList<>(Arrays.asList("-t", logDirectory.getAbsolutePath(), "-a",
+            automatonDirectory.getAbsolutePath(), "-lrcfg", generator.getLogReaderConfiguration().toString()));
+        for (int i = 0; i < numLogs; i++)
+        {
+            final String logFileName = "log-" + i + ".txt";
+            generator.writeLog(new File(logDirectory, logFileName), i);
+            for (final String automaton : automatons)
+            {
+                result.add(logFileName + ":" + automaton);
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    private static void runOnce(final int run, final String[] runArgs, final long numEntries)
+    {
+        System.gc();
+        final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if (pool.getType() == MemoryType.HEAP)
+            {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        final long start = System.nanoTime();
+        final boolean success = RunIntegrationTests.run(new RunIntegrationTests(), runArgs) == 0;
+        final long wallTimeNanos = System.nanoTime() - start;
+
+        // The sum of the peaks of the pools is an upper bound, as the pools do not necessarily peak at the same time
+        final long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        final double wallTimeSeconds = (double) wallTimeNanos / TimeUnit.SECONDS.toNanos(1);
+        print("Run %d: wall time %.3f s, %.0f entries/s, peak heap %d MB%s", run, wallTimeSeconds, numEntries / wallTimeSeconds,
+            peakHeapBytes / BYTES_PER_MB, success ? "" : ", FAILED");
+    }
+
+    private static CorpusGenerator createGenerator(final CommandLine params)
+    {
+        final CorpusGenerator generator = new CorpusGenerator(Long.parseLong(params.getOptionValue(SEED_SWITCH, "0")));
+        if (params.hasOption(NUM_ENTRIES_SWITCH))
+        {
+            generator.setNumEntries(Integer.parseInt(params.getOptionValue(NUM_ENTRIES_SWITCH)));
+        }
+        if (params.hasOption(CHANNELS_SWITCH))
+        {
+            final List<String> channels = new ArrayList<>();
+            for (final String channel : params.getOptionValue(CHANNELS_SWITCH).split(",", -1))
+            {
+                channels.add(channel.isEmpty() ? null : channel);
+            }
+            generator.setChannels(channels);
+        }
+        if (params.hasOption(MULTILINE_RATIO_SWITCH))
+        {
+            generator.setMultilineRatio(Double.parseDouble(params.getOptionValue(MULTILINE_RATIO_SWITCH)));
+        }
+        if (params.hasOption(TIMESTAMP_SPACING_SWITCH))
+        {
+            final String[] range = params.getOptionValue(TIMESTAMP_SPACING_SWITCH).split("-", 1 + 1);
+            generator.setTimestampSpacingMs(Long.parseLong(range[0]), Long.parseLong(range[range.length - 1]));
+        }
+        if (params.hasOption(INTERESTING_EVENT_RATIO_SWITCH))
+        {
+            generator.setInterestingEventRatio(Double.parseDouble(params.getOptionValue(INTERESTING_EVENT_RATIO_SWITCH)));
+        }
+        if (params.hasOption(SUITE_WIDTH_SWITCH))
+        {
+            generator.setSuiteWidth(Integer.parseInt(params.getOptionValue(SUITE_WIDTH_SWITCH)));
+        }
+        return generator;
+    }
+
+    private static Options createOptions()
+    {
+        final Options options = new Options();
+        options.addOption(Option.builder().longOpt(SEED_SWITCH).desc("Seed of the generator (default: 0)").hasArg().argName("long")
+            .build());
+        options.addOption(Option.builder().longOpt(NUM_LOGS_SWITCH).desc("Number of logs (default: " + DEFAULT_NUM_LOGS + ")").hasArg()
+            .argName("n").build());
+        options.addOption(Option.builder().longOpt(NUM_ENTRIES_SWITCH).desc("Entries per log").hasArg().argName("n").build());
+        options.addOption(Option.builder().longOpt(CHANNELS_SWITCH)
+            .desc("Channel mix, comma separated; repeat a channel to weight it, leave empty for the default channel").hasArg()
+            .argName("channels").build());
+        options.addOption(Option.builder().longOpt(MULTILINE_RATIO_SWITCH).desc("Ratio of multiline entries").hasArg().argName("ratio")
+            .build());
+        options.addOption(Option.builder().longOpt(TIMESTAMP_SPACING_SWITCH).desc("Spacing of consecutive timestamps").hasArg()
+            .argName("min-max").build());
+        options.addOption(Option.builder().longOpt(INTERESTING_EVENT_RATIO_SWITCH).desc("Ratio of events checked by the automatons")
+            .hasArg().argName("ratio").build());
+        options.addOption(Option.builder().longOpt(SUITE_WIDTH_SWITCH).desc("Number of automatons run on each log").hasArg()
+            .argName("n").build());
+        options.addOption(Option.builder().longOpt(RUNS_SWITCH).desc("Number of runs (default: " + DEFAULT_RUNS + ")").hasArg()
+            .argName("n").build());
+        options.addOption(Option.builder().longOpt(DIRECTORY_SWITCH)
+            .desc("Keep the corpus in this directory (default: temporary directory which is deleted afterwards)").hasArg()
+            .argName("folder").build());
+        options.addOption(Option.builder().longOpt(HELP_SWITCH).desc("Show (this) help only").build());
+        return options;
+    }
+
+    private static void printHelp(final Options options)
+    {
+        final HelpFormatter formatter = new HelpFormatter();
+        final int assumedConsoleWidth = 150;
+        formatter.setWidth(assumedConsoleWidth);
+        formatter.printHelp("java -cp logtest-benchmarks.jar " + RunIntegrationTestsMacroBenchmark.class.getName() + " [OPTIONS]...",
+            options);
+    }
+
+    private static void print(final String format, final Object... args)
+    {
+        // CHECKSTYLE:OFF Results are meant for the console
+        System.out.println(String.format(Locale.US, format, args));
+        // CHECKSTYLE:ON
+    }
+}
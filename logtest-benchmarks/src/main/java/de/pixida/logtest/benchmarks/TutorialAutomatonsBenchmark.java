@@ -0,0 +1,82 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.pixida.logtest.automatondefinitions.JsonAutomatonDefinition;
+import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.logreaders.ILogEntry;
+
+/**
+ * Runs the automatons of the tutorial against the tutorial log, including the creation of the automaton and its scripting engine, like a
+ * job would. One operation is one entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = Fixtures.WARMUP_ITERATIONS)
+@Measurement(iterations = Fixtures.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = Fixtures.LOG_CONFIGURATION)
+public class TutorialAutomatonsBenchmark
+{
+    @Param({"fridge-starts-up-correctly", "fridge-runs-steadily", "fridge-runs-steadily-fixed", "light-goes-off-when-door-is-closed",
+        "temperature-decreases-when-door-is-closed"})
+    private String automatonName;
+
+    private JsonAutomatonDefinition definition;
+    private List<ILogEntry> entries;
+
+    public TutorialAutomatonsBenchmark()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Setup
+    public void setUp()
+    {
+        this.definition = Fixtures.getTutorialAutomaton(this.automatonName);
+        this.entries = Fixtures.readEntries(Fixtures.getTutorialLog());
+        if (this.entries.size() != Fixtures.NUM_TUTORIAL_LOG_ENTRIES)
+        {
+            throw new IllegalStateException("Unexpected number of tutorial log entries: " + this.entries.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Fixtures.NUM_TUTORIAL_LOG_ENTRIES)
+    public boolean runAutomaton()
+    {
+        final Automaton automaton = new Automaton(this.definition, Collections.emptyMap());
+        for (final ILogEntry entry : this.entries)
+        {
+            automaton.proceedWithLogEntry(entry);
+            if (!automaton.canProceed())
+            {
+                return automaton.succeeded();
+            }
+        }
+        automaton.pushEof();
+        return automaton.succeeded();
+    }
+}
@@ -0,0 +1,216 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.buildserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executions listed in a JSON file instead of on the command line, for suites which exceed the limits of the command line. Example:
+ *
+ * <pre>
+ * {
+ *   "parameterSets": { "slow-device": { "timeoutMs": "30000" } },
+ *   "executions": [
+ *     { "logs": "nightly/*.txt", "automatons": ["startup-*.json", "no-bluescreen.json"],
+ *       "parameterSets": ["slow-device"], "parameters": { "retries": "3" } }
+ *   ]
+ * }
+ * </pre>
+ *
+ * Logs and automatons are single patterns or lists of patterns, relative to the trace log and automaton directories, in the glob syntax of
+ * {@link java.nio.file.FileSystem#getPathMatcher(String)}. Every matching automaton is applied to every matching log. Parameters are taken
+ * from the default parameters, the parameter sets in the given order and the parameters of the entry; later ones override earlier ones. A
+ * glob pattern which matches no file is an error, as it is most probably a typo which would silently reduce the test coverage.
+ */
+class ExecutionManifest
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionManifest.class);
+
+    private static final String PARAMETER_SETS_KEY = "parameterSets";
+    private static final String EXECUTIONS_KEY = "executions";
+    private static final String LOGS_KEY = "logs";
+    private static final String AUTOMATONS_KEY = "automatons";
+    private static final String PARAMETERS_KEY = "parameters";
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final File manifestFile;
+
+    ExecutionManifest(final File aManifestFile)
+    {
+        Validate.notNull(aManifestFile);
+        this.manifestFile = aManifestFile;
+    }
+
+    /** Expand the manifest and add its executions to the given executions, grouped by log file */
+    void addExecutions(final File logFolder, final File automatonsFolder, final Map<String, String> defaultParameters,
+        final Map<File, List<Pair<File, Map<String, String>>>> executions) throws ParseException
+    {
+        final JSONObject root;
+        try
+        {
+            root = new JSONObject(FileUtils.readFileToString(this.manifestFile, StandardCharsets.UTF_8));
+        }
+        catch (final IOException ioe)
+        {
+            throw new ParseException("Failed to read manifest file '" + this.manifestFile.getAbsolutePath() + "': " + ioe.getMessage());
+        }
+        catch (final JSONException jsonEx)
+        {
+            throw new ParseException("Failed to parse manifest file '" + this.manifestFile.getAbsolutePath() + "': " + jsonEx.getMessage());
+        }
+
+        try
+        {
+            final JSONObject parameterSets = root.optJSONObject(PARAMETER_SETS_KEY);
+            final JSONArray entries = root.getJSONArray(EXECUTIONS_KEY);
+            int numExecutions = 0;
+            for (int i = 0; i < entries.length(); i++)
+            {
+                final JSONObject entry = entries.getJSONObject(i);
+                final Map<String, String> parameters = this.collectParameters(entry, parameterSets, defaultParameters);
+                final Set<File> automatons = this.expand(automatonsFolder, this.getPatterns(entry, AUTOMATONS_KEY));
+                for (final File log : this.expand(logFolder, this.getPatterns(entry, LOGS_KEY)))
+                {
+                    final List<Pair<File, Map<String, String>>> sinks = executions.computeIfAbsent(log, key -> new ArrayList<>());
+                    for (final File automaton : automatons)
+                    {
+                        sinks.add(Pair.of(automaton, parameters));
+                        numExecutions++;
+                    }
+                }
+            }
+            LOG.debug("Manifest file '{}' expanded into '{}' executions", this.manifestFile.getAbsolutePath(), numExecutions);
+        }
+        catch (final JSONException jsonEx)
+        {
+            throw new ParseException("Invalid manifest file '" + this.manifestFile.getAbsolutePath() + "': " + jsonEx.getMessage());
+        }
+    }
+
+    private Map<String, String> collectParameters(final JSONObject entry, final JSONObject parameterSets,
+        final Map<String, String> defaultParameters) throws ParseException
+    {
+        final Map<String, String> result = new HashMap<>(defaultParameters);
+        for (final String setName : this.getStrings(entry, PARAMETER_SETS_KEY))
+        {
+            final JSONObject parameterSet = parameterSets == null ? null : parameterSets.optJSONObject(setName);
+            if (parameterSet == null)
+            {
+                throw new ParseException("Parameter set '" + setName + "' referenced by manifest file '"
+                    + this.manifestFile.getAbsolutePath() + "' is not defined");
+            }
+            this.putAll(parameterSet, result);
+        }
+        final JSONObject parameters = entry.optJSONObject(PARAMETERS_KEY);
+        if (parameters != null)
+        {
+            this.putAll(parameters, result);
+        }
+        return result;
+    }
+
+    private void putAll(final JSONObject parameters, final Map<String, String> result)
+    {
+        for (final String key : parameters.keySet())
+        {
+            result.put(key, String.valueOf(parameters.get(key)));
+        }
+    }
+
+    private List<String> getPatterns(final JSONObject entry, final String key) throws ParseException
+    {
+        final List<String> result = this.getStrings(entry, key);
+        if (result.isEmpty())
+        {
+            throw new ParseException("Execution entry of manifest file '" + this.manifestFile.getAbsolutePath() + "' has no " + key);
+        }
+        return result;
+    }
+
+    private List<String> getStrings(final JSONObject entry, final String key)
+    {
+        final Object value = entry.opt(key);
+        if (value == null)
+        {
+            return Collections.emptyList();
+        }
+        if (value instanceof JSONArray)
+        {
+            final JSONArray array = (JSONArray) value;
+            final List<String> result = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++)
+            {
+                result.add(array.getString(i));
+            }
+            return result;
+        }
+        return Collections.singletonList(entry.getString(key));
+    }
+
+    /** @return Files matched by the patterns in order of the patterns; relative paths are normalized, such that each file occurs once */
+    private Set<File> expand(final File folder, final List<String> patterns) throws ParseException
+    {
+        final Set<File> result = new LinkedHashSet<>();
+        final Path base = folder.toPath();
+        for (final String pattern : patterns)
+        {
+            if (!StringUtils.containsAny(pattern, GLOB_CHARACTERS))
+            {
+                // Like on the command line; a missing file is reported when it is opened
+                result.add(new File(folder, Paths.get(pattern).normalize().toString()));
+                continue;
+            }
+
+            final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            final List<File> matches;
+            try (Stream<Path> files = Files.walk(base))
+            {
+                matches = files.filter(file -> Files.isRegularFile(file) && matcher.matches(base.relativize(file)))
+                    .map(file -> new File(folder, base.relativize(file).normalize().toString())).sorted().collect(Collectors.toList());
+            }
+            catch (final IOException ioe)
+            {
+                throw new ParseException("Failed to list files of '" + folder.getAbsolutePath() + "': " + ioe.getMessage());
+            }
+            if (matches.isEmpty())
+            {
+                throw new ParseException("Pattern '" + pattern + "' of manifest file '" + this.manifestFile.getAbsolutePath()
+                    + "' matches no file in '" + folder.getAbsolutePath() + "'");
+            }
+            result.addAll(matches);
+        }
+        return result;
+    }
+}
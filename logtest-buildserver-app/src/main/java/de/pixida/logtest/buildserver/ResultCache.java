@@ -0,0 +1,196 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.buildserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.AutomatonDefinitionCache;
+import de.pixida.logtest.automatondefinitions.AutomatonLoadingException;
+import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.engine.InvalidAutomatonDefinitionException;
+import de.pixida.logtest.processing.EvaluationResult;
+
+/**
+ * Stores the results of executions in a directory, one JSON file per execution. The file name is a SHA-256 hash of everything that
+ * determines the result: The contents of the log file, of the automaton file and of the files referenced by the automaton (e.g. sets of
+ * values), the effective parameters and the log reader configuration. Automatons are assumed to be deterministic, i.e. they must not
+ * depend on e.g. the current time or random numbers. Errors are not cached, as they are usually caused by the environment or by defects
+ * which are going to be fixed.
+ */
+class ResultCache
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ResultCache.class);
+    private static final String KEY_VERSION = "2"; // Increase if the semantics of stored results change
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEX_DIGITS_PER_BYTE = 2;
+    private static final String FILE_EXTENSION = ".json";
+    private static final String RESULT_KEY = "result";
+    private static final String MESSAGE_KEY = "message";
+    private static final String TRANSITION_HISTORY_KEY = "transitionHistory";
+
+    private final File directory;
+    private final String logReaderConfiguration;
+    private final Map<File, String> fileHashes = new HashMap<>(); // Logs are usually checked by multiple automatons
+
+    ResultCache(final File aDirectory, final String aLogReaderConfiguration)
+    {
+        Validate.notNull(aDirectory);
+        Validate.notNull(aLogReaderConfiguration);
+        this.directory = aDirectory;
+        this.logReaderConfiguration = aLogReaderConfiguration;
+    }
+
+    /** @return The key of the execution, or null if a file cannot be read or is invalid (the execution will report the error) */
+    String computeKey(final File logFile, final File automatonFile, final Map<String, String> parameters)
+    {
+        try
+        {
+            final MessageDigest digest = createDigest();
+            update(digest, KEY_VERSION);
+            update(digest, this.getFileHash(logFile));
+            update(digest, this.getFileHash(automatonFile));
+            final List<File> referencedFiles = Automaton.getReferencedFiles(AutomatonDefinitionCache.getDefinition(automatonFile),
+                parameters);
+            update(digest, String.valueOf(referencedFiles.size()));
+            for (final File referencedFile : referencedFiles)
+            {
+                update(digest, this.getFileHash(referencedFile));
+            }
+            for (final Map.Entry<String, String> parameter : new TreeMap<>(parameters).entrySet())
+            {
+                update(digest, parameter.getKey());
+                update(digest, parameter.getValue());
+            }
+            update(digest, this.logReaderConfiguration);
+            return toHex(digest.digest());
+        }
+        catch (final IOException | AutomatonLoadingException | InvalidAutomatonDefinitionException e)
+        {
+            LOG.debug("Cannot compute result cache key for log '{}' and automaton '{}'", logFile, automatonFile, e);
+            return null;
+        }
+    }
+
+    /** @return The cached result, or null if there is none */
+    EvaluationResult get(final String key)
+    {
+        final File file = this.getFile(key);
+        if (!file.isFile())
+        {
+            return null;
+        }
+        try
+        {
+            final JSONObject json = new JSONObject(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+            return new EvaluationResult(EvaluationResult.Result.valueOf(json.getString(RESULT_KEY)), json.optString(MESSAGE_KEY, null),
+                json.optString(TRANSITION_HISTORY_KEY, null), true);
+        }
+        catch (final IOException | JSONException | IllegalArgumentException e)
+        {
+            LOG.warn("Ignoring invalid result cache entry '{}'", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    void put(final String key, final EvaluationResult result)
+    {
+        if (!result.isSuccess() && !result.isFailure())
+        {
+            return;
+        }
+        final JSONObject json = new JSONObject();
+        json.put(RESULT_KEY, result.getResult().toString());
+        json.putOpt(MESSAGE_KEY, result.getMessage());
+        json.putOpt(TRANSITION_HISTORY_KEY, result.getTransitionHistory());
+        try
+        {
+            // Write atomically, such that concurrent builds sharing the cache never read partial entries
+            Files.createDirectories(this.directory.toPath());
+            final File tempFile = File.createTempFile(key, ".tmp", this.directory);
+            FileUtils.write(tempFile, json.toString(), StandardCharsets.UTF_8);
+            Files.move(tempFile.toPath(), this.getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException ioe)
+        {
+            LOG.warn("Failed to store result in cache '{}'", this.directory.getAbsolutePath(), ioe);
+        }
+    }
+
+    private File getFile(final String key)
+    {
+        return new File(this.directory, key + FILE_EXTENSION);
+    }
+
+    private String getFileHash(final File file) throws IOException
+    {
+        final File canonicalFile = file.getCanonicalFile();
+        String hash = this.fileHashes.get(canonicalFile);
+        if (hash == null)
+        {
+            final MessageDigest digest = createDigest();
+            try (InputStream in = Files.newInputStream(canonicalFile.toPath()))
+            {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            hash = toHex(digest.digest());
+            this.fileHashes.put(canonicalFile, hash);
+        }
+        return hash;
+    }
+
+    private static void update(final MessageDigest digest, final String value)
+    {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.UTF_8)); // Length prefix keeps the fields apart
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("Every JVM must support " + HASH_ALGORITHM, e);
+        }
+    }
+
+    private static String toHex(final byte[] hash)
+    {
+        return String.format("%0" + hash.length * HEX_DIGITS_PER_BYTE + "x", new BigInteger(1, hash));
+    }
+}
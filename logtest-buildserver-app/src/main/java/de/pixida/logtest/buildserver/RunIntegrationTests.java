@@ -9,9 +9,12 @@ package de.pixida.logtest.buildserver;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -23,20 +26,23 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.time.StopWatch;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Level;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import de.pixida.logtest.automatondefinitions.JsonAutomatonDefinition;
-import de.pixida.logtest.logreaders.GenericLogReader;
+import de.pixida.logtest.automatondefinitions.AutomatonDefinitionCache;
+import de.pixida.logtest.engine.AutomatonMetrics;
 import de.pixida.logtest.logreaders.ILogReader;
+import de.pixida.logtest.logreaders.LogReaders;
 import de.pixida.logtest.processing.EvaluationResult;
 import de.pixida.logtest.processing.Job;
+import de.pixida.logtest.processing.JobBudget;
 import de.pixida.logtest.processing.JobExecutor;
 import de.pixida.logtest.processing.LogSink;
 import de.pixida.logtest.reporting.ConsoleSummaryReportGenerator;
@@ -49,9 +55,16 @@ public class RunIntegrationTests
     private static final String TRACE_LOG_DIRECTORY_SWITCH = "traceLogDirectory";
     private static final String VERBOSITY_SWITCH = "verbose";
     private static final String REPORT_SWITCH = "reportFile";
+    private static final String METRICS_SWITCH = "metricsFile";
     private static final String LOG_READER_CONFIG_SWITCH = "logReaderConfig";
     private static final String LOG_READER_CONFIG_FILE_SWITCH = "logReaderConfigFile";
     private static final String DEFAULT_PARAMETER_FILE_SWITCH = "defaultParameterFile";
+    private static final String MANIFEST_FILE_SWITCH = "manifestFile";
+    private static final String RESULT_CACHE_SWITCH = "resultCache";
+    private static final String FAIL_FAST_SWITCH = "failFast";
+    private static final String MAX_ENTRIES_PER_JOB_SWITCH = "maxEntriesPerJob";
+    private static final String MAX_BYTES_PER_JOB_SWITCH = "maxBytesPerJob";
+    private static final String MAX_TIME_PER_JOB_SWITCH = "maxTimePerJobMs";
     private static final String HELP_SWITCH = "help";
 
     private static final Logger LOG = LoggerFactory.getLogger(RunIntegrationTests.class);
@@ -73,41 +86,78 @@ public class RunIntegrationTests
 
     private boolean verbose = false;
     private File jUnitReportTarget = null;
+    private File metricsTarget = null;
+    private File resultCacheDirectory = null;
+    private boolean failFast = false;
+    private JobBudget jobBudget = null;
     private Map<File, List<Pair<File, Map<String, String>>>> configuredExecutions;
     private List<List<EvaluationResult>> results;
     private List<Job> jobs;
-    private final StopWatch stopWatch = new StopWatch();
+    private ReportsGenerator reportsGenerator;
     private List<Long> jobExecutionTimesMs;
+    private List<List<AutomatonMetrics>> metrics;
     private JSONObject logReaderConfigFromCommandLine;
     private JSONObject logReaderConfigFromFile;
     private final Map<String, String> defaultParameters = new HashMap<>();
+    private final File workingDirectory;
+    private final PrintWriter console;
 
     public RunIntegrationTests()
     {
-        // Empty constructor needed by checkstyle
+        this(null, null);
+    }
+
+    /**
+     * @param aWorkingDirectory
+     *            Directory to resolve relative paths of the command line against, or null for the current directory
+     * @param aConsole
+     *            Receives the results summary, usage and command line errors, or null to use the log and the standard streams
+     */
+    RunIntegrationTests(final File aWorkingDirectory, final PrintWriter aConsole)
+    {
+        this.workingDirectory = aWorkingDirectory;
+        this.console = aConsole;
     }
 
     public static void main(final String[] args)
+    {
+        final int exitCode = run(new RunIntegrationTests(), args);
+        if (exitCode != 0)
+        {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Does the same as {@link #main(String[])}, but returns the exit code instead of exiting the JVM.
+     *
+     * @param runner
+     *            Runner to parse the command line with and to run the jobs with
+     * @param args
+     *            Command line
+     * @return The exit code
+     */
+    public static int run(final RunIntegrationTests runner, final String[] args)
     {
         try
         {
-            final RunIntegrationTests runner = new RunIntegrationTests();
             final boolean run = runner.parseCommandLine(args);
             if (run)
             {
                 runner.createAndRunJobs();
                 runner.printResults();
             }
+            return 0;
         }
         catch (final ExitWithFailureException ee)
         {
             LOG.debug("Finished with exit code: " + ee.getExitCode());
-            System.exit(ee.getExitCode());
+            return ee.getExitCode();
         }
         catch (final Exception re)
         {
             LOG.debug("Abording with errors", re);
-            System.exit(1); // Exit with error
+            return 1; // Exit with error
         }
     }
 
@@ -120,7 +170,7 @@ public class RunIntegrationTests
             final CommandLine params = parser.parse(options, args);
             if (params.hasOption(HELP_SWITCH))
             {
-                printHelp(options);
+                this.printHelp(options);
                 return false;
             }
 
@@ -133,9 +183,24 @@ public class RunIntegrationTests
             final String param = params.getOptionValue(REPORT_SWITCH);
             if (param != null)
             {
-                this.jUnitReportTarget = new File(param);
+                this.jUnitReportTarget = this.resolveFile(param);
             }
 
+            final String metricsParam = params.getOptionValue(METRICS_SWITCH);
+            if (metricsParam != null)
+            {
+                this.metricsTarget = this.resolveFile(metricsParam);
+            }
+
+            final String resultCacheParam = params.getOptionValue(RESULT_CACHE_SWITCH);
+            if (resultCacheParam != null)
+            {
+                this.resultCacheDirectory = this.resolveFile(resultCacheParam);
+            }
+
+            this.failFast = params.hasOption(FAIL_FAST_SWITCH);
+            this.loadJobBudget(params);
+
             try
             {
                 if (params.hasOption(LOG_READER_CONFIG_SWITCH))
@@ -153,7 +218,7 @@ public class RunIntegrationTests
             {
                 if (params.hasOption(LOG_READER_CONFIG_FILE_SWITCH))
                 {
-                    logReaderConfigurationFile = new File(params.getOptionValue(LOG_READER_CONFIG_FILE_SWITCH));
+                    logReaderConfigurationFile = this.resolveFile(params.getOptionValue(LOG_READER_CONFIG_FILE_SWITCH));
                     this.logReaderConfigFromFile = new JSONObject(
                         IOUtils.toString(logReaderConfigurationFile.toURI(), StandardCharsets.UTF_8));
                     LOG.debug("Using log reader configuration file '{}'", logReaderConfigurationFile.getCanonicalPath());
@@ -175,11 +240,19 @@ public class RunIntegrationTests
         }
         catch (final ParseException e)
         {
-            // CHECKSTYLE:OFF We intentionally print to STDERR here
-            System.err.println(e.getMessage());
-            System.err.println();
-            printHelp(options);
-            // CHECKSTYLE:ON
+            if (this.console != null)
+            {
+                this.console.println(e.getMessage());
+                this.console.println();
+            }
+            else
+            {
+                // CHECKSTYLE:OFF We intentionally print to STDERR here
+                System.err.println(e.getMessage());
+                System.err.println();
+                // CHECKSTYLE:ON
+            }
+            this.printHelp(options);
 
             // Abort with failure - build server job must not succeed if the calling convention is erroneous
             throw new ExitWithFailureException();
@@ -195,37 +268,225 @@ public class RunIntegrationTests
 
     void createAndRunJobs()
     {
-        this.jobs = this.createJobs(this.configuredExecutions);
+        // Executions with a cached result are reported first and are not run again
+        final Map<File, List<Pair<File, Map<String, String>>>> cachedExecutions = new LinkedHashMap<>();
+        final List<List<EvaluationResult>> cachedResults = new ArrayList<>();
+        Map<File, List<Pair<File, Map<String, String>>>> executionsToRun = this.configuredExecutions;
+        final List<List<String>> cacheKeysOfExecutionsToRun = new ArrayList<>();
+        final ResultCache resultCache = this.createResultCache();
+        if (resultCache != null)
+        {
+            executionsToRun = new LinkedHashMap<>();
+            this.lookUpCachedResults(resultCache, cachedExecutions, cachedResults, executionsToRun, cacheKeysOfExecutionsToRun);
+        }
+        final List<Job> cachedJobs = this.createJobs(cachedExecutions);
+        final List<Job> jobsToRun = this.createJobs(executionsToRun);
         LOG.info("Starting integration tests");
-        this.stopWatch.start();
-        final JobExecutor executor = new JobExecutor(this.jobs);
-        this.results = executor.getResults();
-        this.jobExecutionTimesMs = executor.getJobExecutionTimesMs();
-        this.stopWatch.stop();
+
+        // Results are reported as soon as each job is finished, such that long runs show progress
+        this.reportsGenerator = new ReportsGenerator();
+        this.reportsGenerator.addReportGenerator(
+            this.console == null ? new ConsoleSummaryReportGenerator() : new ConsoleSummaryReportGenerator(this.console));
+        if (this.jUnitReportTarget != null)
+        {
+            final XUnitReportGenerator xUnitReportGenerator = new XUnitReportGenerator(this.jUnitReportTarget);
+            if (resultCache != null)
+            {
+                xUnitReportGenerator.addProperty("logtest.resultCache.hits", String.valueOf(countExecutions(cachedExecutions)));
+                xUnitReportGenerator.addProperty("logtest.resultCache.misses", String.valueOf(countExecutions(executionsToRun)));
+            }
+            this.reportsGenerator.addReportGenerator(xUnitReportGenerator);
+        }
+        this.reportsGenerator.start();
+        for (int i = 0; i < cachedJobs.size(); i++)
+        {
+            final Job cachedJob = cachedJobs.get(i);
+            for (int j = 0; j < cachedJob.getSinks().size(); j++)
+            {
+                this.reportsGenerator.executionFinished(cachedJob, cachedJob.getSinks().get(j), cachedResults.get(i).get(j), 0L);
+            }
+        }
+        final JobExecutor executor = new JobExecutor(jobsToRun, this.metricsTarget != null, this.reportsGenerator, this.failFast,
+            this.jobBudget);
+        if (resultCache != null)
+        {
+            for (int i = 0; i < jobsToRun.size(); i++)
+            {
+                for (int j = 0; j < jobsToRun.get(i).getSinks().size(); j++)
+                {
+                    final String key = cacheKeysOfExecutionsToRun.get(i).get(j);
+                    if (key != null)
+                    {
+                        resultCache.put(key, executor.getResults().get(i).get(j));
+                    }
+                }
+            }
+        }
+
+        this.jobs = new ArrayList<>(cachedJobs);
+        this.jobs.addAll(jobsToRun);
+        this.results = new ArrayList<>(cachedResults);
+        this.results.addAll(executor.getResults());
+        this.jobExecutionTimesMs = new ArrayList<>(Collections.nCopies(cachedJobs.size(), 0L));
+        this.jobExecutionTimesMs.addAll(executor.getJobExecutionTimesMs());
+        this.metrics = new ArrayList<>();
+        for (final Job job : cachedJobs)
+        {
+            this.metrics.add(new ArrayList<>(Collections.nCopies(job.getSinks().size(), null)));
+        }
+        this.metrics.addAll(executor.getMetrics());
         LOG.info("Integration tests finished");
     }
 
+    private ResultCache createResultCache()
+    {
+        if (this.resultCacheDirectory == null)
+        {
+            return null;
+        }
+        LOG.debug("Using result cache directory: {}", this.resultCacheDirectory.getAbsolutePath());
+        // Both configurations are applied to each log reader in this order, so their concatenation identifies the effective one
+        return new ResultCache(this.resultCacheDirectory, String.valueOf(this.logReaderConfigFromFile) + "\n"
+            + String.valueOf(this.logReaderConfigFromCommandLine));
+    }
+
+    private void lookUpCachedResults(final ResultCache resultCache,
+        final Map<File, List<Pair<File, Map<String, String>>>> cachedExecutions, final List<List<EvaluationResult>> cachedResults,
+        final Map<File, List<Pair<File, Map<String, String>>>> executionsToRun, final List<List<String>> cacheKeysOfExecutionsToRun)
+    {
+        for (final Entry<File, List<Pair<File, Map<String, String>>>> entry : this.configuredExecutions.entrySet())
+        {
+            final List<Pair<File, Map<String, String>>> hits = new ArrayList<>();
+            final List<EvaluationResult> hitResults = new ArrayList<>();
+            final List<Pair<File, Map<String, String>>> misses = new ArrayList<>();
+            final List<String> missKeys = new ArrayList<>();
+            for (final Pair<File, Map<String, String>> execution : entry.getValue())
+            {
+                final String key = resultCache.computeKey(entry.getKey(), execution.getLeft(), execution.getRight());
+                final EvaluationResult cachedResult = key == null ? null : resultCache.get(key);
+                if (cachedResult != null)
+                {
+                    hits.add(execution);
+                    hitResults.add(cachedResult);
+                }
+                else
+                {
+                    misses.add(execution);
+                    missKeys.add(key);
+                }
+            }
+            if (!hits.isEmpty())
+            {
+                cachedExecutions.put(entry.getKey(), hits);
+                cachedResults.add(hitResults);
+            }
+            if (!misses.isEmpty())
+            {
+                executionsToRun.put(entry.getKey(), misses);
+                cacheKeysOfExecutionsToRun.add(missKeys);
+            }
+        }
+        LOG.info("Result cache: {} hit(s), {} miss(es)", countExecutions(cachedExecutions), countExecutions(executionsToRun));
+    }
+
+    private static int countExecutions(final Map<File, List<Pair<File, Map<String, String>>>> executions)
+    {
+        return executions.values().stream().mapToInt(List::size).sum();
+    }
+
     void printResults()
     {
-        final ReportsGenerator reportsGenerator = new ReportsGenerator();
-        reportsGenerator.setJobs(this.jobs);
-        reportsGenerator.setResults(this.results);
-        reportsGenerator.addReportGenerator(new ConsoleSummaryReportGenerator(this.stopWatch.getTime()));
-        reportsGenerator.setJobExecutionTimes(this.jobExecutionTimesMs);
-        if (this.jUnitReportTarget != null)
+        this.reportsGenerator.finish();
+        if (this.metricsTarget != null)
         {
-            reportsGenerator.addReportGenerator(new XUnitReportGenerator(this.jUnitReportTarget, this.stopWatch.getTime()));
+            this.writeMetrics();
         }
-        reportsGenerator.generateReports();
         final long numFailedExecutions = this.results.stream().mapToLong(result -> result.stream().filter(er -> !er.isSuccess()).count())
             .sum();
 
-        if (numFailedExecutions == 1)
+        if (numFailedExecutions > 0)
         {
             throw new ExitWithFailureException();
         }
     }
 
+    private void writeMetrics()
+    {
+        final JSONArray jobsJson = new JSONArray();
+        for (int i = 0; i < this.jobs.size(); i++)
+        {
+            final Job job = this.jobs.get(i);
+            final JSONArray executionsJson = new JSONArray();
+            for (int j = 0; j < job.getSinks().size(); j++)
+            {
+                final LogSink sink = job.getSinks().get(j);
+                final JSONObject executionJson = new JSONObject();
+                executionJson.put("automaton", sink.getDisplayName());
+                executionJson.put("parameters", sink.getParameters());
+                executionJson.put("result", this.results.get(i).get(j).getResult().toString());
+                final AutomatonMetrics automatonMetrics = this.metrics.get(i).get(j);
+                if (automatonMetrics != null)
+                {
+                    executionJson.put("metrics", automatonMetrics.toJson());
+                }
+                executionsJson.put(executionJson);
+            }
+            final JSONObject jobJson = new JSONObject();
+            jobJson.put("log", job.getLogReader().getDisplayName());
+            jobJson.put("timeMs", this.jobExecutionTimesMs.get(i));
+            jobJson.put("executions", executionsJson);
+            jobsJson.put(jobJson);
+        }
+        final JSONObject root = new JSONObject();
+        root.put("jobs", jobsJson);
+        try
+        {
+            final int indentation = 2;
+            FileUtils.write(this.metricsTarget, root.toString(indentation), StandardCharsets.UTF_8);
+            LOG.debug("Metrics written to '{}'", this.metricsTarget.getAbsolutePath());
+        }
+        catch (final IOException ioe)
+        {
+            LOG.error("Failed to write metrics to '{}'", this.metricsTarget.getAbsolutePath(), ioe);
+        }
+    }
+
+    private void loadJobBudget(final CommandLine params) throws ParseException
+    {
+        final long maxEntries = parseLimit(params, MAX_ENTRIES_PER_JOB_SWITCH);
+        final long maxBytes = parseLimit(params, MAX_BYTES_PER_JOB_SWITCH);
+        final long maxTimeMs = parseLimit(params, MAX_TIME_PER_JOB_SWITCH);
+        if (maxEntries != JobBudget.UNLIMITED || maxBytes != JobBudget.UNLIMITED || maxTimeMs != JobBudget.UNLIMITED)
+        {
+            this.jobBudget = new JobBudget();
+            this.jobBudget.setMaxEntries(maxEntries);
+            this.jobBudget.setMaxBytes(maxBytes);
+            this.jobBudget.setMaxTimeMs(maxTimeMs);
+        }
+    }
+
+    private static long parseLimit(final CommandLine params, final String switchName) throws ParseException
+    {
+        if (!params.hasOption(switchName))
+        {
+            return JobBudget.UNLIMITED;
+        }
+        final String value = params.getOptionValue(switchName);
+        try
+        {
+            final long result = Long.parseLong(value);
+            if (result < 0L)
+            {
+                throw new ParseException("Value of '" + switchName + "' must not be negative: " + value);
+            }
+            return result;
+        }
+        catch (final NumberFormatException nfe)
+        {
+            throw new ParseException("Value of '" + switchName + "' must be a number: " + value);
+        }
+    }
+
     private void loadDefaultParameters(final CommandLine params) throws ParseException
     {
         File defaultParameterFile = null;
@@ -233,7 +494,7 @@ public class RunIntegrationTests
         {
             if (params.hasOption(DEFAULT_PARAMETER_FILE_SWITCH))
             {
-                defaultParameterFile = new File(params.getOptionValue(DEFAULT_PARAMETER_FILE_SWITCH));
+                defaultParameterFile = this.resolveFile(params.getOptionValue(DEFAULT_PARAMETER_FILE_SWITCH));
                 final JSONObject root = new JSONObject(IOUtils.toString(defaultParameterFile.toURI(), StandardCharsets.UTF_8));
                 for (final String k : root.keySet())
                 {
@@ -269,7 +530,7 @@ public class RunIntegrationTests
             for (final Pair<File, Map<String, String>> sinkDef : pair.getValue())
             {
                 final LogSink newSink = new LogSink();
-                newSink.setAutomaton(new JsonAutomatonDefinition(sinkDef.getLeft()));
+                newSink.setAutomaton(AutomatonDefinitionCache.getDefinition(sinkDef.getLeft()));
                 newSink.setParameters(sinkDef.getRight());
                 sinks.add(newSink);
             }
@@ -316,13 +577,19 @@ public class RunIntegrationTests
             .hasArg()
             .argName("file")
             .build();
+        final Option metricsFile = Option.builder("m")
+            .longOpt(METRICS_SWITCH)
+            .desc("Collect per automaton, node and edge metrics and write them to file (JSON)")
+            .hasArg()
+            .argName("file")
+            .build();
         final Option verbosity = Option.builder("v")
             .longOpt(VERBOSITY_SWITCH)
             .desc("Enable debug output")
             .build();
         final Option logReaderConfigSwitch = Option.builder("lrcfg")
             .longOpt(LOG_READER_CONFIG_SWITCH)
-            .desc("Log reader configuration (JSON)")
+            .desc("Log reader configuration (JSON). The setting 'logFormat' selects the reader: GENERIC (default) or JSON_LINES")
             .hasArg()
             .argName("json-object")
             .build();
@@ -338,6 +605,40 @@ public class RunIntegrationTests
             .hasArg()
             .argName("file")
             .build();
+        final Option manifestFileSwitch = Option.builder("mf")
+            .longOpt(MANIFEST_FILE_SWITCH)
+            .desc("Read (further) executions from a manifest file (JSON); logs and automatons may be given as glob patterns")
+            .hasArg()
+            .argName("file")
+            .build();
+        final Option resultCacheSwitch = Option.builder("rc")
+            .longOpt(RESULT_CACHE_SWITCH)
+            .desc("Take results of unchanged log/automaton/parameter combinations from the given folder and store new results there")
+            .hasArg()
+            .argName("folder")
+            .build();
+        final Option failFastSwitch = Option.builder("ff")
+            .longOpt(FAIL_FAST_SWITCH)
+            .desc("Stop as soon as an execution is known not to succeed; remaining executions are reported as aborted")
+            .build();
+        final Option maxEntriesPerJobSwitch = Option.builder("mxe")
+            .longOpt(MAX_ENTRIES_PER_JOB_SWITCH)
+            .desc("End each job after the given number of log entries; unfinished executions are reported as aborted")
+            .hasArg()
+            .argName("count")
+            .build();
+        final Option maxBytesPerJobSwitch = Option.builder("mxb")
+            .longOpt(MAX_BYTES_PER_JOB_SWITCH)
+            .desc("End each job after reading the given number of bytes of its log; unfinished executions are reported as aborted")
+            .hasArg()
+            .argName("bytes")
+            .build();
+        final Option maxTimePerJobSwitch = Option.builder("mxt")
+            .longOpt(MAX_TIME_PER_JOB_SWITCH)
+            .desc("End each job after the given time; unfinished executions are reported as aborted")
+            .hasArg()
+            .argName("ms")
+            .build();
         final Option helpSwitch = Option.builder("h")
             .longOpt(HELP_SWITCH)
             .desc("Show (this) help only")
@@ -347,7 +648,14 @@ public class RunIntegrationTests
         options.addOption(logReaderConfigSwitch);
         options.addOption(logReaderConfigFileSwitch);
         options.addOption(defaultParameterFileSwitch);
+        options.addOption(manifestFileSwitch);
         options.addOption(reportFile);
+        options.addOption(metricsFile);
+        options.addOption(resultCacheSwitch);
+        options.addOption(failFastSwitch);
+        options.addOption(maxEntriesPerJobSwitch);
+        options.addOption(maxBytesPerJobSwitch);
+        options.addOption(maxTimePerJobSwitch);
         options.addOption(verbosity);
         options.addOption(helpSwitch);
         return options;
@@ -355,32 +663,19 @@ public class RunIntegrationTests
 
     private ILogReader createAndConfigureLogReader(final File logFile)
     {
-        final GenericLogReader logReader = new GenericLogReader(logFile);
-
-        // Settings from configuration file
-        if (this.logReaderConfigFromFile != null)
-        {
-            logReader.overwriteCurrentSettingsWithSettingsInConfigurationFile(this.logReaderConfigFromFile);
-        }
-
-        // Settings from command line
-        if (this.logReaderConfigFromCommandLine != null)
-        {
-            logReader.overwriteCurrentSettingsWithSettingsInConfigurationFile(this.logReaderConfigFromCommandLine);
-        }
-
-        return logReader;
+        // Settings from configuration file, overwritten by settings from command line
+        return LogReaders.createLogReader(logFile, this.logReaderConfigFromFile, this.logReaderConfigFromCommandLine);
     }
 
     private Map<File, List<Pair<File, Map<String, String>>>> groupAutomatonsByTraceFile(final CommandLine params)
         throws ParseException
     {
-        final File logFolder = new File(commandLineParamOrCurrentDirectory(params, TRACE_LOG_DIRECTORY_SWITCH));
-        final File automatonsFolder = new File(commandLineParamOrCurrentDirectory(params, AUTOMATON_DIRECTORY_SWITCH));
+        final File logFolder = this.resolveFile(commandLineParamOrCurrentDirectory(params, TRACE_LOG_DIRECTORY_SWITCH));
+        final File automatonsFolder = this.resolveFile(commandLineParamOrCurrentDirectory(params, AUTOMATON_DIRECTORY_SWITCH));
         LOG.debug("Using log folder: {}", logFolder.getAbsolutePath());
         LOG.debug("Using automatons folder: {}", automatonsFolder.getAbsolutePath());
 
-        final Map<File, List<Pair<File, Map<String, String>>>> result = new HashMap<>();
+        final Map<File, List<Pair<File, Map<String, String>>>> result = new LinkedHashMap<>(); // Run jobs in the given order
         for (final String arg : params.getArgList())
         {
             final int numComponentsLogFileAndAutomaton = 2;
@@ -410,6 +705,11 @@ public class RunIntegrationTests
 
             automatons.add(Pair.of(new File(automatonsFolder, components[1]), parameters));
         }
+        if (params.hasOption(MANIFEST_FILE_SWITCH))
+        {
+            new ExecutionManifest(this.resolveFile(params.getOptionValue(MANIFEST_FILE_SWITCH))).addExecutions(logFolder,
+                automatonsFolder, this.defaultParameters, result);
+        }
         return result;
     }
 
@@ -446,20 +746,43 @@ public class RunIntegrationTests
         return result;
     }
 
-    private static void printHelp(final Options options)
+    private File resolveFile(final String path)
+    {
+        final File file = new File(path);
+        if (this.workingDirectory == null || file.isAbsolute())
+        {
+            return file;
+        }
+        return new File(this.workingDirectory, path);
+    }
+
+    private void printHelp(final Options options)
     {
         final HelpFormatter formatter = new HelpFormatter();
         final int assumedConsoleWidth = 150;
         formatter.setWidth(assumedConsoleWidth);
-        formatter.printHelp("java -jar logtest-buildserver-app.jar [OPTIONS]... [EXECUTIONS]...\n"
+        final String cmdLineSyntax = "java -jar logtest-buildserver-app.jar [OPTIONS]... [EXECUTIONS]...\n"
             + "An EXECUTION is a triple <scenario-filename>:<automaton-filename>[:<parameters, comma separated key=value pairs...>,<...>]"
             + " e.g. tracelog.txt:checkSystemStartupSucceeds.json:waitForNetIO=yes,timeout=30"
-            + "\n", // Separate help text from description of parameters with an empty line
-            options);
+            + "\n"; // Separate help text from description of parameters with an empty line
+        if (this.console == null)
+        {
+            formatter.printHelp(cmdLineSyntax, options);
+        }
+        else
+        {
+            formatter.printHelp(this.console, assumedConsoleWidth, cmdLineSyntax, null, options, formatter.getLeftPadding(),
+                formatter.getDescPadding(), null);
+        }
     }
 
     Map<File, List<Pair<File, Map<String, String>>>> getConfiguredExecutions()
     {
         return this.configuredExecutions;
     }
+
+    File getJUnitReportTarget()
+    {
+        return this.jUnitReportTarget;
+    }
 }
@@ -0,0 +1,90 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.buildserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Thin client of {@link RunIntegrationTestsDaemon}: Takes the same command line as {@link RunIntegrationTests}, lets the daemon run it
+ * relative to the current directory, prints the results summary and exits with the exit code of the run. The port of the daemon is read
+ * from the system property {@value #PORT_PROPERTY}, the file containing the access token of the daemon from {@value #TOKEN_FILE_PROPERTY}.
+ */
+public class RunIntegrationTestsClient
+{
+    public static final String PORT_PROPERTY = "logtest.daemonPort";
+    public static final String TOKEN_FILE_PROPERTY = "logtest.daemonTokenFile";
+
+    public RunIntegrationTestsClient()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    public static void main(final String[] args)
+    {
+        // CHECKSTYLE:OFF The client is a command line tool
+        final String tokenFile = System.getProperty(TOKEN_FILE_PROPERTY);
+        final int exitCode = run(Integer.getInteger(PORT_PROPERTY, RunIntegrationTestsDaemon.DEFAULT_PORT),
+            tokenFile == null ? RunIntegrationTestsDaemon.getDefaultTokenFile() : new File(tokenFile), args, System.out, System.err);
+        // CHECKSTYLE:ON
+        System.exit(exitCode);
+    }
+
+    /** @return The exit code of the run, or 1 if the daemon could not be reached */
+    static int run(final int port, final File tokenFile, final String[] args, final PrintStream out, final PrintStream err)
+    {
+        final JSONObject request = new JSONObject();
+        request.put(RunIntegrationTestsDaemon.WORKING_DIRECTORY_KEY, new File("").getAbsolutePath());
+        request.put(RunIntegrationTestsDaemon.ARGUMENTS_KEY, new JSONArray(Arrays.asList(args)));
+        try
+        {
+            final String token = RunIntegrationTestsDaemon.readToken(tokenFile);
+            final URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), port, RunIntegrationTestsDaemon.RUN_PATH);
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            connection.setRequestProperty("Authorization", RunIntegrationTestsDaemon.AUTHORIZATION_SCHEME + token);
+            try (OutputStream body = connection.getOutputStream())
+            {
+                body.write(request.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            final int status = connection.getResponseCode();
+            final InputStream responseStream = status == HttpURLConnection.HTTP_OK ? connection.getInputStream()
+                : connection.getErrorStream();
+            final String responseBody = responseStream == null ? "" : IOUtils.toString(responseStream, StandardCharsets.UTF_8);
+            if (status != HttpURLConnection.HTTP_OK)
+            {
+                err.println("Daemon rejected the run (HTTP " + status + "): " + responseBody);
+                return 1;
+            }
+            final JSONObject response = new JSONObject(responseBody);
+            out.print(response.getString(RunIntegrationTestsDaemon.CONSOLE_KEY));
+            out.flush();
+            return response.getInt(RunIntegrationTestsDaemon.EXIT_CODE_KEY);
+        }
+        catch (final IOException | JSONException e)
+        {
+            err.println("Failed to run integration tests via daemon on port " + port + ": " + e.getMessage());
+            return 1;
+        }
+    }
+}
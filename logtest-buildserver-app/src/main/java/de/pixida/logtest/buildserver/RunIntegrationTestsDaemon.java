@@ -0,0 +1,314 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.buildserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Level;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Keeps a JVM running which executes the same command lines as {@link RunIntegrationTests}. JVM startup, class loading of the scripting
+ * engines and JIT warm-up are paid once instead of for every CI step, and parsed automaton definitions and compiled regular expressions
+ * stay cached between runs; a definition is reloaded when its file was modified. The automatons themselves are created for each run, as
+ * they hold the state of an evaluation.
+ *
+ * The daemon only listens on the loopback interface. As it runs arbitrary command lines with the rights of its user, it writes a random
+ * token to a file only readable by that user on startup and rejects all requests which do not present it. A run is requested by posting
+ * {"workingDirectory": ..., "arguments": [...]} as application/json to /run with the header "Authorization: Bearer &lt;token&gt;";
+ * requests carrying an Origin header are rejected, as they were sent by a browser. The response is {"exitCode": ..., "console": ...}.
+ * Runs are executed one after another, as they share the log configuration. See {@link RunIntegrationTestsClient} for a client.
+ */
+public class RunIntegrationTestsDaemon
+{
+    static final int DEFAULT_PORT = 7565;
+    static final String RUN_PATH = "/run";
+    static final String WORKING_DIRECTORY_KEY = "workingDirectory";
+    static final String ARGUMENTS_KEY = "arguments";
+    static final String EXIT_CODE_KEY = "exitCode";
+    static final String CONSOLE_KEY = "console";
+    static final String DEFAULT_TOKEN_FILE_NAME = ".logtest-daemon-token";
+    static final String AUTHORIZATION_SCHEME = "Bearer ";
+
+    private static final int TOKEN_LENGTH_BYTES = 32;
+    private static final String PORT_SWITCH = "port";
+    private static final String TOKEN_FILE_SWITCH = "token-file";
+    private static final String HELP_SWITCH = "help";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RunIntegrationTestsDaemon.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final File tokenFile;
+    private final byte[] token;
+
+    /**
+     * @param port
+     *            Port to listen on; 0 to pick a free port, see {@link #getPort()}
+     * @param aTokenFile
+     *            File to write the access token to; replaced if it exists
+     * @throws IOException
+     *             If the port cannot be bound or the token cannot be written
+     */
+    public RunIntegrationTestsDaemon(final int port, final File aTokenFile) throws IOException
+    {
+        this.tokenFile = aTokenFile;
+        this.token = createToken();
+        writeTokenFile(this.tokenFile, this.token);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext(RUN_PATH, exchange -> this.handleRun(exchange));
+        this.server.setExecutor(this.executor);
+    }
+
+    public static void main(final String[] args)
+    {
+        final Options options = createOptions();
+        try
+        {
+            final CommandLine params = new DefaultParser().parse(options, args);
+            if (params.hasOption(HELP_SWITCH))
+            {
+                printHelp(options);
+                return;
+            }
+            final int port = params.hasOption(PORT_SWITCH) ? Integer.parseInt(params.getOptionValue(PORT_SWITCH)) : DEFAULT_PORT;
+            final File tokenFile = params.hasOption(TOKEN_FILE_SWITCH) ? new File(params.getOptionValue(TOKEN_FILE_SWITCH))
+                : getDefaultTokenFile();
+            new RunIntegrationTestsDaemon(port, tokenFile).start();
+        }
+        catch (final ParseException | NumberFormatException e)
+        {
+            // CHECKSTYLE:OFF We intentionally print to STDERR here
+            System.err.println(e.getMessage());
+            System.err.println();
+            // CHECKSTYLE:ON
+            printHelp(options);
+            System.exit(1);
+        }
+        catch (final IOException ioe)
+        {
+            LOG.error("Failed to start daemon", ioe);
+            System.exit(1);
+        }
+    }
+
+    public void start()
+    {
+        this.server.start();
+        LOG.info("Listening for runs on http://{}:{}{}", this.server.getAddress().getHostString(), this.getPort(), RUN_PATH);
+    }
+
+    public void stop()
+    {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+        FileUtils.deleteQuietly(this.tokenFile);
+        LOG.info("Daemon stopped");
+    }
+
+    public int getPort()
+    {
+        return this.server.getAddress().getPort();
+    }
+
+    static File getDefaultTokenFile()
+    {
+        return new File(System.getProperty("user.home"), DEFAULT_TOKEN_FILE_NAME);
+    }
+
+    static String readToken(final File tokenFile) throws IOException
+    {
+        return FileUtils.readFileToString(tokenFile, StandardCharsets.US_ASCII).trim();
+    }
+
+    JSONObject run(final File workingDirectory, final String[] args)
+    {
+        LOG.info("Run requested from '{}' with arguments: {}", workingDirectory, String.join(" ", args));
+        final StringWriter console = new StringWriter();
+        final RunIntegrationTests runner = new RunIntegrationTests(workingDirectory, new PrintWriter(console, true));
+        final Level rootLogLevel = org.apache.log4j.Logger.getRootLogger().getLevel();
+        int exitCode;
+        try
+        {
+            exitCode = RunIntegrationTests.run(runner, args);
+        }
+        finally
+        {
+            org.apache.log4j.Logger.getRootLogger().setLevel(rootLogLevel); // Undo the verbose switch of this run
+        }
+
+        final JSONObject result = new JSONObject();
+        result.put(EXIT_CODE_KEY, exitCode);
+        result.put(CONSOLE_KEY, console.toString());
+        LOG.info("Run finished with exit code: {}", exitCode);
+        return result;
+    }
+
+    private void handleRun(final HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if (!"POST".equals(exchange.getRequestMethod()))
+            {
+                this.respond(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Runs must be requested via POST");
+                return;
+            }
+            if (exchange.getRequestHeaders().containsKey("Origin"))
+            {
+                this.respond(exchange, HttpURLConnection.HTTP_FORBIDDEN, "Runs must not be requested by browsers");
+                return;
+            }
+            if (!this.isAuthorized(exchange.getRequestHeaders().getFirst("Authorization")))
+            {
+                this.respond(exchange, HttpURLConnection.HTTP_UNAUTHORIZED, "Missing or invalid token, see " + this.tokenFile.getPath());
+                return;
+            }
+            final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType == null || !contentType.toLowerCase().startsWith("application/json"))
+            {
+                this.respond(exchange, HttpURLConnection.HTTP_UNSUPPORTED_TYPE, "Runs must be requested as application/json");
+                return;
+            }
+            final JSONObject request = new JSONObject(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            final File workingDirectory = new File(request.getString(WORKING_DIRECTORY_KEY));
+            final JSONArray argumentsJson = request.getJSONArray(ARGUMENTS_KEY);
+            final String[] args = new String[argumentsJson.length()];
+            for (int i = 0; i < args.length; i++)
+            {
+                args[i] = argumentsJson.getString(i);
+            }
+            this.respond(exchange, HttpURLConnection.HTTP_OK, this.run(workingDirectory, args).toString());
+        }
+        catch (final JSONException jsonEx)
+        {
+            this.respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "Invalid request: " + jsonEx.getMessage());
+        }
+        catch (final RuntimeException re)
+        {
+            LOG.error("Unexpected error while handling run", re);
+            this.respond(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, "Internal error: " + re.getMessage());
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private boolean isAuthorized(final String authorization)
+    {
+        if (authorization == null || !authorization.startsWith(AUTHORIZATION_SCHEME))
+        {
+            return false;
+        }
+        final byte[] presentedToken = authorization.substring(AUTHORIZATION_SCHEME.length()).trim().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(this.token, presentedToken); // Comparison in constant time
+    }
+
+    private static byte[] createToken()
+    {
+        final byte[] randomBytes = new byte[TOKEN_LENGTH_BYTES];
+        new SecureRandom().nextBytes(randomBytes);
+        return Base64.getUrlEncoder().withoutPadding().encode(randomBytes);
+    }
+
+    private static void writeTokenFile(final File tokenFile, final byte[] token) throws IOException
+    {
+        // Create the file without any permissions for others before the token is written to it
+        Files.deleteIfExists(tokenFile.toPath());
+        if (tokenFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"))
+        {
+            Files.createFile(tokenFile.toPath(), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        else
+        {
+            Files.createFile(tokenFile.toPath());
+            if (!(tokenFile.setReadable(false, false) && tokenFile.setReadable(true, true) && tokenFile.setWritable(false, false)
+                && tokenFile.setWritable(true, true)))
+            {
+                throw new IOException("Failed to restrict access to token file: " + tokenFile.getAbsolutePath());
+            }
+        }
+        Files.write(tokenFile.toPath(), token);
+        LOG.info("Wrote access token to '{}'", tokenFile.getAbsolutePath());
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final String body) throws IOException
+    {
+        final byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+            status == HttpURLConnection.HTTP_OK ? "application/json; charset=utf-8" : "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, data.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(data);
+        }
+    }
+
+    private static Options createOptions()
+    {
+        final Options options = new Options();
+        options.addOption(Option.builder("p")
+            .longOpt(PORT_SWITCH)
+            .desc("Port to listen on (loopback interface only), default: " + DEFAULT_PORT)
+            .hasArg()
+            .argName("port")
+            .build());
+        options.addOption(Option.builder()
+            .longOpt(TOKEN_FILE_SWITCH)
+            .desc("File to write the access token for clients to, default: " + DEFAULT_TOKEN_FILE_NAME + " in the home directory")
+            .hasArg()
+            .argName("file")
+            .build());
+        options.addOption(Option.builder("h")
+            .longOpt(HELP_SWITCH)
+            .desc("Show (this) help only")
+            .build());
+        return options;
+    }
+
+    private static void printHelp(final Options options)
+    {
+        final HelpFormatter formatter = new HelpFormatter();
+        final int assumedConsoleWidth = 150;
+        formatter.setWidth(assumedConsoleWidth);
+        formatter.printHelp("java -cp logtest-buildserver-app.jar " + RunIntegrationTestsDaemon.class.getName() + " [OPTIONS]...\n"
+            + "Runs integration tests requested by " + RunIntegrationTestsClient.class.getName() + " without restarting the JVM"
+            + "\n", // Separate help text from description of parameters with an empty line
+            options);
+    }
+}
@@ -7,56 +7,109 @@
 
 package de.pixida.logtest.reporting;
 
+import java.io.PrintWriter;
 import java.text.DecimalFormat;
 import java.util.Date;
 
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
 
 import de.pixida.logtest.processing.EvaluationResult;
 import de.pixida.logtest.processing.Job;
+import de.pixida.logtest.processing.JobProgress;
 import de.pixida.logtest.processing.LogSink;
 
 public class ConsoleSummaryReportGenerator implements IReportGenerator
 {
     private static final Logger LOG = LoggerFactory.getLogger(ConsoleSummaryReportGenerator.class);
+    private static final long PROGRESS_PRINT_INTERVAL_MS = 10000L;
 
     private int numSucceededExecutions = 0;
     private int numFailedExecutions = 0;
+    private int numCachedExecutions = 0;
     private final long totalTimeMs;
+    private long startTimeMs;
+    private long lastProgressPrintTimeMs;
+    private final PrintWriter output;
+
+    /** Report the time between {@link #start()} and {@link #finish()} as total time, i.e. results are streamed while jobs run */
+    public ConsoleSummaryReportGenerator()
+    {
+        this(-1L);
+    }
 
     public ConsoleSummaryReportGenerator(final long aTotalTimeMs)
     {
         this.totalTimeMs = aTotalTimeMs;
+        this.output = null;
+    }
+
+    /**
+     * Like {@link #ConsoleSummaryReportGenerator()}, but print to the given writer instead of the log.
+     *
+     * @param aOutput Writer to print the summary to
+     */
+    public ConsoleSummaryReportGenerator(final PrintWriter aOutput)
+    {
+        Validate.notNull(aOutput);
+        this.totalTimeMs = -1L;
+        this.output = aOutput;
     }
 
     @Override
     public void start()
     {
-        LOG.info("");
-        LOG.info("--------------------------- RESULTS --------------------------");
-        LOG.info("Summary");
-        LOG.info("");
+        this.startTimeMs = System.currentTimeMillis();
+        this.print("");
+        this.print("--------------------------- RESULTS --------------------------");
+        this.print("Summary");
+        this.print("");
     }
 
     @Override
     public void pushExecution(final Job job, final LogSink sink, final EvaluationResult evaluationResult, final long timeMs)
     {
+        final String cached = evaluationResult.isFromCache() ? " (cached)" : "";
         if (evaluationResult.isSuccess())
         {
-            LOG.info("{} on {}: SUCCESS", job.getLogReader().getDisplayName(), sink.getDisplayName());
+            this.print("{} on {}: SUCCESS{}", job.getLogReader().getDisplayName(), sink.getDisplayName(), cached);
             this.numSucceededExecutions++;
         }
         else if (evaluationResult.isFailure())
         {
-            LOG.info("{} on {}: FAILED: {}", job.getLogReader().getDisplayName(), sink.getDisplayName(), evaluationResult.getMessage());
+            this.print("{} on {}: FAILED{}: {}", job.getLogReader().getDisplayName(), sink.getDisplayName(), cached,
+                evaluationResult.getMessage());
+            this.numFailedExecutions++;
+        }
+        else if (evaluationResult.isAborted())
+        {
+            this.print("{} on {}: ABORTED{}: {}", job.getLogReader().getDisplayName(), sink.getDisplayName(), cached,
+                evaluationResult.getMessage());
             this.numFailedExecutions++;
         }
         else if (evaluationResult.isError())
         {
-            LOG.info("{} on {}: ERROR: {}", job.getLogReader().getDisplayName(), sink.getDisplayName(), evaluationResult.getMessage());
+            this.print("{} on {}: ERROR{}: {}", job.getLogReader().getDisplayName(), sink.getDisplayName(), cached,
+                evaluationResult.getMessage());
             this.numFailedExecutions++;
         }
+        if (evaluationResult.isFromCache())
+        {
+            this.numCachedExecutions++;
+        }
+    }
+
+    @Override
+    public void jobProgress(final JobProgress progress)
+    {
+        final long now = System.currentTimeMillis();
+        if (now - this.lastProgressPrintTimeMs >= PROGRESS_PRINT_INTERVAL_MS)
+        {
+            this.lastProgressPrintTimeMs = now;
+            this.print("Progress: {}", progress);
+        }
     }
 
     @Override
@@ -65,18 +118,35 @@ public class ConsoleSummaryReportGenerator implements IReportGenerator
         final int totalNumExecutions = this.numSucceededExecutions + this.numFailedExecutions;
         if (totalNumExecutions == 0)
         {
-            LOG.info("(no results)");
+            this.print("(no results)");
         }
-        LOG.info("--------------------------------------------------------------");
-        LOG.info("TESTS {} (successsfully completed {} / {})", this.numFailedExecutions == 0 ? "SUCCEEDED" : "FAILED",
+        this.print("--------------------------------------------------------------");
+        this.print("TESTS {} (successsfully completed {} / {})", this.numFailedExecutions == 0 ? "SUCCEEDED" : "FAILED",
             this.numSucceededExecutions, this.numSucceededExecutions + this.numFailedExecutions);
-        LOG.info("--------------------------------------------------------------");
+        if (this.numCachedExecutions > 0)
+        {
+            this.print("Results taken from cache: {}", this.numCachedExecutions);
+        }
+        this.print("--------------------------------------------------------------");
         final double msToSec = 1000.0;
-        LOG.info("Total time: {} s", String.format("%.3f", this.totalTimeMs / msToSec));
-        LOG.info("Finished at: {}", new Date().toString());
-        LOG.info("Final memory consumption: {} / {}", formatSize(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()),
+        final long timeMs = this.totalTimeMs == -1L ? System.currentTimeMillis() - this.startTimeMs : this.totalTimeMs;
+        this.print("Total time: {} s", String.format("%.3f", timeMs / msToSec));
+        this.print("Finished at: {}", new Date().toString());
+        this.print("Final memory consumption: {} / {}", formatSize(Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()),
             formatSize(Runtime.getRuntime().totalMemory()));
-        LOG.info("--------------------------------------------------------------");
+        this.print("--------------------------------------------------------------");
+    }
+
+    private void print(final String format, final Object... args)
+    {
+        if (this.output == null)
+        {
+            LOG.info(format, args);
+        }
+        else
+        {
+            this.output.println(MessageFormatter.arrayFormat(format, args).getMessage());
+        }
     }
 
     private static String formatSize(final long size)
@@ -7,42 +7,67 @@
 
 package de.pixida.logtest.reporting;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.tuple.Triple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.DOMException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 import de.pixida.logtest.processing.EvaluationResult;
 import de.pixida.logtest.processing.Job;
 import de.pixida.logtest.processing.LogSink;
 
+/**
+ * Writes results in the surefire XML format, one test case per execution, as soon as it is pushed. Only the current test case is held in
+ * memory. The file is well-formed after each pushed execution: The root element is closed after the last test case and its start tag,
+ * which carries the counters, is rewritten in place. The start tag is followed by whitespace, such that its length can vary a little.
+ */
 public class XUnitReportGenerator implements IReportGenerator
 {
     private static final Logger LOG = LoggerFactory.getLogger(XUnitReportGenerator.class);
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final int HEADER_RESERVE = 64; // Room for growing counters and time in the rewritten start tag
+    private static final byte[] FOOTER = "</testsuite>\n".getBytes(StandardCharsets.UTF_8);
+    private static final String INDENT = "\n  ";
+    private static final double MS_TO_SEC = 1000.0;
 
     private final File destFile;
     private final long totalTimeMs;
-    private final Map<Job, List<Triple<LogSink, EvaluationResult, Long>>> results = new LinkedHashMap<>(); // Preserve ordering
+    private long startTimeMs;
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private RandomAccessFile file;
+    private XMLStreamWriter bodyWriter;
+    private int headerSize;
+    private long bodyEnd;
+    private long numTests;
+    private long numFailures;
+    private long numErrors;
+    private final Map<String, String> additionalProperties = new LinkedHashMap<>();
+
+    /**
+     * Report the time between {@link #start()} and {@link #finish()} as total time, i.e. results are streamed while jobs run.
+     *
+     * @param aDestFile File to write the report to
+     */
+    public XUnitReportGenerator(final File aDestFile)
+    {
+        Validate.notNull(aDestFile, "Destination file must be set!");
+        this.destFile = aDestFile;
+        this.totalTimeMs = -1L;
+    }
 
     public XUnitReportGenerator(final File aDestFile, final long aTotalTimeMs)
     {
@@ -52,128 +77,221 @@ public class XUnitReportGenerator implements IReportGenerator
         this.totalTimeMs = aTotalTimeMs;
     }
 
+    /**
+     * Report a property of the run besides the system properties; must be called before {@link #start()}.
+     *
+     * @param name Name of the property
+     * @param value Value of the property
+     */
+    public void addProperty(final String name, final String value)
+    {
+        Validate.notNull(name);
+        Validate.notNull(value);
+        Validate.validState(this.file == null, "Properties must be added before the report is started");
+        this.additionalProperties.put(name, value);
+    }
+
     @Override
     public void start()
     {
+        this.startTimeMs = System.currentTimeMillis();
+        try
+        {
+            final File parentFile = this.destFile.getParentFile();
+            if (parentFile != null)
+            {
+                parentFile.mkdirs(); // If fails, will be caught by the following operations
+            }
+            this.file = new RandomAccessFile(this.destFile, "rw");
+            this.file.setLength(0L);
+
+            final byte[] header = this.createHeader();
+            this.headerSize = header.length + HEADER_RESERVE;
+            this.writeHeader(header);
+
+            this.file.seek(this.headerSize);
+            final OutputStream body = Channels.newOutputStream(this.file.getChannel());
+            this.bodyWriter = this.outputFactory.createXMLStreamWriter(body, StandardCharsets.UTF_8.name());
+            this.addProperties();
+            this.commit();
+        }
+        catch (final IOException | XMLStreamException e)
+        {
+            this.abort(e);
+        }
     }
 
     @Override
     public void pushExecution(final Job job, final LogSink sink, final EvaluationResult evaluationResult, final long timeMs)
     {
-        List<Triple<LogSink, EvaluationResult, Long>> executions = this.results.get(job);
-        if (executions == null)
+        if (this.bodyWriter == null)
+        {
+            return;
+        }
+        try
+        {
+            this.file.seek(this.bodyEnd);
+            this.addTestCase(job, sink, evaluationResult, timeMs);
+            this.numTests++;
+            if (evaluationResult.isFailure())
+            {
+                this.numFailures++;
+            }
+            else if (evaluationResult.isError())
+            {
+                this.numErrors++;
+            }
+            this.commit();
+        }
+        catch (final IOException | XMLStreamException e)
         {
-            executions = new ArrayList<>();
-            this.results.put(job, executions);
+            this.abort(e);
         }
-        executions.add(Triple.of(sink, evaluationResult, timeMs));
     }
 
     @Override
     public void finish()
     {
+        if (this.bodyWriter == null)
+        {
+            return;
+        }
         try
         {
-            // Create document
-            final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            docFactory.setNamespaceAware(true);
-            final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-
-            // Create root element
-            final Document doc = docBuilder.newDocument();
-            final Element rootElement = doc.createElement("testsuite");
-            rootElement.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-            rootElement.setAttribute("xsi:schemaLocation",
-                "https://maven.apache.org/surefire/maven-surefire-plugin/xsd/surefire-test-report.xsd");
-            rootElement.setAttribute("name", "LogFileAnalysisTestsuite");
-            final double msToSec = 1000.0;
-            rootElement.setAttribute("time", String.valueOf(this.totalTimeMs / msToSec));
-            final long numTests = this.results.size();
-            final long numSuccesses = this.results.values().stream()
-                .mapToLong(result -> result.stream().filter(r -> r.getMiddle().isSuccess()).count()).sum();
-            final long numFailures = this.results.values().stream()
-                .mapToLong(result -> result.stream().filter(r -> r.getMiddle().isFailure()).count()).sum();
-            final long numSkipped = 0L;
-            final long numErrors = numTests - numSuccesses - numFailures;
-            rootElement.setAttribute("tests", String.valueOf(numTests));
-            rootElement.setAttribute("errors", String.valueOf(numErrors));
-            rootElement.setAttribute("skipped", String.valueOf(numSkipped));
-            rootElement.setAttribute("failures", String.valueOf(numFailures));
-            doc.appendChild(rootElement);
-
-            // Create payload
-            this.addProperties(doc, rootElement);
-            this.addTestCases(doc, rootElement);
-
-            // Dump results into file
-            final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            final Transformer transformer = transformerFactory.newTransformer();
-            final DOMSource source = new DOMSource(doc);
-            final File parentFile = this.destFile.getParentFile();
-            if (parentFile != null)
-            {
-                parentFile.mkdirs(); // If fails, will be caught by the following operations
-            }
-            final StreamResult result = new StreamResult(this.destFile);
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-            transformer.transform(source, result);
+            this.writeHeader(this.createHeader());
+            this.bodyWriter.close();
+            this.file.close();
+        }
+        catch (final IOException | XMLStreamException e)
+        {
+            this.abort(e);
         }
-        catch (final DOMException | TransformerException | ParserConfigurationException e)
+        this.bodyWriter = null;
+        this.file = null;
+    }
+
+    private byte[] createHeader() throws XMLStreamException
+    {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final XMLStreamWriter writer = this.outputFactory.createXMLStreamWriter(result, StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("testsuite");
+        writer.writeNamespace("xsi", XSI_NAMESPACE);
+        writer.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation",
+            "https://maven.apache.org/surefire/maven-surefire-plugin/xsd/surefire-test-report.xsd");
+        writer.writeAttribute("name", "LogFileAnalysisTestsuite");
+        final long timeMs = this.totalTimeMs == -1L ? System.currentTimeMillis() - this.startTimeMs : this.totalTimeMs;
+        writer.writeAttribute("time", String.valueOf(timeMs / MS_TO_SEC));
+        writer.writeAttribute("tests", String.valueOf(this.numTests));
+        writer.writeAttribute("errors", String.valueOf(this.numErrors));
+        writer.writeAttribute("skipped", String.valueOf(0L));
+        writer.writeAttribute("failures", String.valueOf(this.numFailures));
+        writer.writeCharacters(""); // Closes the start tag
+        writer.flush();
+        return result.toByteArray();
+    }
+
+    private void writeHeader(final byte[] header) throws IOException
+    {
+        Validate.validState(header.length <= this.headerSize, "Start tag of report exceeds its reserved size");
+        final byte[] paddedHeader = Arrays.copyOf(header, this.headerSize);
+        Arrays.fill(paddedHeader, header.length, paddedHeader.length, (byte) ' ');
+        this.file.seek(0L);
+        this.file.write(paddedHeader);
+    }
+
+    /** Append the closing tag behind the body written so far and update the counters in the start tag */
+    private void commit() throws IOException, XMLStreamException
+    {
+        this.bodyWriter.flush();
+        this.bodyEnd = this.file.getFilePointer();
+        this.file.write(FOOTER);
+        this.file.setLength(this.file.getFilePointer());
+        this.writeHeader(this.createHeader());
+    }
+
+    private void abort(final Exception e)
+    {
+        LOG.error("Failed to write results", e);
+        this.bodyWriter = null;
+        if (this.file != null)
         {
-            LOG.error("Failed to write results", e);
+            try
+            {
+                this.file.close();
+            }
+            catch (final IOException ioe)
+            {
+                LOG.error("Failed to close report file", ioe);
+            }
+            this.file = null;
         }
     }
 
-    private void addProperties(final Document doc, final Element rootElement)
+    private void addProperties() throws XMLStreamException
     {
-        final Element properties = doc.createElement("properties");
+        this.bodyWriter.writeCharacters(INDENT);
+        this.bodyWriter.writeStartElement("properties");
         for (final Object property : System.getProperties().keySet())
         {
             final String key = property.toString();
-            final String value = System.getProperty(key);
-            final Element element = doc.createElement("property");
-            element.setAttribute("name", key);
-            element.setAttribute("value", value);
-            properties.appendChild(element);
+            this.writeProperty(key, System.getProperty(key));
         }
-        rootElement.appendChild(properties);
+        for (final Map.Entry<String, String> property : this.additionalProperties.entrySet())
+        {
+            this.writeProperty(property.getKey(), property.getValue());
+        }
+        this.bodyWriter.writeCharacters(INDENT);
+        this.bodyWriter.writeEndElement();
+        this.bodyWriter.writeCharacters("\n");
+    }
+
+    private void writeProperty(final String key, final String value) throws XMLStreamException
+    {
+        this.bodyWriter.writeCharacters(INDENT + "  ");
+        this.bodyWriter.writeEmptyElement("property");
+        this.bodyWriter.writeAttribute("name", key);
+        this.bodyWriter.writeAttribute("value", value == null ? "" : value);
     }
 
-    private void addTestCases(final Document doc, final Element rootElement)
+    private void addTestCase(final Job job, final LogSink sink, final EvaluationResult evaluationResult, final long timeMs)
+        throws XMLStreamException
     {
-        for (final Entry<Job, List<Triple<LogSink, EvaluationResult, Long>>> resultSet : this.results.entrySet())
+        // The class name usually includes its packet name which is displayed as tree in Jenkins.
+        // This might lead to the following tree hierarchy: "some-log" -> "txt" -> ..results..
+        //                                                  "some-other-log" -> "txt" -> ..results..
+        // Furthermore, we down't know how the log source is represented as human readable string, so it may always contain
+        // dots, e.g. "127.0.0.1:8082" for stream sources.
+        // For now, replace all dots by a "-", such that the human readable identifier of the log source remains human readable and
+        // all information is preserved.
+        final String className = job.getLogReader().getDisplayName().replace('.', '-');
+
+        this.bodyWriter.writeCharacters(INDENT.substring(1));
+        this.bodyWriter.writeStartElement("testcase");
+        this.bodyWriter.writeAttribute("classname", className);
+        this.bodyWriter.writeAttribute("name", sink.getDisplayName());
+        // Actually, set the job time, not the test time (tests run in parallel). The attribute is mandatory.
+        this.bodyWriter.writeAttribute("time", String.valueOf(timeMs / MS_TO_SEC));
+        if (!evaluationResult.isSuccess())
         {
-            // The class name usually includes its packet name which is displayed as tree in Jenkins.
-            // This might lead to the following tree hierarchy: "some-log" -> "txt" -> ..results..
-            //                                                  "some-other-log" -> "txt" -> ..results..
-            // Furthermore, we down't know how the log source is represented as human readable string, so it may always contain
-            // dots, e.g. "127.0.0.1:8082" for stream sources.
-            // For now, replace all dots by a "-", such that the human readable identifier of the log source remains human readable and
-            // all information is preserved.
-            String className = resultSet.getKey().getLogReader().getDisplayName();
-            className = className.replace('.', '-');
-
-            for (final Triple<LogSink, EvaluationResult, Long> result : resultSet.getValue())
+            assert evaluationResult.getMessage() != null;
+            this.bodyWriter.writeCharacters(INDENT + "  ");
+            this.bodyWriter.writeStartElement(evaluationResult.isError() ? "error" : "failure");
+            this.bodyWriter.writeAttribute("type", evaluationResult.getResult().toString());
+            if (evaluationResult.getMessage() != null)
+            {
+                this.bodyWriter.writeAttribute("message", evaluationResult.getMessage());
+            }
+            if (evaluationResult.getTransitionHistory() != null)
             {
-                final String testcaseName = result.getLeft().getDisplayName();
-                final Element testcase = doc.createElement("testcase");
-
-                testcase.setAttribute("classname", className);
-                testcase.setAttribute("name", testcaseName);
-                // Actually, set the job time, not the test time (tests run in parallel). The attribute is mandatory.
-                final long msToSec = 1000;
-                testcase.setAttribute("time", String.valueOf((double) result.getRight() / msToSec));
-                if (!result.getMiddle().isSuccess())
-                {
-                    final Element error = doc.createElement(result.getMiddle().isError() ? "error" : "failure");
-                    assert result.getMiddle().getMessage() != null;
-                    error.setAttribute("type", result.getMiddle().getResult().toString());
-                    error.setAttribute("message", result.getMiddle().getMessage());
-                    testcase.appendChild(error);
-                }
-                rootElement.appendChild(testcase);
+                // Shown like a stack trace by most CI servers
+                this.bodyWriter.writeCharacters(evaluationResult.getTransitionHistory());
             }
+            this.bodyWriter.writeEndElement();
+            this.bodyWriter.writeCharacters(INDENT);
         }
+        this.bodyWriter.writeEndElement();
+        this.bodyWriter.writeCharacters("\n");
     }
 }
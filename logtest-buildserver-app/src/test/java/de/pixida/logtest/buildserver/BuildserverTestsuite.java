@@ -13,6 +13,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
                 RunIntegrationTestsTest.class,
+                RunIntegrationTestsDaemonTest.class,
 })
 public class BuildserverTestsuite
 {
@@ -0,0 +1,190 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.buildserver;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RunIntegrationTestsDaemonTest
+{
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private RunIntegrationTestsDaemon daemon;
+    private File tokenFile;
+
+    public RunIntegrationTestsDaemonTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Before
+    public void startDaemon() throws IOException
+    {
+        this.tokenFile = new File(this.tempFolder.getRoot(), RunIntegrationTestsDaemon.DEFAULT_TOKEN_FILE_NAME);
+        this.daemon = new RunIntegrationTestsDaemon(0, this.tokenFile);
+        this.daemon.start();
+    }
+
+    @After
+    public void stopDaemon()
+    {
+        this.daemon.stop();
+    }
+
+    @Test
+    public void testClientReceivesResultsAndExitCodeOfRuns()
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        final String[] succeedingRun = new String[] {"-a", this.getTestScenarioPath("automatons"), "-t", this.getTestScenarioPath("traces"),
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"};
+        Assert.assertEquals(0, this.runClient(succeedingRun, out, err));
+        Assert.assertTrue(out.toString().contains("TESTS SUCCEEDED"));
+
+        // The automaton is now cached; the run must give the same result again
+        out.reset();
+        Assert.assertEquals(0, this.runClient(succeedingRun, out, err));
+        Assert.assertTrue(out.toString().contains("TESTS SUCCEEDED"));
+
+        out.reset();
+        final String[] failingRun = new String[] {"-a", this.getTestScenarioPath("automatons"), "-t", this.getTestScenarioPath("traces"),
+                        "trace1-bluescreen.txt:test-no-bluescreen-appeared.json"};
+        Assert.assertEquals(1, this.runClient(failingRun, out, err));
+        Assert.assertTrue(out.toString().contains("TESTS FAILED"));
+
+        out.reset();
+        Assert.assertEquals(1, this.runClient(new String[] {"invalid execution"}, out, err));
+        Assert.assertTrue(out.toString().contains("Invalid execution entry"));
+        Assert.assertEquals(0, err.size());
+    }
+
+    @Test
+    public void testRelativePathsAreResolvedAgainstTheWorkingDirectoryOfTheClient() throws IOException
+    {
+        final File workingDirectory = this.tempFolder.newFolder();
+        final JSONObject result = this.daemon.run(workingDirectory, new String[] {"-a", this.getTestScenarioPath("automatons"),
+                        "-t", this.getTestScenarioPath("traces"), "-r", "report.xml",
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"});
+        Assert.assertEquals(0, result.getInt(RunIntegrationTestsDaemon.EXIT_CODE_KEY));
+        Assert.assertTrue(new File(workingDirectory, "report.xml").isFile());
+    }
+
+    @Test
+    public void testTokenFileIsOnlyAccessibleByTheUserAndDeletedOnStop() throws IOException
+    {
+        Assert.assertTrue(this.tokenFile.isFile());
+        if (this.tokenFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"))
+        {
+            Assert.assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                Files.getPosixFilePermissions(this.tokenFile.toPath()));
+        }
+        this.daemon.stop();
+        Assert.assertFalse(this.tokenFile.exists());
+        this.startDaemon(); // Stopped again after the test
+    }
+
+    @Test
+    public void testRequestsWithoutValidTokenOrFromBrowsersAreRejected() throws IOException
+    {
+        final String token = RunIntegrationTestsDaemon.readToken(this.tokenFile);
+        final String json = "application/json";
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, this.post(null, json, null));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, this.post("invalid", json, null));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNAUTHORIZED, this.post(token + "x", json, null));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNSUPPORTED_TYPE, this.post(token, "text/plain", null));
+        Assert.assertEquals(HttpURLConnection.HTTP_UNSUPPORTED_TYPE, this.post(token, null, null));
+        Assert.assertEquals(HttpURLConnection.HTTP_FORBIDDEN, this.post(token, json, "http://example.com"));
+        Assert.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, this.post(token, json, null));
+    }
+
+    @Test
+    public void testClientFailsIfDaemonIsNotRunning() throws IOException
+    {
+        final int port = this.daemon.getPort();
+        this.daemon.stop();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Assert.assertEquals(1, this.runClient(port, new String[0], new ByteArrayOutputStream(), err));
+        Assert.assertFalse(this.tokenFile.exists());
+        Assert.assertTrue(err.size() > 0);
+        this.startDaemon(); // Stopped again after the test
+    }
+
+    private int runClient(final String[] args, final ByteArrayOutputStream out, final ByteArrayOutputStream err)
+    {
+        return this.runClient(this.daemon.getPort(), args, out, err);
+    }
+
+    private int runClient(final int port, final String[] args, final ByteArrayOutputStream out, final ByteArrayOutputStream err)
+    {
+        try (PrintStream outStream = new PrintStream(out, true, StandardCharsets.UTF_8.name());
+            PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8.name()))
+        {
+            return RunIntegrationTestsClient.run(port, this.tokenFile, args, outStream, errStream);
+        }
+        catch (final IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    private int post(final String token, final String contentType, final String origin) throws IOException
+    {
+        // HttpURLConnection refuses to set the Origin header, so the request is written by hand
+        final String body = "{}"; // Not a valid run
+        final StringBuilder request = new StringBuilder();
+        request.append("POST ").append(RunIntegrationTestsDaemon.RUN_PATH).append(" HTTP/1.1\r\n");
+        request.append("Host: localhost\r\n");
+        request.append("Connection: close\r\n");
+        request.append("Content-Length: ").append(body.length()).append("\r\n");
+        if (token != null)
+        {
+            request.append("Authorization: ").append(RunIntegrationTestsDaemon.AUTHORIZATION_SCHEME).append(token).append("\r\n");
+        }
+        if (contentType != null)
+        {
+            request.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        if (origin != null)
+        {
+            request.append("Origin: ").append(origin).append("\r\n");
+        }
+        request.append("\r\n").append(body);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.daemon.getPort()))
+        {
+            socket.getOutputStream().write(request.toString().getBytes(StandardCharsets.US_ASCII));
+            final String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                .readLine();
+            return Integer.parseInt(statusLine.split(" ")[1]);
+        }
+    }
+
+    private String getTestScenarioPath(final String relativePath)
+    {
+        return new File(this.getClass().getResource("test-scenario/" + relativePath).getPath()).getAbsolutePath();
+    }
+}
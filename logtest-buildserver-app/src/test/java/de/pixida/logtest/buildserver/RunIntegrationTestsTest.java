@@ -9,14 +9,20 @@ package de.pixida.logtest.buildserver;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -104,6 +110,65 @@ public class RunIntegrationTestsTest
         Assert.assertEquals("1000", executions.get(new File(tracesPath, "trace0-success.txt")).get(0).getRight().get("minimumRuntimeMs"));
     }
 
+    @Test
+    public void testManifestFileIsExpandedIntoTheSameJobsAsTheCommandLine() throws IOException
+    {
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final File manifest = this.tempFolder.newFile();
+        FileUtils.write(manifest, "{ 'parameterSets': { 'long': { 'minimumRuntimeMs': '31000' } },"
+            + "'executions': [ { 'logs': 'trace0-*.txt', 'automatons': ['test-minimum-runtime.json', 'test-no-*.json'],"
+            + "'parameterSets': ['long'], 'parameters': { 'x': 1 } } ] }", StandardCharsets.UTF_8);
+        final RunIntegrationTests r = new RunIntegrationTests();
+        r.parseCommandLine(new String[] {"-a", automatonsPath, "-t", tracesPath, "-mf", manifest.getAbsolutePath(),
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"});
+
+        // One reader pass over the log serves the executions of the command line and the manifest
+        final Map<File, List<Pair<File, Map<String, String>>>> executions = r.getConfiguredExecutions();
+        Assert.assertEquals(1, executions.size());
+        final List<Pair<File, Map<String, String>>> sinks = executions.get(new File(tracesPath, "trace0-success.txt"));
+        Assert.assertEquals(1 + 1 + 1, sinks.size());
+        Assert.assertEquals(new File(automatonsPath, "test-minimum-runtime.json"), sinks.get(1).getLeft());
+        Assert.assertEquals(new File(automatonsPath, "test-no-bluescreen-appeared.json"), sinks.get(1 + 1).getLeft());
+        Assert.assertEquals("31000", sinks.get(1).getRight().get("minimumRuntimeMs"));
+        Assert.assertEquals("1", sinks.get(1).getRight().get("x"));
+
+        r.createAndRunJobs();
+        r.printResults();
+    }
+
+    @Test
+    public void testFilesMatchedByMultiplePatternsOfTheManifestFileAreOnlyUsedOnce() throws IOException
+    {
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final File manifest = this.tempFolder.newFile();
+        FileUtils.write(manifest, "{ 'executions': [ { 'logs': ['trace0-*.txt', 'trace*-success.txt', './trace0-success.txt'],"
+            + "'automatons': ['test-minimum-runtime.json', './test-minimum-runtime.json', 'test-min*.json'] } ] }",
+            StandardCharsets.UTF_8);
+        final RunIntegrationTests r = new RunIntegrationTests();
+        r.parseCommandLine(new String[] {"-a", automatonsPath, "-t", tracesPath, "-mf", manifest.getAbsolutePath()});
+
+        final Map<File, List<Pair<File, Map<String, String>>>> executions = r.getConfiguredExecutions();
+        Assert.assertEquals(1, executions.size());
+        final List<Pair<File, Map<String, String>>> sinks = executions.get(new File(tracesPath, "trace0-success.txt"));
+        Assert.assertEquals(1, sinks.size());
+        Assert.assertEquals(new File(automatonsPath, "test-minimum-runtime.json"), sinks.get(0).getLeft());
+    }
+
+    @Test
+    public void testManifestFilePatternsWithoutMatchesAreRejected() throws IOException
+    {
+        final File manifest = this.tempFolder.newFile();
+        FileUtils.write(manifest, "{ 'executions': [ { 'logs': '*.doesnotexist', 'automatons': 'a.json' } ] }", StandardCharsets.UTF_8);
+        this.checkCommandLineParsingFails(new String[] {"-a", this.getTestScenarioPath("test-scenario/automatons"),
+                        "-t", this.getTestScenarioPath("test-scenario/traces"), "-mf", manifest.getAbsolutePath()});
+        FileUtils.write(manifest, "{ 'executions': [ { 'logs': '*.txt', 'automatons': 'a.json', 'parameterSets': 'undefined' } ] }",
+            StandardCharsets.UTF_8);
+        this.checkCommandLineParsingFails(new String[] {"-a", this.getTestScenarioPath("test-scenario/automatons"),
+                        "-t", this.getTestScenarioPath("test-scenario/traces"), "-mf", manifest.getAbsolutePath()});
+    }
+
     @Test
     public void testSuccessfullyRunningTestScenario()
     {
@@ -132,6 +197,43 @@ public class RunIntegrationTestsTest
         r.printResults();
     }
 
+    @Test
+    public void testFailFastModeReportsRemainingExecutionsAsAborted()
+    {
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final String[] args = new String[] {"-a", automatonsPath, "-t", tracesPath, "-ff",
+                        "trace1-bluescreen.txt:test-no-bluescreen-appeared.json",
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"};
+        try
+        {
+            this.runCommandLineWithConsole(args);
+            Assert.fail("Expecting exception due to failed execution");
+        }
+        catch (final ExitWithFailureException ewfe)
+        {
+            // OK
+        }
+        final StringWriter console = new StringWriter();
+        Assert.assertEquals(1, RunIntegrationTests.run(new RunIntegrationTests(null, new PrintWriter(console)), args));
+        Assert.assertTrue(console.toString().contains("trace0-success.txt on test-no-bluescreen-appeared.json: ABORTED"));
+    }
+
+    @Test
+    public void testJobBudgetsAreChecked()
+    {
+        this.checkCommandLineParsingFails(new String[] {"-a", "a", "-t", "t", "-mxe", "many", "t:a"});
+        this.checkCommandLineParsingFails(new String[] {"-a", "a", "-t", "t", "-mxb", "-1", "t:a"});
+        new RunIntegrationTests().parseCommandLine(new String[] {"-a", "a", "-t", "t", "-mxe", "10", "-mxb", "1000", "-mxt", "0", "t:a"});
+
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final StringWriter console = new StringWriter();
+        Assert.assertEquals(1, RunIntegrationTests.run(new RunIntegrationTests(null, new PrintWriter(console)),
+            new String[] {"-a", automatonsPath, "-t", tracesPath, "-mxe", "1", "trace0-success.txt:test-no-bluescreen-appeared.json"}));
+        Assert.assertTrue(console.toString().contains("ABORTED: Job budget exceeded: More than 1 log entries"));
+    }
+
     @Test
     public void testJUnitReportFileIsWrittenCorrectly() throws IOException
     {
@@ -150,6 +252,92 @@ public class RunIntegrationTestsTest
         Assert.assertTrue(jUnitOutputFile.length() > 0L);
     }
 
+    @Test
+    public void testMetricsFileIsWritten() throws IOException
+    {
+        final File metricsFile = this.tempFolder.newFile();
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final RunIntegrationTests r = new RunIntegrationTests();
+        r.parseCommandLine(new String[] {"-a", automatonsPath, "-t", tracesPath, "-m", metricsFile.getAbsolutePath(),
+                        "trace0-success.txt:test-minimum-runtime.json:minimumRuntimeMs=31000",
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"});
+        r.createAndRunJobs();
+        r.printResults();
+        final JSONObject metrics = new JSONObject(FileUtils.readFileToString(metricsFile, StandardCharsets.UTF_8));
+        final JSONArray executions = metrics.getJSONArray("jobs").getJSONObject(0).getJSONArray("executions");
+        Assert.assertEquals(1 + 1, executions.length());
+        for (int i = 0; i < executions.length(); i++)
+        {
+            Assert.assertEquals("SUCCESS", executions.getJSONObject(i).getString("result"));
+            Assert.assertTrue(executions.getJSONObject(i).getJSONObject("metrics").getLong("numEvents") > 0);
+        }
+    }
+
+    @Test
+    public void testResultsOfUnchangedExecutionsAreTakenFromTheResultCache() throws IOException
+    {
+        final File cacheFolder = this.tempFolder.newFolder();
+        final File jUnitOutputFile = this.tempFolder.newFile();
+        final String automatonsPath = this.getTestScenarioPath("test-scenario/automatons");
+        final String tracesPath = this.getTestScenarioPath("test-scenario/traces");
+        final String[] args = new String[] {"-a", automatonsPath, "-t", tracesPath, "-rc", cacheFolder.getAbsolutePath(), "-r",
+                        jUnitOutputFile.getAbsolutePath(),
+                        "trace0-success.txt:test-minimum-runtime.json:minimumRuntimeMs=31000",
+                        "trace0-success.txt:test-no-bluescreen-appeared.json"};
+
+        String console = this.runCommandLineWithConsole(args);
+        Assert.assertFalse(console.contains("(cached)"));
+        Assert.assertEquals(1 + 1, cacheFolder.list().length);
+
+        console = this.runCommandLineWithConsole(args);
+        Assert.assertTrue(console.contains("trace0-success.txt on test-no-bluescreen-appeared.json: SUCCESS (cached)"));
+        Assert.assertTrue(console.contains("Results taken from cache: 2"));
+        Assert.assertTrue(console.contains("TESTS SUCCEEDED (successsfully completed 2 / 2)"));
+        final String report = FileUtils.readFileToString(jUnitOutputFile, StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("<property name=\"logtest.resultCache.hits\" value=\"2\"/>"));
+        Assert.assertTrue(report.contains("<property name=\"logtest.resultCache.misses\" value=\"0\"/>"));
+
+        // Different parameters make a different execution
+        args[args.length - (1 + 1)] = "trace0-success.txt:test-minimum-runtime.json:minimumRuntimeMs=30000";
+        console = this.runCommandLineWithConsole(args);
+        Assert.assertTrue(console.contains("Results taken from cache: 1"));
+        Assert.assertFalse(console.contains("test-minimum-runtime.json(minimumRuntimeMs=30000): SUCCESS (cached)"));
+    }
+
+    @Test
+    public void testResultsAreNotTakenFromTheResultCacheIfAReferencedFileChanged() throws IOException
+    {
+        final File cacheFolder = this.tempFolder.newFolder();
+        final File automatonsFolder = this.tempFolder.newFolder();
+        FileUtils.write(new File(automatonsFolder, "no-blocked-event.json"), "{'nodes': ["
+            + "{'id': 'initial', 'initial': true, 'outgoingEdges': [{'id': 'ok', 'destination': 'ok', 'triggerAlways': true}]},"
+            + "{'id': 'ok', 'success': true, 'outgoingEdges': [{'id': 'blocked', 'destination': 'error',"
+            + " 'valueInSet': {'file': '${setOfValues}', 'regExp': '([A-Z][a-z]+)$', 'regExpGroup': 1}}]},"
+            + "{'id': 'error', 'failure': true}]}", StandardCharsets.UTF_8);
+        final File setOfValues = new File(automatonsFolder, "blocked-events.txt");
+        FileUtils.write(setOfValues, "Panic\n", StandardCharsets.UTF_8);
+        final String[] args = new String[] {"-a", automatonsFolder.getAbsolutePath(), "-t",
+                        this.getTestScenarioPath("test-scenario/traces"), "-rc", cacheFolder.getAbsolutePath(),
+                        "trace1-bluescreen.txt:no-blocked-event.json:setOfValues=blocked-events.txt"};
+
+        String console = this.runCommandLineWithConsole(args);
+        Assert.assertTrue(console.contains("TESTS SUCCEEDED"));
+        console = this.runCommandLineWithConsole(args);
+        Assert.assertTrue(console.contains("Results taken from cache: 1"));
+
+        FileUtils.write(setOfValues, "Bluescreen\n", StandardCharsets.UTF_8);
+        try
+        {
+            this.runCommandLineWithConsole(args);
+            Assert.fail("Expected the automaton to be evaluated again and to fail");
+        }
+        catch (final ExitWithFailureException ewfe)
+        {
+            // OK
+        }
+    }
+
     @Test
     public void testExecutionWithoutJobs() throws IOException
     {
@@ -224,6 +412,16 @@ public class RunIntegrationTestsTest
         r.printResults();
     }
 
+    private String runCommandLineWithConsole(final String[] cmdLineParams)
+    {
+        final StringWriter console = new StringWriter();
+        final RunIntegrationTests r = new RunIntegrationTests(null, new PrintWriter(console));
+        r.parseCommandLine(cmdLineParams);
+        r.createAndRunJobs();
+        r.printResults();
+        return console.toString();
+    }
+
     private String getTestScenarioPath(final String relativePath)
     {
         return new File(this.getClass().getResource(relativePath).getPath()).getAbsolutePath();
@@ -37,6 +37,7 @@ public class ConsoleSummaryReportGeneratorTest
         possibleResults[1] = new EvaluationResult(Result.FAILURE, "some failure");
         possibleResults[1 + 1] = new EvaluationResult(Result.INTERNAL_ERROR, "internal error");
         possibleResults[1 + 1 + 1] = new EvaluationResult(Result.AUTOMATON_DEFECT, "automaton is defect");
+        possibleResults[1 + 1 + 1 + 1] = new EvaluationResult(Result.ABORTED, "aborted");
         // We must have enough tests to iterate through all result variants. I.e. this is an assertion to test if this test is meaningful.
         Assert.assertTrue(possibleResults.length <= jobs.stream().mapToLong(job -> job.getSinks().size()).sum());
         for (final EvaluationResult possibleResult : possibleResults)
@@ -72,7 +73,7 @@ public class ConsoleSummaryReportGeneratorTest
         Assert.assertTrue(phisher.getLogEntries().size() > 0);
         this.checkOutputContainsStringInLogEntry(phisher, "RESULTS");
         this.checkOutputContainsStringInLogEntry(phisher, "Summary");
-        this.checkOutputContainsStringInLogEntry(phisher, "TESTS FAILED (successsfully completed 1 / 4)");
+        this.checkOutputContainsStringInLogEntry(phisher, "TESTS FAILED (successsfully completed 1 / 5)");
         this.checkOutputContainsStringInLogEntry(phisher, "Total time: 1,000 s");
     }
 
@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.util.List;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -22,6 +24,7 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import de.pixida.logtest.processing.EvaluationResult;
@@ -48,9 +51,10 @@ public class XUnitReportGeneratorTest
         final List<Job> jobs = JobExecutorTest.createSomeStupidJobs();
         final EvaluationResult[] possibleResults = new EvaluationResult[Result.values().length];
         possibleResults[0] = new EvaluationResult(Result.SUCCESS, null);
-        possibleResults[1] = new EvaluationResult(Result.FAILURE, "some failure");
+        possibleResults[1] = new EvaluationResult(Result.FAILURE, "some failure", "Last 1 of 1 transitions:\nline 1, time 0: 'a' -> 'b'");
         possibleResults[1 + 1] = new EvaluationResult(Result.INTERNAL_ERROR, "internal error");
         possibleResults[1 + 1 + 1] = new EvaluationResult(Result.AUTOMATON_DEFECT, "automaton is defect");
+        possibleResults[1 + 1 + 1 + 1] = new EvaluationResult(Result.ABORTED, "aborted");
         // We must have enough tests to iterate through all result variants. I.e. this is an assertion to test if this test is meaningful.
         Assert.assertTrue(possibleResults.length <= jobs.stream().mapToLong(job -> job.getSinks().size()).sum());
         for (final EvaluationResult possibleResult : possibleResults)
@@ -74,6 +78,36 @@ public class XUnitReportGeneratorTest
         this.validateResult(tmpFile);
     }
 
+    @Test
+    public void testReportIsWellFormedAndUpToDateBeforeItIsFinished() throws IOException, ParserConfigurationException, SAXException
+    {
+        final File tmpFile = this.tempFolder.newFile();
+        final XUnitReportGenerator generator = new XUnitReportGenerator(tmpFile);
+        final Job job = JobExecutorTest.createSomeStupidJobs().get(0);
+        generator.start();
+        this.validateResult(tmpFile);
+        Assert.assertEquals("0", this.getRootElement(tmpFile).getAttribute("tests"));
+
+        generator.pushExecution(job, job.getSinks().get(0), new EvaluationResult(Result.FAILURE, "some failure", "history"), 1L);
+        generator.pushExecution(job, job.getSinks().get(1), new EvaluationResult(Result.SUCCESS, null), 1L);
+        this.validateResult(tmpFile);
+        final Element rootElement = this.getRootElement(tmpFile);
+        Assert.assertEquals("2", rootElement.getAttribute("tests"));
+        Assert.assertEquals("1", rootElement.getAttribute("failures"));
+        Assert.assertEquals("0", rootElement.getAttribute("errors"));
+        Assert.assertEquals(1 + 1, rootElement.getElementsByTagName("testcase").getLength());
+        Assert.assertEquals("history", rootElement.getElementsByTagName("failure").item(0).getTextContent());
+
+        generator.finish();
+        this.validateResult(tmpFile);
+        Assert.assertEquals("2", this.getRootElement(tmpFile).getAttribute("tests"));
+    }
+
+    private Element getRootElement(final File file) throws ParserConfigurationException, SAXException, IOException
+    {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file).getDocumentElement();
+    }
+
     private void validateResult(final File file) throws IOException
     {
         final Source xmlFile = new StreamSource(file);
@@ -0,0 +1,96 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide cache of automaton definitions read from JSON files. The same file is only read, parsed and validated once, no matter how
+ * many log files it is applied to. Entries are keyed by the canonical path of the file and invalidated when the modification time or the
+ * size of the file changed.
+ *
+ * The cache is bounded and evicts the least recently used definitions, as long running processes may see an unlimited number of files.
+ */
+public abstract class AutomatonDefinitionCache
+{
+    private static final Logger LOG = LoggerFactory.getLogger(AutomatonDefinitionCache.class);
+
+    private static final int MAX_DEFINITIONS = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final class CacheEntry
+    {
+        private final long lastModified;
+        private final long length;
+        private final JsonAutomatonDefinition definition;
+
+        CacheEntry(final long aLastModified, final long aLength, final JsonAutomatonDefinition aDefinition)
+        {
+            this.lastModified = aLastModified;
+            this.length = aLength;
+            this.definition = aDefinition;
+        }
+    }
+
+    private static final Map<String, CacheEntry> DEFINITIONS = new LinkedHashMap<String, CacheEntry>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest)
+        {
+            return this.size() > MAX_DEFINITIONS;
+        }
+    };
+
+    public static synchronized JsonAutomatonDefinition getDefinition(final File jsonFile)
+    {
+        Validate.notNull(jsonFile);
+        final String key = getCanonicalPath(jsonFile);
+        final long lastModified = jsonFile.lastModified();
+        final long length = jsonFile.length();
+        final CacheEntry entry = DEFINITIONS.get(key);
+        if (entry != null && entry.lastModified == lastModified && entry.length == length)
+        {
+            LOG.trace("Using cached automaton definition of file '{}'", key);
+            return entry.definition;
+        }
+        if (entry != null)
+        {
+            LOG.debug("Automaton definition file '{}' was modified; reloading", key);
+        }
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition(jsonFile);
+        DEFINITIONS.put(key, new CacheEntry(lastModified, length, definition));
+        return definition;
+    }
+
+    public static synchronized void clear()
+    {
+        DEFINITIONS.clear();
+    }
+
+    private static String getCanonicalPath(final File file)
+    {
+        try
+        {
+            return file.getCanonicalPath();
+        }
+        catch (final IOException ioe)
+        {
+            return file.getAbsolutePath();
+        }
+    }
+}
@@ -7,7 +7,9 @@
 
 package de.pixida.logtest.automatondefinitions;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.Validate;
@@ -24,6 +26,10 @@ public abstract class AutomatonDefinitionToJsonConverter
         putValueIfNotNull(root, JsonKey.ROOT_ONLOAD, automaton.getOnLoad());
         putValueIfNotNull(root, JsonKey.ROOT_DESCRIPTION, automaton.getDescription());
         putValueIfNotNull(root, JsonKey.ROOT_SCRIPT_LANGUAGE, automaton.getScriptLanguage());
+        putValueIfNotNull(root, JsonKey.ROOT_REG_EXP_RESULT_CACHE_SIZE, automaton.getRegExpResultCacheSize());
+        putValueIfNotNull(root, JsonKey.ROOT_REG_EXP_TIME_BUDGET_MS, automaton.getRegExpTimeBudgetMs());
+        putValueIfNotNull(root, JsonKey.ROOT_SCRIPT_TIME_BUDGET_MS, automaton.getScriptTimeBudgetMs());
+        putValueIfNotNull(root, JsonKey.ROOT_SCRIPT_TOTAL_TIME_BUDGET_MS, automaton.getScriptTotalTimeBudgetMs());
         root.put(JsonKey.ROOT_NODES.getKey(), convertNodes(automaton.getNodes(), automaton.getEdges()));
         return root;
     }
@@ -73,6 +79,7 @@ public abstract class AutomatonDefinitionToJsonConverter
         edge.put(JsonKey.EDGE_DESTINATION.getKey(), definedOutgoingEdge.getDestination().getId());
         putValueIfNotNull(edge, JsonKey.EDGE_ON_WALK, definedOutgoingEdge.getOnWalk());
         putValueIfNotNull(edge, JsonKey.EDGE_REG_EXP, definedOutgoingEdge.getRegExp());
+        putEnumValueIfNotNull(edge, JsonKey.EDGE_REG_EXP_ENGINE, definedOutgoingEdge.getRegExpEngine());
         putValueIfNotNull(edge, JsonKey.EDGE_CHECK_EXP, definedOutgoingEdge.getCheckExp());
         putTrueValueIfNotNullAndTrue(edge, JsonKey.EDGE_TRIGGER_ALWAYS, definedOutgoingEdge.getTriggerAlways());
         putTrueValueIfNotNullAndTrue(edge, JsonKey.EDGE_TRIGGER_ON_EOF, definedOutgoingEdge.getTriggerOnEof());
@@ -86,9 +93,71 @@ public abstract class AutomatonDefinitionToJsonConverter
         {
             edge.put(JsonKey.EDGE_CHANNEL.getKey(), definedOutgoingEdge.getChannel());
         }
+        if (definedOutgoingEdge.getFieldEquals() != null)
+        {
+            final JSONObject fieldEquals = new JSONObject();
+            for (final Map.Entry<String, String> field : definedOutgoingEdge.getFieldEquals().entrySet())
+            {
+                fieldEquals.put(field.getKey(), field.getValue());
+            }
+            edge.put(JsonKey.EDGE_FIELD_EQUALS.getKey(), fieldEquals);
+        }
+        putFieldRange(edge, definedOutgoingEdge.getFieldRange());
+        if (definedOutgoingEdge.getFieldPresent() != null)
+        {
+            final JSONArray fieldPresent = new JSONArray();
+            definedOutgoingEdge.getFieldPresent().forEach(fieldPresent::put);
+            edge.put(JsonKey.EDGE_FIELD_PRESENT.getKey(), fieldPresent);
+        }
+        putValueInSet(edge, definedOutgoingEdge.getValueInSet());
         return edge;
     }
 
+    private static void putValueInSet(final JSONObject edge, final IValueInSet definedValueInSet)
+    {
+        if (definedValueInSet != null)
+        {
+            final JSONObject valueInSet = new JSONObject();
+            putValueIfNotNull(valueInSet, JsonKey.VALUE_IN_SET_FILE, definedValueInSet.getFile());
+            putValueIfNotNull(valueInSet, JsonKey.VALUE_IN_SET_FIELD, definedValueInSet.getField());
+            putValueIfNotNull(valueInSet, JsonKey.VALUE_IN_SET_REG_EXP, definedValueInSet.getRegExp());
+            putValueIfNotNull(valueInSet, JsonKey.VALUE_IN_SET_REG_EXP_GROUP, definedValueInSet.getRegExpGroup());
+            edge.put(JsonKey.EDGE_VALUE_IN_SET.getKey(), valueInSet);
+        }
+    }
+
+    private static void putFieldRange(final JSONObject edge, final Map<String, INumericRange> definedFieldRange)
+    {
+        if (definedFieldRange != null)
+        {
+            final JSONObject fields = new JSONObject();
+            for (final Map.Entry<String, INumericRange> field : definedFieldRange.entrySet())
+            {
+                final JSONObject range = new JSONObject();
+                putNumericRangeBound(range, JsonKey.NUMERIC_RANGE_MIN, field.getValue().getMin());
+                putNumericRangeBound(range, JsonKey.NUMERIC_RANGE_MAX, field.getValue().getMax());
+                fields.put(field.getKey(), range);
+            }
+            edge.put(JsonKey.EDGE_FIELD_RANGE.getKey(), fields);
+        }
+    }
+
+    private static void putNumericRangeBound(final JSONObject range, final JsonKey boundKey, final String bound)
+    {
+        if (bound != null)
+        {
+            // Write plain numbers as such, keep bounds with parameters as strings
+            try
+            {
+                range.put(boundKey.getKey(), new BigDecimal(bound));
+            }
+            catch (final NumberFormatException nfe)
+            {
+                range.put(boundKey.getKey(), bound);
+            }
+        }
+    }
+
     private static <E extends Enum<E>> void putEnumValueIfNotNull(final JSONObject jsonObject, final JsonKey jsonKey, final E value)
     {
         Validate.notNull(jsonObject);
@@ -7,8 +7,13 @@
 
 package de.pixida.logtest.automatondefinitions;
 
+import java.util.List;
+import java.util.Map;
+
 import org.apache.commons.lang3.StringUtils;
 
+import de.pixida.logtest.regexp.RegExpEngine;
+
 public class GenericEdge implements IEdgeDefinition
 {
     private final String id;
@@ -19,6 +24,7 @@ public class GenericEdge implements IEdgeDefinition
     private final INodeDefinition destination;
 
     private String regExp;
+    private RegExpEngine regExpEngine;
     private String checkExp;
     private Boolean triggerAlways;
     private String onWalk;
@@ -29,6 +35,10 @@ public class GenericEdge implements IEdgeDefinition
     private ITimeInterval timeIntervalSinceAutomatonStart;
     private ITimeInterval timeIntervalForEvent;
     private String channel;
+    private Map<String, String> fieldEquals;
+    private Map<String, INumericRange> fieldRange;
+    private List<String> fieldPresent;
+    private IValueInSet valueInSet;
 
     private String nameForLogging;
 
@@ -69,6 +79,17 @@ public class GenericEdge implements IEdgeDefinition
         this.regExp = value;
     }
 
+    @Override
+    public RegExpEngine getRegExpEngine()
+    {
+        return this.regExpEngine;
+    }
+
+    public void setRegExpEngine(final RegExpEngine value)
+    {
+        this.regExpEngine = value;
+    }
+
     @Override
     public String getCheckExp()
     {
@@ -179,6 +200,50 @@ public class GenericEdge implements IEdgeDefinition
         this.channel = value;
     }
 
+    @Override
+    public Map<String, String> getFieldEquals()
+    {
+        return this.fieldEquals;
+    }
+
+    public void setFieldEquals(final Map<String, String> value)
+    {
+        this.fieldEquals = value;
+    }
+
+    @Override
+    public Map<String, INumericRange> getFieldRange()
+    {
+        return this.fieldRange;
+    }
+
+    public void setFieldRange(final Map<String, INumericRange> value)
+    {
+        this.fieldRange = value;
+    }
+
+    @Override
+    public List<String> getFieldPresent()
+    {
+        return this.fieldPresent;
+    }
+
+    public void setFieldPresent(final List<String> value)
+    {
+        this.fieldPresent = value;
+    }
+
+    @Override
+    public IValueInSet getValueInSet()
+    {
+        return this.valueInSet;
+    }
+
+    public void setValueInSet(final IValueInSet value)
+    {
+        this.valueInSet = value;
+    }
+
     @Override
     public String getName()
     {
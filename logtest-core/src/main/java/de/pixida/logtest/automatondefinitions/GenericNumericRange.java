@@ -0,0 +1,41 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+public class GenericNumericRange implements INumericRange
+{
+    private String min;
+    private String max;
+
+    public GenericNumericRange()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public String getMin()
+    {
+        return this.min;
+    }
+
+    public void setMin(final String value)
+    {
+        this.min = value;
+    }
+
+    @Override
+    public String getMax()
+    {
+        return this.max;
+    }
+
+    public void setMax(final String value)
+    {
+        this.max = value;
+    }
+}
@@ -0,0 +1,65 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+public class GenericValueInSet implements IValueInSet
+{
+    private String file;
+    private String field;
+    private String regExp;
+    private Integer regExpGroup;
+
+    public GenericValueInSet()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public String getFile()
+    {
+        return this.file;
+    }
+
+    public void setFile(final String value)
+    {
+        this.file = value;
+    }
+
+    @Override
+    public String getField()
+    {
+        return this.field;
+    }
+
+    public void setField(final String value)
+    {
+        this.field = value;
+    }
+
+    @Override
+    public String getRegExp()
+    {
+        return this.regExp;
+    }
+
+    public void setRegExp(final String value)
+    {
+        this.regExp = value;
+    }
+
+    @Override
+    public Integer getRegExpGroup()
+    {
+        return this.regExpGroup;
+    }
+
+    public void setRegExpGroup(final Integer value)
+    {
+        this.regExpGroup = value;
+    }
+}
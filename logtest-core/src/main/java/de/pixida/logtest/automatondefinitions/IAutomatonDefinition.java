@@ -7,7 +7,9 @@
 
 package de.pixida.logtest.automatondefinitions;
 
+import java.io.File;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface IAutomatonDefinition
 {
@@ -24,4 +26,32 @@ public interface IAutomatonDefinition
     String getDescription();
 
     String getScriptLanguage();
+
+    /** @return Max. number of payloads per regular expression whose matching results are cached; null or 0 disables caching */
+    Integer getRegExpResultCacheSize();
+
+    /** @return Max. duration of a single regular expression match in milliseconds; null or 0 for no limit */
+    Integer getRegExpTimeBudgetMs();
+
+    /** @return Max. duration of a single script invocation in milliseconds; null or 0 for no limit */
+    Integer getScriptTimeBudgetMs();
+
+    /** @return Max. CPU time of all script invocations of an automaton evaluation in milliseconds; null or 0 for no limit */
+    Integer getScriptTotalTimeBudgetMs();
+
+    /** @return Directory against which relative paths of files referenced by the automaton are resolved; null for the working directory */
+    default File getBaseDirectory()
+    {
+        return null;
+    }
+
+    /**
+     * @return Paths of the files the automaton reads besides its definition, e.g. sets of values, as they are given in the definition:
+     *         They may contain parameters and be relative to {@link #getBaseDirectory()}. Only valid after {@link #load()}.
+     */
+    default List<String> getReferencedFiles()
+    {
+        return this.getEdges().stream().map(edge -> edge.getValueInSet()).filter(valueInSet -> valueInSet != null)
+            .map(valueInSet -> valueInSet.getFile()).filter(file -> file != null).collect(Collectors.toList());
+    }
 }
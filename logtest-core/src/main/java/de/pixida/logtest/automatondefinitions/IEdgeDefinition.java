@@ -7,6 +7,11 @@
 
 package de.pixida.logtest.automatondefinitions;
 
+import java.util.List;
+import java.util.Map;
+
+import de.pixida.logtest.regexp.RegExpEngine;
+
 public interface IEdgeDefinition
 {
     public static final String DEFAULT_CHANNEL = null;
@@ -30,6 +35,8 @@ public interface IEdgeDefinition
 
     String getRegExp();
 
+    RegExpEngine getRegExpEngine();
+
     Boolean getTriggerAlways();
 
     String getCheckExp();
@@ -49,4 +56,16 @@ public interface IEdgeDefinition
     ITimeInterval getTimeIntervalForEvent();
 
     String getChannel();
+
+    /** @return Fields of the payload which must have the given values, or null */
+    Map<String, String> getFieldEquals();
+
+    /** @return Fields of the payload which must be numbers within the given ranges, or null */
+    Map<String, INumericRange> getFieldRange();
+
+    /** @return Fields which must be present in the payload, or null */
+    List<String> getFieldPresent();
+
+    /** @return Set of values which must contain a value of the payload, or null */
+    IValueInSet getValueInSet();
 }
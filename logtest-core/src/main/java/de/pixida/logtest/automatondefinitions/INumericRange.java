@@ -0,0 +1,16 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+/** Inclusive range of numbers. Bounds are strings as they may contain automaton parameters; null for an open end. */
+public interface INumericRange
+{
+    String getMin();
+
+    String getMax();
+}
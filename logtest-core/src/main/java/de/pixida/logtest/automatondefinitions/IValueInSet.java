@@ -0,0 +1,27 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+/**
+ * Membership test of a value of the payload in a set of values listed in a file. The value is either a field of the payload or a group
+ * of a regular expression matched against the payload. Strings may contain automaton parameters.
+ */
+public interface IValueInSet
+{
+    /** @return Path of the file with one value per line; relative paths are resolved against the directory of the automaton */
+    String getFile();
+
+    /** @return Name of the field holding the value, or null if the value is extracted by {@link #getRegExp()} */
+    String getField();
+
+    /** @return Regular expression extracting the value, or null if the value is taken from {@link #getField()} */
+    String getRegExp();
+
+    /** @return Index of the group of {@link #getRegExp()} holding the value; null for the whole match */
+    Integer getRegExpGroup();
+}
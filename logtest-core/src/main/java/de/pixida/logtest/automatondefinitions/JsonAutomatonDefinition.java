@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -29,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.pixida.logtest.logreaders.ILogEntry;
+import de.pixida.logtest.regexp.RegExpEngine;
 
 public class JsonAutomatonDefinition implements IAutomatonDefinition
 {
@@ -49,6 +51,10 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
     private String description;
     private String onLoad;
     private String scriptLanguage;
+    private Integer regExpResultCacheSize;
+    private Integer regExpTimeBudgetMs;
+    private Integer scriptTimeBudgetMs;
+    private Integer scriptTotalTimeBudgetMs;
 
     public JsonAutomatonDefinition(final File aJsonFile)
     {
@@ -93,6 +99,12 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
         return this.jsonFile.getName();
     }
 
+    @Override
+    public File getBaseDirectory()
+    {
+        return this.jsonFile == null ? null : this.jsonFile.getAbsoluteFile().getParentFile();
+    }
+
     @Override
     public String getDescription()
     {
@@ -106,7 +118,31 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
     }
 
     @Override
-    public void load()
+    public Integer getRegExpResultCacheSize()
+    {
+        return this.regExpResultCacheSize;
+    }
+
+    @Override
+    public Integer getRegExpTimeBudgetMs()
+    {
+        return this.regExpTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTimeBudgetMs()
+    {
+        return this.scriptTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTotalTimeBudgetMs()
+    {
+        return this.scriptTotalTimeBudgetMs;
+    }
+
+    @Override
+    public synchronized void load()
     {
         if (!this.automatonLoaded)
         {
@@ -118,6 +154,10 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
                     JsonKey.ROOT_DESCRIPTION_DEPRECATED);
                 this.onLoad = this.loadOptStringAttributeFromJsonObject(root, JsonKey.ROOT_ONLOAD);
                 this.scriptLanguage = this.loadOptStringAttributeFromJsonObject(root, JsonKey.ROOT_SCRIPT_LANGUAGE);
+                this.regExpResultCacheSize = this.loadOptIntegerAttributeFromJsonObject(root, JsonKey.ROOT_REG_EXP_RESULT_CACHE_SIZE);
+                this.regExpTimeBudgetMs = this.loadOptIntegerAttributeFromJsonObject(root, JsonKey.ROOT_REG_EXP_TIME_BUDGET_MS);
+                this.scriptTimeBudgetMs = this.loadOptIntegerAttributeFromJsonObject(root, JsonKey.ROOT_SCRIPT_TIME_BUDGET_MS);
+                this.scriptTotalTimeBudgetMs = this.loadOptIntegerAttributeFromJsonObject(root, JsonKey.ROOT_SCRIPT_TOTAL_TIME_BUDGET_MS);
                 this.extractNodesAndEdges(root);
                 this.automatonLoaded = true;
             }
@@ -243,6 +283,7 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
     private void retrieveEdgeConditions(final JSONObject edge, final GenericEdge newEdge)
     {
         newEdge.setRegExp(this.loadOptStringAttributeFromJsonObject(edge, JsonKey.EDGE_REG_EXP));
+        newEdge.setRegExpEngine(this.loadOptEnumAttributeFromJsonObject(edge, RegExpEngine.class, JsonKey.EDGE_REG_EXP_ENGINE));
         newEdge.setCheckExp(this.loadOptStringAttributeFromJsonObject(edge, JsonKey.EDGE_CHECK_EXP));
         newEdge.setTriggerAlways(this.loadOptBooleanAttributeFromJsonObject(edge, JsonKey.EDGE_TRIGGER_ALWAYS));
         newEdge.setTriggerOnEof(this.loadOptBooleanAttributeFromJsonObject(edge, JsonKey.EDGE_TRIGGER_ON_EOF));
@@ -258,6 +299,88 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
         {
             newEdge.setChannel(ILogEntry.DEFAULT_CHANNEL);
         }
+        newEdge.setFieldEquals(this.parseFieldEquals(edge));
+        newEdge.setFieldRange(this.parseFieldRange(edge));
+        newEdge.setFieldPresent(this.parseFieldPresent(edge));
+        newEdge.setValueInSet(this.parseValueInSet(edge));
+    }
+
+    private Map<String, String> parseFieldEquals(final JSONObject edge)
+    {
+        final JSONObject fields = this.loadOptJsonObjectAttributeFromJsonObject(edge, JsonKey.EDGE_FIELD_EQUALS);
+        if (fields == null)
+        {
+            return null;
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (final String field : fields.keySet())
+        {
+            // Numbers are accepted for convenience, e.g. {"status": 200}
+            result.put(field, String.valueOf(fields.get(field)));
+        }
+        return result;
+    }
+
+    private Map<String, INumericRange> parseFieldRange(final JSONObject edge)
+    {
+        final JSONObject fields = this.loadOptJsonObjectAttributeFromJsonObject(edge, JsonKey.EDGE_FIELD_RANGE);
+        if (fields == null)
+        {
+            return null;
+        }
+        final Map<String, INumericRange> result = new LinkedHashMap<>();
+        for (final String field : fields.keySet())
+        {
+            final JSONObject rangeObject = fields.optJSONObject(field);
+            if (rangeObject == null)
+            {
+                throw new AutomatonLoadingException("Invalid range for field '" + field + "' in '" + JsonKey.EDGE_FIELD_RANGE.getKey()
+                    + "': Expecting an object with '" + JsonKey.NUMERIC_RANGE_MIN.getKey() + "' and/or '"
+                    + JsonKey.NUMERIC_RANGE_MAX.getKey() + "'");
+            }
+            final GenericNumericRange range = new GenericNumericRange();
+            range.setMin(rangeObject.has(JsonKey.NUMERIC_RANGE_MIN.getKey())
+                ? String.valueOf(rangeObject.get(JsonKey.NUMERIC_RANGE_MIN.getKey())) : null);
+            range.setMax(rangeObject.has(JsonKey.NUMERIC_RANGE_MAX.getKey())
+                ? String.valueOf(rangeObject.get(JsonKey.NUMERIC_RANGE_MAX.getKey())) : null);
+            result.put(field, range);
+        }
+        return result;
+    }
+
+    private List<String> parseFieldPresent(final JSONObject edge)
+    {
+        if (!edge.has(JsonKey.EDGE_FIELD_PRESENT.getKey()))
+        {
+            return null;
+        }
+        final JSONArray fields = edge.getJSONArray(JsonKey.EDGE_FIELD_PRESENT.getKey());
+        final List<String> result = new ArrayList<>(fields.length());
+        for (int i = 0; i < fields.length(); i++)
+        {
+            result.add(fields.getString(i));
+        }
+        return result;
+    }
+
+    private IValueInSet parseValueInSet(final JSONObject edge)
+    {
+        final JSONObject valueInSetObject = this.loadOptJsonObjectAttributeFromJsonObject(edge, JsonKey.EDGE_VALUE_IN_SET);
+        if (valueInSetObject == null)
+        {
+            return null;
+        }
+        final GenericValueInSet valueInSet = new GenericValueInSet();
+        valueInSet.setFile(this.loadOptStringAttributeFromJsonObject(valueInSetObject, JsonKey.VALUE_IN_SET_FILE));
+        valueInSet.setField(this.loadOptStringAttributeFromJsonObject(valueInSetObject, JsonKey.VALUE_IN_SET_FIELD));
+        valueInSet.setRegExp(this.loadOptStringAttributeFromJsonObject(valueInSetObject, JsonKey.VALUE_IN_SET_REG_EXP));
+        valueInSet.setRegExpGroup(this.loadOptIntegerAttributeFromJsonObject(valueInSetObject, JsonKey.VALUE_IN_SET_REG_EXP_GROUP));
+        return valueInSet;
+    }
+
+    private JSONObject loadOptJsonObjectAttributeFromJsonObject(final JSONObject jsonObject, final JsonKey key)
+    {
+        return jsonObject.has(key.getKey()) ? jsonObject.getJSONObject(key.getKey()) : null;
     }
 
     private ITimeInterval parseTimeInterval(final JSONObject edge, final JsonKey key)
@@ -322,6 +445,11 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
         return jsonObject.has(key.getKey()) ? jsonObject.getBoolean(key.getKey()) : null;
     }
 
+    private Integer loadOptIntegerAttributeFromJsonObject(final JSONObject jsonObject, final JsonKey key)
+    {
+        return jsonObject.has(key.getKey()) ? jsonObject.getInt(key.getKey()) : null;
+    }
+
     private String loadOptStringAttributeFromJsonObjectWithDeprecatedAlternative(final JSONObject jsonObject, final JsonKey key,
         final JsonKey oldKey)
     {
@@ -347,7 +475,7 @@ public class JsonAutomatonDefinition implements IAutomatonDefinition
         final String valueLc = value.toLowerCase(Locale.US);
         return Arrays.stream(enumClz.getEnumConstants())
             .filter(enumConstant -> valueLc.equals(enumConstant.toString().toLowerCase(Locale.US)))
-            .findFirst().orElseThrow(() -> new AutomatonLoadingException("Invalid value for required conditions: " + value));
+            .findFirst().orElseThrow(() -> new AutomatonLoadingException("Invalid value for '" + key.getKey() + "': " + value));
     }
 
     // Just for logging output / no business use
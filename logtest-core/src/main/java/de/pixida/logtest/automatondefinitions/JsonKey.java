@@ -16,6 +16,10 @@ public enum JsonKey
     ROOT_DESCRIPTION("description"),
     ROOT_SCRIPT_LANGUAGE("scriptLanguage"),
     ROOT_ONLOAD("onLoad"),
+    ROOT_REG_EXP_RESULT_CACHE_SIZE("regExpResultCacheSize"),
+    ROOT_REG_EXP_TIME_BUDGET_MS("regExpTimeBudgetMs"),
+    ROOT_SCRIPT_TIME_BUDGET_MS("scriptTimeBudgetMs"),
+    ROOT_SCRIPT_TOTAL_TIME_BUDGET_MS("scriptTotalTimeBudgetMs"),
     ROOT_NODES("nodes"),
     NODE_ID("id"),
     NODE_NAME("name"),
@@ -37,6 +41,7 @@ public enum JsonKey
     EDGE_DESTINATION("destination"),
     EDGE_ON_WALK("onWalk"),
     EDGE_REG_EXP("regExp"),
+    EDGE_REG_EXP_ENGINE("regExpEngine"),
     EDGE_CHECK_EXP("checkExp"),
     EDGE_TRIGGER_ALWAYS("triggerAlways"),
     EDGE_TRIGGER_ON_EOF("triggerOnEof"),
@@ -46,11 +51,21 @@ public enum JsonKey
     EDGE_TIME_INTERVAL_SINCE_LAST_TRANSITION("timeIntervalSinceLastTransition"),
     EDGE_TIME_INTERVAL_SINCE_AUTOMATON_START("timeIntervalSinceAutomatonStart"),
     EDGE_TIME_INTERVAL_FOR_EVENT("timeIntervalForEvent"),
+    EDGE_FIELD_EQUALS("fieldEquals"),
+    EDGE_FIELD_RANGE("fieldRange"),
+    EDGE_FIELD_PRESENT("fieldPresent"),
+    EDGE_VALUE_IN_SET("valueInSet"),
     TIME_INTERVAL_MIN("min"),
     TIME_INTERVAL_MAX("max"),
     TIME_INTERVAL_DURATION_IS_INCLUSIVE("isInclusive"),
     TIME_INTERVAL_DURATION_VALUE("value"),
-    TIME_INTERVAL_DURATION_UNIT("unit");
+    TIME_INTERVAL_DURATION_UNIT("unit"),
+    NUMERIC_RANGE_MIN("min"),
+    NUMERIC_RANGE_MAX("max"),
+    VALUE_IN_SET_FILE("file"),
+    VALUE_IN_SET_FIELD("field"),
+    VALUE_IN_SET_REG_EXP("regExp"),
+    VALUE_IN_SET_REG_EXP_GROUP("regExpGroup");
 
     private String keyName;
 
@@ -7,11 +7,13 @@
 
 package de.pixida.logtest.engine;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.script.ScriptEngine;
@@ -28,9 +30,19 @@ import de.pixida.logtest.automatondefinitions.IAutomatonDefinition;
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
 import de.pixida.logtest.automatondefinitions.INodeDefinition;
 import de.pixida.logtest.engine.AutomatonNode.Type;
+import de.pixida.logtest.engine.conditions.IConditionContext;
 import de.pixida.logtest.engine.conditions.IEventDescription;
+import de.pixida.logtest.engine.conditions.IParameters;
 import de.pixida.logtest.engine.conditions.IScriptEnvironment;
+import de.pixida.logtest.engine.conditions.RegExpResultCache;
+import de.pixida.logtest.flightrecorder.FlightRecorderEvents;
+import de.pixida.logtest.logreaders.ChannelDictionary;
+import de.pixida.logtest.logreaders.FieldView;
 import de.pixida.logtest.logreaders.ILogEntry;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpPatterns;
+import de.pixida.logtest.regexp.RegExpTimeBudgetExceededException;
+import de.pixida.logtest.regexp.RegExpTimings;
 
 public class Automaton
 {
@@ -87,6 +99,81 @@ public class Automaton
         {
             return Automaton.this.currentEvent.getLogEntry() != null;
         }
+
+        @Override
+        public FieldView getFields()
+        {
+            return Automaton.this.currentEvent.getLogEntry().getFields();
+        }
+
+        @Override
+        public int getChannelId()
+        {
+            if (Automaton.this.currentEvent.getLogEntry() == null)
+            {
+                return ChannelDictionary.DEFAULT_CHANNEL_ID;
+            }
+            else
+            {
+                return Automaton.this.currentEvent.getLogEntry().getChannelId();
+            }
+        }
+    }
+
+    private class ConditionContext implements IConditionContext
+    {
+        ConditionContext()
+        {
+            // Empty constructor needed by checkstyle
+        }
+
+        @Override
+        public IParameters getParameters()
+        {
+            return Automaton.this.parameters;
+        }
+
+        @Override
+        public ScriptEngine getScriptingEngine()
+        {
+            return Automaton.this.scriptingEngine;
+        }
+
+        @Override
+        public RegExpResultCache getRegExpResultCache(final IRegExpPattern pattern)
+        {
+            if (Automaton.this.regExpResultCacheSize == 0)
+            {
+                return null;
+            }
+            // Compiled patterns are shared, i.e. edges with the same expression and engine get the same pattern instance
+            return Automaton.this.regExpResultCaches.computeIfAbsent(pattern,
+                key -> new RegExpResultCache(key.pattern(), Automaton.this.regExpResultCacheSize));
+        }
+
+        @Override
+        public ScriptRunner getScriptRunner()
+        {
+            return Automaton.this.scriptRunner;
+        }
+
+        @Override
+        public long getRegExpTimeBudgetMs()
+        {
+            return Automaton.this.regExpTimeBudgetMs;
+        }
+
+        @Override
+        public RegExpTimings getRegExpTimings()
+        {
+            return Automaton.this.regExpTimings;
+        }
+
+        @Override
+        public File getBaseDirectory()
+        {
+            return Automaton.this.automatonDefinition.getBaseDirectory();
+        }
     }
 
     public class ScriptEnvironment implements IScriptEnvironment
@@ -243,14 +330,19 @@ public class Automaton
 
     private class LastTransition
     {
-        private final AutomatonEdge edge;
-        private final Event event;
-        private final long timeMs;
+        private AutomatonEdge edge;
+        private long lineNumber; // -1 for EOF
+        private long timeMs;
 
-        LastTransition(final AutomatonEdge aEdge, final Event aEvent, final long aTimeMs)
+        LastTransition()
+        {
+            // Empty constructor needed by checkstyle
+        }
+
+        void set(final AutomatonEdge aEdge, final long aLineNumber, final long aTimeMs)
         {
             this.edge = aEdge;
-            this.event = aEvent;
+            this.lineNumber = aLineNumber;
             this.timeMs = aTimeMs;
         }
 
@@ -259,9 +351,9 @@ public class Automaton
             return this.edge.getSourceNode();
         }
 
-        Event getEvent()
+        long getLineNumber()
         {
-            return this.event;
+            return this.lineNumber;
         }
 
         AutomatonEdge getEdge()
@@ -283,6 +375,8 @@ public class Automaton
     }
 
     private final IAutomatonDefinition automatonDefinition;
+    private final ChannelDictionary channelDictionary;
+    private final RegExpTimings regExpTimings;
     private EmbeddedScript onLoad;
     private final List<AutomatonNode> nodes = new ArrayList<>();
     private final List<AutomatonEdge> edges = new ArrayList<>();
@@ -298,17 +392,52 @@ public class Automaton
     private boolean rejectFlag;
     private String rejectMessage;
     private LastTransition lastTransition;
-    private Event currentEvent;
+    private final Event currentEvent = new Event();
     private String description;
     private String scriptLanguage;
     private final TimingInfo timingInfo = new TimingInfo();
+    private final ConditionContext conditionContext = new ConditionContext();
+    private final Map<IRegExpPattern, RegExpResultCache> regExpResultCaches = new HashMap<>();
+    private int regExpResultCacheSize;
+    private boolean statisticsReported;
+    private ScriptRunner scriptRunner;
+    private long regExpTimeBudgetMs;
+    private AutomatonMetrics metrics;
+    private final TransitionHistory transitionHistory = new TransitionHistory(TransitionHistory.DEFAULT_CAPACITY);
 
     public Automaton(final IAutomatonDefinition aAutomatonDefinition, final Map<String, String> aParameters)
+    {
+        this(aAutomatonDefinition, aParameters, null);
+    }
+
+    /**
+     * @param aAutomatonDefinition Definition of the automaton
+     * @param aParameters Parameters for the automaton evaluation
+     * @param aChannelDictionary Dictionary of the log reader which feeds the automaton; edges then compare channel ids instead of channel
+     *            names. May be <code>null</code>.
+     */
+    public Automaton(final IAutomatonDefinition aAutomatonDefinition, final Map<String, String> aParameters,
+        final ChannelDictionary aChannelDictionary)
+    {
+        this(aAutomatonDefinition, aParameters, aChannelDictionary, null);
+    }
+
+    /**
+     * @param aAutomatonDefinition Definition of the automaton
+     * @param aParameters Parameters for the automaton evaluation
+     * @param aChannelDictionary Dictionary of the log reader which feeds the automaton; edges then compare channel ids instead of channel
+     *            names. May be <code>null</code>.
+     * @param aRegExpTimings Records the duration of the regular expression matches of the automaton. May be <code>null</code>.
+     */
+    public Automaton(final IAutomatonDefinition aAutomatonDefinition, final Map<String, String> aParameters,
+        final ChannelDictionary aChannelDictionary, final RegExpTimings aRegExpTimings)
     {
         LOG.debug("Creating automaton with definition '{}' and parameters '{}'", aAutomatonDefinition, aParameters);
         Validate.notNull(aAutomatonDefinition);
         Validate.notNull(aParameters);
         this.automatonDefinition = aAutomatonDefinition;
+        this.channelDictionary = aChannelDictionary;
+        this.regExpTimings = aRegExpTimings;
         this.parameters = new AutomatonParameters(aParameters);
         try
         {
@@ -335,21 +464,128 @@ public class Automaton
         }
     }
 
+    /**
+     * Resolve the files an automaton reads besides its definition, e.g. to find out whether its results may be reused.
+     *
+     * @param definition
+     *            Definition of the automaton; loaded if it is not yet
+     * @param parameters
+     *            Parameters for the automaton evaluation
+     * @return Referenced files with all parameters inserted
+     * @throws AutomatonLoadingException
+     *             If the definition cannot be loaded
+     * @throws InvalidAutomatonDefinitionException
+     *             If a path references an undefined parameter
+     */
+    public static List<File> getReferencedFiles(final IAutomatonDefinition definition, final Map<String, String> parameters)
+    {
+        Validate.notNull(definition);
+        Validate.notNull(parameters);
+        definition.load();
+        final IParameters automatonParameters = new AutomatonParameters(parameters);
+        return definition.getReferencedFiles().stream()
+            .map(path -> resolveReferencedFile(automatonParameters.insertAllParameters(path), definition.getBaseDirectory()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param path
+     *            Path of a file referenced by an automaton with all parameters inserted
+     * @param baseDirectory
+     *            See {@link IAutomatonDefinition#getBaseDirectory()}
+     * @return The path resolved against the base directory, unless it is absolute or there is no base directory
+     */
+    public static File resolveReferencedFile(final String path, final File baseDirectory)
+    {
+        final File file = new File(path);
+        return file.isAbsolute() || baseDirectory == null ? file : new File(baseDirectory, path);
+    }
+
     public void proceedWithLogEntry(final ILogEntry logEntry)
     {
         LOG.trace("Proceeding with log entry: {}", logEntry);
         Validate.notNull(logEntry);
         Validate.notNull(logEntry.getPayload());
+        this.currentEvent.setLogEntry(logEntry);
         this.timingInfo.setTimeOfCurrentEvent(logEntry.getTime());
-        this.currentEvent = Event.fromLogEntry(logEntry);
         this.pushEvent();
     }
 
+    /**
+     * Like calling {@link #proceedWithLogEntry(ILogEntry)} for each of the given entries, but stops as soon as the automaton cannot
+     * proceed anymore.
+     *
+     * @param logEntries
+     *            Buffer containing the entries
+     * @param offset
+     *            Index of the first entry in the buffer
+     * @param length
+     *            Number of entries
+     * @return Number of entries which were processed; less than length if the automaton is done
+     */
+    public int proceedWithLogEntries(final ILogEntry[] logEntries, final int offset, final int length)
+    {
+        validateLogEntries(logEntries, offset, length);
+        return this.proceedWithValidatedLogEntries(logEntries, offset, length);
+    }
+
+    /**
+     * Checks the entries like {@link #proceedWithLogEntries(ILogEntry[], int, int)} does, such that a batch which is passed to several
+     * automatons only needs to be checked once.
+     *
+     * @param logEntries
+     *            Buffer containing the entries
+     * @param offset
+     *            Index of the first entry in the buffer
+     * @param length
+     *            Number of entries
+     */
+    public static void validateLogEntries(final ILogEntry[] logEntries, final int offset, final int length)
+    {
+        Validate.notNull(logEntries);
+        Validate.isTrue(offset >= 0 && length >= 0 && offset + length <= logEntries.length, "Invalid range [%d, %d[ of %d entries",
+            offset, offset + length, logEntries.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            Validate.notNull(logEntries[i], "Log entry at index %d is null", i);
+            Validate.notNull(logEntries[i].getPayload(), "Payload of log entry at index %d is null", i);
+        }
+    }
+
+    /**
+     * Like {@link #proceedWithLogEntries(ILogEntry[], int, int)}, but without checking the entries. Only to be used for entries which
+     * were checked by {@link #validateLogEntries(ILogEntry[], int, int)} before.
+     *
+     * @param logEntries
+     *            Buffer containing the entries
+     * @param offset
+     *            Index of the first entry in the buffer
+     * @param length
+     *            Number of entries
+     * @return Number of entries which were processed; less than length if the automaton is done
+     */
+    public int proceedWithValidatedLogEntries(final ILogEntry[] logEntries, final int offset, final int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (!this.canProceed())
+            {
+                return i;
+            }
+            final ILogEntry logEntry = logEntries[offset + i];
+            this.currentEvent.setLogEntry(logEntry);
+            this.timingInfo.setTimeOfCurrentEvent(logEntry.getTime());
+            this.pushEvent();
+        }
+        return length;
+    }
+
     public void pushEof()
     {
         LOG.trace("Proceeding with EOF");
-        this.currentEvent = Event.fromEof();
+        this.currentEvent.setEof();
         this.pushEvent();
+        this.reportStatistics();
     }
 
     public boolean canProceed()
@@ -492,6 +728,30 @@ public class Automaton
         return this.description;
     }
 
+    /** Start collecting metrics; must be called before the first event is pushed to cover all of them */
+    public void enableMetrics()
+    {
+        if (this.metrics != null)
+        {
+            return;
+        }
+        this.metrics = new AutomatonMetrics(this.toString());
+        this.nodes.forEach(node -> node.setMetrics(this.metrics.addNode(node.toString())));
+        this.edges.forEach(edge -> edge.setMetrics(this.metrics.addEdge(edge.toString())));
+    }
+
+    /** @return The metrics collected so far, or null if collecting metrics is not enabled */
+    public AutomatonMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+
+    /** @return The most recent transitions in readable form, oldest first; meant to be reported if the automaton did not succeed */
+    public String getTransitionHistory()
+    {
+        return this.transitionHistory.dump(this.nodes, this.edges);
+    }
+
     private String asssembleFinalNodeFailureMsg(final AutomatonNode node, final NodeSuccessState failureReason)
     {
         String msg;
@@ -511,9 +771,9 @@ public class Automaton
         {
             msg += " (entered from node '" + this.lastTransition.getSourceNode() + "' via edge '"
                 + this.lastTransition.getEdge() + "' at automaton time '" + this.lastTransition.getTimeMs() + "'";
-            if (this.lastTransition.getEvent().isLogEntry())
+            if (this.lastTransition.getLineNumber() != -1L)
             {
-                msg += " with log line '" + this.lastTransition.getEvent().getLogEntry().getLineNumber() + "'";
+                msg += " with log line '" + this.lastTransition.getLineNumber() + "'";
             }
             else
             {
@@ -538,6 +798,7 @@ public class Automaton
 
             assert this.currentNode != null;
 
+            final long start = this.metrics == null ? 0L : System.nanoTime();
             this.scriptEnvironment.updateEnvironment(this.currentEvent);
 
             final AutomatonNode eventStartNode = this.currentNode;
@@ -565,6 +826,14 @@ public class Automaton
             }
 
             LOG.debug("Microtransitions: {}", this.visitedNodes.size());
+            if (this.metrics != null)
+            {
+                this.metrics.eventProcessed(this.visitedNodes.size(), System.nanoTime() - start);
+            }
+            if (!this.canProceed())
+            {
+                this.reportStatistics();
+            }
         }
         catch (final RuntimeException re)
         {
@@ -609,6 +878,10 @@ public class Automaton
                 this.scriptEnvironment.updateEnvironment(this.currentEvent); // Load log entry after onLoad was executed
             }
             this.currentNode = this.initialNode;
+            if (this.currentNode.getMetrics() != null)
+            {
+                this.currentNode.getMetrics().entered();
+            }
             // Start with first timestamp, or 0, if there is none
             this.timingInfo.setStartTime(this.currentEvent.isLogEntry() ? this.currentEvent.getLogEntry().getTime() : 0L);
             this.timingInfo.setTimeOfLastMicrotransition(this.timingInfo.getStartTime());
@@ -692,6 +965,9 @@ public class Automaton
         Validate.isTrue(this.scriptingEngine == null); // Must not be initialized yet; otherwise, the setting has no more effect
         this.scriptLanguage = this.automatonDefinition.getScriptLanguage();
         this.initScriptEngine();
+        this.initRegExpResultCacheSize();
+        this.initRegExpTimeBudget();
+        this.initScriptRunner();
         final List<? extends INodeDefinition> externalNodes = this.automatonDefinition.getNodes();
         final List<? extends IEdgeDefinition> externalEdges = this.automatonDefinition.getEdges();
         this.onLoad = new EmbeddedScript(this.automatonDefinition.getOnLoad());
@@ -735,6 +1011,10 @@ public class Automaton
             {
                 newEdge.setChannel(edgeDefinition.getChannel());
             }
+            if (this.channelDictionary != null)
+            {
+                newEdge.setChannelId(this.channelDictionary.getId(newEdge.getChannel()));
+            }
             IEdgeDefinition.RequiredConditions requiredConditionsSetting = edgeDefinition.getRequiredConditions();
             if (requiredConditionsSetting == null)
             {
@@ -748,7 +1028,8 @@ public class Automaton
             {
                 newEdge.setRequiredConditionsSetting(AutomatonEdge.RequiredConditions.ONE);
             }
-            newEdge.initConditions(this.parameters, this.scriptingEngine);
+            newEdge.initConditions(this.conditionContext);
+            newEdge.setIndex(this.edges.size());
             this.edges.add(newEdge);
             srcNode.addOutgoingEdge(newEdge);
             destNode.addIncomingEdge(newEdge);
@@ -782,6 +1063,7 @@ public class Automaton
             newNode.setOnLeave(new EmbeddedScript(nodeDefinition.getOnLeave()));
             newNode.setSuccessCheckExp(new EmbeddedScript(nodeDefinition.getSuccessCheckExp()));
             newNode.setWait(nodeDefinition.getWait());
+            newNode.setIndex(this.nodes.size());
             this.nodes.add(newNode);
             mapNodeDefinitionsToInternalNode.put(nodeDefinition, newNode);
         }
@@ -791,15 +1073,20 @@ public class Automaton
     private boolean proceed()
     {
         LOG.trace("Proceeding to next node");
+        final long start = this.currentNode.getMetrics() == null ? 0L : System.nanoTime();
         final List<AutomatonEdge> matchingEdges = new ArrayList<>(this.currentNode.getOutgoingEdges().size());
         for (final AutomatonEdge edge : this.currentNode.getOutgoingEdges())
         {
-            if (edge.edgeMatchesEvent(new EventForConditionEvaluation(), this.timingInfo, this.scriptEnvironment))
+            if (this.edgeMatchesEvent(edge))
             {
                 matchingEdges.add(edge);
                 LOG.trace("Found matching edge: '{}'", edge);
             }
         }
+        if (this.currentNode.getMetrics() != null)
+        {
+            this.currentNode.getMetrics().addEvaluationNanos(System.nanoTime() - start);
+        }
 
         if (matchingEdges.isEmpty())
         {
@@ -839,6 +1126,25 @@ public class Automaton
         return true;
     }
 
+    private boolean edgeMatchesEvent(final AutomatonEdge edge)
+    {
+        try
+        {
+            return edge.edgeMatchesEvent(new EventForConditionEvaluation(), this.timingInfo, this.scriptEnvironment);
+        }
+        catch (final RegExpTimeBudgetExceededException rtbee)
+        {
+            String msg = "Regular expression of edge '" + edge + "' in automaton '" + this + "' exceeded its time budget of '"
+                + rtbee.getTimeBudgetMs() + "' ms";
+            if (this.currentEvent.isLogEntry())
+            {
+                msg += " on log line '" + this.currentEvent.getLogEntry().getLineNumber() + "'";
+            }
+            LOG.error(msg);
+            throw new ExecutionException(msg);
+        }
+    }
+
     private boolean checkMatchingEdgesAreEquivalent(final List<AutomatonEdge> matchingEdges)
     {
         LOG.trace("Checking if '{}' edges point to different nodes or have scripts", matchingEdges.size());
@@ -895,14 +1201,28 @@ public class Automaton
         assert this.currentNode != null;
         this.currentNode.getOnLeave().run();
         this.currentNode = edge.getDestinationNode();
+        final long onWalkStart = edge.getMetrics() == null ? 0L : System.nanoTime();
         if (edge.getOnWalk().exists())
         {
             edge.beforeOnWalk(this.scriptEnvironment);
             edge.getOnWalk().run();
             edge.afterOnWalk(this.scriptEnvironment);
         }
+        if (edge.getMetrics() != null)
+        {
+            edge.getMetrics().walked(edge.getOnWalk().exists() ? System.nanoTime() - onWalkStart : 0L);
+            this.currentNode.getMetrics().entered();
+        }
         this.currentNode.getOnEnter().run();
-        this.lastTransition = new LastTransition(edge, this.currentEvent, this.timingInfo.getTimeOfCurrentEvent());
+        final long lineNumber = this.currentEvent.isLogEntry() ? this.currentEvent.getLogEntry().getLineNumber() : -1L;
+        FlightRecorderEvents.transition(this, edge.getSourceNode(), this.currentNode, edge, lineNumber);
+        this.transitionHistory.record(lineNumber, this.timingInfo.getTimeOfCurrentEvent(), edge.getSourceNode().getIndex(),
+            this.currentNode.getIndex(), edge.getIndex());
+        if (this.lastTransition == null)
+        {
+            this.lastTransition = new LastTransition();
+        }
+        this.lastTransition.set(edge, lineNumber, this.timingInfo.getTimeOfCurrentEvent());
         this.timingInfo.setTimeOfLastMicrotransition(this.timingInfo.getTimeOfCurrentEvent());
     }
 
@@ -925,18 +1245,80 @@ public class Automaton
         this.scriptingEngine.put("engine", this.scriptEnvironment);
     }
 
+    private void initRegExpResultCacheSize()
+    {
+        final Integer size = this.automatonDefinition.getRegExpResultCacheSize();
+        if (size != null && size < 0)
+        {
+            throw new InvalidAutomatonDefinitionException("Size of regular expression result cache must not be negative: " + size);
+        }
+        this.regExpResultCacheSize = size == null ? 0 : size;
+        LOG.debug("Size of regular expression result cache: {}", this.regExpResultCacheSize);
+    }
+
+    private void initRegExpTimeBudget()
+    {
+        final Integer budget = this.automatonDefinition.getRegExpTimeBudgetMs();
+        if (budget != null && budget < 0)
+        {
+            throw new InvalidAutomatonDefinitionException("Time budget of regular expressions must not be negative: " + budget);
+        }
+        this.regExpTimeBudgetMs = budget == null ? RegExpPatterns.DEFAULT_TIME_BUDGET_MS : budget;
+        LOG.debug("Time budget of regular expressions: {} ms", this.regExpTimeBudgetMs);
+    }
+
+    private void initScriptRunner()
+    {
+        final Integer invocationBudget = this.automatonDefinition.getScriptTimeBudgetMs();
+        final Integer totalBudget = this.automatonDefinition.getScriptTotalTimeBudgetMs();
+        if (invocationBudget != null && invocationBudget < 0 || totalBudget != null && totalBudget < 0)
+        {
+            throw new InvalidAutomatonDefinitionException("Time budgets of scripts must not be negative: " + invocationBudget + ", "
+                + totalBudget);
+        }
+        this.scriptRunner = new ScriptRunner(this.toString(), invocationBudget == null ? 0 : invocationBudget,
+            totalBudget == null ? 0 : totalBudget);
+        if (LOG.isDebugEnabled())
+        {
+            this.scriptRunner.enableTimeMeasurement(); // For the statistics; metrics measure the time of scripts on their own
+        }
+        LOG.debug("Time budgets of scripts: {} ms per invocation, {} ms in total", invocationBudget, totalBudget);
+    }
+
+    private void reportStatistics()
+    {
+        if (this.statisticsReported || !LOG.isDebugEnabled())
+        {
+            return;
+        }
+        this.statisticsReported = true;
+        if (this.scriptRunner != null && this.scriptRunner.getTotalTimeNanos() > 0)
+        {
+            final long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(this.scriptRunner.getTotalTimeNanos());
+            LOG.debug("Scripts of automaton '{}' took {} ms: {}", this, totalTimeMs, this.scriptRunner.getScriptsByTotalTime().stream()
+                    .map(script -> script + " (" + script.getNumInvocations() + " invocations, "
+                        + TimeUnit.NANOSECONDS.toMicros(script.getTotalTimeNanos()) + " us)")
+                    .collect(Collectors.joining(", ")));
+        }
+        if (!this.regExpResultCaches.isEmpty())
+        {
+            LOG.debug("Regular expression result caches of automaton '{}' (size {}): {}", this, this.regExpResultCacheSize,
+                this.regExpResultCaches.values().stream().map(cache -> cache.toString()).collect(Collectors.joining(", ")));
+        }
+    }
+
     private void compileScripts()
     {
-        this.onLoad.compile(this.scriptingEngine);
+        this.onLoad.compile(this.scriptingEngine, this.scriptRunner);
 
         this.nodes.stream().forEach(node -> {
-            node.getOnEnter().compile(this.scriptingEngine);
-            node.getOnLeave().compile(this.scriptingEngine);
-            node.getSuccessCheckExp().compile(this.scriptingEngine);
+            node.getOnEnter().compile(this.scriptingEngine, this.scriptRunner);
+            node.getOnLeave().compile(this.scriptingEngine, this.scriptRunner);
+            node.getSuccessCheckExp().compile(this.scriptingEngine, this.scriptRunner);
         });
 
         this.edges.stream().forEach(edge -> {
-            edge.getOnWalk().compile(this.scriptingEngine);
+            edge.getOnWalk().compile(this.scriptingEngine, this.scriptRunner);
         });
     }
 
@@ -11,22 +11,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
-import javax.script.ScriptEngine;
-
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
-import de.pixida.logtest.engine.conditions.AlwaysTriggeringCondition;
-import de.pixida.logtest.engine.conditions.CheckExpCondition;
-import de.pixida.logtest.engine.conditions.EofCondition;
+import de.pixida.logtest.engine.conditions.ConditionProviders;
 import de.pixida.logtest.engine.conditions.ICondition;
+import de.pixida.logtest.engine.conditions.IConditionContext;
 import de.pixida.logtest.engine.conditions.IEventDescription;
 import de.pixida.logtest.engine.conditions.IScriptEnvironment;
-import de.pixida.logtest.engine.conditions.RegExpCondition;
-import de.pixida.logtest.engine.conditions.TimeIntervalCondition;
+import de.pixida.logtest.flightrecorder.FlightRecorderEvents;
+import de.pixida.logtest.logreaders.ChannelDictionary;
 
 class AutomatonEdge
 {
@@ -45,11 +42,15 @@ class AutomatonEdge
 
     private EmbeddedScript onWalk;
     private String channel;
+    private int channelId = ChannelDictionary.UNKNOWN_CHANNEL_ID;
 
     private RequiredConditions requiredConditionsSetting;
 
-    private final List<ICondition> conditions = new ArrayList<>();
-    private final List<ICondition> activeConditions = new ArrayList<>();
+    private final List<ICondition> conditions = new ArrayList<>(1);
+    private final List<ICondition> activeConditions = new ArrayList<>(1);
+
+    private AutomatonMetrics.EdgeMetrics metrics;
+    private int index;
 
     AutomatonEdge(final IEdgeDefinition edge)
     {
@@ -57,6 +58,17 @@ class AutomatonEdge
         this.externalEdge = edge;
     }
 
+    /** @return Position of the edge in the list of edges of the automaton */
+    int getIndex()
+    {
+        return this.index;
+    }
+
+    void setIndex(final int value)
+    {
+        this.index = value;
+    }
+
     void setDestination(final AutomatonNode value)
     {
         Validate.notNull(value);
@@ -99,31 +111,40 @@ class AutomatonEdge
         this.requiredConditionsSetting = value;
     }
 
+    String getChannel()
+    {
+        return this.channel;
+    }
+
     void setChannel(final String value)
     {
         this.channel = value;
     }
 
-    void initConditions(final AutomatonParameters parameters, final ScriptEngine scriptingEngine)
+    void setChannelId(final int value)
+    {
+        this.channelId = value;
+    }
+
+    AutomatonMetrics.EdgeMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+
+    void setMetrics(final AutomatonMetrics.EdgeMetrics value)
+    {
+        this.metrics = value;
+    }
+
+    void initConditions(final IConditionContext context)
     {
-        Validate.notNull(parameters);
-        Validate.notNull(scriptingEngine);
+        Validate.notNull(context);
 
-        // Create and initialize conditions
-        this.conditions.add(new AlwaysTriggeringCondition());
-        this.conditions.add(new EofCondition());
-        this.conditions.add(new RegExpCondition());
-        this.conditions.add(new CheckExpCondition()); // Check exp after reg exp so the results can be accessed
-        this.conditions.add(new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceLastMicrotransition(),
-            timingInfo -> timingInfo.getTimeOfLastMicrotransition()));
-        this.conditions.add(new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceLastTransition(),
-            timingInfo -> timingInfo.getTimeOfLastTransition()));
-        this.conditions.add(new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceAutomatonStart(),
-            timingInfo -> timingInfo.getStartTime()));
-        this.conditions.add(new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalForEvent(), timingInfo -> 0L));
+        // Create and initialize the conditions which are configured on this edge
+        this.conditions.addAll(ConditionProviders.createConditions(this.externalEdge));
         try
         {
-            this.conditions.stream().forEach(condition -> condition.init(this.externalEdge, parameters.getDeepCopy(), scriptingEngine));
+            this.conditions.stream().forEach(condition -> condition.init(this.externalEdge, context));
         }
         catch (final InvalidAutomatonDefinitionException iade)
         {
@@ -140,6 +161,17 @@ class AutomatonEdge
         return this.activeConditions.size() > 0;
     }
 
+    private boolean channelMatches(final IEventDescription eventDescription)
+    {
+        // Ids are only assigned if the log reader and this automaton share a channel dictionary
+        final int eventChannelId = eventDescription.getChannelId();
+        if (this.channelId != ChannelDictionary.UNKNOWN_CHANNEL_ID && eventChannelId != ChannelDictionary.UNKNOWN_CHANNEL_ID)
+        {
+            return this.channelId == eventChannelId;
+        }
+        return StringUtils.equals(this.channel, eventDescription.getChannel());
+    }
+
     boolean edgeMatchesEvent(final IEventDescription eventDescription, final TimingInfo timingInfo,
         final IScriptEnvironment scriptEnvironment)
     {
@@ -147,10 +179,9 @@ class AutomatonEdge
         boolean edgeMatches = false;
 
         // Check if channel matches
-        final String eventChannel = eventDescription.getChannel();
-        if (eventDescription.getSupportsChannels() && !StringUtils.equals(this.channel, eventChannel))
+        if (eventDescription.getSupportsChannels() && !this.channelMatches(eventDescription))
         {
-            LOG.debug("Event channel '{}' does not match edge channel '{}'", eventChannel, this.channel);
+            LOG.debug("Event channel '{}' does not match edge channel '{}'", eventDescription.getChannel(), this.channel);
         }
         else
         {
@@ -170,7 +201,7 @@ class AutomatonEdge
                 final Stream<ICondition> applicableConditions = this.activeConditions.stream()
                     .filter(condition -> condition.isApplicable(eventDescription));
                 numMatchingConditions = applicableConditions
-                    .filter(condition -> condition.evaluate(eventDescription, timingInfo, scriptEnvironment)).count();
+                    .filter(condition -> this.evaluateCondition(condition, eventDescription, timingInfo, scriptEnvironment)).count();
                 if (currentRequiredConditions == RequiredConditions.ALL)
                 {
                     edgeMatches = numMatchingConditions == numApplicableConditions;
@@ -188,11 +219,40 @@ class AutomatonEdge
         }
 
         LOG.trace("Edge matches: {}", edgeMatches);
+        if (this.metrics != null)
+        {
+            this.metrics.evaluated(edgeMatches);
+        }
         return edgeMatches;
     }
 
+    private boolean evaluateCondition(final ICondition condition, final IEventDescription eventDescription, final TimingInfo timingInfo,
+        final IScriptEnvironment scriptEnvironment)
+    {
+        final Object flightRecorderEvent = FlightRecorderEvents.beginConditionEvaluation();
+        if (this.metrics == null && flightRecorderEvent == null)
+        {
+            return condition.evaluate(eventDescription, timingInfo, scriptEnvironment);
+        }
+        final long start = System.nanoTime();
+        try
+        {
+            return condition.evaluate(eventDescription, timingInfo, scriptEnvironment);
+        }
+        finally
+        {
+            if (this.metrics != null)
+            {
+                this.metrics.addConditionNanos(condition, System.nanoTime() - start);
+            }
+            FlightRecorderEvents.endConditionEvaluation(flightRecorderEvent, this, condition);
+        }
+    }
+
     public void beforeOnWalk(final IScriptEnvironment scriptEnvironment)
     {
+        // Don't expose matching groups of other edges' conditions if this edge has no regular expression
+        scriptEnvironment.setRegExpConditionMatchingGroups(null);
         this.conditions.stream().forEach(condition -> condition.beforeOnWalk(scriptEnvironment));
     }
 
@@ -0,0 +1,273 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import de.pixida.logtest.engine.conditions.CheckExpCondition;
+import de.pixida.logtest.engine.conditions.ICondition;
+import de.pixida.logtest.engine.conditions.RegExpCondition;
+
+/**
+ * Counters collected while an automaton processes events. Only collected if enabled with {@link Automaton#enableMetrics()}; otherwise, the
+ * engine only pays for a null check per node and edge. Times are wall clock nanoseconds measured with {@link System#nanoTime()}.
+ */
+public class AutomatonMetrics
+{
+    /** Counters of a node */
+    public static class NodeMetrics
+    {
+        private final String name;
+        private long numEntered;
+        private long evaluationNanos;
+
+        NodeMetrics(final String aName)
+        {
+            this.name = aName;
+        }
+
+        public String getName()
+        {
+            return this.name;
+        }
+
+        /** @return How often the node was entered, including the entry of the initial node */
+        public long getNumEntered()
+        {
+            return this.numEntered;
+        }
+
+        /** @return Time spent evaluating the outgoing edges while the automaton resided in the node */
+        public long getEvaluationNanos()
+        {
+            return this.evaluationNanos;
+        }
+
+        void entered()
+        {
+            this.numEntered++;
+        }
+
+        void addEvaluationNanos(final long value)
+        {
+            this.evaluationNanos += value;
+        }
+
+        JSONObject toJson()
+        {
+            final JSONObject result = new JSONObject();
+            result.put("name", this.name);
+            result.put("numEntered", this.numEntered);
+            result.put("evaluationNanos", this.evaluationNanos);
+            return result;
+        }
+    }
+
+    /** Counters of an edge */
+    public static class EdgeMetrics
+    {
+        private final String name;
+        private long numEvaluations;
+        private long numMatches;
+        private long numWalks;
+        private long regExpNanos;
+        private long scriptNanos;
+        private long otherConditionNanos;
+        private long onWalkNanos;
+
+        EdgeMetrics(final String aName)
+        {
+            this.name = aName;
+        }
+
+        public String getName()
+        {
+            return this.name;
+        }
+
+        /** @return How often it was checked whether the edge matches an event */
+        public long getNumEvaluations()
+        {
+            return this.numEvaluations;
+        }
+
+        public long getNumMatches()
+        {
+            return this.numMatches;
+        }
+
+        /** @return How often the automaton proceeded via the edge; less than the matches if equivalent edges matched at the same time */
+        public long getNumWalks()
+        {
+            return this.numWalks;
+        }
+
+        /** @return Time spent in regular expression conditions */
+        public long getRegExpNanos()
+        {
+            return this.regExpNanos;
+        }
+
+        /** @return Time spent in check expressions */
+        public long getScriptNanos()
+        {
+            return this.scriptNanos;
+        }
+
+        /** @return Time spent in all other conditions, e.g. time intervals and conditions of plugged in providers */
+        public long getOtherConditionNanos()
+        {
+            return this.otherConditionNanos;
+        }
+
+        /** @return Time spent in the 'onWalk' script */
+        public long getOnWalkNanos()
+        {
+            return this.onWalkNanos;
+        }
+
+        void evaluated(final boolean matched)
+        {
+            this.numEvaluations++;
+            if (matched)
+            {
+                this.numMatches++;
+            }
+        }
+
+        void addConditionNanos(final ICondition condition, final long value)
+        {
+            if (condition instanceof RegExpCondition)
+            {
+                this.regExpNanos += value;
+            }
+            else if (condition instanceof CheckExpCondition)
+            {
+                this.scriptNanos += value;
+            }
+            else
+            {
+                this.otherConditionNanos += value;
+            }
+        }
+
+        void walked(final long onWalkNanosValue)
+        {
+            this.numWalks++;
+            this.onWalkNanos += onWalkNanosValue;
+        }
+
+        JSONObject toJson()
+        {
+            final JSONObject result = new JSONObject();
+            result.put("name", this.name);
+            result.put("numEvaluations", this.numEvaluations);
+            result.put("numMatches", this.numMatches);
+            result.put("numWalks", this.numWalks);
+            result.put("regExpNanos", this.regExpNanos);
+            result.put("scriptNanos", this.scriptNanos);
+            result.put("otherConditionNanos", this.otherConditionNanos);
+            result.put("onWalkNanos", this.onWalkNanos);
+            return result;
+        }
+    }
+
+    private final String automatonName;
+    private final List<NodeMetrics> nodes = new ArrayList<>();
+    private final List<EdgeMetrics> edges = new ArrayList<>();
+    private long numEvents;
+    private long numMicrotransitions;
+    private long totalNanos;
+
+    AutomatonMetrics(final String aAutomatonName)
+    {
+        this.automatonName = aAutomatonName;
+    }
+
+    public String getAutomatonName()
+    {
+        return this.automatonName;
+    }
+
+    /** @return Number of processed events, i.e. log entries and EOF */
+    public long getNumEvents()
+    {
+        return this.numEvents;
+    }
+
+    public long getNumMicrotransitions()
+    {
+        return this.numMicrotransitions;
+    }
+
+    /** @return Time spent processing events */
+    public long getTotalNanos()
+    {
+        return this.totalNanos;
+    }
+
+    public List<NodeMetrics> getNodes()
+    {
+        return Collections.unmodifiableList(this.nodes);
+    }
+
+    public List<EdgeMetrics> getEdges()
+    {
+        return Collections.unmodifiableList(this.edges);
+    }
+
+    NodeMetrics addNode(final String name)
+    {
+        final NodeMetrics result = new NodeMetrics(name);
+        this.nodes.add(result);
+        return result;
+    }
+
+    EdgeMetrics addEdge(final String name)
+    {
+        final EdgeMetrics result = new EdgeMetrics(name);
+        this.edges.add(result);
+        return result;
+    }
+
+    void eventProcessed(final int microtransitions, final long nanos)
+    {
+        this.numEvents++;
+        this.numMicrotransitions += microtransitions;
+        this.totalNanos += nanos;
+    }
+
+    public JSONObject toJson()
+    {
+        final JSONObject result = new JSONObject();
+        result.put("automaton", this.automatonName);
+        result.put("numEvents", this.numEvents);
+        result.put("numMicrotransitions", this.numMicrotransitions);
+        result.put("totalNanos", this.totalNanos);
+        final JSONArray nodesJson = new JSONArray();
+        this.nodes.forEach(node -> nodesJson.put(node.toJson()));
+        result.put("nodes", nodesJson);
+        final JSONArray edgesJson = new JSONArray();
+        this.edges.forEach(edge -> edgesJson.put(edge.toJson()));
+        result.put("edges", edgesJson);
+        return result;
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        return "AutomatonMetrics [automaton=" + this.automatonName + ", numEvents=" + this.numEvents + ", numMicrotransitions="
+            + this.numMicrotransitions + ", totalNanos=" + this.totalNanos + "]";
+    }
+}
@@ -41,17 +41,40 @@ class AutomatonNode
     private EmbeddedScript successCheckExp;
     private String name;
     private boolean wait;
+    private AutomatonMetrics.NodeMetrics metrics;
+    private int index;
 
     AutomatonNode(final INodeDefinition node)
     {
         Validate.notNull(node);
     }
 
+    /** @return Position of the node in the list of nodes of the automaton */
+    int getIndex()
+    {
+        return this.index;
+    }
+
+    void setIndex(final int value)
+    {
+        this.index = value;
+    }
+
     void setName(final String value)
     {
         this.name = value;
     }
 
+    AutomatonMetrics.NodeMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+
+    void setMetrics(final AutomatonMetrics.NodeMetrics value)
+    {
+        this.metrics = value;
+    }
+
     Type getType()
     {
         return this.type;
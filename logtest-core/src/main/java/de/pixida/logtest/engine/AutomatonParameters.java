@@ -17,6 +17,8 @@ public class AutomatonParameters implements IParameters
 {
     public static final String PARAMETER_PREG = "\\$\\{(.*?)\\}";
 
+    private static final PregCallbackReplacer PARAMETER_REPLACER = new PregCallbackReplacer(PARAMETER_PREG);
+
     private final Map<String, String> parameters;
 
     AutomatonParameters(final Map<String, String> map)
@@ -32,7 +34,7 @@ public class AutomatonParameters implements IParameters
     @Override
     public String insertAllParameters(final String value)
     {
-        return new PregCallbackReplacer(PARAMETER_PREG).replaceMatches(value, match -> {
+        return PARAMETER_REPLACER.replaceMatches(value, match -> {
             final String paramName = match.group(1);
             final String v = this.parameters.get(paramName);
             if (v == null)
@@ -45,9 +47,4 @@ public class AutomatonParameters implements IParameters
             }
         });
     }
-
-    AutomatonParameters getDeepCopy()
-    {
-        return new AutomatonParameters(this.parameters);
-    }
 }
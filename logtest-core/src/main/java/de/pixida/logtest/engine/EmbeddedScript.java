@@ -19,10 +19,14 @@ import org.slf4j.LoggerFactory;
 public class EmbeddedScript
 {
     private static final Logger LOG = LoggerFactory.getLogger(EmbeddedScript.class);
+    private static final int MAX_LENGTH_FOR_LOGGING = 60;
 
     private final String script;
     private final boolean exists;
     private CompiledScript compiledScript;
+    private ScriptRunner runner;
+    private long numInvocations;
+    private long totalTimeNanos;
 
     public EmbeddedScript(final String aScript)
     {
@@ -36,6 +40,19 @@ public class EmbeddedScript
     }
 
     public void compile(final ScriptEngine scriptingEngine)
+    {
+        this.compile(scriptingEngine, null);
+    }
+
+    /**
+     * Compile the script.
+     *
+     * @param scriptingEngine
+     *            Engine to compile and run the script with
+     * @param aRunner
+     *            Runner which enforces the script time budgets of the automaton; null to run the script without limits
+     */
+    public void compile(final ScriptEngine scriptingEngine, final ScriptRunner aRunner)
     {
         if (!this.exists())
         {
@@ -63,6 +80,22 @@ public class EmbeddedScript
             throw new InvalidAutomatonDefinitionException("Script compilation error:\n" + se.getMessage());
         }
         LOG.trace("Script compilation finished");
+        this.runner = aRunner;
+        if (this.runner != null)
+        {
+            this.runner.register(this);
+        }
+    }
+
+    public long getNumInvocations()
+    {
+        return this.numInvocations;
+    }
+
+    /** @return CPU time spent in all invocations of the script; 0 if the runner of the script does not measure time */
+    public long getTotalTimeNanos()
+    {
+        return this.totalTimeNanos;
     }
 
     void run()
@@ -131,7 +164,7 @@ public class EmbeddedScript
         Object result;
         try
         {
-            result = this.compiledScript.eval();
+            result = this.runner == null ? this.evalAndMeasureTime() : this.runner.run(this, this::evalAndMeasureTime);
         }
         catch (final ScriptException se)
         {
@@ -140,4 +173,32 @@ public class EmbeddedScript
         LOG.trace("External script finished with result: {}", result);
         return result;
     }
+
+    private Object evalAndMeasureTime() throws ScriptException
+    {
+        if (this.runner == null || !this.runner.isMeasuringTime())
+        {
+            this.numInvocations++;
+            return this.compiledScript.eval();
+        }
+        final long start = ScriptRunner.getThreadTimeNanos();
+        try
+        {
+            return this.compiledScript.eval();
+        }
+        finally
+        {
+            final long duration = ScriptRunner.getThreadTimeNanos() - start;
+            this.numInvocations++;
+            this.totalTimeNanos += duration;
+            this.runner.addTime(duration);
+        }
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        return "'" + StringUtils.abbreviate(StringUtils.normalizeSpace(this.script), MAX_LENGTH_FOR_LOGGING) + "'";
+    }
 }
@@ -7,38 +7,30 @@
 
 package de.pixida.logtest.engine;
 
-import org.apache.commons.lang3.Validate;
-
 import de.pixida.logtest.logreaders.ILogEntry;
 
+/** The event an automaton currently processes. Each automaton reuses a single instance, such that no objects are allocated per event. */
 public final class Event
 {
-    private final ILogEntry logEntry;
-    private final boolean eof;
-
-    private Event(final ILogEntry aLogEntry)
-    {
-        Validate.notNull(aLogEntry);
-        Validate.notNull(aLogEntry.getPayload());
-        this.logEntry = aLogEntry;
-        this.eof = false;
-    }
+    private ILogEntry logEntry;
+    private boolean eof;
 
-    private Event(final boolean aEof)
+    Event()
     {
-        Validate.isTrue(aEof);
-        this.logEntry = null;
-        this.eof = aEof;
+        // Empty constructor needed by checkstyle
     }
 
-    static Event fromLogEntry(final ILogEntry value)
+    // The entry and its payload are validated by the automaton, once per batch
+    void setLogEntry(final ILogEntry value)
     {
-        return new Event(value);
+        this.logEntry = value;
+        this.eof = false;
     }
 
-    static Event fromEof()
+    void setEof()
     {
-        return new Event(true);
+        this.logEntry = null;
+        this.eof = true;
     }
 
     boolean isEof()
@@ -0,0 +1,222 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import javax.script.ScriptException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the scripts of one automaton and enforces its script time budgets.
+ *
+ * Without a budget per invocation, scripts run on the calling thread. Otherwise, each invocation is handed over to a worker thread of the
+ * automaton and the caller waits at most for the budget; the handover costs two thread switches per invocation, so the budget should only
+ * be set for automatons whose scripts are not trusted to terminate. A script which does not finish in time is interrupted and the worker
+ * is abandoned; the automaton is defect afterwards. Limitation: The scripting engines shipped with the JVM (Nashorn) and Jython do not
+ * check for interruption, so a runaway script keeps its (daemon) thread busy until it ends on its own or the JVM exits. Only scripts
+ * which check {@link Thread#isInterrupted()} themselves are actually stopped. To bound the damage in long running processes, scripts
+ * with a budget per invocation are refused once {@link #MAX_ABANDONED_THREADS} abandoned threads are still running, see
+ * {@link #getNumAbandonedThreadsRunning()}.
+ *
+ * The total budget is checked after each invocation against the summed up CPU time of all scripts of the automaton. CPU time is only
+ * measured if there is a total budget or if it is enabled via {@link #enableTimeMeasurement()}.
+ */
+public class ScriptRunner
+{
+    @FunctionalInterface
+    interface ScriptInvocation
+    {
+        Object eval() throws ScriptException;
+    }
+
+    /** Number of abandoned threads which may still run scripts before further scripts with a budget per invocation are refused */
+    public static final int MAX_ABANDONED_THREADS = 2;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScriptRunner.class);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+    private static final List<Thread> ABANDONED_THREADS = new ArrayList<>(); // Guarded by itself
+
+    private final String automatonName;
+    private final long invocationBudgetMs;
+    private final long totalBudgetNanos;
+    private final int maxAbandonedThreads;
+    private final List<EmbeddedScript> scripts = new ArrayList<>();
+    private boolean measuringTime;
+    private long totalTimeNanos;
+    private ThreadPoolExecutor worker;
+    private Thread workerThread;
+
+    ScriptRunner(final String aAutomatonName, final long aInvocationBudgetMs, final long aTotalBudgetMs)
+    {
+        this(aAutomatonName, aInvocationBudgetMs, aTotalBudgetMs, MAX_ABANDONED_THREADS);
+    }
+
+    ScriptRunner(final String aAutomatonName, final long aInvocationBudgetMs, final long aTotalBudgetMs, final int aMaxAbandonedThreads)
+    {
+        this.automatonName = aAutomatonName;
+        this.invocationBudgetMs = aInvocationBudgetMs;
+        this.totalBudgetNanos = TimeUnit.MILLISECONDS.toNanos(aTotalBudgetMs);
+        this.maxAbandonedThreads = aMaxAbandonedThreads;
+        this.measuringTime = this.totalBudgetNanos > 0;
+    }
+
+    /** @return Number of threads abandoned after their script exceeded its time budget, which are still running the script */
+    public static int getNumAbandonedThreadsRunning()
+    {
+        synchronized (ABANDONED_THREADS)
+        {
+            ABANDONED_THREADS.removeIf(thread -> !thread.isAlive());
+            return ABANDONED_THREADS.size();
+        }
+    }
+
+    /** @return CPU time of the current thread, or wall clock time if the JVM cannot measure it */
+    static long getThreadTimeNanos()
+    {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported())
+        {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    /** Measure the CPU time of script invocations even without a total budget, e.g. to report it */
+    void enableTimeMeasurement()
+    {
+        this.measuringTime = true;
+    }
+
+    boolean isMeasuringTime()
+    {
+        return this.measuringTime;
+    }
+
+    void register(final EmbeddedScript script)
+    {
+        this.scripts.add(script);
+    }
+
+    Object run(final EmbeddedScript script, final ScriptInvocation invocation) throws ScriptException
+    {
+        final Object result = this.invocationBudgetMs == 0 ? invocation.eval() : this.runOnWorker(script, invocation);
+        if (this.totalBudgetNanos > 0 && this.totalTimeNanos > this.totalBudgetNanos)
+        {
+            final String msg = "Scripts of automaton '" + this.automatonName + "' exceeded their total time budget of '"
+                + TimeUnit.NANOSECONDS.toMillis(this.totalBudgetNanos) + "' ms";
+            LOG.error(msg);
+            throw new ExecutionException(msg);
+        }
+        return result;
+    }
+
+    void addTime(final long nanos)
+    {
+        this.totalTimeNanos += nanos;
+    }
+
+    /** @return CPU time spent in all scripts of the automaton; 0 if time is not measured */
+    public long getTotalTimeNanos()
+    {
+        return this.totalTimeNanos;
+    }
+
+    /** @return All scripts run by this runner, the one with the highest total time first */
+    public List<EmbeddedScript> getScriptsByTotalTime()
+    {
+        return this.scripts.stream().sorted(Comparator.comparingLong(EmbeddedScript::getTotalTimeNanos).reversed())
+            .collect(Collectors.toList());
+    }
+
+    private Object runOnWorker(final EmbeddedScript script, final ScriptInvocation invocation) throws ScriptException
+    {
+        final int numAbandonedThreads = getNumAbandonedThreadsRunning();
+        if (numAbandonedThreads >= this.maxAbandonedThreads)
+        {
+            final String msg = "Refusing to run script of automaton '" + this.automatonName + "' with a time budget: '"
+                + numAbandonedThreads + "' threads of scripts which exceeded their time budget are still running: " + script;
+            LOG.error(msg);
+            throw new ExecutionException(msg);
+        }
+        final Future<Object> future = this.getWorker().submit(() -> invocation.eval());
+        try
+        {
+            return future.get(this.invocationBudgetMs, TimeUnit.MILLISECONDS);
+        }
+        catch (final TimeoutException te)
+        {
+            this.abandonWorker();
+            final String msg = "Script of automaton '" + this.automatonName + "' exceeded its time budget of '" + this.invocationBudgetMs
+                + "' ms: " + script + "; its thread was abandoned ('" + getNumAbandonedThreadsRunning()
+                + "' abandoned script threads are still running)";
+            LOG.error(msg);
+            throw new ExecutionException(msg);
+        }
+        catch (final InterruptedException ie)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("Interrupted while waiting for script of automaton '" + this.automatonName + "'");
+        }
+        catch (final java.util.concurrent.ExecutionException ee)
+        {
+            if (ee.getCause() instanceof ScriptException)
+            {
+                throw (ScriptException) ee.getCause();
+            }
+            if (ee.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) ee.getCause();
+            }
+            throw new ExecutionException("Error during script execution: " + ee.getCause());
+        }
+    }
+
+    private ThreadPoolExecutor getWorker()
+    {
+        if (this.worker == null)
+        {
+            // The thread terminates when the automaton does not run scripts for some time; so there is no need to release it explicitly
+            this.worker = new ThreadPoolExecutor(1, 1, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "Scripts of " + this.automatonName);
+                    thread.setDaemon(true); // Must not keep the JVM alive if it is abandoned while running a script
+                    this.workerThread = thread;
+                    return thread;
+                });
+            this.worker.allowCoreThreadTimeOut(true);
+        }
+        return this.worker;
+    }
+
+    private void abandonWorker()
+    {
+        // Interrupts the running script; see the class comment for why this usually does not end it
+        this.worker.shutdownNow();
+        this.worker = null;
+        synchronized (ABANDONED_THREADS)
+        {
+            ABANDONED_THREADS.add(this.workerThread);
+        }
+        LOG.warn("Abandoned script thread of automaton '{}'; it keeps running until the script ends if the script does not react to"
+            + " interruption", this.automatonName);
+    }
+}
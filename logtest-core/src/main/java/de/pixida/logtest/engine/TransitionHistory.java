@@ -0,0 +1,91 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Ring buffer of the most recent transitions of an automaton. The buffer is allocated once, as primitive arrays, so recording a transition
+ * neither allocates nor formats anything. Nodes and edges are referenced by their index and only resolved into names when the history is
+ * dumped, which usually happens once for a failed automaton.
+ */
+class TransitionHistory
+{
+    static final int DEFAULT_CAPACITY = 32;
+
+    private static final long EOF_LINE_NUMBER = -1L;
+
+    private final long[] lineNumbers;
+    private final long[] times;
+    private final int[] sourceNodes;
+    private final int[] destinationNodes;
+    private final int[] edges;
+    private long numRecorded;
+
+    TransitionHistory(final int capacity)
+    {
+        Validate.isTrue(capacity > 0, "Capacity must be positive");
+        this.lineNumbers = new long[capacity];
+        this.times = new long[capacity];
+        this.sourceNodes = new int[capacity];
+        this.destinationNodes = new int[capacity];
+        this.edges = new int[capacity];
+    }
+
+    /** @param lineNumber Line of the log entry which triggered the transition, or -1 for EOF */
+    void record(final long lineNumber, final long time, final int sourceNode, final int destinationNode, final int edge)
+    {
+        final int slot = (int) (this.numRecorded % this.lineNumbers.length);
+        this.lineNumbers[slot] = lineNumber;
+        this.times[slot] = time;
+        this.sourceNodes[slot] = sourceNode;
+        this.destinationNodes[slot] = destinationNode;
+        this.edges[slot] = edge;
+        this.numRecorded++;
+    }
+
+    long getNumRecorded()
+    {
+        return this.numRecorded;
+    }
+
+    int getNumRetained()
+    {
+        return (int) Math.min(this.numRecorded, this.lineNumbers.length);
+    }
+
+    /** @return The retained transitions, oldest first, one per line */
+    String dump(final List<AutomatonNode> nodes, final List<AutomatonEdge> edgeList)
+    {
+        final StringBuilder result = new StringBuilder();
+        final int numRetained = this.getNumRetained();
+        if (numRetained == 0)
+        {
+            return "No transitions";
+        }
+        result.append("Last ").append(numRetained).append(" of ").append(this.numRecorded).append(" transitions:");
+        for (long i = this.numRecorded - numRetained; i < this.numRecorded; i++)
+        {
+            final int slot = (int) (i % this.lineNumbers.length);
+            result.append('\n');
+            if (this.lineNumbers[slot] == EOF_LINE_NUMBER)
+            {
+                result.append("EOF");
+            }
+            else
+            {
+                result.append("line ").append(this.lineNumbers[slot]);
+            }
+            result.append(", time ").append(this.times[slot]).append(": '").append(nodes.get(this.sourceNodes[slot])).append("' -> '")
+                .append(nodes.get(this.destinationNodes[slot])).append("' via edge '").append(edgeList.get(this.edges[slot])).append('\'');
+        }
+        return result.toString();
+    }
+}
@@ -7,8 +7,6 @@
 
 package de.pixida.logtest.engine.conditions;
 
-import javax.script.ScriptEngine;
-
 import org.apache.commons.lang3.BooleanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +24,7 @@ public class AlwaysTriggeringCondition extends BaseCondition
     }
 
     @Override
-    public void init(final IEdgeDefinition edgeDefinition, final IParameters parameters, final ScriptEngine scriptingEngine)
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
     {
         this.setIsActive(BooleanUtils.toBoolean(edgeDefinition.getTriggerAlways()));
     }
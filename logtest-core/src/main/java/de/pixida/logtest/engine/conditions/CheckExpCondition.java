@@ -7,8 +7,6 @@
 
 package de.pixida.logtest.engine.conditions;
 
-import javax.script.ScriptEngine;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,13 +26,13 @@ public class CheckExpCondition extends BaseCondition
     }
 
     @Override
-    public void init(final IEdgeDefinition edgeDefinition, final IParameters parameters, final ScriptEngine scriptingEngine)
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
     {
         this.script = new EmbeddedScript(edgeDefinition.getCheckExp());
         this.setIsActive(this.script.exists());
         if (this.isActive())
         {
-            this.script.compile(scriptingEngine);
+            this.script.compile(context.getScriptingEngine(), context.getScriptRunner());
         }
     }
 
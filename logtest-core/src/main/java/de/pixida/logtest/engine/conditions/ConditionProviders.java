@@ -0,0 +1,108 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+
+/** Registry of all condition providers: The built-in ones followed by the ones found via {@link ServiceLoader} */
+public abstract class ConditionProviders
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ConditionProviders.class);
+
+    private static final class BuiltInConditionProvider implements IConditionProvider
+    {
+        private final Predicate<IEdgeDefinition> isConfiguredOn;
+        private final Supplier<ICondition> conditionFactory;
+
+        BuiltInConditionProvider(final Predicate<IEdgeDefinition> aIsConfiguredOn, final Supplier<ICondition> aConditionFactory)
+        {
+            this.isConfiguredOn = aIsConfiguredOn;
+            this.conditionFactory = aConditionFactory;
+        }
+
+        @Override
+        public boolean isConfiguredOn(final IEdgeDefinition edgeDefinition)
+        {
+            return this.isConfiguredOn.test(edgeDefinition);
+        }
+
+        @Override
+        public ICondition createCondition()
+        {
+            return this.conditionFactory.get();
+        }
+    }
+
+    private static List<IConditionProvider> providers;
+
+    public static synchronized List<IConditionProvider> getProviders()
+    {
+        if (providers == null)
+        {
+            final List<IConditionProvider> result = new ArrayList<>(getBuiltInProviders());
+            for (final IConditionProvider provider : ServiceLoader.load(IConditionProvider.class))
+            {
+                LOG.debug("Registering condition provider '{}'", provider.getClass().getName());
+                result.add(provider);
+            }
+            providers = Collections.unmodifiableList(result);
+        }
+        return providers;
+    }
+
+    public static List<ICondition> createConditions(final IEdgeDefinition edgeDefinition)
+    {
+        Validate.notNull(edgeDefinition);
+        final List<ICondition> conditions = new ArrayList<>(1);
+        for (final IConditionProvider provider : getProviders())
+        {
+            if (provider.isConfiguredOn(edgeDefinition))
+            {
+                conditions.add(provider.createCondition());
+            }
+        }
+        return conditions;
+    }
+
+    private static List<IConditionProvider> getBuiltInProviders()
+    {
+        final List<IConditionProvider> result = new ArrayList<>();
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTriggerAlways() != null, AlwaysTriggeringCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTriggerOnEof() != null, EofCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getRegExp() != null, RegExpCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getFieldEquals() != null, FieldEqualsCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getFieldRange() != null, FieldRangeCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getFieldPresent() != null, FieldPresentCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getValueInSet() != null, ValueInSetCondition::new));
+        // Check exp after reg exp so the results can be accessed
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getCheckExp() != null, CheckExpCondition::new));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTimeIntervalSinceLastMicrotransition() != null,
+            () -> new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceLastMicrotransition(),
+                timingInfo -> timingInfo.getTimeOfLastMicrotransition())));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTimeIntervalSinceLastTransition() != null,
+            () -> new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceLastTransition(),
+                timingInfo -> timingInfo.getTimeOfLastTransition())));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTimeIntervalSinceAutomatonStart() != null,
+            () -> new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalSinceAutomatonStart(),
+                timingInfo -> timingInfo.getStartTime())));
+        result.add(new BuiltInConditionProvider(edgeDef -> edgeDef.getTimeIntervalForEvent() != null,
+            () -> new TimeIntervalCondition(edgeDef -> edgeDef.getTimeIntervalForEvent(), timingInfo -> 0L)));
+        return result;
+    }
+}
@@ -7,8 +7,6 @@
 
 package de.pixida.logtest.engine.conditions;
 
-import javax.script.ScriptEngine;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +25,7 @@ public class EofCondition extends BaseCondition
     }
 
     @Override
-    public void init(final IEdgeDefinition edgeDefinition, final IParameters parameters, final ScriptEngine scriptingEngine)
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
     {
         this.setIsActive(edgeDefinition.getTriggerOnEof() != null);
         if (this.isActive())
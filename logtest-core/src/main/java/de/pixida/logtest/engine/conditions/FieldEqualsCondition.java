@@ -0,0 +1,72 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.engine.TimingInfo;
+import de.pixida.logtest.logreaders.FieldView;
+
+/** Matches if all configured fields of the payload have the configured values */
+public class FieldEqualsCondition extends BaseCondition
+{
+    private static final Logger LOG = LoggerFactory.getLogger(FieldEqualsCondition.class);
+
+    private String[] names;
+    private String[] values;
+
+    public FieldEqualsCondition()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
+    {
+        final Map<String, String> fieldEquals = edgeDefinition.getFieldEquals();
+        this.setIsActive(fieldEquals != null && !fieldEquals.isEmpty());
+        if (this.isActive())
+        {
+            this.names = new String[fieldEquals.size()];
+            this.values = new String[fieldEquals.size()];
+            int i = 0;
+            for (final Map.Entry<String, String> field : fieldEquals.entrySet())
+            {
+                this.names[i] = field.getKey();
+                this.values[i] = context.getParameters().insertAllParameters(field.getValue());
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
+        final IScriptEnvironment scriptEnvironment)
+    {
+        final FieldView fields = eventDescription.getFields();
+        for (int i = 0; i < this.names.length; i++)
+        {
+            if (!fields.valueEquals(this.names[i], this.values[i]))
+            {
+                LOG.debug("Field '{}' does not equal '{}'", this.names[i], this.values[i]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isApplicable(final IEventDescription eventDescription)
+    {
+        return eventDescription.isLogEntry();
+    }
+}
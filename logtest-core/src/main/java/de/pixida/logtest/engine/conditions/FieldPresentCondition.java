@@ -0,0 +1,63 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.engine.TimingInfo;
+import de.pixida.logtest.logreaders.FieldView;
+
+/** Matches if all configured fields are present in the payload */
+public class FieldPresentCondition extends BaseCondition
+{
+    private static final Logger LOG = LoggerFactory.getLogger(FieldPresentCondition.class);
+
+    private String[] names;
+
+    public FieldPresentCondition()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
+    {
+        final List<String> fieldPresent = edgeDefinition.getFieldPresent();
+        this.setIsActive(fieldPresent != null && !fieldPresent.isEmpty());
+        if (this.isActive())
+        {
+            this.names = fieldPresent.toArray(new String[fieldPresent.size()]);
+        }
+    }
+
+    @Override
+    public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
+        final IScriptEnvironment scriptEnvironment)
+    {
+        final FieldView fields = eventDescription.getFields();
+        for (final String name : this.names)
+        {
+            if (!fields.has(name))
+            {
+                LOG.debug("Field '{}' is not present", name);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isApplicable(final IEventDescription eventDescription)
+    {
+        return eventDescription.isLogEntry();
+    }
+}
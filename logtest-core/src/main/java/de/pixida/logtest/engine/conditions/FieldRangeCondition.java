@@ -0,0 +1,95 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.automatondefinitions.INumericRange;
+import de.pixida.logtest.engine.InvalidAutomatonDefinitionException;
+import de.pixida.logtest.engine.TimingInfo;
+import de.pixida.logtest.logreaders.FieldView;
+
+/** Matches if all configured fields of the payload are numbers within the configured (inclusive) ranges */
+public class FieldRangeCondition extends BaseCondition
+{
+    private static final Logger LOG = LoggerFactory.getLogger(FieldRangeCondition.class);
+
+    private String[] names;
+    private double[] mins;
+    private double[] maxs;
+
+    public FieldRangeCondition()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
+    {
+        final Map<String, INumericRange> fieldRange = edgeDefinition.getFieldRange();
+        this.setIsActive(fieldRange != null && !fieldRange.isEmpty());
+        if (this.isActive())
+        {
+            this.names = new String[fieldRange.size()];
+            this.mins = new double[fieldRange.size()];
+            this.maxs = new double[fieldRange.size()];
+            int i = 0;
+            for (final Map.Entry<String, INumericRange> field : fieldRange.entrySet())
+            {
+                this.names[i] = field.getKey();
+                this.mins[i] = this.parseBound(context, field.getKey(), field.getValue().getMin(), Double.NEGATIVE_INFINITY);
+                this.maxs[i] = this.parseBound(context, field.getKey(), field.getValue().getMax(), Double.POSITIVE_INFINITY);
+                i++;
+            }
+        }
+    }
+
+    private double parseBound(final IConditionContext context, final String field, final String bound, final double openEnd)
+    {
+        if (bound == null)
+        {
+            return openEnd;
+        }
+        final String value = context.getParameters().insertAllParameters(bound);
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch (final NumberFormatException nfe)
+        {
+            throw new InvalidAutomatonDefinitionException("Invalid bound '" + value + "' of range for field '" + field + "'");
+        }
+    }
+
+    @Override
+    public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
+        final IScriptEnvironment scriptEnvironment)
+    {
+        final FieldView fields = eventDescription.getFields();
+        for (int i = 0; i < this.names.length; i++)
+        {
+            final double value = fields.getNumber(this.names[i]);
+            if (!(value >= this.mins[i] && value <= this.maxs[i])) // NaN, i.e. missing or no number, is never in range
+            {
+                LOG.debug("Field '{}' is not a number in range [{}, {}]", this.names[i], this.mins[i], this.maxs[i]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isApplicable(final IEventDescription eventDescription)
+    {
+        return eventDescription.isLogEntry();
+    }
+}
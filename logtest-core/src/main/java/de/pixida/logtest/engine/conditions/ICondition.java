@@ -7,8 +7,6 @@
 
 package de.pixida.logtest.engine.conditions;
 
-import javax.script.ScriptEngine;
-
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
 import de.pixida.logtest.engine.TimingInfo;
 
@@ -19,12 +17,10 @@ public interface ICondition
      *
      * @param edgeDefinition
      *            Raw definition of the edge
-     * @param parameters
-     *            Parameters for the automaton evaluation
-     * @param scriptingEngine
-     *            Scripting engine to be used
+     * @param context
+     *            Automaton wide information and services, e.g. parameters and scripting engine
      */
-    void init(final IEdgeDefinition edgeDefinition, IParameters parameters, ScriptEngine scriptingEngine);
+    void init(final IEdgeDefinition edgeDefinition, IConditionContext context);
 
     /**
      * Returns whether the initialized condition is active on the edge, i.e. it must be evaluated
@@ -0,0 +1,60 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.io.File;
+
+import javax.script.ScriptEngine;
+
+import de.pixida.logtest.engine.ScriptRunner;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpTimings;
+
+/** Automaton wide information and services available to conditions during initialization */
+public interface IConditionContext
+{
+    /**
+     * @return Parameters for the automaton evaluation
+     */
+    IParameters getParameters();
+
+    /**
+     * @return Scripting engine to be used
+     */
+    ScriptEngine getScriptingEngine();
+
+    /**
+     * @return Runner which enforces the script time budgets of the automaton; pass it when compiling scripts
+     */
+    ScriptRunner getScriptRunner();
+
+    /**
+     * Returns the cache for results of a regular expression. Edges of the same automaton with the same pattern share the cache.
+     *
+     * @param pattern
+     *            Compiled regular expression with all parameters inserted
+     * @return Cache or null if caching is not enabled for the automaton
+     */
+    RegExpResultCache getRegExpResultCache(IRegExpPattern pattern);
+
+    /**
+     * @return Max. duration of a single regular expression match in milliseconds; 0 for no limit
+     */
+    long getRegExpTimeBudgetMs();
+
+    /**
+     * @return Timings of the regular expressions of the job the automaton runs in; pass them when creating matchers. Null if timings are
+     *         not recorded.
+     */
+    RegExpTimings getRegExpTimings();
+
+    /**
+     * @return Directory against which relative paths of files referenced by the automaton are resolved; null for the working directory
+     */
+    File getBaseDirectory();
+}
@@ -0,0 +1,33 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+
+/**
+ * Creates conditions for edges. Besides the built-in conditions, implementations can be plugged in by listing them in
+ * META-INF/services/de.pixida.logtest.engine.conditions.IConditionProvider (see {@link java.util.ServiceLoader}).
+ */
+public interface IConditionProvider
+{
+    /**
+     * Returns whether the condition is configured on an edge. Conditions are only created for edges they are configured on.
+     *
+     * @param edgeDefinition
+     *            Raw definition of the edge
+     * @return True if a condition must be created for the edge
+     */
+    boolean isConfiguredOn(IEdgeDefinition edgeDefinition);
+
+    /**
+     * Create a new, uninitialized condition. Called once for every edge the condition is configured on.
+     *
+     * @return New condition
+     */
+    ICondition createCondition();
+}
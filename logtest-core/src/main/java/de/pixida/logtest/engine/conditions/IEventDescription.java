@@ -7,6 +7,9 @@
 
 package de.pixida.logtest.engine.conditions;
 
+import de.pixida.logtest.logreaders.ChannelDictionary;
+import de.pixida.logtest.logreaders.FieldView;
+
 public interface IEventDescription
 {
     boolean isLogEntry();
@@ -20,4 +23,12 @@ public interface IEventDescription
     String getChannel();
 
     boolean getSupportsChannels();
+
+    default int getChannelId()
+    {
+        return ChannelDictionary.UNKNOWN_CHANNEL_ID;
+    }
+
+    /** @return Fields of the payload of the log entry; only for log entries */
+    FieldView getFields();
 }
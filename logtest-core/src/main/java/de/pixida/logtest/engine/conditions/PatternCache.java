@@ -0,0 +1,68 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpEngine;
+import de.pixida.logtest.regexp.RegExpPatterns;
+
+/**
+ * Process wide cache of compiled regular expressions. Patterns are immutable, so all automatons can share them. The key is the engine and
+ * the expression after all automaton parameters were inserted, i.e. it covers both the automaton definition and the parameter map.
+ *
+ * The cache is bounded per engine and evicts the least recently used patterns, as parameters may produce an unlimited number of different
+ * expressions in long running processes.
+ */
+abstract class PatternCache
+{
+    private static final int MAX_PATTERNS_PER_ENGINE = 4096;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final Map<RegExpEngine, Map<String, IRegExpPattern>> PATTERNS = new EnumMap<>(RegExpEngine.class);
+
+    static
+    {
+        for (final RegExpEngine engine : RegExpEngine.values())
+        {
+            PATTERNS.put(engine, new LinkedHashMap<String, IRegExpPattern>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, IRegExpPattern> eldest)
+                {
+                    return this.size() > MAX_PATTERNS_PER_ENGINE;
+                }
+            });
+        }
+    }
+
+    static IRegExpPattern compile(final String regExp, final RegExpEngine engine)
+    {
+        final Map<String, IRegExpPattern> patterns = PATTERNS.get(engine == null ? RegExpPatterns.DEFAULT_ENGINE : engine);
+        IRegExpPattern pattern;
+        synchronized (patterns)
+        {
+            pattern = patterns.get(regExp);
+        }
+        if (pattern == null)
+        {
+            // Compile outside of the lock, such that other threads are not blocked; a pattern compiled concurrently is simply replaced
+            pattern = RegExpPatterns.compile(regExp, engine);
+            synchronized (patterns)
+            {
+                patterns.put(regExp, pattern);
+            }
+        }
+        return pattern;
+    }
+}
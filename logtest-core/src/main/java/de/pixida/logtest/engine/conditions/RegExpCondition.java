@@ -9,26 +9,29 @@ package de.pixida.logtest.engine.conditions;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
-import javax.script.ScriptEngine;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
 import de.pixida.logtest.engine.InvalidAutomatonDefinitionException;
 import de.pixida.logtest.engine.TimingInfo;
+import de.pixida.logtest.regexp.IRegExpMatcher;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpPatterns;
+import de.pixida.logtest.regexp.RegExpTimings;
 
 public class RegExpCondition extends BaseCondition
 {
     private static final Logger LOG = LoggerFactory.getLogger(RegExpCondition.class);
 
     private String regExp;
-    private Pattern pattern;
+    private IRegExpPattern pattern;
     private List<String> matchingGroups;
+    private RegExpResultCache resultCache;
+    private long timeBudgetMs;
+    private RegExpTimings timings;
 
     public RegExpCondition()
     {
@@ -36,20 +39,23 @@ public class RegExpCondition extends BaseCondition
     }
 
     @Override
-    public void init(final IEdgeDefinition edgeDefinition, final IParameters parameters, final ScriptEngine scriptingEngine)
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
     {
         this.setIsActive(edgeDefinition.getRegExp() != null);
         if (this.isActive())
         {
-            this.regExp = parameters.insertAllParameters(edgeDefinition.getRegExp());
+            this.regExp = context.getParameters().insertAllParameters(edgeDefinition.getRegExp());
             try
             {
-                this.pattern = Pattern.compile(this.regExp);
+                this.pattern = PatternCache.compile(this.regExp, edgeDefinition.getRegExpEngine());
             }
             catch (final PatternSyntaxException pse)
             {
                 throw new InvalidAutomatonDefinitionException("Invalid regular expression pattern", pse);
             }
+            this.resultCache = context.getRegExpResultCache(this.pattern);
+            this.timeBudgetMs = context.getRegExpTimeBudgetMs();
+            this.timings = context.getRegExpTimings();
         }
     }
 
@@ -57,7 +63,13 @@ public class RegExpCondition extends BaseCondition
     public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
         final IScriptEnvironment scriptEnvironment)
     {
-        final Matcher matcher = this.pattern.matcher(eventDescription.getLogEntryPayload());
+        if (this.resultCache != null)
+        {
+            return this.evaluateUsingResultCache(eventDescription.getLogEntryPayload(), scriptEnvironment);
+        }
+
+        final IRegExpMatcher matcher = RegExpPatterns.matcher(this.pattern, eventDescription.getLogEntryPayload(), this.timeBudgetMs,
+            this.timings);
         if (matcher.find())
         {
             if (this.matchingGroups == null)
@@ -90,6 +102,39 @@ public class RegExpCondition extends BaseCondition
         }
     }
 
+    private boolean evaluateUsingResultCache(final String payload, final IScriptEnvironment scriptEnvironment)
+    {
+        // Cached lists are shared and therefore never modified; a list is replaced instead of being cleared and refilled
+        List<String> groups = this.resultCache.get(payload);
+        if (groups == null)
+        {
+            final IRegExpMatcher matcher = RegExpPatterns.matcher(this.pattern, payload, this.timeBudgetMs, this.timings);
+            if (matcher.find())
+            {
+                groups = new ArrayList<>(matcher.groupCount() + 1); // +1 as group 0 not included into this count
+                for (int i = 0; i <= matcher.groupCount(); i++)
+                {
+                    groups.add(matcher.group(i));
+                }
+            }
+            else
+            {
+                groups = RegExpResultCache.NO_MATCH;
+            }
+            this.resultCache.put(payload, groups);
+        }
+        this.matchingGroups = groups;
+
+        if (groups.isEmpty())
+        {
+            LOG.debug("Pattern '{}' did not match", this.regExp);
+            return false;
+        }
+        LOG.debug("Pattern '{}' matched with groups '{}'", this.regExp, groups);
+        scriptEnvironment.setRegExpConditionMatchingGroups(groups);
+        return true;
+    }
+
     @Override
     public boolean isApplicable(final IEventDescription eventDescription)
     {
@@ -0,0 +1,98 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/** Bounded LRU cache mapping log entry payloads to the matching groups of a regular expression */
+public class RegExpResultCache
+{
+    public static final List<String> NO_MATCH = Collections.emptyList();
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final String regExp;
+    private final Map<String, List<String>> results;
+    private long numLookups;
+    private long numHits;
+
+    public RegExpResultCache(final String aRegExp, final int maxSize)
+    {
+        Validate.notNull(aRegExp);
+        Validate.isTrue(maxSize > 0);
+        this.regExp = aRegExp;
+        this.results = new LinkedHashMap<String, List<String>>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, List<String>> eldest)
+            {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param payload
+     *            Payload of a log entry
+     * @return The cached, unmodifiable matching groups, {@link #NO_MATCH} or null if the payload is not cached
+     */
+    public List<String> get(final String payload)
+    {
+        this.numLookups++;
+        final List<String> result = this.results.get(payload);
+        if (result != null)
+        {
+            this.numHits++;
+        }
+        return result;
+    }
+
+    public void put(final String payload, final List<String> matchingGroups)
+    {
+        this.results.put(payload, matchingGroups.isEmpty() ? NO_MATCH : Collections.unmodifiableList(matchingGroups));
+    }
+
+    public String getRegExp()
+    {
+        return this.regExp;
+    }
+
+    public long getNumLookups()
+    {
+        return this.numLookups;
+    }
+
+    public long getNumHits()
+    {
+        return this.numHits;
+    }
+
+    public int getSize()
+    {
+        return this.results.size();
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        final double percent = 100.0;
+        final double hitRate = this.numLookups == 0 ? 0.0 : percent * this.numHits / this.numLookups;
+        return String.format(Locale.US, "'%s': %d lookups, %d hits (%.1f%%), %d entries", this.regExp, this.numLookups, this.numHits, hitRate,
+            this.results.size());
+    }
+}
@@ -9,8 +9,6 @@ package de.pixida.logtest.engine.conditions;
 
 import java.util.function.Function;
 
-import javax.script.ScriptEngine;
-
 import org.apache.commons.lang3.Validate;
 
 import de.pixida.logtest.automatondefinitions.IDuration;
@@ -37,13 +35,13 @@ public class TimeIntervalCondition extends BaseCondition
     }
 
     @Override
-    public void init(final IEdgeDefinition edgeDefinition, final IParameters parameters, final ScriptEngine scriptingEngine)
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
     {
         this.timeInterval = this.timeIntervalGetter.apply(edgeDefinition);
         this.setIsActive(this.timeInterval != null);
         if (this.isActive())
         {
-            this.parseValues(parameters);
+            this.parseValues(context.getParameters());
             this.checkTimeInterval();
         }
     }
@@ -0,0 +1,138 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.automatondefinitions.IValueInSet;
+import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.engine.InvalidAutomatonDefinitionException;
+import de.pixida.logtest.engine.TimingInfo;
+import de.pixida.logtest.regexp.IRegExpMatcher;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpPatterns;
+import de.pixida.logtest.regexp.RegExpTimings;
+
+/**
+ * Matches if a value extracted from the payload is contained in a set of values loaded from a file. A hash lookup replaces regular
+ * expressions with huge alternations, which are slow to match.
+ */
+public class ValueInSetCondition extends BaseCondition
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ValueInSetCondition.class);
+
+    private String field;
+    private IRegExpPattern pattern;
+    private int group;
+    private long timeBudgetMs;
+    private RegExpTimings timings;
+    private File file;
+    private Set<String> values;
+
+    public ValueInSetCondition()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
+    {
+        final IValueInSet valueInSet = edgeDefinition.getValueInSet();
+        this.setIsActive(valueInSet != null);
+        if (this.isActive())
+        {
+            if (valueInSet.getFile() == null)
+            {
+                throw new InvalidAutomatonDefinitionException("No file given for the set of values");
+            }
+            if ((valueInSet.getField() == null) == (valueInSet.getRegExp() == null))
+            {
+                throw new InvalidAutomatonDefinitionException(
+                    "Either a field or a regular expression must be given to extract the value which is looked up in the set");
+            }
+
+            if (valueInSet.getField() != null)
+            {
+                this.field = context.getParameters().insertAllParameters(valueInSet.getField());
+            }
+            else
+            {
+                this.initPattern(valueInSet, edgeDefinition, context);
+            }
+
+            this.file = Automaton.resolveReferencedFile(context.getParameters().insertAllParameters(valueInSet.getFile()),
+                context.getBaseDirectory());
+            try
+            {
+                this.values = ValueSetCache.load(this.file);
+            }
+            catch (final IOException ioe)
+            {
+                throw new InvalidAutomatonDefinitionException("Failed to read set of values from file '" + this.file + "'", ioe);
+            }
+        }
+    }
+
+    private void initPattern(final IValueInSet valueInSet, final IEdgeDefinition edgeDefinition, final IConditionContext context)
+    {
+        final String regExp = context.getParameters().insertAllParameters(valueInSet.getRegExp());
+        try
+        {
+            this.pattern = PatternCache.compile(regExp, edgeDefinition.getRegExpEngine());
+        }
+        catch (final PatternSyntaxException pse)
+        {
+            throw new InvalidAutomatonDefinitionException("Invalid regular expression pattern", pse);
+        }
+        this.group = valueInSet.getRegExpGroup() == null ? 0 : valueInSet.getRegExpGroup();
+        if (this.group < 0 || this.group > this.pattern.matcher("").groupCount())
+        {
+            throw new InvalidAutomatonDefinitionException("Regular expression '" + regExp + "' has no group " + this.group);
+        }
+        this.timeBudgetMs = context.getRegExpTimeBudgetMs();
+        this.timings = context.getRegExpTimings();
+    }
+
+    @Override
+    public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
+        final IScriptEnvironment scriptEnvironment)
+    {
+        final String value;
+        if (this.field != null)
+        {
+            value = eventDescription.getFields().get(this.field);
+        }
+        else
+        {
+            final IRegExpMatcher matcher = RegExpPatterns.matcher(this.pattern, eventDescription.getLogEntryPayload(), this.timeBudgetMs,
+                this.timings);
+            value = matcher.find() ? matcher.group(this.group) : null;
+        }
+        if (value == null)
+        {
+            LOG.debug("No value to look up in set of file '{}'", this.file);
+            return false;
+        }
+        final boolean contained = this.values.contains(value);
+        LOG.debug("Value '{}' is {}contained in set of file '{}'", value, contained ? "" : "not ", this.file);
+        return contained;
+    }
+
+    @Override
+    public boolean isApplicable(final IEventDescription eventDescription)
+    {
+        return eventDescription.isLogEntry();
+    }
+}
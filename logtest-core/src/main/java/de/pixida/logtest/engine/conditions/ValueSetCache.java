@@ -0,0 +1,81 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine.conditions;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide cache of sets of values loaded from files. Sets are immutable, so all automatons can share them. A file is only read again
+ * if its modification time or size changed since it was loaded.
+ *
+ * Files are read as UTF-8 and contain one value per line. Values are trimmed; empty lines and lines starting with '#' are ignored.
+ */
+abstract class ValueSetCache
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ValueSetCache.class);
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final class LoadedSet
+    {
+        private final long lastModified;
+        private final long length;
+        private final Set<String> values;
+
+        LoadedSet(final long aLastModified, final long aLength, final Set<String> aValues)
+        {
+            this.lastModified = aLastModified;
+            this.length = aLength;
+            this.values = aValues;
+        }
+    }
+
+    private static final Map<File, LoadedSet> SETS = new HashMap<>();
+
+    static synchronized Set<String> load(final File file) throws IOException
+    {
+        final File canonicalFile = file.getCanonicalFile();
+        final long lastModified = canonicalFile.lastModified();
+        final long length = canonicalFile.length();
+        final LoadedSet cached = SETS.get(canonicalFile);
+        if (cached != null && cached.lastModified == lastModified && cached.length == length)
+        {
+            return cached.values;
+        }
+
+        final Set<String> values = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(canonicalFile.toPath(), StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final String value = line.trim();
+                if (!value.isEmpty() && !value.startsWith(COMMENT_PREFIX))
+                {
+                    values.add(value);
+                }
+            }
+        }
+        LOG.debug("Loaded {} values from file '{}'", values.size(), canonicalFile);
+        final Set<String> result = Collections.unmodifiableSet(values);
+        SETS.put(canonicalFile, new LoadedSet(lastModified, length, result));
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.flightrecorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Custom Java Flight Recorder events for jobs, the creation of automatons, transitions and slow condition evaluations. Disabled unless the
+ * system property {@value #ENABLE_PROPERTY} is "true" and the JVM provides the JFR API (jdk.jfr); otherwise, every method returns
+ * immediately. When enabled, events are only timed and committed while a recording is interested in them, and slow condition evaluations
+ * are only committed above their threshold (10 ms by default, configurable in the recording settings).
+ *
+ * Methods which begin an event return a handle to be passed to the matching end method; the handle is null if the event is not recorded.
+ */
+public abstract class FlightRecorderEvents
+{
+    public static final String ENABLE_PROPERTY = "logtest.flightRecorder";
+
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderEvents.class);
+    private static final String JFR_API_CLASS = "jdk.jfr.Event";
+    private static final IFlightRecorder RECORDER = createRecorder();
+
+    public static boolean isEnabled()
+    {
+        return RECORDER != null;
+    }
+
+    public static Object beginJob()
+    {
+        return RECORDER == null ? null : RECORDER.beginJob();
+    }
+
+    public static void endJob(final Object event, final String log, final int numAutomatons, final long numEntries, final long numBytes)
+    {
+        if (event != null)
+        {
+            RECORDER.endJob(event, log, numAutomatons, numEntries, numBytes);
+        }
+    }
+
+    public static Object beginAutomatonCreation()
+    {
+        return RECORDER == null ? null : RECORDER.beginAutomatonCreation();
+    }
+
+    public static void endAutomatonCreation(final Object event, final Object automaton, final boolean valid)
+    {
+        if (event != null)
+        {
+            RECORDER.endAutomatonCreation(event, automaton, valid);
+        }
+    }
+
+    // The objects are only converted to strings if the event is recorded
+    public static void transition(final Object automaton, final Object fromNode, final Object toNode, final Object edge,
+        final long lineNumber)
+    {
+        if (RECORDER != null)
+        {
+            RECORDER.transition(automaton, fromNode, toNode, edge, lineNumber);
+        }
+    }
+
+    public static Object beginConditionEvaluation()
+    {
+        return RECORDER == null ? null : RECORDER.beginConditionEvaluation();
+    }
+
+    public static void endConditionEvaluation(final Object event, final Object edge, final Object condition)
+    {
+        if (event != null)
+        {
+            RECORDER.endConditionEvaluation(event, edge, condition);
+        }
+    }
+
+    private static IFlightRecorder createRecorder()
+    {
+        if (!Boolean.getBoolean(ENABLE_PROPERTY))
+        {
+            return null;
+        }
+        try
+        {
+            Class.forName(JFR_API_CLASS);
+            final IFlightRecorder result = (IFlightRecorder) Class.forName(FlightRecorderEvents.class.getPackage().getName()
+                + ".JfrFlightRecorder").newInstance();
+            LOG.info("Flight recorder events enabled");
+            return result;
+        }
+        catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | LinkageError e)
+        {
+            LOG.warn("Flight recorder events requested, but the JFR API is not available: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.flightrecorder;
+
+/** Emits the events; implemented separately so the JFR API is only loaded when it is available and enabled */
+interface IFlightRecorder
+{
+    Object beginJob();
+
+    void endJob(Object event, String log, int numAutomatons, long numEntries, long numBytes);
+
+    Object beginAutomatonCreation();
+
+    void endAutomatonCreation(Object event, Object automaton, boolean valid);
+
+    void transition(Object automaton, Object fromNode, Object toNode, Object edge, long lineNumber);
+
+    Object beginConditionEvaluation();
+
+    void endConditionEvaluation(Object event, Object edge, Object condition);
+}
@@ -0,0 +1,183 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/** Emits the events via the JFR API; only instantiated by {@link FlightRecorderEvents} if the API is present */
+final class JfrFlightRecorder implements IFlightRecorder
+{
+    private static final String CATEGORY = "Logtest";
+
+    @Name("de.pixida.logtest.Job")
+    @Label("Job")
+    @Description("Execution of all automatons of a job on a log")
+    @Category(CATEGORY)
+    static class JobEvent extends Event
+    {
+        @Label("Log")
+        String log;
+
+        @Label("Automatons")
+        int numAutomatons;
+
+        @Label("Entries")
+        long numEntries;
+
+        @Label("Size")
+        @Description("Size of the log, or -1 if unknown")
+        @DataAmount
+        long numBytes;
+    }
+
+    @Name("de.pixida.logtest.AutomatonCreation")
+    @Label("Automaton Creation")
+    @Description("Loading an automaton definition and compiling its expressions and scripts")
+    @Category(CATEGORY)
+    static class AutomatonCreationEvent extends Event
+    {
+        @Label("Automaton")
+        String automaton;
+
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("de.pixida.logtest.Transition")
+    @Label("Transition")
+    @Description("Microtransition of an automaton via an edge")
+    @Category(CATEGORY)
+    static class TransitionEvent extends Event
+    {
+        @Label("Automaton")
+        String automaton;
+
+        @Label("From Node")
+        String fromNode;
+
+        @Label("To Node")
+        String toNode;
+
+        @Label("Edge")
+        String edge;
+
+        @Label("Line Number")
+        @Description("Line of the log entry which triggered the transition, or -1 for EOF")
+        long lineNumber;
+    }
+
+    @Name("de.pixida.logtest.SlowConditionEvaluation")
+    @Label("Slow Condition Evaluation")
+    @Description("Evaluation of an edge condition which took longer than the threshold")
+    @Category(CATEGORY)
+    @Threshold("10 ms")
+    static class ConditionEvaluationEvent extends Event
+    {
+        @Label("Edge")
+        String edge;
+
+        @Label("Condition")
+        String condition;
+    }
+
+    JfrFlightRecorder()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public Object beginJob()
+    {
+        return begin(new JobEvent());
+    }
+
+    @Override
+    public void endJob(final Object event, final String log, final int numAutomatons, final long numEntries, final long numBytes)
+    {
+        final JobEvent jobEvent = (JobEvent) event;
+        jobEvent.end();
+        if (jobEvent.shouldCommit())
+        {
+            jobEvent.log = log;
+            jobEvent.numAutomatons = numAutomatons;
+            jobEvent.numEntries = numEntries;
+            jobEvent.numBytes = numBytes;
+            jobEvent.commit();
+        }
+    }
+
+    @Override
+    public Object beginAutomatonCreation()
+    {
+        return begin(new AutomatonCreationEvent());
+    }
+
+    @Override
+    public void endAutomatonCreation(final Object event, final Object automaton, final boolean valid)
+    {
+        final AutomatonCreationEvent creationEvent = (AutomatonCreationEvent) event;
+        creationEvent.end();
+        if (creationEvent.shouldCommit())
+        {
+            creationEvent.automaton = String.valueOf(automaton);
+            creationEvent.valid = valid;
+            creationEvent.commit();
+        }
+    }
+
+    @Override
+    public void transition(final Object automaton, final Object fromNode, final Object toNode, final Object edge, final long lineNumber)
+    {
+        final TransitionEvent event = new TransitionEvent();
+        if (event.shouldCommit())
+        {
+            event.automaton = String.valueOf(automaton);
+            event.fromNode = String.valueOf(fromNode);
+            event.toNode = String.valueOf(toNode);
+            event.edge = String.valueOf(edge);
+            event.lineNumber = lineNumber;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginConditionEvaluation()
+    {
+        return begin(new ConditionEvaluationEvent());
+    }
+
+    @Override
+    public void endConditionEvaluation(final Object event, final Object edge, final Object condition)
+    {
+        final ConditionEvaluationEvent evaluationEvent = (ConditionEvaluationEvent) event;
+        evaluationEvent.end();
+        if (evaluationEvent.shouldCommit())
+        {
+            evaluationEvent.edge = String.valueOf(edge);
+            evaluationEvent.condition = condition.getClass().getSimpleName();
+            evaluationEvent.commit();
+        }
+    }
+
+    private static Event begin(final Event event)
+    {
+        // Skip timing and committing entirely if no recording is interested in the event
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
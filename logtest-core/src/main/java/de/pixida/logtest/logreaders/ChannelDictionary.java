@@ -0,0 +1,70 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the channel names of one job to small integer ids, such that the engine can compare and count channels without comparing strings.
+ * The default channel always has the id {@link #DEFAULT_CHANNEL_ID}. Ids are only meaningful within the dictionary which assigned them, so
+ * the log reader and the automatons of a job must share the same instance.
+ */
+public class ChannelDictionary
+{
+    public static final int UNKNOWN_CHANNEL_ID = -1;
+    public static final int DEFAULT_CHANNEL_ID = 0;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public ChannelDictionary()
+    {
+        this.names.add(ILogEntry.DEFAULT_CHANNEL);
+    }
+
+    /**
+     * @param channel
+     *            Name of the channel; {@link ILogEntry#DEFAULT_CHANNEL} for entries without channel
+     * @return The id of the channel; unknown channels are added to the dictionary
+     */
+    public synchronized int getId(final String channel)
+    {
+        if (channel == ILogEntry.DEFAULT_CHANNEL)
+        {
+            return DEFAULT_CHANNEL_ID;
+        }
+        Integer id = this.ids.get(channel);
+        if (id == null)
+        {
+            id = this.names.size();
+            this.ids.put(channel, id);
+            this.names.add(channel);
+        }
+        return id;
+    }
+
+    public synchronized String getName(final int id)
+    {
+        return this.names.get(id);
+    }
+
+    public synchronized int size()
+    {
+        return this.names.size();
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public synchronized String toString()
+    {
+        return this.names.toString();
+    }
+}
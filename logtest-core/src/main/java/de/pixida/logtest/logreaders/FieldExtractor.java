@@ -0,0 +1,216 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Splits log entry payloads into fields. Instances are immutable and can be shared by all entries of a log.
+ *
+ * <ul>
+ * <li>{@link Grammar#KEY_VALUE}: Pairs like <code>status=200 user="John Doe"</code>. Pairs are separated by the delimiter, keys and values
+ * by the key value delimiter. Values may be enclosed in double quotes to contain delimiters. Text without key value delimiter is
+ * ignored.</li>
+ * <li>{@link Grammar#DELIMITED}: Values like <code>200|John Doe</code>, separated by the delimiter and named by their position.</li>
+ * </ul>
+ *
+ * Keys and unquoted values are trimmed.
+ */
+public class FieldExtractor
+{
+    public enum Grammar
+    {
+        KEY_VALUE,
+        DELIMITED
+    }
+
+    public static final String DEFAULT_KEY_VALUE_DELIMITER = "=";
+    public static final FieldExtractor DEFAULT = new FieldExtractor(Grammar.KEY_VALUE, null, DEFAULT_KEY_VALUE_DELIMITER, null);
+
+    private static final char QUOTE = '"';
+
+    private final Grammar grammar;
+    private final String delimiter;
+    private final String keyValueDelimiter;
+    private final Map<String, Integer> positionsByName;
+
+    /**
+     * @param aGrammar
+     *            Grammar of the payload
+     * @param aDelimiter
+     *            Separates pairs or values; null for any whitespace
+     * @param aKeyValueDelimiter
+     *            Separates keys from values, only for {@link Grammar#KEY_VALUE}
+     * @param fieldNames
+     *            Names of the values by position, only for {@link Grammar#DELIMITED}
+     */
+    public FieldExtractor(final Grammar aGrammar, final String aDelimiter, final String aKeyValueDelimiter, final List<String> fieldNames)
+    {
+        Validate.notNull(aGrammar);
+        Validate.isTrue(aDelimiter == null || !aDelimiter.isEmpty(), "Delimiter must not be empty");
+        this.grammar = aGrammar;
+        this.delimiter = aDelimiter;
+        if (aGrammar == Grammar.KEY_VALUE)
+        {
+            Validate.isTrue(StringUtils.isNotEmpty(aKeyValueDelimiter), "Key value delimiter must not be empty");
+            this.keyValueDelimiter = aKeyValueDelimiter;
+            this.positionsByName = null;
+        }
+        else
+        {
+            Validate.isTrue(fieldNames != null && !fieldNames.isEmpty(), "Names of delimited fields must be given");
+            this.keyValueDelimiter = null;
+            final Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < fieldNames.size(); i++)
+            {
+                positions.putIfAbsent(fieldNames.get(i), i);
+            }
+            this.positionsByName = Collections.unmodifiableMap(positions);
+        }
+    }
+
+    public FieldView extract(final String payload)
+    {
+        Validate.notNull(payload);
+        final FieldView view = new FieldView(payload, this.positionsByName);
+        if (this.grammar == Grammar.KEY_VALUE)
+        {
+            this.extractKeyValuePairs(payload, view);
+        }
+        else
+        {
+            this.extractDelimitedValues(payload, view);
+        }
+        return view;
+    }
+
+    private void extractKeyValuePairs(final String payload, final FieldView view)
+    {
+        final int length = payload.length();
+        int i = 0;
+        while (i < length)
+        {
+            i = this.skipDelimiters(payload, i);
+            final int keyStart = i;
+            while (i < length && !this.isDelimiterAt(payload, i) && !payload.startsWith(this.keyValueDelimiter, i))
+            {
+                i++;
+            }
+            if (i >= length || !payload.startsWith(this.keyValueDelimiter, i))
+            {
+                continue; // Free text
+            }
+            final int keyEnd = i;
+            i += this.keyValueDelimiter.length();
+            final int valueStart;
+            final int valueEnd;
+            final boolean quoted = i < length && payload.charAt(i) == QUOTE;
+            if (quoted)
+            {
+                valueStart = i + 1;
+                final int closingQuote = payload.indexOf(QUOTE, valueStart);
+                valueEnd = closingQuote < 0 ? length : closingQuote;
+                i = closingQuote < 0 ? length : closingQuote + 1;
+            }
+            else
+            {
+                valueStart = i;
+                while (i < length && !this.isDelimiterAt(payload, i))
+                {
+                    i++;
+                }
+                valueEnd = i;
+            }
+            final int trimmedKeyStart = trimStart(payload, keyStart, keyEnd);
+            final int trimmedKeyEnd = trimEnd(payload, trimmedKeyStart, keyEnd);
+            if (trimmedKeyEnd > trimmedKeyStart)
+            {
+                final int trimmedValueStart = quoted ? valueStart : trimStart(payload, valueStart, valueEnd);
+                final int trimmedValueEnd = quoted ? valueEnd : trimEnd(payload, trimmedValueStart, valueEnd);
+                view.add(trimmedKeyStart, trimmedKeyEnd, trimmedValueStart, trimmedValueEnd);
+            }
+        }
+    }
+
+    private void extractDelimitedValues(final String payload, final FieldView view)
+    {
+        final int length = payload.length();
+        int i = this.delimiter == null ? this.skipDelimiters(payload, 0) : 0;
+        if (this.delimiter == null && i >= length)
+        {
+            return; // Only whitespace
+        }
+        while (i <= length && view.size() < this.positionsByName.size())
+        {
+            final int valueStart = i;
+            while (i < length && !this.isDelimiterAt(payload, i))
+            {
+                i++;
+            }
+            final int trimmedValueStart = trimStart(payload, valueStart, i);
+            view.add(-1, -1, trimmedValueStart, trimEnd(payload, trimmedValueStart, i));
+            if (i >= length)
+            {
+                break;
+            }
+            if (this.delimiter == null)
+            {
+                i = this.skipDelimiters(payload, i);
+                if (i >= length)
+                {
+                    break; // Trailing whitespace
+                }
+            }
+            else
+            {
+                i += this.delimiter.length();
+            }
+        }
+    }
+
+    private boolean isDelimiterAt(final String payload, final int index)
+    {
+        return this.delimiter == null ? Character.isWhitespace(payload.charAt(index)) : payload.startsWith(this.delimiter, index);
+    }
+
+    private int skipDelimiters(final String payload, final int start)
+    {
+        int i = start;
+        while (i < payload.length() && this.isDelimiterAt(payload, i))
+        {
+            i += this.delimiter == null ? 1 : this.delimiter.length();
+        }
+        return i;
+    }
+
+    private static int trimStart(final String payload, final int start, final int end)
+    {
+        int i = start;
+        while (i < end && Character.isWhitespace(payload.charAt(i)))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(final String payload, final int start, final int end)
+    {
+        int i = end;
+        while (i > start && Character.isWhitespace(payload.charAt(i - 1)))
+        {
+            i--;
+        }
+        return i;
+    }
+}
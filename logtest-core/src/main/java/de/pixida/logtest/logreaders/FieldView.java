@@ -0,0 +1,164 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Fields of a log entry payload, extracted by a {@link FieldExtractor}. The view only stores the positions of keys and values within the
+ * payload; strings are created on access only, and comparisons do not create any.
+ */
+public class FieldView
+{
+    // Offsets of the positions of a field within its slots
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_START = 2;
+    private static final int VALUE_END = 3;
+    private static final int SLOTS_PER_FIELD = 4;
+    private static final int INITIAL_NUM_FIELDS = 8;
+
+    private final String payload;
+    private final Map<String, Integer> positionsByName; // Only for delimited fields, which have no keys in the payload
+    private int[] offsets = new int[INITIAL_NUM_FIELDS * SLOTS_PER_FIELD];
+    private int numFields;
+
+    FieldView(final String aPayload, final Map<String, Integer> aPositionsByName)
+    {
+        this.payload = aPayload;
+        this.positionsByName = aPositionsByName;
+    }
+
+    void add(final int keyStart, final int keyEnd, final int valueStart, final int valueEnd)
+    {
+        final int slot = this.numFields * SLOTS_PER_FIELD;
+        if (slot == this.offsets.length)
+        {
+            this.offsets = Arrays.copyOf(this.offsets, this.offsets.length << 1);
+        }
+        this.offsets[slot + KEY_START] = keyStart;
+        this.offsets[slot + KEY_END] = keyEnd;
+        this.offsets[slot + VALUE_START] = valueStart;
+        this.offsets[slot + VALUE_END] = valueEnd;
+        this.numFields++;
+    }
+
+    public int size()
+    {
+        return this.numFields;
+    }
+
+    public boolean has(final String name)
+    {
+        return this.indexOf(name) >= 0;
+    }
+
+    /**
+     * @param name
+     *            Name of the field
+     * @return Value of the field, or null if the field is not present
+     */
+    public String get(final String name)
+    {
+        final int index = this.indexOf(name);
+        if (index < 0)
+        {
+            return null;
+        }
+        final int slot = index * SLOTS_PER_FIELD;
+        return this.payload.substring(this.offsets[slot + VALUE_START], this.offsets[slot + VALUE_END]);
+    }
+
+    /**
+     * @param name
+     *            Name of the field
+     * @param expectedValue
+     *            Value to compare with
+     * @return Whether the field is present and has the given value
+     */
+    public boolean valueEquals(final String name, final String expectedValue)
+    {
+        final int index = this.indexOf(name);
+        if (index < 0)
+        {
+            return false;
+        }
+        final int slot = index * SLOTS_PER_FIELD;
+        final int valueStart = this.offsets[slot + VALUE_START];
+        final int length = this.offsets[slot + VALUE_END] - valueStart;
+        return length == expectedValue.length() && this.payload.regionMatches(valueStart, expectedValue, 0, length);
+    }
+
+    /**
+     * @param name
+     *            Name of the field
+     * @return Numeric value of the field, or NaN if the field is not present or is not a number
+     */
+    public double getNumber(final String name)
+    {
+        final String value = this.get(name);
+        if (value == null || value.isEmpty())
+        {
+            return Double.NaN;
+        }
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch (final NumberFormatException nfe)
+        {
+            return Double.NaN;
+        }
+    }
+
+    private int indexOf(final String name)
+    {
+        if (this.positionsByName != null)
+        {
+            final Integer position = this.positionsByName.get(name);
+            return position != null && position < this.numFields ? position : -1;
+        }
+        for (int i = 0; i < this.numFields; i++)
+        {
+            final int slot = i * SLOTS_PER_FIELD;
+            final int keyStart = this.offsets[slot + KEY_START];
+            final int length = this.offsets[slot + KEY_END] - keyStart;
+            if (length == name.length() && this.payload.regionMatches(keyStart, name, 0, length))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < this.numFields; i++)
+        {
+            final int slot = i * SLOTS_PER_FIELD;
+            if (i > 0)
+            {
+                sb.append(", ");
+            }
+            if (this.positionsByName == null)
+            {
+                sb.append(this.payload, this.offsets[slot + KEY_START], this.offsets[slot + KEY_END]);
+            }
+            else
+            {
+                sb.append(i);
+            }
+            sb.append('=').append(this.payload, this.offsets[slot + VALUE_START], this.offsets[slot + VALUE_END]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -15,13 +15,29 @@ public class GenericLogEntry implements ILogEntry
     private final long time;
     private final String payload;
     private final String channel;
+    private final int channelId;
+    private final FieldExtractor fieldExtractor;
+    private FieldView fields; // Extracted on first access, then shared by all automatons
 
-    public GenericLogEntry(final long aLineNumber, final long aTime, final String aPayload, final String aChannel)
+    public GenericLogEntry(final long aLineNumber, final long aTime, final String aPayload, final String aChannel, final int aChannelId,
+        final FieldExtractor aFieldExtractor)
     {
         this.lineNumber = aLineNumber;
         this.time = aTime;
         this.payload = aPayload;
         this.channel = aChannel;
+        this.channelId = aChannelId;
+        this.fieldExtractor = aFieldExtractor == null ? FieldExtractor.DEFAULT : aFieldExtractor;
+    }
+
+    public GenericLogEntry(final long aLineNumber, final long aTime, final String aPayload, final String aChannel, final int aChannelId)
+    {
+        this(aLineNumber, aTime, aPayload, aChannel, aChannelId, null);
+    }
+
+    public GenericLogEntry(final long aLineNumber, final long aTime, final String aPayload, final String aChannel)
+    {
+        this(aLineNumber, aTime, aPayload, aChannel, ChannelDictionary.UNKNOWN_CHANNEL_ID);
     }
 
     public GenericLogEntry(final long aLineNumber, final long aTime, final String aPayload)
@@ -30,6 +46,8 @@ public class GenericLogEntry implements ILogEntry
         this.time = aTime;
         this.payload = aPayload;
         this.channel = ILogEntry.DEFAULT_CHANNEL;
+        this.channelId = ChannelDictionary.UNKNOWN_CHANNEL_ID;
+        this.fieldExtractor = FieldExtractor.DEFAULT;
     }
 
     @Override
@@ -56,10 +74,26 @@ public class GenericLogEntry implements ILogEntry
         return this.channel;
     }
 
+    @Override
+    public int getChannelId()
+    {
+        return this.channelId;
+    }
+
+    @Override
+    public FieldView getFields()
+    {
+        if (this.fields == null)
+        {
+            this.fields = this.fieldExtractor.extract(this.payload);
+        }
+        return this.fields;
+    }
+
     // Just for logging output / no business use
     @Override
     public String toString()
     {
-        return ReflectionToStringBuilder.toString(this);
+        return ReflectionToStringBuilder.toStringExclude(this, "fieldExtractor", "fields");
     }
 }
@@ -18,24 +18,35 @@ import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.pixida.logtest.regexp.IRegExpMatcher;
+import de.pixida.logtest.regexp.IRegExpPattern;
+import de.pixida.logtest.regexp.RegExpEngine;
+import de.pixida.logtest.regexp.RegExpPatterns;
+import de.pixida.logtest.regexp.RegExpTimeBudgetExceededException;
+import de.pixida.logtest.regexp.RegExpTimings;
+
 public class GenericLogReader implements ILogReader
 {
+    /** Max. number of entries held back for reordering if only a time window is configured */
+    public static final int DEFAULT_REORDER_WINDOW_ENTRIES = 10000;
+
     private static final Logger LOG = LoggerFactory.getLogger(GenericLogReader.class);
 
     public enum HandlingOfNonHeadlineLines
@@ -49,6 +60,7 @@ public class GenericLogReader implements ILogReader
     private final File logFile;
 
     private BufferedReader br;
+    private CountingInputStream countingInputStream;
     private String lookaheadLine;
 
     // Put default configuration here... note: It would be fatal to change them. In this case, define new properties and map old values.
@@ -59,12 +71,27 @@ public class GenericLogReader implements ILogReader
     private boolean removeEmptyPayloadLinesFromMultilineEntry = true;
     private HandlingOfNonHeadlineLines handlingOfNonHeadlineLines = HandlingOfNonHeadlineLines.FAIL;
     private Charset logFileCharset = StandardCharsets.UTF_8;
-
-    private Pattern compiledHeadlinePattern;
+    private RegExpEngine regExpEngine = RegExpPatterns.DEFAULT_ENGINE;
+    private int regExpTimeBudgetMs = RegExpPatterns.DEFAULT_TIME_BUDGET_MS;
+    private int reorderWindowEntries = 0;
+    private int reorderWindowMs = 0;
+    private FieldExtractor.Grammar fieldGrammar = FieldExtractor.Grammar.KEY_VALUE;
+    private String fieldDelimiter = null;
+    private String fieldKeyValueDelimiter = FieldExtractor.DEFAULT_KEY_VALUE_DELIMITER;
+    private List<String> fieldNames = null;
+
+    private IRegExpPattern compiledHeadlinePattern;
+    private FieldExtractor fieldExtractor;
 
     private long lineNo;
     private long lastTimestamp;
     private String lastChannel;
+    private ChannelDictionary channelDictionary;
+    private RegExpTimings regExpTimings;
+    private int lastChannelId = ChannelDictionary.UNKNOWN_CHANNEL_ID;
+
+    private ReorderBuffer reorderBuffer;
+    private boolean reorderBufferInputEnded;
 
     private Throwable exception;
     private boolean inputStreamClosed;
@@ -88,6 +115,19 @@ public class GenericLogReader implements ILogReader
         this.compiledHeadlinePattern = null; // Force recompilation
     }
 
+    @Override
+    public void setChannelDictionary(final ChannelDictionary value)
+    {
+        this.channelDictionary = value;
+        this.lastChannelId = ChannelDictionary.UNKNOWN_CHANNEL_ID;
+    }
+
+    @Override
+    public void setRegExpTimings(final RegExpTimings value)
+    {
+        this.regExpTimings = value;
+    }
+
     public void setTrimPayload(final boolean value)
     {
         this.trimPayload = value;
@@ -120,6 +160,71 @@ public class GenericLogReader implements ILogReader
         this.logFileCharset = value;
     }
 
+    public void setRegExpEngine(final RegExpEngine value)
+    {
+        Validate.notNull(value);
+        this.regExpEngine = value;
+        this.compiledHeadlinePattern = null; // Force recompilation
+    }
+
+    /** @param value Max. duration of matching the headline pattern against a single line; 0 for no limit */
+    public void setRegExpTimeBudgetMs(final int value)
+    {
+        Validate.isTrue(value >= 0, "Time budget must not be negative");
+        this.regExpTimeBudgetMs = value;
+    }
+
+    /**
+     * Entries are sorted by timestamp, holding back at most this number of entries. Entries with equal timestamps keep their order.
+     *
+     * @param value Max. number of entries held back; 0 to not reorder by number of entries
+     */
+    public void setReorderWindowEntries(final int value)
+    {
+        Validate.isTrue(value >= 0, "Reorder window must not be negative");
+        this.reorderWindowEntries = value;
+    }
+
+    /**
+     * Entries are sorted by timestamp, holding each entry back until an entry more than this newer was read. The number of entries held
+     * back is still limited, see {@link #DEFAULT_REORDER_WINDOW_ENTRIES}.
+     *
+     * @param value Time window in milliseconds; 0 to not reorder by time
+     */
+    public void setReorderWindowMs(final int value)
+    {
+        Validate.isTrue(value >= 0, "Reorder window must not be negative");
+        this.reorderWindowMs = value;
+    }
+
+    /** @param value Grammar used to split payloads into fields for field conditions, see {@link FieldExtractor} */
+    public void setFieldGrammar(final FieldExtractor.Grammar value)
+    {
+        Validate.notNull(value);
+        this.fieldGrammar = value;
+        this.fieldExtractor = null; // Force recreation
+    }
+
+    /** @param value Separates fields; null for any whitespace */
+    public void setFieldDelimiter(final String value)
+    {
+        this.fieldDelimiter = value;
+        this.fieldExtractor = null; // Force recreation
+    }
+
+    public void setFieldKeyValueDelimiter(final String value)
+    {
+        this.fieldKeyValueDelimiter = value;
+        this.fieldExtractor = null; // Force recreation
+    }
+
+    /** @param value Names of the fields by position, for {@link FieldExtractor.Grammar#DELIMITED} */
+    public void setFieldNames(final List<String> value)
+    {
+        this.fieldNames = value == null ? null : new ArrayList<>(value);
+        this.fieldExtractor = null; // Force recreation
+    }
+
     public String getHeadlinePattern()
     {
         return this.headlinePattern;
@@ -155,6 +260,58 @@ public class GenericLogReader implements ILogReader
         return this.logFileCharset;
     }
 
+    public RegExpEngine getRegExpEngine()
+    {
+        return this.regExpEngine;
+    }
+
+    public int getRegExpTimeBudgetMs()
+    {
+        return this.regExpTimeBudgetMs;
+    }
+
+    public FieldExtractor.Grammar getFieldGrammar()
+    {
+        return this.fieldGrammar;
+    }
+
+    public String getFieldDelimiter()
+    {
+        return this.fieldDelimiter;
+    }
+
+    public String getFieldKeyValueDelimiter()
+    {
+        return this.fieldKeyValueDelimiter;
+    }
+
+    public List<String> getFieldNames()
+    {
+        return this.fieldNames == null ? null : Collections.unmodifiableList(this.fieldNames);
+    }
+
+    public int getReorderWindowEntries()
+    {
+        return this.reorderWindowEntries;
+    }
+
+    public int getReorderWindowMs()
+    {
+        return this.reorderWindowMs;
+    }
+
+    /** @return Number of entries which were read after an entry with a newer timestamp, and thus were moved when reordering */
+    public long getNumReorderedEntries()
+    {
+        return this.reorderBuffer == null ? 0L : this.reorderBuffer.getNumReorderedEntries();
+    }
+
+    /** @return Number of entries which were too late to be moved into order by the configured reorder window */
+    public long getNumLateEntries()
+    {
+        return this.reorderBuffer == null ? 0L : this.reorderBuffer.getNumLateEntries();
+    }
+
     @Override
     public ILogEntry getNextEntry()
     {
@@ -173,13 +330,16 @@ public class GenericLogReader implements ILogReader
             return null;
         }
 
-        // Open log if not yet done
-        this.openLogStreamIfNotOpened();
+        // Open log if not yet done; entries held back for reordering are still delivered after the end of the log was reached
+        if (!this.reorderBufferInputEnded)
+        {
+            this.openLogStreamIfNotOpened();
+        }
 
         // Fetch next entry and close resource on exception
         try
         {
-            final ILogEntry result = this.getNextEntryInternal();
+            final ILogEntry result = this.getNextEntryInTimestampOrder();
             if (result == null)
             {
                 this.inputStreamClosed = true;
@@ -234,6 +394,21 @@ public class GenericLogReader implements ILogReader
             this.handlingOfNonHeadlineLines == null ? null : this.handlingOfNonHeadlineLines.toString());
         this.writeStringToConfig(configuration, GenericLogReaderJsonKey.LOG_FILE_CHARSET,
             this.logFileCharset == null ? null : this.logFileCharset.name());
+        this.writeStringToConfig(configuration, GenericLogReaderJsonKey.REG_EXP_ENGINE,
+            this.regExpEngine == null ? null : this.regExpEngine.toString());
+        this.writeIntegerToConfig(configuration, GenericLogReaderJsonKey.REG_EXP_TIME_BUDGET_MS, this.regExpTimeBudgetMs);
+        this.writeIntegerToConfig(configuration, GenericLogReaderJsonKey.REORDER_WINDOW_ENTRIES, this.reorderWindowEntries);
+        this.writeIntegerToConfig(configuration, GenericLogReaderJsonKey.REORDER_WINDOW_MS, this.reorderWindowMs);
+        this.writeStringToConfig(configuration, GenericLogReaderJsonKey.FIELD_GRAMMAR,
+            this.fieldGrammar == null ? null : this.fieldGrammar.toString());
+        this.writeStringToConfig(configuration, GenericLogReaderJsonKey.FIELD_DELIMITER, this.fieldDelimiter);
+        this.writeStringToConfig(configuration, GenericLogReaderJsonKey.FIELD_KEY_VALUE_DELIMITER, this.fieldKeyValueDelimiter);
+        if (this.fieldNames != null)
+        {
+            final JSONArray names = new JSONArray();
+            this.fieldNames.forEach(names::put);
+            configuration.put(GenericLogReaderJsonKey.FIELD_NAMES.getKey(), names);
+        }
         return configuration;
     }
 
@@ -278,8 +453,99 @@ public class GenericLogReader implements ILogReader
         this.trimPayload = this.getBoolFromConfig(configuration, GenericLogReaderJsonKey.TRIM_PAYLOAD, this.trimPayload);
         this.removeEmptyPayloadLinesFromMultilineEntry = this.getBoolFromConfig(configuration,
             GenericLogReaderJsonKey.REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY, this.removeEmptyPayloadLinesFromMultilineEntry);
-        this.readConfiguredHandlingOfNonHeadlineLinesSetting(configuration, GenericLogReaderJsonKey.HANDLING_OF_NON_HEADLINE_LINES);
+        this.handlingOfNonHeadlineLines = this.getEnumFromConfig(configuration, GenericLogReaderJsonKey.HANDLING_OF_NON_HEADLINE_LINES,
+            HandlingOfNonHeadlineLines.class, this.handlingOfNonHeadlineLines);
         this.readConfiguredLogFileCharset(configuration, GenericLogReaderJsonKey.LOG_FILE_CHARSET);
+        this.regExpEngine = this.getEnumFromConfig(configuration, GenericLogReaderJsonKey.REG_EXP_ENGINE, RegExpEngine.class,
+            this.regExpEngine);
+        this.compiledHeadlinePattern = null; // Force recompilation
+        final Integer timeBudgetMs = this.getIntegerFromConfig(configuration, GenericLogReaderJsonKey.REG_EXP_TIME_BUDGET_MS,
+            this.regExpTimeBudgetMs);
+        if (timeBudgetMs == null || timeBudgetMs < 0)
+        {
+            throw new LogReaderException("Invalid value for setting '" + GenericLogReaderJsonKey.REG_EXP_TIME_BUDGET_MS.getKey() + "': '"
+                + timeBudgetMs + "'. Must not be negative");
+        }
+        this.regExpTimeBudgetMs = timeBudgetMs;
+        this.reorderWindowEntries = this.getNonNegativeIntegerFromConfig(configuration, GenericLogReaderJsonKey.REORDER_WINDOW_ENTRIES,
+            this.reorderWindowEntries);
+        this.reorderWindowMs = this.getNonNegativeIntegerFromConfig(configuration, GenericLogReaderJsonKey.REORDER_WINDOW_MS,
+            this.reorderWindowMs);
+        this.fieldGrammar = this.getEnumFromConfig(configuration, GenericLogReaderJsonKey.FIELD_GRAMMAR, FieldExtractor.Grammar.class,
+            this.fieldGrammar);
+        this.fieldDelimiter = this.getStringFromConfig(configuration, GenericLogReaderJsonKey.FIELD_DELIMITER, this.fieldDelimiter);
+        this.fieldKeyValueDelimiter = this.getStringFromConfig(configuration, GenericLogReaderJsonKey.FIELD_KEY_VALUE_DELIMITER,
+            this.fieldKeyValueDelimiter);
+        this.fieldNames = this.getStringListFromConfig(configuration, GenericLogReaderJsonKey.FIELD_NAMES, this.fieldNames);
+        this.fieldExtractor = null; // Force recreation
+    }
+
+    private List<String> getStringListFromConfig(final JSONObject configuration, final GenericLogReaderJsonKey jsonProperty,
+        final List<String> currentValue)
+    {
+        if (!configuration.has(jsonProperty.getKey()))
+        {
+            return currentValue;
+        }
+        try
+        {
+            final JSONArray array = configuration.getJSONArray(jsonProperty.getKey());
+            final List<String> result = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++)
+            {
+                result.add(array.getString(i));
+            }
+            return result;
+        }
+        catch (final JSONException jsonEx)
+        {
+            throw this.createJsonConfigException("array of strings", jsonProperty.getKey());
+        }
+    }
+
+    private FieldExtractor obtainFieldExtractor()
+    {
+        if (this.fieldExtractor == null)
+        {
+            try
+            {
+                this.fieldExtractor = new FieldExtractor(this.fieldGrammar, StringUtils.defaultIfEmpty(this.fieldDelimiter, null),
+                    this.fieldKeyValueDelimiter, this.fieldNames);
+            }
+            catch (final IllegalArgumentException iae)
+            {
+                throw new LogReaderException("Invalid field configuration: " + iae.getMessage());
+            }
+        }
+        return this.fieldExtractor;
+    }
+
+    private int getNonNegativeIntegerFromConfig(final JSONObject configuration, final GenericLogReaderJsonKey jsonProperty,
+        final int currentValue)
+    {
+        final Integer value = this.getIntegerFromConfig(configuration, jsonProperty, currentValue);
+        if (value == null || value < 0)
+        {
+            throw new LogReaderException(
+                "Invalid value for setting '" + jsonProperty.getKey() + "': '" + value + "'. Must not be negative");
+        }
+        return value;
+    }
+
+    @Override
+    public long getSizeInBytes()
+    {
+        return this.logFile == null ? -1L : this.logFile.length();
+    }
+
+    @Override
+    public long getNumBytesRead()
+    {
+        if (this.logFile == null)
+        {
+            return -1L;
+        }
+        return this.countingInputStream == null ? 0L : this.countingInputStream.getByteCount();
     }
 
     @Override
@@ -301,7 +567,8 @@ public class GenericLogReader implements ILogReader
         // We open on demand
     }
 
-    private void readConfiguredHandlingOfNonHeadlineLinesSetting(final JSONObject configuration, final GenericLogReaderJsonKey jsonProperty)
+    private <E extends Enum<E>> E getEnumFromConfig(final JSONObject configuration, final GenericLogReaderJsonKey jsonProperty,
+        final Class<E> enumClz, final E currentValue)
     {
         if (configuration.has(jsonProperty.getKey()))
         {
@@ -316,16 +583,17 @@ public class GenericLogReader implements ILogReader
             }
             try
             {
-                this.handlingOfNonHeadlineLines = Enum.valueOf(HandlingOfNonHeadlineLines.class, value);
+                return Enum.valueOf(enumClz, value);
             }
             catch (final IllegalArgumentException iae)
             {
                 LOG.error("Invalid value for setting '{}': '{}'. Allowed values: {}", jsonProperty.getKey(), value,
-                    HandlingOfNonHeadlineLines.values());
+                    enumClz.getEnumConstants());
                 throw new LogReaderException("Invalid value for setting '" + jsonProperty.getKey() + "': '" + value + "'. Allowed values: "
-                    + StringUtils.join(HandlingOfNonHeadlineLines.values(), ", "));
+                    + StringUtils.join(enumClz.getEnumConstants(), ", "));
             }
         }
+        return currentValue;
     }
 
     private void readConfiguredLogFileCharset(final JSONObject configuration, final GenericLogReaderJsonKey jsonProperty)
@@ -446,8 +714,9 @@ public class GenericLogReader implements ILogReader
             }
             this.compiledHeadlinePattern = this.compilePattern(this.headlinePattern, this.compiledHeadlinePattern);
 
-            final Matcher headLineMatcher = this.compiledHeadlinePattern.matcher(headLine);
-            final boolean headLineMatches = headLineMatcher.find();
+            final IRegExpMatcher headLineMatcher = RegExpPatterns.matcher(this.compiledHeadlinePattern, headLine, this.regExpTimeBudgetMs,
+                this.regExpTimings);
+            final boolean headLineMatches = this.find(headLineMatcher);
             Long timestampMs = null;
             String channel = null;
             if (!headLineMatches)
@@ -485,11 +754,13 @@ public class GenericLogReader implements ILogReader
             final long headLineNoBeforeOverwrittenByReadingMultipleLines = this.lineNo;
             final String payload = this.extractPayloadWhenHeadlineIsGiven(strippedHeadLine);
 
+            final int channelId = this.lookUpChannelId(channel);
             this.lastTimestamp = timestampMs;
             this.lastChannel = channel;
+            this.lastChannelId = channelId;
 
             final GenericLogEntry result = new GenericLogEntry(headLineNoBeforeOverwrittenByReadingMultipleLines, timestampMs, payload,
-                channel);
+                channel, channelId, this.obtainFieldExtractor());
             LOG.trace("Extracted log entry: {}", result);
             return result;
         }
@@ -501,7 +772,50 @@ public class GenericLogReader implements ILogReader
         }
     }
 
-    private Long extractTimestampFromHeadLineMatcher(final Matcher headLineMatcher)
+    private ILogEntry getNextEntryInTimestampOrder()
+    {
+        if (this.reorderWindowEntries == 0 && this.reorderWindowMs == 0)
+        {
+            return this.getNextEntryInternal();
+        }
+
+        if (this.reorderBuffer == null)
+        {
+            final int maxEntries = this.reorderWindowEntries == 0 ? DEFAULT_REORDER_WINDOW_ENTRIES : this.reorderWindowEntries;
+            final long windowMs = this.reorderWindowMs == 0 ? ReorderBuffer.NO_TIME_WINDOW : this.reorderWindowMs;
+            this.reorderBuffer = new ReorderBuffer(maxEntries, windowMs);
+            this.reorderBufferInputEnded = false;
+        }
+        while (!this.reorderBufferInputEnded && !this.reorderBuffer.canRelease())
+        {
+            final ILogEntry entry = this.getNextEntryInternal();
+            if (entry == null)
+            {
+                this.reorderBufferInputEnded = true;
+                this.logReorderStatistics();
+            }
+            else
+            {
+                this.reorderBuffer.add(entry);
+            }
+        }
+        return this.reorderBuffer.poll();
+    }
+
+    private void logReorderStatistics()
+    {
+        if (this.reorderBuffer.getNumReorderedEntries() > 0L)
+        {
+            LOG.info("Reordered '{}' entries of '{}' by timestamp", this.reorderBuffer.getNumReorderedEntries(), this.getDisplayName());
+        }
+        if (this.reorderBuffer.getNumLateEntries() > 0L)
+        {
+            LOG.warn("'{}' entries of '{}' were too late for the reorder window and remain out of order",
+                this.reorderBuffer.getNumLateEntries(), this.getDisplayName());
+        }
+    }
+
+    private Long extractTimestampFromHeadLineMatcher(final IRegExpMatcher headLineMatcher)
     {
         Long timestampMs = null;
         if (this.headlinePatternIndexOfTimestamp == null)
@@ -529,7 +843,7 @@ public class GenericLogReader implements ILogReader
         return timestampMs;
     }
 
-    private String extractChannelFromHeadLineMatcher(final Matcher headLineMatcher)
+    private String extractChannelFromHeadLineMatcher(final IRegExpMatcher headLineMatcher)
     {
         String channel;
         if (this.headlinePatternIndexOfChannel == null)
@@ -548,7 +862,21 @@ public class GenericLogReader implements ILogReader
         return channel;
     }
 
-    private String getMatch(final Matcher matcher, final Integer groupIndex)
+    private int lookUpChannelId(final String channel)
+    {
+        if (this.channelDictionary == null)
+        {
+            return ChannelDictionary.UNKNOWN_CHANNEL_ID;
+        }
+        // Consecutive entries mostly share their channel, so the dictionary is only asked when the channel changes
+        if (this.lastChannelId != ChannelDictionary.UNKNOWN_CHANNEL_ID && StringUtils.equals(channel, this.lastChannel))
+        {
+            return this.lastChannelId;
+        }
+        return this.channelDictionary.getId(channel);
+    }
+
+    private String getMatch(final IRegExpMatcher matcher, final Integer groupIndex)
     {
         if (groupIndex > matcher.groupCount())
         {
@@ -615,10 +943,13 @@ public class GenericLogReader implements ILogReader
         {
             try
             {
-                this.br = new BufferedReader(new InputStreamReader(new FileInputStream(this.logFile), this.logFileCharset));
+                this.countingInputStream = new CountingInputStream(new FileInputStream(this.logFile));
+                this.br = new BufferedReader(new InputStreamReader(this.countingInputStream, this.logFileCharset));
                 this.lineNo = 0L;
                 this.lastTimestamp = 0L;
                 this.lastChannel = ILogEntry.DEFAULT_CHANNEL;
+                this.lastChannelId = ChannelDictionary.UNKNOWN_CHANNEL_ID;
+                this.reorderBuffer = null;
                 this.inputStreamClosed = false;
             }
             catch (final FileNotFoundException e)
@@ -650,7 +981,9 @@ public class GenericLogReader implements ILogReader
                 return;
             }
 
-            final boolean newEntry = this.compilePattern(this.headlinePattern, this.compiledHeadlinePattern).matcher(nextLine).find();
+            final boolean newEntry = this.find(RegExpPatterns.matcher(
+                this.compilePattern(this.headlinePattern, this.compiledHeadlinePattern), nextLine, this.regExpTimeBudgetMs,
+                this.regExpTimings));
             if (newEntry)
             {
                 LOG.trace("Taking line '{}' for NEW entry", this.lineNo);
@@ -665,13 +998,28 @@ public class GenericLogReader implements ILogReader
         }
     }
 
-    private Pattern compilePattern(final String pattern, final Pattern precompiledPattern)
+    private boolean find(final IRegExpMatcher matcher)
+    {
+        try
+        {
+            return matcher.find();
+        }
+        catch (final RegExpTimeBudgetExceededException rtbee)
+        {
+            final String errorMsg = "Headline pattern '" + this.headlinePattern + "' exceeded its time budget of '"
+                + rtbee.getTimeBudgetMs() + "' ms in line " + this.lineNo;
+            LOG.error(errorMsg);
+            throw new LogReaderException(errorMsg, rtbee);
+        }
+    }
+
+    private IRegExpPattern compilePattern(final String pattern, final IRegExpPattern precompiledPattern)
     {
         if (precompiledPattern == null)
         {
             try
             {
-                return Pattern.compile(pattern);
+                return RegExpPatterns.compile(pattern, this.regExpEngine);
             }
             catch (final PatternSyntaxException pse)
             {
@@ -18,7 +18,15 @@ public enum GenericLogReaderJsonKey
     TRIM_PAYLOAD("trimPayload"),
     REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY("removeEmptyPayloadLinesFromMultilineEntry"),
     HANDLING_OF_NON_HEADLINE_LINES("handlingOfNonHeadlineLines"),
-    LOG_FILE_CHARSET("logFileCharset");
+    LOG_FILE_CHARSET("logFileCharset"),
+    REG_EXP_ENGINE("regExpEngine"),
+    REG_EXP_TIME_BUDGET_MS("regExpTimeBudgetMs"),
+    REORDER_WINDOW_ENTRIES("reorderWindowEntries"),
+    REORDER_WINDOW_MS("reorderWindowMs"),
+    FIELD_GRAMMAR("fieldGrammar"),
+    FIELD_DELIMITER("fieldDelimiter"),
+    FIELD_KEY_VALUE_DELIMITER("fieldKeyValueDelimiter"),
+    FIELD_NAMES("fieldNames");
 
     private String keyName;
 
@@ -18,4 +18,16 @@ public interface ILogEntry
     long getLineNumber();
 
     String getChannel();
+
+    /** @return Id of the channel in the dictionary of the log reader which created the entry, or -1 if the reader does not assign ids */
+    default int getChannelId()
+    {
+        return ChannelDictionary.UNKNOWN_CHANNEL_ID;
+    }
+
+    /** @return Fields of the payload; entries of readers without field configuration use {@link FieldExtractor#DEFAULT} */
+    default FieldView getFields()
+    {
+        return FieldExtractor.DEFAULT.extract(this.getPayload());
+    }
 }
@@ -9,6 +9,8 @@ package de.pixida.logtest.logreaders;
 
 import org.json.JSONObject;
 
+import de.pixida.logtest.regexp.RegExpTimings;
+
 public interface ILogReader
 {
     void overwriteCurrentSettingsWithSettingsInConfigurationFile(JSONObject configurationFile);
@@ -22,4 +24,36 @@ public interface ILogReader
     void close();
 
     String getDisplayName();
+
+    /** @return Size of the log in bytes, or -1 if unknown, e.g. for streams */
+    default long getSizeInBytes()
+    {
+        return -1L;
+    }
+
+    /** @return Number of bytes read from the log since it was opened, including what was buffered ahead, or -1 if unknown */
+    default long getNumBytesRead()
+    {
+        return -1L;
+    }
+
+    /**
+     * Readers which support it assign the ids of the given dictionary to the channels of the entries they read.
+     *
+     * @param value Dictionary shared with the automatons of the job
+     */
+    default void setChannelDictionary(final ChannelDictionary value)
+    {
+        // Readers which do not support dictionaries create entries with unknown channel ids
+    }
+
+    /**
+     * Readers which match regular expressions record the duration of each match in the given timings.
+     *
+     * @param value Timings of the job the reader is used in; null to record nothing
+     */
+    default void setRegExpTimings(final RegExpTimings value)
+    {
+        // Readers without regular expressions have nothing to record
+    }
 }
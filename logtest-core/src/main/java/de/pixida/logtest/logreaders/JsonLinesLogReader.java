@@ -0,0 +1,559 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads logs with one JSON object per line, e.g. <code>{"ts":1467894645012,"ch":"db","msg":"Connected"}</code>. Only the top level
+ * fields configured as timestamp, channel and payload are decoded; all other values are skipped while scanning the line, without building
+ * a JSON object. Timestamps must be numbers (milliseconds) or strings holding a number. Payloads which are no strings are delivered as
+ * their JSON text. Blank lines are ignored.
+ */
+public class JsonLinesLogReader implements ILogReader
+{
+    private static final Logger LOG = LoggerFactory.getLogger(JsonLinesLogReader.class);
+    private static final int HEX_RADIX = 16;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    private final File logFile;
+
+    private BufferedReader br;
+    private CountingInputStream countingInputStream;
+
+    // Put default configuration here... note: It would be fatal to change them. In this case, define new properties and map old values.
+    private String timestampField = "ts";
+    private String channelField = null;
+    private String payloadField = "msg";
+    private Charset logFileCharset = StandardCharsets.UTF_8;
+
+    private ChannelDictionary channelDictionary;
+    private long lineNo;
+    private boolean inputStreamClosed;
+
+    // State of the line being scanned
+    private String line;
+    private int pos;
+    private String timestamp;
+    private String channel;
+    private String payload;
+
+    public JsonLinesLogReader(final File aLogFile)
+    {
+        Validate.notNull(aLogFile);
+        this.logFile = aLogFile;
+    }
+
+    public JsonLinesLogReader(final BufferedReader aBufferedReader)
+    {
+        Validate.notNull(aBufferedReader);
+        this.br = aBufferedReader;
+        this.logFile = null;
+    }
+
+    public void setTimestampField(final String value)
+    {
+        Validate.notNull(value);
+        this.timestampField = value;
+    }
+
+    /** @param value Name of the field holding the channel; null if the log has no channels */
+    public void setChannelField(final String value)
+    {
+        this.channelField = value;
+    }
+
+    public void setPayloadField(final String value)
+    {
+        Validate.notNull(value);
+        this.payloadField = value;
+    }
+
+    public void setLogFileCharset(final Charset value)
+    {
+        Validate.notNull(value);
+        this.logFileCharset = value;
+    }
+
+    public String getTimestampField()
+    {
+        return this.timestampField;
+    }
+
+    public String getChannelField()
+    {
+        return this.channelField;
+    }
+
+    public String getPayloadField()
+    {
+        return this.payloadField;
+    }
+
+    public Charset getLogFileCharset()
+    {
+        return this.logFileCharset;
+    }
+
+    @Override
+    public void setChannelDictionary(final ChannelDictionary value)
+    {
+        this.channelDictionary = value;
+    }
+
+    @Override
+    public void open()
+    {
+        // We open on demand
+    }
+
+    @Override
+    public ILogEntry getNextEntry()
+    {
+        if (this.inputStreamClosed)
+        {
+            return null;
+        }
+        this.openLogStreamIfNotOpened();
+        try
+        {
+            String nextLine;
+            do
+            {
+                nextLine = this.br.readLine();
+                if (nextLine == null)
+                {
+                    this.close();
+                    return null;
+                }
+                this.lineNo++;
+            }
+            while (StringUtils.isBlank(nextLine));
+            return this.parseLine(nextLine);
+        }
+        catch (final IOException ioe)
+        {
+            final String errorMsg = "I/O Error";
+            LOG.error(errorMsg, ioe);
+            this.close();
+            throw new LogReaderException(errorMsg, ioe);
+        }
+        catch (final LogReaderException lre)
+        {
+            this.close();
+            throw lre;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        IOUtils.closeQuietly(this.br);
+        this.br = null;
+        this.inputStreamClosed = true;
+    }
+
+    @Override
+    public String getDisplayName()
+    {
+        return this.logFile == null ? "(unknown source)" : this.logFile.getName();
+    }
+
+    @Override
+    public long getSizeInBytes()
+    {
+        return this.logFile == null ? -1L : this.logFile.length();
+    }
+
+    @Override
+    public long getNumBytesRead()
+    {
+        if (this.logFile == null)
+        {
+            return -1L;
+        }
+        return this.countingInputStream == null ? 0L : this.countingInputStream.getByteCount();
+    }
+
+    @Override
+    public JSONObject getSettingsForConfigurationFile()
+    {
+        final JSONObject configuration = new JSONObject();
+        configuration.put(JsonLinesLogReaderJsonKey.LOG_FORMAT.getKey(), LogFormat.JSON_LINES.toString());
+        configuration.put(JsonLinesLogReaderJsonKey.TIMESTAMP_FIELD.getKey(), this.timestampField);
+        if (this.channelField != null)
+        {
+            configuration.put(JsonLinesLogReaderJsonKey.CHANNEL_FIELD.getKey(), this.channelField);
+        }
+        configuration.put(JsonLinesLogReaderJsonKey.PAYLOAD_FIELD.getKey(), this.payloadField);
+        configuration.put(JsonLinesLogReaderJsonKey.LOG_FILE_CHARSET.getKey(), this.logFileCharset.name());
+        return configuration;
+    }
+
+    @Override
+    public void overwriteCurrentSettingsWithSettingsInConfigurationFile(final JSONObject configuration)
+    {
+        this.timestampField = this.getStringFromConfig(configuration, JsonLinesLogReaderJsonKey.TIMESTAMP_FIELD, this.timestampField);
+        if (configuration.has(JsonLinesLogReaderJsonKey.CHANNEL_FIELD.getKey())
+            && configuration.isNull(JsonLinesLogReaderJsonKey.CHANNEL_FIELD.getKey()))
+        {
+            this.channelField = null;
+        }
+        else
+        {
+            this.channelField = this.getStringFromConfig(configuration, JsonLinesLogReaderJsonKey.CHANNEL_FIELD, this.channelField);
+        }
+        this.payloadField = this.getStringFromConfig(configuration, JsonLinesLogReaderJsonKey.PAYLOAD_FIELD, this.payloadField);
+        final String charsetName = this.getStringFromConfig(configuration, JsonLinesLogReaderJsonKey.LOG_FILE_CHARSET, null);
+        if (charsetName != null)
+        {
+            try
+            {
+                this.logFileCharset = Charset.forName(charsetName);
+            }
+            catch (IllegalCharsetNameException | UnsupportedCharsetException e)
+            {
+                throw new LogReaderException("Invalid or unsupported charset for setting '"
+                    + JsonLinesLogReaderJsonKey.LOG_FILE_CHARSET.getKey() + "': " + charsetName);
+            }
+        }
+    }
+
+    private String getStringFromConfig(final JSONObject configuration, final JsonLinesLogReaderJsonKey jsonProperty,
+        final String currentValue)
+    {
+        if (!configuration.has(jsonProperty.getKey()))
+        {
+            return currentValue;
+        }
+        try
+        {
+            return configuration.getString(jsonProperty.getKey());
+        }
+        catch (final JSONException jsonEx)
+        {
+            throw new LogReaderException("Invalid type for setting '" + jsonProperty.getKey() + "', expecting 'string'");
+        }
+    }
+
+    private void openLogStreamIfNotOpened()
+    {
+        if (this.br == null)
+        {
+            try
+            {
+                this.countingInputStream = new CountingInputStream(new FileInputStream(this.logFile));
+                this.br = new BufferedReader(new InputStreamReader(this.countingInputStream, this.logFileCharset));
+                this.lineNo = 0L;
+            }
+            catch (final FileNotFoundException e)
+            {
+                throw new LogReaderException("Cannot open log file: " + this.logFile.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    private ILogEntry parseLine(final String aLine)
+    {
+        this.line = aLine;
+        this.pos = 0;
+        this.timestamp = null;
+        this.channel = ILogEntry.DEFAULT_CHANNEL;
+        this.payload = null;
+
+        this.skipWhitespace();
+        this.expect('{');
+        this.skipWhitespace();
+        if (this.peek() == '}')
+        {
+            this.pos++;
+        }
+        else
+        {
+            this.parseMembers();
+        }
+        this.skipWhitespace();
+        if (this.pos < this.line.length())
+        {
+            throw this.createSyntaxError("Unexpected characters after the end of the object");
+        }
+
+        if (this.timestamp == null)
+        {
+            throw new LogReaderException("Missing timestamp field '" + this.timestampField + "' in line " + this.lineNo);
+        }
+        final long timeMs = this.parseTimestamp(this.timestamp);
+        final int channelId = this.channelDictionary == null ? ChannelDictionary.UNKNOWN_CHANNEL_ID
+            : this.channelDictionary.getId(this.channel);
+        final GenericLogEntry result = new GenericLogEntry(this.lineNo, timeMs, this.payload == null ? "" : this.payload, this.channel,
+            channelId);
+        LOG.trace("Extracted log entry: {}", result);
+        return result;
+    }
+
+    private void parseMembers()
+    {
+        while (true)
+        {
+            this.skipWhitespace();
+            this.expect('"');
+            final int keyStart = this.pos;
+            final boolean keyHasEscapes = this.skipStringContent();
+            final int keyEnd = this.pos - 1;
+            this.skipWhitespace();
+            this.expect(':');
+            this.skipWhitespace();
+
+            final String key = keyHasEscapes ? this.unescape(keyStart, keyEnd) : null;
+            if (this.keyEquals(key, keyStart, keyEnd, this.timestampField))
+            {
+                this.timestamp = this.readValueAsString();
+            }
+            else if (this.channelField != null && this.keyEquals(key, keyStart, keyEnd, this.channelField))
+            {
+                this.channel = this.readValueAsString();
+            }
+            else if (this.keyEquals(key, keyStart, keyEnd, this.payloadField))
+            {
+                this.payload = this.readValueAsString();
+            }
+            else
+            {
+                this.skipValue();
+            }
+
+            this.skipWhitespace();
+            final char c = this.next();
+            if (c == '}')
+            {
+                return;
+            }
+            if (c != ',')
+            {
+                this.pos--;
+                throw this.createSyntaxError("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private boolean keyEquals(final String decodedKey, final int keyStart, final int keyEnd, final String field)
+    {
+        if (decodedKey != null)
+        {
+            return decodedKey.equals(field);
+        }
+        return keyEnd - keyStart == field.length() && this.line.regionMatches(keyStart, field, 0, field.length());
+    }
+
+    /** @return String values unescaped, null for JSON null, or the JSON text of any other value */
+    private String readValueAsString()
+    {
+        final int start = this.pos;
+        if (this.peek() == '"')
+        {
+            this.pos++;
+            final int contentStart = this.pos;
+            final boolean hasEscapes = this.skipStringContent();
+            return hasEscapes ? this.unescape(contentStart, this.pos - 1) : this.line.substring(contentStart, this.pos - 1);
+        }
+        this.skipValue();
+        final String value = this.line.substring(start, this.pos);
+        return "null".equals(value) ? null : value;
+    }
+
+    private void skipValue()
+    {
+        final char c = this.peek();
+        if (c == '"')
+        {
+            this.pos++;
+            this.skipStringContent();
+        }
+        else if (c == '{' || c == '[')
+        {
+            int depth = 0;
+            do
+            {
+                final char d = this.next();
+                if (d == '"')
+                {
+                    this.skipStringContent();
+                }
+                else if (d == '{' || d == '[')
+                {
+                    depth++;
+                }
+                else if (d == '}' || d == ']')
+                {
+                    depth--;
+                }
+            }
+            while (depth > 0);
+        }
+        else
+        {
+            final int start = this.pos;
+            while (this.pos < this.line.length() && ",}] \t\r\n".indexOf(this.line.charAt(this.pos)) < 0)
+            {
+                this.pos++;
+            }
+            if (this.pos == start)
+            {
+                throw this.createSyntaxError("Expected a value");
+            }
+        }
+    }
+
+    /** Skips up to and including the closing quote. @return Whether the string contains escape sequences */
+    private boolean skipStringContent()
+    {
+        boolean hasEscapes = false;
+        while (true)
+        {
+            final char c = this.next();
+            if (c == '"')
+            {
+                return hasEscapes;
+            }
+            if (c == '\\')
+            {
+                hasEscapes = true;
+                this.next();
+            }
+        }
+    }
+
+    private String unescape(final int start, final int end)
+    {
+        final StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++)
+        {
+            final char c = this.line.charAt(i);
+            if (c != '\\')
+            {
+                sb.append(c);
+                continue;
+            }
+            i++;
+            final char escaped = this.line.charAt(i);
+            switch (escaped)
+            {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + UNICODE_ESCAPE_LENGTH >= end)
+                    {
+                        throw new LogReaderException("Invalid unicode escape sequence in line " + this.lineNo);
+                    }
+                    try
+                    {
+                        sb.append((char) Integer.parseInt(this.line.substring(i + 1, i + 1 + UNICODE_ESCAPE_LENGTH), HEX_RADIX));
+                    }
+                    catch (final NumberFormatException nfe)
+                    {
+                        throw new LogReaderException("Invalid unicode escape sequence in line " + this.lineNo, nfe);
+                    }
+                    i += UNICODE_ESCAPE_LENGTH;
+                    break;
+                default:
+                    sb.append(escaped); // Quote, backslash and slash
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private long parseTimestamp(final String value)
+    {
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch (final NumberFormatException nfe)
+        {
+            try
+            {
+                return (long) Double.parseDouble(value); // E.g. fractions of milliseconds
+            }
+            catch (final NumberFormatException nfe2)
+            {
+                throw new LogReaderException("Invalid timestamp '" + value + "' in line " + this.lineNo);
+            }
+        }
+    }
+
+    private void skipWhitespace()
+    {
+        while (this.pos < this.line.length() && Character.isWhitespace(this.line.charAt(this.pos)))
+        {
+            this.pos++;
+        }
+    }
+
+    private char peek()
+    {
+        if (this.pos >= this.line.length())
+        {
+            throw this.createSyntaxError("Unexpected end of line");
+        }
+        return this.line.charAt(this.pos);
+    }
+
+    private char next()
+    {
+        final char c = this.peek();
+        this.pos++;
+        return c;
+    }
+
+    private void expect(final char c)
+    {
+        if (this.next() != c)
+        {
+            this.pos--;
+            throw this.createSyntaxError("Expected '" + c + "'");
+        }
+    }
+
+    private LogReaderException createSyntaxError(final String message)
+    {
+        LOG.debug("Invalid JSON in line '{}' at column '{}': {}", this.lineNo, this.pos + 1, this.line);
+        return new LogReaderException("Invalid JSON in line " + this.lineNo + " at column " + (this.pos + 1) + ": " + message);
+    }
+}
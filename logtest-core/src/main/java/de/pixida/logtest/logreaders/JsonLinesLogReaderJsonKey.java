@@ -0,0 +1,30 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+public enum JsonLinesLogReaderJsonKey
+{
+    // *Never change* any of the keys defined here as this will destroy backwards compatibility.
+    LOG_FORMAT("logFormat"),
+    TIMESTAMP_FIELD("timestampField"),
+    CHANNEL_FIELD("channelField"),
+    PAYLOAD_FIELD("payloadField"),
+    LOG_FILE_CHARSET("logFileCharset");
+
+    private String keyName;
+
+    private JsonLinesLogReaderJsonKey(final String aKeyName)
+    {
+        this.keyName = aKeyName;
+    }
+
+    String getKey()
+    {
+        return this.keyName;
+    }
+}
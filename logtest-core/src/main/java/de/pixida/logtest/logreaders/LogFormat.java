@@ -0,0 +1,18 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+/** Format of a log file, selects the log reader implementation */
+public enum LogFormat
+{
+    /** Lines with a headline which is matched by a regular expression, see {@link GenericLogReader} */
+    GENERIC,
+
+    /** One JSON object per line, see {@link JsonLinesLogReader} */
+    JSON_LINES
+}
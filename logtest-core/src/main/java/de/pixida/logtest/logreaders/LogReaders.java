@@ -0,0 +1,78 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.io.File;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/** Creates the log reader which matches the format given in the log reader configuration */
+public abstract class LogReaders
+{
+    public static final LogFormat DEFAULT_FORMAT = LogFormat.GENERIC;
+
+    /**
+     * @param logFile
+     *            Log to read
+     * @param configurations
+     *            Log reader configurations, applied in the given order; null entries are ignored
+     * @return Configured log reader
+     */
+    public static ILogReader createLogReader(final File logFile, final JSONObject... configurations)
+    {
+        Validate.notNull(logFile);
+        LogFormat format = DEFAULT_FORMAT;
+        for (final JSONObject configuration : configurations)
+        {
+            if (configuration != null)
+            {
+                format = getLogFormat(configuration, format);
+            }
+        }
+
+        final ILogReader logReader = format == LogFormat.JSON_LINES ? new JsonLinesLogReader(logFile) : new GenericLogReader(logFile);
+        for (final JSONObject configuration : configurations)
+        {
+            if (configuration != null)
+            {
+                logReader.overwriteCurrentSettingsWithSettingsInConfigurationFile(configuration);
+            }
+        }
+        return logReader;
+    }
+
+    static LogFormat getLogFormat(final JSONObject configuration, final LogFormat currentValue)
+    {
+        final String key = JsonLinesLogReaderJsonKey.LOG_FORMAT.getKey();
+        if (!configuration.has(key))
+        {
+            return currentValue;
+        }
+        String value;
+        try
+        {
+            value = configuration.getString(key);
+        }
+        catch (final JSONException jsonEx)
+        {
+            throw new LogReaderException("Invalid type for setting '" + key + "', expecting 'string'");
+        }
+        try
+        {
+            return LogFormat.valueOf(value);
+        }
+        catch (final IllegalArgumentException iae)
+        {
+            throw new LogReaderException("Invalid value for setting '" + key + "': '" + value + "'. Allowed values: "
+                + StringUtils.join(LogFormat.values(), ", "));
+        }
+    }
+}
@@ -9,13 +9,14 @@ package de.pixida.logtest.logreaders;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import de.pixida.logtest.regexp.IRegExpMatcher;
+
 public abstract class PatternMatchingsStripper
 {
-    public static String strip(final Matcher matcher, final String value)
+    public static String strip(final IRegExpMatcher matcher, final String value)
     {
         if (matcher.groupCount() == 0)
         {
@@ -0,0 +1,164 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Bounded buffer which releases log entries ordered by their timestamp. Entries with equal timestamps are released in the order in which
+ * they were added. The heap is kept in arrays of primitive keys which are allocated once, so buffering does not create objects per entry.
+ */
+class ReorderBuffer
+{
+    static final long NO_TIME_WINDOW = -1L;
+
+    private final long windowMs;
+    private final long[] times;
+    private final long[] sequenceNumbers;
+    private final ILogEntry[] entries;
+    private int size;
+    private long nextSequenceNumber;
+    private long newestTimeMs = Long.MIN_VALUE;
+    private long lastReleasedTimeMs = Long.MIN_VALUE;
+    private long numReorderedEntries;
+    private long numLateEntries;
+
+    /**
+     * @param maxEntries
+     *            Max. number of entries held back
+     * @param aWindowMs
+     *            Entries are released as soon as an entry which is more than this newer was added, or {@link #NO_TIME_WINDOW}
+     */
+    ReorderBuffer(final int maxEntries, final long aWindowMs)
+    {
+        Validate.isTrue(maxEntries > 0, "Buffer must hold at least one entry");
+        Validate.isTrue(aWindowMs >= 0L || aWindowMs == NO_TIME_WINDOW, "Invalid time window");
+        this.windowMs = aWindowMs;
+        this.times = new long[maxEntries];
+        this.sequenceNumbers = new long[maxEntries];
+        this.entries = new ILogEntry[maxEntries];
+    }
+
+    /** @return Whether the oldest entry can be released, i.e. whether it can not be overtaken by entries which are still to be added */
+    boolean canRelease()
+    {
+        if (this.size == 0)
+        {
+            return false;
+        }
+        return this.size == this.entries.length || this.windowMs != NO_TIME_WINDOW && this.newestTimeMs - this.times[0] > this.windowMs;
+    }
+
+    void add(final ILogEntry entry)
+    {
+        Validate.notNull(entry);
+        Validate.validState(this.size < this.entries.length, "Buffer is full");
+        final long timeMs = entry.getTime();
+        if (timeMs < this.newestTimeMs)
+        {
+            this.numReorderedEntries++;
+        }
+        if (timeMs < this.lastReleasedTimeMs)
+        {
+            this.numLateEntries++;
+        }
+        this.newestTimeMs = Math.max(this.newestTimeMs, timeMs);
+
+        // Sift up
+        final long sequenceNumber = this.nextSequenceNumber++;
+        int index = this.size++;
+        while (index > 0)
+        {
+            final int parent = (index - 1) >>> 1;
+            if (!this.isBefore(timeMs, sequenceNumber, parent))
+            {
+                break;
+            }
+            this.move(parent, index);
+            index = parent;
+        }
+        this.set(index, timeMs, sequenceNumber, entry);
+    }
+
+    /** @return The oldest entry, or null if the buffer is empty */
+    ILogEntry poll()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        final ILogEntry result = this.entries[0];
+        this.lastReleasedTimeMs = this.times[0];
+        this.size--;
+        final long timeMs = this.times[this.size];
+        final long sequenceNumber = this.sequenceNumbers[this.size];
+        final ILogEntry entry = this.entries[this.size];
+        this.entries[this.size] = null;
+
+        // Sift down
+        if (this.size > 0)
+        {
+            int index = 0;
+            int child;
+            while ((child = (index << 1) + 1) < this.size)
+            {
+                if (child + 1 < this.size && this.isBefore(this.times[child + 1], this.sequenceNumbers[child + 1], child))
+                {
+                    child++;
+                }
+                if (!this.isBefore(this.times[child], this.sequenceNumbers[child], timeMs, sequenceNumber))
+                {
+                    break;
+                }
+                this.move(child, index);
+                index = child;
+            }
+            this.set(index, timeMs, sequenceNumber, entry);
+        }
+        return result;
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    /** @return Number of entries which were added after an entry with a newer timestamp */
+    long getNumReorderedEntries()
+    {
+        return this.numReorderedEntries;
+    }
+
+    /** @return Number of entries which were added after a newer entry was already released, i.e. which are still out of order */
+    long getNumLateEntries()
+    {
+        return this.numLateEntries;
+    }
+
+    private boolean isBefore(final long timeMs, final long sequenceNumber, final int index)
+    {
+        return this.isBefore(timeMs, sequenceNumber, this.times[index], this.sequenceNumbers[index]);
+    }
+
+    private boolean isBefore(final long timeMs, final long sequenceNumber, final long otherTimeMs, final long otherSequenceNumber)
+    {
+        return timeMs < otherTimeMs || timeMs == otherTimeMs && sequenceNumber < otherSequenceNumber;
+    }
+
+    private void move(final int from, final int to)
+    {
+        this.set(to, this.times[from], this.sequenceNumbers[from], this.entries[from]);
+    }
+
+    private void set(final int index, final long timeMs, final long sequenceNumber, final ILogEntry entry)
+    {
+        this.times[index] = timeMs;
+        this.sequenceNumbers[index] = sequenceNumber;
+        this.entries[index] = entry;
+    }
+}
@@ -16,16 +16,32 @@ public class EvaluationResult
         SUCCESS,
         FAILURE,
         AUTOMATON_DEFECT,
-        INTERNAL_ERROR
+        INTERNAL_ERROR,
+        /** The job was ended early, i.e. the automaton did not see the whole log, see {@link JobBudget} and fail-fast mode */
+        ABORTED
     }
 
     private final Result result;
     private final String message;
+    private final String transitionHistory;
+    private final boolean fromCache;
 
     public EvaluationResult(final Result aResult, final String aMessage)
+    {
+        this(aResult, aMessage, null);
+    }
+
+    public EvaluationResult(final Result aResult, final String aMessage, final String aTransitionHistory)
+    {
+        this(aResult, aMessage, aTransitionHistory, false);
+    }
+
+    public EvaluationResult(final Result aResult, final String aMessage, final String aTransitionHistory, final boolean aFromCache)
     {
         this.result = aResult;
         this.message = aMessage;
+        this.transitionHistory = aTransitionHistory;
+        this.fromCache = aFromCache;
     }
 
     public Result getResult()
@@ -38,6 +54,18 @@ public class EvaluationResult
         return this.message;
     }
 
+    /** @return The most recent transitions of the automaton in readable form if it did not succeed, null otherwise */
+    public String getTransitionHistory()
+    {
+        return this.transitionHistory;
+    }
+
+    /** @return Whether the result was taken from a result cache instead of evaluating the log */
+    public boolean isFromCache()
+    {
+        return this.fromCache;
+    }
+
     public boolean isSuccess()
     {
         return this.result == Result.SUCCESS;
@@ -50,7 +78,12 @@ public class EvaluationResult
 
     public boolean isError()
     {
-        return this.result == Result.AUTOMATON_DEFECT || this.result == Result.INTERNAL_ERROR;
+        return this.result == Result.AUTOMATON_DEFECT || this.result == Result.INTERNAL_ERROR || this.result == Result.ABORTED;
+    }
+
+    public boolean isAborted()
+    {
+        return this.result == Result.ABORTED;
     }
 
     // Just for logging output / no business use
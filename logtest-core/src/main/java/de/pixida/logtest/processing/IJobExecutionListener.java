@@ -0,0 +1,37 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.processing;
+
+/** Gets the result of each automaton execution as soon as the job which contains it is finished */
+public interface IJobExecutionListener
+{
+    /**
+     * Called once per sink of a job, in sink order, before the next job is started.
+     *
+     * @param job
+     *            Finished job
+     * @param sink
+     *            Sink of the job which was executed
+     * @param evaluationResult
+     *            Result of the automaton of the sink
+     * @param timeMs
+     *            Execution time of the whole job
+     */
+    void executionFinished(Job job, LogSink sink, EvaluationResult evaluationResult, long timeMs);
+
+    /**
+     * Called periodically while a job is running, see {@link JobExecutor#PROGRESS_INTERVAL_MS}.
+     *
+     * @param progress
+     *            Progress of the running job
+     */
+    default void jobProgress(final JobProgress progress)
+    {
+        // Progress is optional
+    }
+}
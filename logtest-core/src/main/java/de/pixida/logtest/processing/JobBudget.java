@@ -0,0 +1,80 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.processing;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Limits of a single job. A job which exceeds one of them is ended; automatons which are still running at that point get the result
+ * {@link EvaluationResult.Result#ABORTED}. A limit of -1 means unlimited.
+ */
+public class JobBudget
+{
+    public static final long UNLIMITED = -1L;
+
+    private long maxEntries = UNLIMITED;
+    private long maxBytes = UNLIMITED;
+    private long maxTimeMs = UNLIMITED;
+
+    public JobBudget()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    public long getMaxEntries()
+    {
+        return this.maxEntries;
+    }
+
+    public void setMaxEntries(final long value)
+    {
+        Validate.isTrue(value >= UNLIMITED, "Invalid maximum number of log entries: %d", value);
+        this.maxEntries = value;
+    }
+
+    /** @return Maximum number of bytes read from the log, including what the log reader buffered ahead */
+    public long getMaxBytes()
+    {
+        return this.maxBytes;
+    }
+
+    public void setMaxBytes(final long value)
+    {
+        Validate.isTrue(value >= UNLIMITED, "Invalid maximum number of bytes: %d", value);
+        this.maxBytes = value;
+    }
+
+    public long getMaxTimeMs()
+    {
+        return this.maxTimeMs;
+    }
+
+    public void setMaxTimeMs(final long value)
+    {
+        Validate.isTrue(value >= UNLIMITED, "Invalid maximum time: %d", value);
+        this.maxTimeMs = value;
+    }
+
+    /** @return A description of the exceeded limit, or null if the job may go on; negative values are not checked */
+    String checkExceeded(final long numEntries, final long numBytes, final long timeMs)
+    {
+        if (this.maxEntries != UNLIMITED && numEntries > this.maxEntries)
+        {
+            return "Job budget exceeded: More than " + this.maxEntries + " log entries";
+        }
+        if (this.maxBytes != UNLIMITED && numBytes > this.maxBytes)
+        {
+            return "Job budget exceeded: More than " + this.maxBytes + " bytes read";
+        }
+        if (this.maxTimeMs != UNLIMITED && timeMs > this.maxTimeMs)
+        {
+            return "Job budget exceeded: Ran longer than " + this.maxTimeMs + " ms";
+        }
+        return null;
+    }
+}
@@ -8,10 +8,15 @@
 package de.pixida.logtest.processing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.Validate;
@@ -20,35 +25,148 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.pixida.logtest.engine.Automaton;
+import de.pixida.logtest.engine.AutomatonMetrics;
 import de.pixida.logtest.engine.ExecutionException;
+import de.pixida.logtest.engine.ScriptRunner;
+import de.pixida.logtest.flightrecorder.FlightRecorderEvents;
+import de.pixida.logtest.logreaders.ChannelDictionary;
 import de.pixida.logtest.logreaders.ILogEntry;
 import de.pixida.logtest.logreaders.ILogReader;
 import de.pixida.logtest.processing.EvaluationResult.Result;
+import de.pixida.logtest.regexp.RegExpTimings;
 
 /** Run n jobs */
 public class JobExecutor
 {
+    /** Minimum time between two progress reports of a job */
+    public static final long PROGRESS_INTERVAL_MS = 1000L;
+
     private static final Logger LOG = LoggerFactory.getLogger(JobExecutor.class);
+    private static final int NUM_REG_EXP_TIMINGS_TO_SHOW = 5;
+    private static final int BATCH_SIZE = 256; // Entries are passed to the automatons in batches, which amortizes the per call overhead
+    private static final int INITIAL_NUM_CHANNELS = 8;
 
     private final List<List<EvaluationResult>> results;
     private final List<Long> jobExecutionTimesMs;
-    private final Map<String, int[]> numEventsByChannel = new HashMap<>();
+    private final List<List<AutomatonMetrics>> metrics;
+    private final List<RegExpTimings> regExpTimings;
+    private final boolean collectMetrics;
+    private final IJobExecutionListener listener;
+    private final boolean failFast;
+    private final JobBudget budget;
+    private ExecutorService automatonCreationPool; // Shared by all jobs of the run; created when needed
+    private final Map<String, int[]> numEventsByChannel = new HashMap<>(); // Finished jobs
+    private ChannelDictionary channelsOfCurrentJob = new ChannelDictionary();
+    private RegExpTimings regExpTimingsOfCurrentJob;
+    private int[] numEventsByChannelIdOfCurrentJob = new int[INITIAL_NUM_CHANNELS];
     private boolean evaluationPrematurelyEnded;
+    private long numEntriesOfCurrentJob;
+    private String abortReasonOfCurrentJob;
+    private boolean anyExecutionFailed;
+    private int currentJobIndex;
+    private final int numJobs;
+    private long lastProgressTimeMs;
 
     public JobExecutor(final List<Job> jobs)
+    {
+        this(jobs, false);
+    }
+
+    /**
+     * @param jobs
+     *            Jobs to run
+     * @param aCollectMetrics
+     *            Whether to collect per automaton, node and edge metrics, see {@link #getMetrics()}
+     */
+    public JobExecutor(final List<Job> jobs, final boolean aCollectMetrics)
+    {
+        this(jobs, aCollectMetrics, null);
+    }
+
+    /**
+     * @param jobs
+     *            Jobs to run
+     * @param aCollectMetrics
+     *            Whether to collect per automaton, node and edge metrics, see {@link #getMetrics()}
+     * @param aListener
+     *            Gets the results of each job as soon as it is finished, or null
+     */
+    public JobExecutor(final List<Job> jobs, final boolean aCollectMetrics, final IJobExecutionListener aListener)
+    {
+        this(jobs, aCollectMetrics, aListener, false, null);
+    }
+
+    /**
+     * @param jobs
+     *            Jobs to run
+     * @param aCollectMetrics
+     *            Whether to collect per automaton, node and edge metrics, see {@link #getMetrics()}
+     * @param aListener
+     *            Gets the results of each job as soon as it is finished, or null
+     * @param aFailFast
+     *            Stop as soon as an automaton is known not to succeed. The running job is ended and the remaining jobs are not run;
+     *            all automatons whose result is not known yet get the result {@link Result#ABORTED}.
+     * @param aBudget
+     *            Limits of each job, or null
+     */
+    public JobExecutor(final List<Job> jobs, final boolean aCollectMetrics, final IJobExecutionListener aListener,
+        final boolean aFailFast, final JobBudget aBudget)
     {
         Validate.notNull(jobs);
         LOG.info("Starting execution of '{}' jobs", jobs.size());
 
         this.results = new ArrayList<>(jobs.size());
         this.jobExecutionTimesMs = new ArrayList<>(jobs.size());
+        this.metrics = new ArrayList<>(jobs.size());
+        this.regExpTimings = new ArrayList<>(jobs.size());
+        this.collectMetrics = aCollectMetrics;
+        this.listener = aListener;
+        this.failFast = aFailFast;
+        this.budget = aBudget;
+        this.numJobs = jobs.size();
+
+        try
+        {
+            this.runJobs(jobs);
+        }
+        finally
+        {
+            if (this.automatonCreationPool != null)
+            {
+                this.automatonCreationPool.shutdownNow();
+            }
+        }
 
+        LOG.debug("Finished execution of '{}' jobs", jobs.size());
+        final int numAbandonedScriptThreads = ScriptRunner.getNumAbandonedThreadsRunning();
+        if (numAbandonedScriptThreads > 0)
+        {
+            LOG.warn("'{}' threads of scripts which exceeded their time budget are still running; once there are '{}', scripts with a"
+                + " time budget are refused", numAbandonedScriptThreads, ScriptRunner.MAX_ABANDONED_THREADS);
+        }
+    }
+
+    private void runJobs(final List<Job> jobs)
+    {
         int i = 0;
         for (final Job job : jobs)
         {
+            if (this.failFast && this.anyExecutionFailed)
+            {
+                LOG.info("Skipping job '{}' as a previous execution did not succeed (fail-fast mode)", i);
+                this.skipJob(job, "Not run: A previous execution did not succeed (fail-fast mode)");
+                i++;
+                continue;
+            }
             LOG.debug("Starting execution of job '{}'", i);
+            this.currentJobIndex = i;
             final StopWatch watch = new StopWatch();
             watch.start();
+            final Object flightRecorderEvent = FlightRecorderEvents.beginJob();
+            this.numEntriesOfCurrentJob = 0L;
+            this.abortReasonOfCurrentJob = null;
+            // Measuring each match costs two clock reads, so only do it if anybody looks at the results
+            this.regExpTimingsOfCurrentJob = this.collectMetrics || LOG.isDebugEnabled() ? new RegExpTimings() : null;
 
             try
             {
@@ -57,6 +175,10 @@ public class JobExecutor
                 final List<LogSink> sinks = job.getSinks();
                 Validate.notNull(sinks);
 
+                // The reader and the automatons of a job share the dictionary, such that channels are compared and counted by id
+                this.channelsOfCurrentJob = new ChannelDictionary();
+                logReader.setChannelDictionary(this.channelsOfCurrentJob);
+                logReader.setRegExpTimings(this.regExpTimingsOfCurrentJob);
                 this.runEvaluations(logReader, this.createAutomatons(sinks));
             }
             catch (final RuntimeException re)
@@ -68,14 +190,25 @@ public class JobExecutor
                     errorResultList.add(new EvaluationResult(Result.INTERNAL_ERROR, re.getMessage()));
                 }
                 this.results.add(errorResultList);
+                this.metrics.add(new ArrayList<>(Collections.nCopies(job.getSinks().size(), null)));
             }
             this.jobExecutionTimesMs.add(watch.getTime());
+            this.regExpTimings.add(this.regExpTimingsOfCurrentJob);
+            this.showWorstCaseRegExpTimings();
+            this.finishCountingEventChannels();
+            this.anyExecutionFailed |= this.results.get(this.results.size() - 1).stream().anyMatch(result -> !result.isSuccess());
+            this.notifyListener(job);
+            if (flightRecorderEvent != null)
+            {
+                final ILogReader logReader = job.getLogReader();
+                FlightRecorderEvents.endJob(flightRecorderEvent, logReader == null ? null : logReader.getDisplayName(),
+                    job.getSinks() == null ? 0 : job.getSinks().size(), this.numEntriesOfCurrentJob,
+                    logReader == null ? -1L : logReader.getSizeInBytes());
+            }
 
             LOG.info("Job {} / {} finished", i + 1, jobs.size());
             i++;
         }
-
-        LOG.debug("Finished execution of '{}' jobs", jobs.size());
     }
 
     public List<List<EvaluationResult>> getResults()
@@ -88,6 +221,71 @@ public class JobExecutor
         return this.jobExecutionTimesMs;
     }
 
+    /**
+     * @return Metrics of the automatons, ordered like the results; an entry is null if metrics were not collected or the job failed before
+     *         the automaton processed any event
+     */
+    public List<List<AutomatonMetrics>> getMetrics()
+    {
+        return this.metrics;
+    }
+
+    /**
+     * @return Durations of the regular expression matches of each job; an entry is null if neither metrics nor debug output were enabled
+     *         or the job was not run
+     */
+    public List<RegExpTimings> getRegExpTimings()
+    {
+        return this.regExpTimings;
+    }
+
+    private void reportProgress(final ILogReader logReader, final long startTimeMs, final int numAutomatonsRunning,
+        final int numAutomatons)
+    {
+        final long now = System.currentTimeMillis();
+        if (now - this.lastProgressTimeMs < PROGRESS_INTERVAL_MS)
+        {
+            return;
+        }
+        this.lastProgressTimeMs = now;
+        final JobProgress progress = new JobProgress();
+        progress.setJobIndex(this.currentJobIndex);
+        progress.setNumJobs(this.numJobs);
+        progress.setLogDisplayName(logReader.getDisplayName());
+        progress.setNumBytesRead(logReader.getNumBytesRead());
+        progress.setSizeInBytes(logReader.getSizeInBytes());
+        progress.setNumEntries(this.numEntriesOfCurrentJob);
+        progress.setElapsedTimeMs(now - startTimeMs);
+        progress.setNumEventsByChannel(this.getNumEventsByChannel());
+        progress.setNumAutomatonsRunning(numAutomatonsRunning);
+        progress.setNumAutomatons(numAutomatons);
+        this.listener.jobProgress(progress);
+    }
+
+    private void skipJob(final Job job, final String reason)
+    {
+        final int numSinks = job.getSinks() == null ? 0 : job.getSinks().size();
+        this.results.add(new ArrayList<>(Collections.nCopies(numSinks, new EvaluationResult(Result.ABORTED, reason))));
+        this.metrics.add(new ArrayList<>(Collections.nCopies(numSinks, null)));
+        this.jobExecutionTimesMs.add(0L);
+        this.regExpTimings.add(null);
+        this.notifyListener(job);
+    }
+
+    private void notifyListener(final Job job)
+    {
+        if (this.listener == null)
+        {
+            return;
+        }
+        final List<EvaluationResult> jobResults = this.results.get(this.results.size() - 1);
+        final long timeMs = this.jobExecutionTimesMs.get(this.jobExecutionTimesMs.size() - 1);
+        for (int i = 0; i < jobResults.size(); i++)
+        {
+            this.listener.executionFinished(job, job.getSinks().get(i), jobResults.get(i), timeMs);
+        }
+    }
+
     private void showNumLogLinesByChannel(final List<Automaton> automatons)
     {
         if (LOG.isDebugEnabled())
@@ -108,14 +306,42 @@ public class JobExecutor
         }
     }
 
+    private void showWorstCaseRegExpTimings()
+    {
+        if (LOG.isDebugEnabled() && this.regExpTimingsOfCurrentJob != null)
+        {
+            LOG.debug("Slowest regular expressions of job '{}': {}", this.currentJobIndex,
+                this.regExpTimingsOfCurrentJob.getWorstCaseTimings().stream().limit(NUM_REG_EXP_TIMINGS_TO_SHOW)
+                    .map(timing -> timing.toString()).collect(Collectors.joining("; ")));
+        }
+    }
+
     private void countEventChannel(final ILogEntry logEntry)
     {
-        final String channelName = logEntry.getChannel();
-        if (!this.numEventsByChannel.containsKey(channelName))
+        int channelId = logEntry.getChannelId();
+        if (channelId == ChannelDictionary.UNKNOWN_CHANNEL_ID) // Log reader does not support dictionaries
+        {
+            channelId = this.channelsOfCurrentJob.getId(logEntry.getChannel());
+        }
+        if (channelId >= this.numEventsByChannelIdOfCurrentJob.length)
+        {
+            this.numEventsByChannelIdOfCurrentJob = Arrays.copyOf(this.numEventsByChannelIdOfCurrentJob,
+                Math.max(channelId + 1, this.numEventsByChannelIdOfCurrentJob.length << 1));
+        }
+        this.numEventsByChannelIdOfCurrentJob[channelId]++;
+    }
+
+    private void finishCountingEventChannels()
+    {
+        for (int channelId = 0; channelId < this.numEventsByChannelIdOfCurrentJob.length; channelId++)
         {
-            this.numEventsByChannel.put(channelName, new int[1]);
+            final int count = this.numEventsByChannelIdOfCurrentJob[channelId];
+            if (count > 0)
+            {
+                this.numEventsByChannel.computeIfAbsent(this.channelsOfCurrentJob.getName(channelId), channel -> new int[1])[0] += count;
+            }
         }
-        this.numEventsByChannel.get(channelName)[0]++;
+        Arrays.fill(this.numEventsByChannelIdOfCurrentJob, 0);
     }
 
     public Map<String, Integer> getNumEventsByChannel()
@@ -125,6 +351,14 @@ public class JobExecutor
         {
             result.put(pair.getKey(), pair.getValue()[0]);
         }
+        for (int channelId = 0; channelId < this.numEventsByChannelIdOfCurrentJob.length; channelId++)
+        {
+            final int count = this.numEventsByChannelIdOfCurrentJob[channelId];
+            if (count > 0)
+            {
+                result.merge(this.channelsOfCurrentJob.getName(channelId), count, Integer::sum);
+            }
+        }
         return result;
     }
 
@@ -133,24 +367,96 @@ public class JobExecutor
         LOG.debug("Creating automatons");
         Validate.notNull(sinks);
         final List<Automaton> automatons = new ArrayList<>(sinks.size());
-        for (final LogSink sink : sinks)
+        if (sinks.size() <= 1)
         {
+            for (final LogSink sink : sinks)
+            {
+                automatons.add(this.createAutomaton(sink, this.channelsOfCurrentJob, this.regExpTimingsOfCurrentJob));
+            }
+        }
+        else
+        {
+            // Parsing definitions and compiling expressions and scripts is expensive and independent for each sink
+            if (this.automatonCreationPool == null)
+            {
+                final int numThreads = Runtime.getRuntime().availableProcessors();
+                LOG.debug("Creating automatons using '{}' threads", numThreads);
+                this.automatonCreationPool = Executors.newFixedThreadPool(numThreads);
+            }
+            // Creations of a failed job may still be running when the next job starts, so they must not use its fields
+            final ChannelDictionary channels = this.channelsOfCurrentJob;
+            final RegExpTimings timings = this.regExpTimingsOfCurrentJob;
+            final List<Future<Automaton>> futures = new ArrayList<>(sinks.size());
+            for (final LogSink sink : sinks)
+            {
+                futures.add(this.automatonCreationPool.submit(() -> this.createAutomaton(sink, channels, timings)));
+            }
+
             try
             {
-                final Automaton newAutomaton = new Automaton(sink.getAutomaton(), sink.getParameters());
-                automatons.add(newAutomaton);
+                // Collect in sink order, such that the reported error does not depend on thread scheduling
+                for (final Future<Automaton> future : futures)
+                {
+                    automatons.add(this.waitForAutomaton(future));
+                }
             }
-            catch (final RuntimeException re)
+            finally
             {
-                LOG.error("Unexpected error while loading automaton '{}' with parameters '{}'",
-                    sink.getAutomaton(), sink.getParameters(), re);
-                throw re;
+                futures.forEach(future -> future.cancel(true)); // Does not affect finished creations
             }
         }
         LOG.debug("'{}' automaton(s) successfully created", automatons.size());
         return automatons;
     }
 
+    private Automaton createAutomaton(final LogSink sink, final ChannelDictionary channels, final RegExpTimings timings)
+    {
+        final Object flightRecorderEvent = FlightRecorderEvents.beginAutomatonCreation();
+        try
+        {
+            final Automaton automaton = new Automaton(sink.getAutomaton(), sink.getParameters(), channels, timings);
+            FlightRecorderEvents.endAutomatonCreation(flightRecorderEvent, automaton, !automaton.automatonDefect());
+            if (this.collectMetrics)
+            {
+                automaton.enableMetrics();
+            }
+            return automaton;
+        }
+        catch (final RuntimeException re)
+        {
+            FlightRecorderEvents.endAutomatonCreation(flightRecorderEvent, sink.getAutomaton(), false);
+            LOG.error("Unexpected error while loading automaton '{}' with parameters '{}'",
+                sink.getAutomaton(), sink.getParameters(), re);
+            throw re;
+        }
+    }
+
+    private Automaton waitForAutomaton(final Future<Automaton> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (final InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while creating automatons", ie);
+        }
+        catch (final java.util.concurrent.ExecutionException ee)
+        {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
     private void runEvaluations(final ILogReader logReader, final List<Automaton> automatons)
     {
         LOG.info("Starting analysis: Source '{}', simultaneous automatons: {}", logReader,
@@ -168,6 +474,7 @@ public class JobExecutor
             logReader.close();
         }
         this.results.add(this.collectResults(automatons));
+        this.metrics.add(automatons.stream().map(automaton -> automaton.getMetrics()).collect(Collectors.toList()));
         LOG.debug("Analysis finished. Results: {}", this.results.get(this.results.size() - 1));
     }
 
@@ -178,6 +485,12 @@ public class JobExecutor
         final List<EvaluationResult> jobResults = new ArrayList<>(automatons.size());
         for (final Automaton automaton : automatons)
         {
+            if (this.abortReasonOfCurrentJob != null && automaton.canProceed())
+            {
+                // Did not see the whole log, so its current state does not tell anything
+                jobResults.add(new EvaluationResult(Result.ABORTED, this.abortReasonOfCurrentJob, automaton.getTransitionHistory()));
+                continue;
+            }
             EvaluationResult.Result result;
             if (automaton.succeeded())
             {
@@ -191,7 +504,8 @@ public class JobExecutor
             {
                 result = Result.FAILURE;
             }
-            jobResults.add(new EvaluationResult(result, automaton.getErrorReason()));
+            jobResults.add(new EvaluationResult(result, automaton.getErrorReason(),
+                result == Result.SUCCESS ? null : automaton.getTransitionHistory()));
         }
         LOG.debug("Results collected");
         return jobResults;
@@ -201,52 +515,113 @@ public class JobExecutor
     {
         Validate.notNull(logReader);
         Validate.notNull(automatons);
-        for (;;)
+        final long startTimeMs = System.currentTimeMillis();
+        this.lastProgressTimeMs = startTimeMs - PROGRESS_INTERVAL_MS; // Report as soon as the first entries were processed
+        final boolean[] stopped = new boolean[automatons.size()]; // Used to check each automaton only once in fail-fast mode
+        final ILogEntry[] batch = new ILogEntry[BATCH_SIZE];
+        boolean eof = false;
+        while (!eof)
         {
-            final ILogEntry nextLogEntry = logReader.getNextEntry();
-            if (nextLogEntry == null)
-            {
-                LOG.debug("No more log entries");
-                LOG.debug("Pushing EOF");
-                automatons.stream().filter(automaton -> automaton != null).forEach(automaton -> automaton.pushEof());
-                LOG.debug("EOF pushed");
-                LOG.debug("Finishing execution");
-                this.showNumLogLinesByChannel(automatons);
-                break;
-            }
-            this.countEventChannel(nextLogEntry);
-            int numAutomatonsWhichCanProceed = 0;
-            for (final Automaton automaton : automatons)
+            int batchSize = 0;
+            while (batchSize < BATCH_SIZE)
             {
-                if (automaton == null) // Error during initialization of automaton
+                final ILogEntry nextLogEntry = logReader.getNextEntry();
+                if (nextLogEntry == null)
                 {
-                    continue;
+                    LOG.debug("No more log entries");
+                    eof = true;
+                    break;
                 }
-
-                try
-                {
-                    automaton.proceedWithLogEntry(nextLogEntry);
-                }
-                catch (final ExecutionException ee)
+                if (this.budget != null)
                 {
-                    LOG.info("Execution exception in automaton '{}': {}", automaton, ee.getMessage());
+                    this.abortReasonOfCurrentJob = this.budget.checkExceeded(this.numEntriesOfCurrentJob + 1L, -1L, -1L);
+                    if (this.abortReasonOfCurrentJob != null)
+                    {
+                        break;
+                    }
                 }
-                catch (final RuntimeException re)
+                this.numEntriesOfCurrentJob++;
+                this.countEventChannel(nextLogEntry);
+                batch[batchSize++] = nextLogEntry;
+            }
+
+            Automaton.validateLogEntries(batch, 0, batchSize); // Once for all automatons
+            final int numAutomatonsWhichCanProceed = this.pushBatch(batch, batchSize, automatons, stopped);
+
+            if (eof)
+            {
+                // The whole log was seen, so the automatons still get their EOF and report their actual results
+                this.abortReasonOfCurrentJob = null;
+            }
+            else
+            {
+                if (this.budget != null && this.abortReasonOfCurrentJob == null)
                 {
-                    LOG.error("Unexpected exception in automaton '{}'", automaton, re);
+                    this.abortReasonOfCurrentJob = this.budget.checkExceeded(this.numEntriesOfCurrentJob, logReader.getNumBytesRead(),
+                        System.currentTimeMillis() - startTimeMs);
                 }
-
-                if (automaton.canProceed())
+                if (this.abortReasonOfCurrentJob != null)
                 {
-                    numAutomatonsWhichCanProceed++;
+                    LOG.info("Ending job: {}", this.abortReasonOfCurrentJob);
+                    return;
                 }
             }
-            if (numAutomatonsWhichCanProceed == 0)
+            if (this.listener != null)
+            {
+                this.reportProgress(logReader, startTimeMs, numAutomatonsWhichCanProceed, automatons.size());
+            }
+            if (!eof && numAutomatonsWhichCanProceed == 0)
             {
                 LOG.info("No more automatons that are running");
                 this.evaluationPrematurelyEnded = true;
-                break;
+                return;
+            }
+        }
+        LOG.debug("Pushing EOF");
+        automatons.stream().filter(automaton -> automaton != null).forEach(automaton -> automaton.pushEof());
+        LOG.debug("EOF pushed");
+        LOG.debug("Finishing execution");
+        this.showNumLogLinesByChannel(automatons);
+    }
+
+    /** @return Number of automatons which can proceed after the batch */
+    private int pushBatch(final ILogEntry[] batch, final int batchSize, final List<Automaton> automatons, final boolean[] stopped)
+    {
+        int numAutomatonsWhichCanProceed = 0;
+        for (int i = 0; i < automatons.size(); i++)
+        {
+            final Automaton automaton = automatons.get(i);
+            if (automaton == null) // Error during initialization of automaton
+            {
+                continue;
+            }
+
+            try
+            {
+                automaton.proceedWithValidatedLogEntries(batch, 0, batchSize);
+            }
+            catch (final ExecutionException ee)
+            {
+                LOG.info("Execution exception in automaton '{}': {}", automaton, ee.getMessage());
+            }
+            catch (final RuntimeException re)
+            {
+                LOG.error("Unexpected exception in automaton '{}'", automaton, re);
+            }
+
+            if (automaton.canProceed())
+            {
+                numAutomatonsWhichCanProceed++;
+            }
+            else if (this.failFast && !stopped[i])
+            {
+                stopped[i] = true;
+                if (this.abortReasonOfCurrentJob == null && !automaton.succeeded())
+                {
+                    this.abortReasonOfCurrentJob = "Aborted: Automaton '" + automaton + "' did not succeed (fail-fast mode)";
+                }
             }
         }
+        return numAutomatonsWhichCanProceed;
     }
 }
@@ -0,0 +1,191 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.processing;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/** Snapshot of a running job, see {@link IJobExecutionListener#jobProgress(JobProgress)} */
+public class JobProgress
+{
+    private static final double MS_TO_SEC = 1000.0;
+    private static final double PERCENT = 100.0;
+
+    private int jobIndex;
+    private int numJobs;
+    private String logDisplayName;
+    private long numBytesRead = -1L;
+    private long sizeInBytes = -1L;
+    private long numEntries;
+    private long elapsedTimeMs;
+    private Map<String, Integer> numEventsByChannel = Collections.emptyMap();
+    private int numAutomatonsRunning;
+    private int numAutomatons;
+
+    JobProgress()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    /** @return Zero based index of the running job */
+    public int getJobIndex()
+    {
+        return this.jobIndex;
+    }
+
+    void setJobIndex(final int value)
+    {
+        this.jobIndex = value;
+    }
+
+    public int getNumJobs()
+    {
+        return this.numJobs;
+    }
+
+    void setNumJobs(final int value)
+    {
+        this.numJobs = value;
+    }
+
+    public String getLogDisplayName()
+    {
+        return this.logDisplayName;
+    }
+
+    void setLogDisplayName(final String value)
+    {
+        this.logDisplayName = value;
+    }
+
+    /** @return See {@link de.pixida.logtest.logreaders.ILogReader#getNumBytesRead()}; -1 if unknown */
+    public long getNumBytesRead()
+    {
+        return this.numBytesRead;
+    }
+
+    void setNumBytesRead(final long value)
+    {
+        this.numBytesRead = value;
+    }
+
+    /** @return Size of the log; -1 if unknown */
+    public long getSizeInBytes()
+    {
+        return this.sizeInBytes;
+    }
+
+    void setSizeInBytes(final long value)
+    {
+        this.sizeInBytes = value;
+    }
+
+    public long getNumEntries()
+    {
+        return this.numEntries;
+    }
+
+    void setNumEntries(final long value)
+    {
+        this.numEntries = value;
+    }
+
+    public long getElapsedTimeMs()
+    {
+        return this.elapsedTimeMs;
+    }
+
+    void setElapsedTimeMs(final long value)
+    {
+        this.elapsedTimeMs = value;
+    }
+
+    /** @return Number of log entries by channel, counted since the executor was started, i.e. including previous jobs */
+    public Map<String, Integer> getNumEventsByChannel()
+    {
+        return this.numEventsByChannel;
+    }
+
+    void setNumEventsByChannel(final Map<String, Integer> value)
+    {
+        this.numEventsByChannel = Collections.unmodifiableMap(value);
+    }
+
+    public int getNumAutomatonsRunning()
+    {
+        return this.numAutomatonsRunning;
+    }
+
+    void setNumAutomatonsRunning(final int value)
+    {
+        this.numAutomatonsRunning = value;
+    }
+
+    public int getNumAutomatons()
+    {
+        return this.numAutomatons;
+    }
+
+    void setNumAutomatons(final int value)
+    {
+        this.numAutomatons = value;
+    }
+
+    public double getEntriesPerSecond()
+    {
+        return this.elapsedTimeMs == 0L ? 0.0 : this.numEntries * MS_TO_SEC / this.elapsedTimeMs;
+    }
+
+    /** @return Share of the log which was read, between 0 and 1, or -1 if unknown */
+    public double getFractionDone()
+    {
+        if (this.numBytesRead < 0L || this.sizeInBytes <= 0L)
+        {
+            return -1.0;
+        }
+        return Math.min(1.0, (double) this.numBytesRead / this.sizeInBytes);
+    }
+
+    /**
+     * @return Estimated time until the log is read completely, assuming the throughput does not change, or -1 if unknown. The job may
+     *         end earlier if all automatons are done.
+     */
+    public long getEstimatedRemainingTimeMs()
+    {
+        final double fractionDone = this.getFractionDone();
+        if (fractionDone <= 0.0)
+        {
+            return -1L;
+        }
+        return (long) (this.elapsedTimeMs * (1.0 - fractionDone) / fractionDone);
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder();
+        result.append(String.format(Locale.US, "Job %d / %d '%s': ", this.jobIndex + 1, this.numJobs, this.logDisplayName));
+        final double fractionDone = this.getFractionDone();
+        if (fractionDone >= 0.0)
+        {
+            result.append(String.format(Locale.US, "%.1f %% (%d / %d bytes), ", fractionDone * PERCENT, this.numBytesRead,
+                this.sizeInBytes));
+        }
+        result.append(String.format(Locale.US, "%d entries, %.0f entries/s, %d / %d automatons running", this.numEntries,
+            this.getEntriesPerSecond(), this.numAutomatonsRunning, this.numAutomatons));
+        final long remainingTimeMs = this.getEstimatedRemainingTimeMs();
+        if (remainingTimeMs >= 0L)
+        {
+            result.append(String.format(Locale.US, ", about %.0f s left", remainingTimeMs / MS_TO_SEC));
+        }
+        result.append(", entries by channel: ").append(this.numEventsByChannel);
+        return result.toString();
+    }
+}
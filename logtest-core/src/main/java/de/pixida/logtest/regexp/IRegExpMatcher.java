@@ -0,0 +1,22 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/** Matches a pattern against one input; semantics like {@link java.util.regex.Matcher}. Not thread safe. */
+public interface IRegExpMatcher
+{
+    boolean find();
+
+    int groupCount();
+
+    String group(int group);
+
+    int start(int group);
+
+    int end(int group);
+}
@@ -0,0 +1,18 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/** Compiled regular expression; immutable and thread safe */
+public interface IRegExpPattern
+{
+    IRegExpMatcher matcher(CharSequence input);
+
+    String pattern();
+
+    RegExpEngine getEngine();
+}
@@ -0,0 +1,85 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/**
+ * Input wrapper which aborts a match once the time budget is used up. Both engines read their input via {@link #charAt(int)}, so a
+ * pattern which backtracks catastrophically is interrupted on its next read. The clock is only checked every few reads to keep the
+ * overhead low.
+ */
+final class InterruptibleCharSequence implements CharSequence
+{
+    private static final int READS_BETWEEN_CLOCK_CHECKS = 1024;
+
+    private static final class Budget
+    {
+        private final long timeBudgetMs;
+        private final long deadlineNanos;
+        private int readsUntilClockCheck = READS_BETWEEN_CLOCK_CHECKS;
+
+        Budget(final long aTimeBudgetMs)
+        {
+            this.timeBudgetMs = aTimeBudgetMs;
+            this.deadlineNanos = System.nanoTime() + aTimeBudgetMs * NANOS_PER_MS;
+        }
+
+        void consume()
+        {
+            if (--this.readsUntilClockCheck == 0)
+            {
+                this.readsUntilClockCheck = READS_BETWEEN_CLOCK_CHECKS;
+                if (System.nanoTime() - this.deadlineNanos > 0)
+                {
+                    throw new RegExpTimeBudgetExceededException(this.timeBudgetMs);
+                }
+            }
+        }
+    }
+
+    private static final long NANOS_PER_MS = 1000000L;
+
+    private final CharSequence input;
+    private final Budget budget;
+
+    InterruptibleCharSequence(final CharSequence aInput, final long aTimeBudgetMs)
+    {
+        this(aInput, new Budget(aTimeBudgetMs));
+    }
+
+    private InterruptibleCharSequence(final CharSequence aInput, final Budget aBudget)
+    {
+        this.input = aInput;
+        this.budget = aBudget;
+    }
+
+    @Override
+    public int length()
+    {
+        return this.input.length();
+    }
+
+    @Override
+    public char charAt(final int index)
+    {
+        this.budget.consume();
+        return this.input.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end)
+    {
+        // Share the budget, i.e. work on parts of the input counts for the whole match
+        return new InterruptibleCharSequence(this.input.subSequence(start, end), this.budget);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.input.toString();
+    }
+}
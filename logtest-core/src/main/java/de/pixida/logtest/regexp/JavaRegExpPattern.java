@@ -0,0 +1,86 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class JavaRegExpPattern implements IRegExpPattern
+{
+    private static final class JavaRegExpMatcher implements IRegExpMatcher
+    {
+        private final Matcher matcher;
+
+        JavaRegExpMatcher(final Matcher aMatcher)
+        {
+            this.matcher = aMatcher;
+        }
+
+        @Override
+        public boolean find()
+        {
+            return this.matcher.find();
+        }
+
+        @Override
+        public int groupCount()
+        {
+            return this.matcher.groupCount();
+        }
+
+        @Override
+        public String group(final int group)
+        {
+            return this.matcher.group(group);
+        }
+
+        @Override
+        public int start(final int group)
+        {
+            return this.matcher.start(group);
+        }
+
+        @Override
+        public int end(final int group)
+        {
+            return this.matcher.end(group);
+        }
+    }
+
+    private final Pattern pattern;
+
+    JavaRegExpPattern(final String regExp)
+    {
+        this.pattern = Pattern.compile(regExp);
+    }
+
+    @Override
+    public IRegExpMatcher matcher(final CharSequence input)
+    {
+        return new JavaRegExpMatcher(this.pattern.matcher(input));
+    }
+
+    @Override
+    public String pattern()
+    {
+        return this.pattern.pattern();
+    }
+
+    @Override
+    public RegExpEngine getEngine()
+    {
+        return RegExpEngine.JAVA;
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        return this.pattern.pattern();
+    }
+}
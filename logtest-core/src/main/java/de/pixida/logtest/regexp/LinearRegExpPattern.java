@@ -0,0 +1,96 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+import java.util.regex.PatternSyntaxException;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+
+class LinearRegExpPattern implements IRegExpPattern
+{
+    private static final class LinearRegExpMatcher implements IRegExpMatcher
+    {
+        private final Matcher matcher;
+
+        LinearRegExpMatcher(final Matcher aMatcher)
+        {
+            this.matcher = aMatcher;
+        }
+
+        @Override
+        public boolean find()
+        {
+            return this.matcher.find();
+        }
+
+        @Override
+        public int groupCount()
+        {
+            return this.matcher.groupCount();
+        }
+
+        @Override
+        public String group(final int group)
+        {
+            return this.matcher.group(group);
+        }
+
+        @Override
+        public int start(final int group)
+        {
+            return this.matcher.start(group);
+        }
+
+        @Override
+        public int end(final int group)
+        {
+            return this.matcher.end(group);
+        }
+    }
+
+    private final Pattern pattern;
+
+    LinearRegExpPattern(final String regExp)
+    {
+        try
+        {
+            this.pattern = Pattern.compile(regExp);
+        }
+        catch (final com.google.re2j.PatternSyntaxException pse)
+        {
+            // Report the same exception type for both engines; e.g. backreferences and lookarounds are rejected here
+            throw new PatternSyntaxException(pse.getDescription() + " (not supported by linear time engine)", regExp, pse.getIndex());
+        }
+    }
+
+    @Override
+    public IRegExpMatcher matcher(final CharSequence input)
+    {
+        return new LinearRegExpMatcher(this.pattern.matcher(input));
+    }
+
+    @Override
+    public String pattern()
+    {
+        return this.pattern.pattern();
+    }
+
+    @Override
+    public RegExpEngine getEngine()
+    {
+        return RegExpEngine.LINEAR;
+    }
+
+    // Just for logging output / no business use
+    @Override
+    public String toString()
+    {
+        return this.pattern.pattern();
+    }
+}
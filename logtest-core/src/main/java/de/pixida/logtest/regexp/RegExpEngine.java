@@ -0,0 +1,18 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/** Implementation used to match regular expressions */
+public enum RegExpEngine
+{
+    /** java.util.regex: Full syntax, but may backtrack exponentially on some patterns */
+    JAVA,
+
+    /** RE2 (re2j): Runtime linear in the input length, but no backreferences and no lookaround */
+    LINEAR
+}
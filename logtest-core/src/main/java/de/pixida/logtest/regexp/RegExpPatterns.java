@@ -0,0 +1,90 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.Validate;
+
+public abstract class RegExpPatterns
+{
+    public static final RegExpEngine DEFAULT_ENGINE = RegExpEngine.JAVA;
+    public static final int DEFAULT_TIME_BUDGET_MS = 0; // No limit, i.e. plain matchers without any overhead
+
+    /**
+     * Compile a regular expression.
+     *
+     * @param regExp
+     *            Regular expression
+     * @param engine
+     *            Engine to be used; {@link #DEFAULT_ENGINE} if null
+     * @return Compiled pattern
+     * @throws PatternSyntaxException
+     *             If the expression is invalid or uses constructs the engine does not support, e.g. backreferences in linear mode
+     */
+    public static IRegExpPattern compile(final String regExp, final RegExpEngine engine)
+    {
+        Validate.notNull(regExp);
+        final RegExpEngine effectiveEngine = engine == null ? DEFAULT_ENGINE : engine;
+        switch (effectiveEngine)
+        {
+            case LINEAR:
+                return new LinearRegExpPattern(regExp);
+            case JAVA:
+            default:
+                return new JavaRegExpPattern(regExp);
+        }
+    }
+
+    /**
+     * Create a matcher whose matches are aborted when they take too long.
+     *
+     * @param pattern
+     *            Compiled pattern
+     * @param input
+     *            Input to be matched
+     * @param timeBudgetMs
+     *            Max. duration of a match; 0 for no limit
+     * @return Matcher
+     * @throws RegExpTimeBudgetExceededException
+     *             On {@link IRegExpMatcher#find()} if the budget is exceeded
+     */
+    public static IRegExpMatcher matcher(final IRegExpPattern pattern, final CharSequence input, final long timeBudgetMs)
+    {
+        return matcher(pattern, input, timeBudgetMs, null);
+    }
+
+    /**
+     * Create a matcher whose matches are aborted when they take too long. Without budget and timings, this is the plain matcher of the
+     * engine.
+     *
+     * @param pattern
+     *            Compiled pattern
+     * @param input
+     *            Input to be matched
+     * @param timeBudgetMs
+     *            Max. duration of a match; 0 for no limit
+     * @param timings
+     *            Records the duration of each match, or null
+     * @return Matcher
+     * @throws RegExpTimeBudgetExceededException
+     *             On {@link IRegExpMatcher#find()} if the budget is exceeded
+     */
+    public static IRegExpMatcher matcher(final IRegExpPattern pattern, final CharSequence input, final long timeBudgetMs,
+        final RegExpTimings timings)
+    {
+        Validate.notNull(pattern);
+        Validate.notNull(input);
+        Validate.isTrue(timeBudgetMs >= 0, "Time budget must not be negative");
+        if (timeBudgetMs == 0 && timings == null)
+        {
+            return pattern.matcher(input);
+        }
+        return new WatchedRegExpMatcher(pattern, input, timeBudgetMs, timings);
+    }
+}
@@ -0,0 +1,27 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/** Thrown when matching a regular expression takes longer than its time budget */
+public class RegExpTimeBudgetExceededException extends RuntimeException
+{
+    private static final long serialVersionUID = 1L;
+
+    private final long timeBudgetMs;
+
+    public RegExpTimeBudgetExceededException(final long aTimeBudgetMs)
+    {
+        super("Matching the regular expression exceeded the time budget of " + aTimeBudgetMs + " ms");
+        this.timeBudgetMs = aTimeBudgetMs;
+    }
+
+    public long getTimeBudgetMs()
+    {
+        return this.timeBudgetMs;
+    }
+}
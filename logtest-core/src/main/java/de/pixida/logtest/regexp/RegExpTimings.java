@@ -0,0 +1,107 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics about the time spent matching each regular expression, usually of one job. The worst case of a pattern tells which
+ * expression should be rewritten or switched to the linear time engine. Not thread safe.
+ */
+public class RegExpTimings
+{
+    /** Statistics of a single pattern */
+    public static final class Timing
+    {
+        private final String regExp;
+        private final RegExpEngine engine;
+        private long numMatches;
+        private long totalNanos;
+        private long worstCaseNanos;
+
+        Timing(final String aRegExp, final RegExpEngine aEngine)
+        {
+            this.regExp = aRegExp;
+            this.engine = aEngine;
+        }
+
+        void record(final long nanos)
+        {
+            this.numMatches++;
+            this.totalNanos += nanos;
+            this.worstCaseNanos = Math.max(this.worstCaseNanos, nanos);
+        }
+
+        public String getRegExp()
+        {
+            return this.regExp;
+        }
+
+        public RegExpEngine getEngine()
+        {
+            return this.engine;
+        }
+
+        public long getNumMatches()
+        {
+            return this.numMatches;
+        }
+
+        public long getTotalNanos()
+        {
+            return this.totalNanos;
+        }
+
+        public long getWorstCaseNanos()
+        {
+            return this.worstCaseNanos;
+        }
+
+        // Just for logging output / no business use
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.US, "'%s' (%s): %d matches, worst case %.3f ms, total %.3f ms", this.regExp, this.engine,
+                this.getNumMatches(), (double) this.getWorstCaseNanos() / TimeUnit.MILLISECONDS.toNanos(1),
+                (double) this.getTotalNanos() / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // Compiled patterns are shared, so the instance identifies the expression and the engine
+    private final Map<IRegExpPattern, Timing> timings = new HashMap<>();
+
+    public RegExpTimings()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    void record(final IRegExpPattern pattern, final long nanos)
+    {
+        Timing timing = this.timings.get(pattern);
+        if (timing == null)
+        {
+            timing = new Timing(pattern.pattern(), pattern.getEngine());
+            this.timings.put(pattern, timing);
+        }
+        timing.record(nanos);
+    }
+
+    /** @return Statistics of all patterns matched so far, the pattern with the slowest single match first */
+    public List<Timing> getWorstCaseTimings()
+    {
+        final List<Timing> result = new ArrayList<>(this.timings.values());
+        result.sort(Comparator.comparingLong(Timing::getWorstCaseNanos).reversed());
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+/** Enforces the time budget of a match and records its duration in {@link RegExpTimings}, if given */
+class WatchedRegExpMatcher implements IRegExpMatcher
+{
+    private final IRegExpPattern pattern;
+    private final CharSequence input;
+    private final long timeBudgetMs;
+    private final RegExpTimings timings;
+    private IRegExpMatcher matcher;
+
+    WatchedRegExpMatcher(final IRegExpPattern aPattern, final CharSequence aInput, final long aTimeBudgetMs, final RegExpTimings aTimings)
+    {
+        this.pattern = aPattern;
+        this.input = aInput;
+        this.timeBudgetMs = aTimeBudgetMs;
+        this.timings = aTimings;
+    }
+
+    @Override
+    public boolean find()
+    {
+        if (this.matcher == null)
+        {
+            // Create wrapper on first use as the deadline is calculated when it is created
+            this.matcher = this.pattern.matcher(this.timeBudgetMs > 0 ? new InterruptibleCharSequence(this.input, this.timeBudgetMs)
+                : this.input);
+        }
+        if (this.timings == null)
+        {
+            return this.matcher.find();
+        }
+        final long start = System.nanoTime();
+        try
+        {
+            return this.matcher.find();
+        }
+        finally
+        {
+            this.timings.record(this.pattern, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int groupCount()
+    {
+        return this.getMatcher().groupCount();
+    }
+
+    @Override
+    public String group(final int group)
+    {
+        return this.getMatcher().group(group);
+    }
+
+    @Override
+    public int start(final int group)
+    {
+        return this.getMatcher().start(group);
+    }
+
+    @Override
+    public int end(final int group)
+    {
+        return this.getMatcher().end(group);
+    }
+
+    private IRegExpMatcher getMatcher()
+    {
+        if (this.matcher == null)
+        {
+            throw new IllegalStateException("No match available");
+        }
+        return this.matcher;
+    }
+}
@@ -9,6 +9,7 @@ package de.pixida.logtest.reporting;
 
 import de.pixida.logtest.processing.EvaluationResult;
 import de.pixida.logtest.processing.Job;
+import de.pixida.logtest.processing.JobProgress;
 import de.pixida.logtest.processing.LogSink;
 
 public interface IReportGenerator
@@ -17,5 +18,11 @@ public interface IReportGenerator
 
     void pushExecution(Job job, LogSink sink, EvaluationResult evaluationResult, long timeMs);
 
+    /** @param progress Progress of the running job; only delivered if the results are streamed, see {@link ReportsGenerator} */
+    default void jobProgress(final JobProgress progress)
+    {
+        // Most reports only contain results
+    }
+
     void finish();
 }
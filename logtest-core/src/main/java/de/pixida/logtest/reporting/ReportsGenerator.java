@@ -15,9 +15,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.pixida.logtest.processing.EvaluationResult;
+import de.pixida.logtest.processing.IJobExecutionListener;
 import de.pixida.logtest.processing.Job;
+import de.pixida.logtest.processing.JobProgress;
+import de.pixida.logtest.processing.LogSink;
 
-public class ReportsGenerator
+/**
+ * Feeds results into report generators. Either set all jobs and results and call {@link #generateReports()}, or stream the results:
+ * Call {@link #start()}, pass this object as listener to the job executor and call {@link #finish()} when all jobs are done. Results may be
+ * delivered from multiple threads; the report generators receive them one by one.
+ */
+public class ReportsGenerator implements IJobExecutionListener
 {
     private static final Logger LOG = LoggerFactory.getLogger(ReportsGenerator.class);
 
@@ -25,6 +33,7 @@ public class ReportsGenerator
     private List<Long> jobExecutiontimesMs;
     private List<List<EvaluationResult>> results;
     private final List<IReportGenerator> reportGenerators = new ArrayList<>();
+    private boolean started;
 
     public ReportsGenerator()
     {
@@ -60,26 +69,52 @@ public class ReportsGenerator
         Validate.notNull(this.jobs, "Jobs mut be set before generating report!");
         Validate.notNull(this.results, "Results mut be set before generating report!");
 
-        if (this.reportGenerators.size() == 0)
-        {
-            LOG.warn("Generating reports, but there are no report generators!");
-        }
-
         LOG.trace("Generating reports...");
 
-        this.reportGenerators.forEach(reportGenerator -> reportGenerator.start());
+        this.start();
         for (int i = 0; i < this.jobs.size(); i++)
         {
             for (int j = 0; j < this.results.get(i).size(); j++)
             {
-                final int job = i;
-                final int sink = j;
-                this.reportGenerators.forEach(reportGenerator -> reportGenerator.pushExecution(this.jobs.get(job),
-                    this.jobs.get(job).getSinks().get(sink), this.results.get(job).get(sink), this.jobExecutiontimesMs.get(job)));
+                this.executionFinished(this.jobs.get(i), this.jobs.get(i).getSinks().get(j), this.results.get(i).get(j),
+                    this.jobExecutiontimesMs.get(i));
             }
         }
-        this.reportGenerators.forEach(reportGenerator -> reportGenerator.finish());
+        this.finish();
 
         LOG.trace("Report generation completed");
     }
+
+    public synchronized void start()
+    {
+        Validate.validState(!this.started, "Report generation already started");
+        if (this.reportGenerators.size() == 0)
+        {
+            LOG.warn("Generating reports, but there are no report generators!");
+        }
+        this.started = true;
+        this.reportGenerators.forEach(reportGenerator -> reportGenerator.start());
+    }
+
+    @Override
+    public synchronized void executionFinished(final Job job, final LogSink sink, final EvaluationResult evaluationResult,
+        final long timeMs)
+    {
+        Validate.validState(this.started, "Report generation not started");
+        this.reportGenerators.forEach(reportGenerator -> reportGenerator.pushExecution(job, sink, evaluationResult, timeMs));
+    }
+
+    @Override
+    public synchronized void jobProgress(final JobProgress progress)
+    {
+        Validate.validState(this.started, "Report generation not started");
+        this.reportGenerators.forEach(reportGenerator -> reportGenerator.jobProgress(progress));
+    }
+
+    public synchronized void finish()
+    {
+        Validate.validState(this.started, "Report generation not started");
+        this.reportGenerators.forEach(reportGenerator -> reportGenerator.finish());
+        this.started = false;
+    }
 }
@@ -0,0 +1,86 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.automatondefinitions;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AutomatonDefinitionCacheTest
+{
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    public AutomatonDefinitionCacheTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @After
+    public void clearCache()
+    {
+        AutomatonDefinitionCache.clear();
+    }
+
+    @Test
+    public void testSameFileYieldsSameDefinition() throws IOException
+    {
+        final File automatonFile = this.writeTestAutomaton();
+        final JsonAutomatonDefinition first = AutomatonDefinitionCache.getDefinition(automatonFile);
+        final JsonAutomatonDefinition second = AutomatonDefinitionCache.getDefinition(
+            new File(automatonFile.getParentFile(), "." + File.separator + automatonFile.getName()));
+        Assert.assertSame(first, second);
+        SomeTestAutomaton.verifyAutomatonDefinition(second);
+    }
+
+    @Test
+    public void testModifiedFileIsReloaded() throws IOException
+    {
+        final File automatonFile = this.writeTestAutomaton();
+        final JsonAutomatonDefinition first = AutomatonDefinitionCache.getDefinition(automatonFile);
+        Assert.assertTrue(automatonFile.setLastModified(automatonFile.lastModified() - 1000L));
+        final JsonAutomatonDefinition second = AutomatonDefinitionCache.getDefinition(automatonFile);
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(second, AutomatonDefinitionCache.getDefinition(automatonFile));
+    }
+
+    @Test
+    public void testFileRewrittenWithSameModificationTimeIsReloaded() throws IOException
+    {
+        final File automatonFile = this.writeTestAutomaton();
+        final long lastModified = automatonFile.lastModified();
+        final JsonAutomatonDefinition first = AutomatonDefinitionCache.getDefinition(automatonFile);
+        FileUtils.writeStringToFile(automatonFile, SomeTestAutomaton.getRawConfigJson().toString(2),
+            JsonAutomatonDefinition.EXPECTED_CHARSET);
+        Assert.assertTrue(automatonFile.setLastModified(lastModified));
+        Assert.assertNotSame(first, AutomatonDefinitionCache.getDefinition(automatonFile));
+    }
+
+    @Test
+    public void testClearDropsAllDefinitions() throws IOException
+    {
+        final File automatonFile = this.writeTestAutomaton();
+        final JsonAutomatonDefinition first = AutomatonDefinitionCache.getDefinition(automatonFile);
+        AutomatonDefinitionCache.clear();
+        Assert.assertNotSame(first, AutomatonDefinitionCache.getDefinition(automatonFile));
+    }
+
+    private File writeTestAutomaton() throws IOException
+    {
+        final File automatonFile = this.testFolder.newFile();
+        FileUtils.writeStringToFile(automatonFile, SomeTestAutomaton.getRawConfigJson().toString(),
+            JsonAutomatonDefinition.EXPECTED_CHARSET);
+        return automatonFile;
+    }
+}
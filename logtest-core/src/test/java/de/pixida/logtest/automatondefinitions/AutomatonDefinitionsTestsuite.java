@@ -15,6 +15,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
                 StringToGenericTimeIntervalConverterTest.class,
                 JsonAutomatonDefinitionTest.class,
+                AutomatonDefinitionCacheTest.class,
                 AutomatonDefinitionToJsonConverterTest.class
 })
 public class AutomatonDefinitionsTestsuite
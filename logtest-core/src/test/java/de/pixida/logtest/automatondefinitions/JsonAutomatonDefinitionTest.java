@@ -10,8 +10,10 @@ package de.pixida.logtest.automatondefinitions;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 
 import org.apache.commons.io.FileUtils;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Assert;
@@ -19,6 +21,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import de.pixida.logtest.regexp.RegExpEngine;
+
 public class JsonAutomatonDefinitionTest
 {
     @Rule
@@ -98,6 +102,125 @@ public class JsonAutomatonDefinitionTest
         this.loadAutomatonDefinitionFromFile(rewrittenConfig);
     }
 
+    @Test
+    public void testRegExpResultCacheSizeIsReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final JsonAutomatonDefinition withoutCache = new JsonAutomatonDefinition("without cache", config.toString());
+        withoutCache.load();
+        Assert.assertNull(withoutCache.getRegExpResultCacheSize());
+
+        final int cacheSize = 100;
+        config.put("regExpResultCacheSize", cacheSize);
+        final JsonAutomatonDefinition withCache = new JsonAutomatonDefinition("with cache", config.toString());
+        withCache.load();
+        Assert.assertEquals(Integer.valueOf(cacheSize), withCache.getRegExpResultCacheSize());
+        Assert.assertEquals(cacheSize, AutomatonDefinitionToJsonConverter.convert(withCache).getInt("regExpResultCacheSize"));
+    }
+
+    @Test
+    public void testRegExpTimeBudgetIsReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final JsonAutomatonDefinition withDefaultBudget = new JsonAutomatonDefinition("default budget", config.toString());
+        withDefaultBudget.load();
+        Assert.assertNull(withDefaultBudget.getRegExpTimeBudgetMs());
+
+        final int timeBudgetMs = 250;
+        config.put("regExpTimeBudgetMs", timeBudgetMs);
+        final JsonAutomatonDefinition withBudget = new JsonAutomatonDefinition("budget", config.toString());
+        withBudget.load();
+        Assert.assertEquals(Integer.valueOf(timeBudgetMs), withBudget.getRegExpTimeBudgetMs());
+        Assert.assertEquals(timeBudgetMs, AutomatonDefinitionToJsonConverter.convert(withBudget).getInt("regExpTimeBudgetMs"));
+    }
+
+    @Test
+    public void testScriptTimeBudgetsAreReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final int invocationBudgetMs = 100;
+        final int totalBudgetMs = 5000;
+        config.put("scriptTimeBudgetMs", invocationBudgetMs);
+        config.put("scriptTotalTimeBudgetMs", totalBudgetMs);
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition("budgets", config.toString());
+        definition.load();
+        Assert.assertEquals(Integer.valueOf(invocationBudgetMs), definition.getScriptTimeBudgetMs());
+        Assert.assertEquals(Integer.valueOf(totalBudgetMs), definition.getScriptTotalTimeBudgetMs());
+        final JSONObject converted = AutomatonDefinitionToJsonConverter.convert(definition);
+        Assert.assertEquals(invocationBudgetMs, converted.getInt("scriptTimeBudgetMs"));
+        Assert.assertEquals(totalBudgetMs, converted.getInt("scriptTotalTimeBudgetMs"));
+    }
+
+    @Test
+    public void testRegExpEngineOfEdgesIsReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final JSONObject edge = config.getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1);
+        edge.put("regExpEngine", "linear");
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition("linear", config.toString());
+        definition.load();
+        Assert.assertNull(definition.getEdges().get(0).getRegExpEngine());
+        Assert.assertEquals(RegExpEngine.LINEAR, definition.getEdges().get(1).getRegExpEngine());
+        Assert.assertEquals(RegExpEngine.LINEAR.toString(), AutomatonDefinitionToJsonConverter.convert(definition)
+            .getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1).getString("regExpEngine"));
+    }
+
+    @Test
+    public void testFieldConditionsOfEdgesAreReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final JSONObject edge = config.getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1);
+        edge.put("fieldEquals", new JSONObject().put("state", "OPEN"));
+        edge.put("fieldRange", new JSONObject().put("temp", new JSONObject().put("min", -2).put("max", "${max}")));
+        edge.put("fieldPresent", new JSONArray().put("user"));
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition("fields", config.toString());
+        definition.load();
+        Assert.assertNull(definition.getEdges().get(0).getFieldEquals());
+        final IEdgeDefinition loadedEdge = definition.getEdges().get(1);
+        Assert.assertEquals(Collections.singletonMap("state", "OPEN"), loadedEdge.getFieldEquals());
+        Assert.assertEquals("-2", loadedEdge.getFieldRange().get("temp").getMin());
+        Assert.assertEquals("${max}", loadedEdge.getFieldRange().get("temp").getMax());
+        Assert.assertEquals(Collections.singletonList("user"), loadedEdge.getFieldPresent());
+
+        final JSONObject written = AutomatonDefinitionToJsonConverter.convert(definition)
+            .getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1);
+        Assert.assertEquals("OPEN", written.getJSONObject("fieldEquals").getString("state"));
+        Assert.assertEquals(-2, written.getJSONObject("fieldRange").getJSONObject("temp").getInt("min"));
+        Assert.assertEquals("${max}", written.getJSONObject("fieldRange").getJSONObject("temp").getString("max"));
+        Assert.assertEquals("user", written.getJSONArray("fieldPresent").getString(0));
+    }
+
+    @Test
+    public void testValueInSetOfEdgesIsReadAndWritten()
+    {
+        final JSONObject config = SomeTestAutomaton.getRawConfigJson();
+        final JSONObject edge = config.getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1);
+        edge.put("valueInSet", new JSONObject().put("file", "codes.txt").put("regExp", "code=(\\w+)").put("regExpGroup", 1));
+        final JsonAutomatonDefinition definition = new JsonAutomatonDefinition("set", config.toString());
+        definition.load();
+        Assert.assertNull(definition.getEdges().get(0).getValueInSet());
+        final IValueInSet valueInSet = definition.getEdges().get(1).getValueInSet();
+        Assert.assertEquals("codes.txt", valueInSet.getFile());
+        Assert.assertNull(valueInSet.getField());
+        Assert.assertEquals("code=(\\w+)", valueInSet.getRegExp());
+        Assert.assertEquals(Integer.valueOf(1), valueInSet.getRegExpGroup());
+
+        final JSONObject written = AutomatonDefinitionToJsonConverter.convert(definition)
+            .getJSONArray("nodes").getJSONObject(0).getJSONArray("outgoingEdges").getJSONObject(1).getJSONObject("valueInSet");
+        Assert.assertEquals("codes.txt", written.getString("file"));
+        Assert.assertFalse(written.has("field"));
+        Assert.assertEquals("code=(\\w+)", written.getString("regExp"));
+        Assert.assertEquals(1, written.getInt("regExpGroup"));
+    }
+
+    @Test
+    public void testBaseDirectoryIsTheDirectoryOfTheAutomatonFile() throws IOException
+    {
+        final File automatonFile = this.testFolder.newFile("automaton.json");
+        Assert.assertEquals(automatonFile.getAbsoluteFile().getParentFile(), new JsonAutomatonDefinition(automatonFile).getBaseDirectory());
+        Assert.assertNull(new JsonAutomatonDefinition("inline", "{}").getBaseDirectory());
+    }
+
     private void loadAutomatonDefinitionFromFile(final File rewrittenConfig)
     {
         new JsonAutomatonDefinition(rewrittenConfig).load();
@@ -7,10 +7,14 @@
 
 package de.pixida.logtest.automatondefinitions;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import de.pixida.logtest.regexp.RegExpEngine;
+
 public class TestAutomaton implements IAutomatonDefinition
 {
     private final List<GenericNode> genericNodes = new ArrayList<>();
@@ -21,6 +25,11 @@ public class TestAutomaton implements IAutomatonDefinition
     private String onLoad;
     private String description;
     private String scriptLanguage;
+    private Integer regExpResultCacheSize;
+    private Integer regExpTimeBudgetMs;
+    private Integer scriptTimeBudgetMs;
+    private Integer scriptTotalTimeBudgetMs;
+    private File baseDirectory;
 
     public static class GenericNodeBuilder
     {
@@ -82,6 +91,12 @@ public class TestAutomaton implements IAutomatonDefinition
             return this;
         }
 
+        public GenericEdgeBuilder withRegExpEngine(final RegExpEngine value)
+        {
+            this.edge.setRegExpEngine(value);
+            return this;
+        }
+
         public GenericEdgeBuilder withCheckExp(final String value)
         {
             this.edge.setCheckExp(value);
@@ -112,6 +127,58 @@ public class TestAutomaton implements IAutomatonDefinition
             return this;
         }
 
+        public GenericEdgeBuilder withFieldEquals(final String name, final String value)
+        {
+            if (this.edge.getFieldEquals() == null)
+            {
+                this.edge.setFieldEquals(new LinkedHashMap<>());
+            }
+            this.edge.getFieldEquals().put(name, value);
+            return this;
+        }
+
+        public GenericEdgeBuilder withFieldRange(final String name, final String min, final String max)
+        {
+            if (this.edge.getFieldRange() == null)
+            {
+                this.edge.setFieldRange(new LinkedHashMap<>());
+            }
+            final GenericNumericRange range = new GenericNumericRange();
+            range.setMin(min);
+            range.setMax(max);
+            this.edge.getFieldRange().put(name, range);
+            return this;
+        }
+
+        public GenericEdgeBuilder withFieldPresent(final String name)
+        {
+            if (this.edge.getFieldPresent() == null)
+            {
+                this.edge.setFieldPresent(new ArrayList<>());
+            }
+            this.edge.getFieldPresent().add(name);
+            return this;
+        }
+
+        public GenericEdgeBuilder withValueOfFieldInSet(final String file, final String field)
+        {
+            final GenericValueInSet valueInSet = new GenericValueInSet();
+            valueInSet.setFile(file);
+            valueInSet.setField(field);
+            this.edge.setValueInSet(valueInSet);
+            return this;
+        }
+
+        public GenericEdgeBuilder withValueOfRegExpInSet(final String file, final String regExp, final Integer group)
+        {
+            final GenericValueInSet valueInSet = new GenericValueInSet();
+            valueInSet.setFile(file);
+            valueInSet.setRegExp(regExp);
+            valueInSet.setRegExpGroup(group);
+            this.edge.setValueInSet(valueInSet);
+            return this;
+        }
+
         public GenericEdgeBuilder withRequiredConditions(final IEdgeDefinition.RequiredConditions value)
         {
             this.edge.setRequiredConditions(value);
@@ -205,6 +272,36 @@ public class TestAutomaton implements IAutomatonDefinition
         return this;
     }
 
+    public TestAutomaton withRegExpResultCacheSize(final Integer value)
+    {
+        this.regExpResultCacheSize = value;
+        return this;
+    }
+
+    public TestAutomaton withRegExpTimeBudgetMs(final Integer value)
+    {
+        this.regExpTimeBudgetMs = value;
+        return this;
+    }
+
+    public TestAutomaton withScriptTimeBudgetMs(final Integer value)
+    {
+        this.scriptTimeBudgetMs = value;
+        return this;
+    }
+
+    public TestAutomaton withScriptTotalTimeBudgetMs(final Integer value)
+    {
+        this.scriptTotalTimeBudgetMs = value;
+        return this;
+    }
+
+    public TestAutomaton withBaseDirectory(final File value)
+    {
+        this.baseDirectory = value;
+        return this;
+    }
+
     public TestAutomaton withOnLoad(final String value)
     {
         this.onLoad = value;
@@ -256,6 +353,36 @@ public class TestAutomaton implements IAutomatonDefinition
         return this.scriptLanguage;
     }
 
+    @Override
+    public Integer getRegExpResultCacheSize()
+    {
+        return this.regExpResultCacheSize;
+    }
+
+    @Override
+    public Integer getRegExpTimeBudgetMs()
+    {
+        return this.regExpTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTimeBudgetMs()
+    {
+        return this.scriptTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTotalTimeBudgetMs()
+    {
+        return this.scriptTotalTimeBudgetMs;
+    }
+
+    @Override
+    public File getBaseDirectory()
+    {
+        return this.baseDirectory;
+    }
+
     @Override
     public String toString()
     {
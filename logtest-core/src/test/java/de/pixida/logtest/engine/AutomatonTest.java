@@ -7,30 +7,45 @@
 
 package de.pixida.logtest.engine;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.spi.LoggingEvent;
 import org.junit.Assert;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.pixida.logtest.automatondefinitions.GenericNode;
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
 import de.pixida.logtest.automatondefinitions.INodeDefinition;
 import de.pixida.logtest.automatondefinitions.INodeDefinition.Type;
 import de.pixida.logtest.automatondefinitions.TestAutomaton;
+import de.pixida.logtest.automatondefinitions.TestAutomaton.GenericEdgeBuilder;
+import de.pixida.logtest.logreaders.ChannelDictionary;
 import de.pixida.logtest.logreaders.GenericLogEntry;
+import de.pixida.logtest.logreaders.ILogEntry;
+import de.pixida.logtest.regexp.RegExpEngine;
 
 public class AutomatonTest
 {
     private static final long TWO = 2;
     private static final long TIME_TO_WAIT_TO_DETECT_ENDLESS_LOOP_MS = 1000;
+    private static final int TIME_TO_WAIT_TO_DETECT_RUNAWAY_SCRIPT_MS = 10000;
 
     private static class LoggerListener extends AppenderSkeleton
     {
@@ -70,6 +85,9 @@ public class AutomatonTest
         }
     }
 
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
     public AutomatonTest()
     {
         // Empty constructor needed by checkstyle
@@ -259,6 +277,17 @@ public class AutomatonTest
         Assert.assertFalse(this.createAutomaton(ta).canProceed());
     }
 
+    @Test
+    public void testErrorIsRaisedIfARegularExpressionIsNotSupportedByTheLinearTimeEngine()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode n = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        ta.createEdge(n, n).withRegExp("(A)\\1").withRegExpEngine(RegExpEngine.LINEAR);
+        final Automaton a = this.createAutomaton(ta);
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.automatonDefect());
+    }
+
     @Test
     public void testErrorIsRaisedIfAnEdgeHasNoCondition()
     {
@@ -290,6 +319,239 @@ public class AutomatonTest
         Assert.assertFalse(this.createAutomaton(ta).canProceed());
     }
 
+    @Test
+    public void testRegularExpressionExceedingItsTimeBudgetStopsTheAutomaton()
+    {
+        final int timeBudgetMs = 50;
+        final int inputLength = 40;
+        final TestAutomaton ta = new TestAutomaton().withRegExpTimeBudgetMs(timeBudgetMs);
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("^(a+)+b");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        final long lineNumber = 7;
+        try
+        {
+            a.proceedWithLogEntry(new GenericLogEntry(lineNumber, 0, StringUtils.repeat('a', inputLength) + "c"));
+            Assert.fail("Expected execution exception");
+        }
+        catch (final ExecutionException ee)
+        {
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("edge '" + ta.getEdges().get(0) + "'"));
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("'" + ta + "'"));
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("log line '" + lineNumber + "'"));
+        }
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.automatonDefect());
+    }
+
+    @Test(timeout = TIME_TO_WAIT_TO_DETECT_RUNAWAY_SCRIPT_MS)
+    public void testScriptExceedingItsTimeBudgetStopsTheAutomaton()
+    {
+        final int timeBudgetMs = 200;
+        final TestAutomaton ta = new TestAutomaton().withScriptTimeBudgetMs(timeBudgetMs);
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        // Scripting engines do not stop on interruption, so the thread of the script keeps running after the test
+        ta.createEdge(initial, success).withTriggerAlways().withOnWalk("while (true) {}");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        try
+        {
+            a.proceedWithLogEntry(new GenericLogEntry(1, 0, "start runaway script"));
+            Assert.fail("Expected execution exception");
+        }
+        catch (final ExecutionException ee)
+        {
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("time budget of '" + timeBudgetMs + "' ms"));
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("while (true)"));
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("its thread was abandoned"));
+        }
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.automatonDefect());
+        Assert.assertTrue(ScriptRunner.getNumAbandonedThreadsRunning() >= 1);
+    }
+
+    @Test
+    public void testScriptsWithTimeBudgetShareTheirStateAndAccessTheEngine()
+    {
+        final TestAutomaton ta = new TestAutomaton().withScriptTimeBudgetMs(TIME_TO_WAIT_TO_DETECT_RUNAWAY_SCRIPT_MS)
+            .withOnLoad("var x = 1;");
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode middle = ta.createNode().withOnEnter("x++;").get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, middle).withRegExp("(A)").withCheckExp("engine.getRegExpConditionMatchingGroups(1) == 'A'");
+        ta.createEdge(middle, success).withCheckExp("x == 2");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        a.proceedWithLogEntry(new GenericLogEntry(1, 0, "A"));
+        a.proceedWithLogEntry(new GenericLogEntry(1 + 1, 0, "B"));
+        Assert.assertTrue(a.succeeded());
+    }
+
+    @Test
+    public void testScriptsExceedingTheirTotalTimeBudgetStopTheAutomaton()
+    {
+        final TestAutomaton ta = new TestAutomaton().withScriptTotalTimeBudgetMs(1);
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withCheckExp("var sum = 0; for (var i = 0; i < 100000; i++) { sum += i; } sum < 0");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        final int maxLines = 10000;
+        for (int i = 1; i <= maxLines && a.canProceed(); i++)
+        {
+            try
+            {
+                a.proceedWithLogEntry(new GenericLogEntry(i, 0, "burn CPU time"));
+            }
+            catch (final ExecutionException ee)
+            {
+                Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("exceeded their total time budget of '1' ms"));
+            }
+        }
+        Assert.assertTrue(a.automatonDefect());
+    }
+
+    @Test
+    public void testMetricsAreCollectedOnlyIfEnabled()
+    {
+        final TestAutomaton ta = new TestAutomaton().withOnLoad("var x = 0;");
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode middle = ta.createNode().get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, middle).withRegExp("A").withOnWalk("x++;");
+        ta.createEdge(middle, success).withCheckExp("x == 1");
+
+        final Automaton withoutMetrics = this.createAndCheckAutomaton(ta);
+        withoutMetrics.proceedWithLogEntry(new GenericLogEntry(1, 0, "A"));
+        Assert.assertNull(withoutMetrics.getMetrics());
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        a.enableMetrics();
+        a.proceedWithLogEntry(new GenericLogEntry(1, 0, "B"));
+        a.proceedWithLogEntry(new GenericLogEntry(1 + 1, 0, "A"));
+        Assert.assertTrue(a.succeeded());
+
+        final AutomatonMetrics metrics = a.getMetrics();
+        Assert.assertEquals(1 + 1, metrics.getNumEvents());
+        Assert.assertEquals(1 + 1, metrics.getNumMicrotransitions());
+        Assert.assertTrue(metrics.getTotalNanos() > 0);
+
+        final AutomatonMetrics.EdgeMetrics regExpEdge = metrics.getEdges().get(0);
+        Assert.assertEquals(1 + 1, regExpEdge.getNumEvaluations());
+        Assert.assertEquals(1, regExpEdge.getNumMatches());
+        Assert.assertEquals(1, regExpEdge.getNumWalks());
+        Assert.assertTrue(regExpEdge.getRegExpNanos() > 0);
+        Assert.assertEquals(0, regExpEdge.getScriptNanos());
+        Assert.assertTrue(regExpEdge.getOnWalkNanos() > 0);
+
+        final AutomatonMetrics.EdgeMetrics checkExpEdge = metrics.getEdges().get(1);
+        Assert.assertEquals(1, checkExpEdge.getNumEvaluations());
+        Assert.assertEquals(1, checkExpEdge.getNumMatches());
+        Assert.assertEquals(0, checkExpEdge.getRegExpNanos());
+        Assert.assertTrue(checkExpEdge.getScriptNanos() > 0);
+        Assert.assertEquals(0, checkExpEdge.getOnWalkNanos());
+
+        for (final AutomatonMetrics.NodeMetrics node : metrics.getNodes())
+        {
+            Assert.assertEquals(node.getName(), 1, node.getNumEntered());
+        }
+        Assert.assertTrue(metrics.getNodes().get(0).getEvaluationNanos() > 0);
+        Assert.assertEquals(1 + 1, metrics.toJson().getJSONArray("edges").length());
+    }
+
+    @Test
+    public void testTransitionHistoryKeepsTheMostRecentTransitions()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode loop = ta.createNode().get();
+        ta.createEdge(initial, loop).withRegExp("A");
+        ta.createEdge(loop, loop).withRegExp("A");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        Assert.assertEquals("No transitions", a.getTransitionHistory());
+        final int numEntries = 40;
+        final int timeFactor = 10;
+        for (int i = 1; i <= numEntries; i++)
+        {
+            a.proceedWithLogEntry(new GenericLogEntry(i, i * timeFactor, "A"));
+        }
+        a.pushEof();
+        Assert.assertFalse(a.succeeded());
+
+        // The first entry triggers two transitions: Into the loop node and around the loop
+        final String[] lines = a.getTransitionHistory().split("\n");
+        Assert.assertEquals("Last " + TransitionHistory.DEFAULT_CAPACITY + " of " + (numEntries + 1) + " transitions:", lines[0]);
+        Assert.assertEquals(1 + TransitionHistory.DEFAULT_CAPACITY, lines.length);
+        Assert.assertEquals("line 40, time 400: '1' -> '1' via edge '1'", lines[lines.length - 1]);
+        Assert.assertEquals("line 9, time 90: '1' -> '1' via edge '1'", lines[1]);
+    }
+
+    @Test
+    public void testBatchOfEntriesIsProcessedUntilTheAutomatonIsDone()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode middle = ta.createNode().get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, middle).withRegExp("A");
+        ta.createEdge(middle, success).withRegExp("B");
+
+        final ILogEntry[] entries = new ILogEntry[] {new GenericLogEntry(1, 1, "X"), new GenericLogEntry(1 + 1, 1, "A"),
+                        new GenericLogEntry(1 + 1 + 1, 1, "B"), new GenericLogEntry(1 + 1 + 1 + 1, 1, "C")};
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        Assert.assertEquals(1, a.proceedWithLogEntries(entries, 0, 1));
+        Assert.assertTrue(a.canProceed());
+        Assert.assertEquals(1 + 1, a.proceedWithLogEntries(entries, 1, entries.length - 1));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertEquals(0, a.proceedWithLogEntries(entries, entries.length - 1, 1));
+        Assert.assertTrue(a.getTransitionHistory().endsWith("line 3, time 1: '1' -> '2' via edge '1'"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchOfEntriesMustBeWithinTheArray()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        ta.createNode().withType(INodeDefinition.Type.INITIAL);
+        this.createAndCheckAutomaton(ta).proceedWithLogEntries(new ILogEntry[1], 1, 1);
+    }
+
+    @Test
+    public void testBatchOfEntriesIsRejectedBeforeProcessingIfAnEntryHasNoPayload()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("A");
+
+        final ILogEntry[] entries = new ILogEntry[] {new GenericLogEntry(1, 1, "A"), new GenericLogEntry(1 + 1, 1, null)};
+        final Automaton a = this.createAndCheckAutomaton(ta);
+        try
+        {
+            a.proceedWithLogEntries(entries, 0, entries.length);
+            Assert.fail("Expected the batch to be rejected");
+        }
+        catch (final NullPointerException npe)
+        {
+            Assert.assertTrue(npe.getMessage(), npe.getMessage().contains("index 1"));
+        }
+        Assert.assertFalse(a.succeeded());
+        Assert.assertEquals(1, a.proceedWithLogEntries(entries, 0, 1));
+        Assert.assertTrue(a.succeeded());
+    }
+
+    @Test
+    public void testErrorIsRaisedIfTheTimeBudgetOfRegularExpressionsIsNegative()
+    {
+        final TestAutomaton ta = new TestAutomaton().withRegExpTimeBudgetMs(-1);
+        ta.createNode().withType(INodeDefinition.Type.INITIAL);
+        Assert.assertTrue(this.createAutomaton(ta).automatonDefect());
+    }
+
     @Test(expected = ExecutionException.class)
     public void testErrorIsRaisedDuringProcessingWhenThereAreMultipleMatchingEdgesToMultipleNodes()
     {
@@ -719,6 +981,23 @@ public class AutomatonTest
         Assert.assertNull(a.getErrorReason());
     }
 
+    @Test
+    public void testRegExpMatchingsOfTheLinearTimeEngineCanBeUsedInCheckExpressions()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("HE(L)LO (?:X)?(W)").withRegExpEngine(RegExpEngine.LINEAR)
+            .withCheckExp("engine.getRegExpConditionMatchingGroups(1) == 'L' && engine.getRegExpConditionMatchingGroups(2) == 'W'");
+
+        final Automaton a = this.createAndCheckAutomaton(ta);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "HELLO WORLD!"));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
     @Test
     public void testObtainingMatchingRegExpOfEdgeConditionReturnsNullIfGroupIndexIsInvalid()
     {
@@ -1047,6 +1326,199 @@ public class AutomatonTest
         Assert.assertNull(a.getErrorReason());
     }
 
+    @Test
+    public void testChannelIdsOfTheDictionaryOfTheLogReaderAreCompared()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        final GenericNode failure = ta.createNode().withType(INodeDefinition.Type.FAILURE).get();
+        ta.createEdge(initial, success).withTriggerAlways().withChannel("A");
+        ta.createEdge(initial, failure).withTriggerAlways().withChannel("B");
+        ta.createEdge(success, failure).withTriggerAlways().withChannel("B");
+        final ChannelDictionary channels = new ChannelDictionary();
+        final Automaton a = new Automaton(ta, Collections.emptyMap(), channels);
+        Assert.assertTrue(a.canProceed());
+
+        // Entries of readers without dictionary are still matched by channel name
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "HELLO WORLD!", "A"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "HELLO WORLD!", "A", channels.getId("A")));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "HELLO WORLD!", "C", channels.getId("C")));
+        Assert.assertTrue(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "HELLO WORLD!", "B", channels.getId("B")));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertFalse(a.succeeded());
+    }
+
+    @Test
+    public void testFieldEqualsConditionComparesExtractedFieldValues()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withFieldEquals("state", "OPEN").withFieldEquals("door", "${door}");
+        final Map<String, String> params = new HashMap<>();
+        params.put("door", "front");
+        final Automaton a = this.createAndCheckAutomaton(ta, params);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "state=OPEN door=back"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "state=OPENED door=front"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "door=front"));
+        Assert.assertTrue(a.canProceed());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "door=front state=\"OPEN\""));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
+    @Test
+    public void testFieldRangeConditionComparesNumericFieldValuesInclusively()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withFieldRange("temp", "${min}", "4.5").withFieldRange("load", null, "1");
+        final Map<String, String> params = new HashMap<>();
+        params.put("min", "-2");
+        final Automaton a = this.createAndCheckAutomaton(ta, params);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=4.6 load=0"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=-3 load=0"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=cold load=0"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=0 load=1.01"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=0"));
+        Assert.assertTrue(a.canProceed());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "temp=4.5 load=-100"));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
+    @Test
+    public void testFieldPresentConditionRequiresAllFields()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withFieldPresent("user").withFieldPresent("session");
+        final Automaton a = this.createAndCheckAutomaton(ta);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "user=alice"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "username=alice session=1"));
+        Assert.assertTrue(a.canProceed());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "session= user=alice"));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
+    @Test
+    public void testErrorIsRaisedIfABoundOfAFieldRangeIsNoNumber()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode n = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        ta.createEdge(n, n).withFieldRange("temp", "cold", null);
+        final Automaton a = this.createAutomaton(ta);
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.automatonDefect());
+    }
+
+    @Test
+    public void testValueOfFieldIsLookedUpInSetOfValues() throws IOException
+    {
+        final File codes = this.writeSetOfValues("codes.txt", "# Known error codes", "E100", "  E200  ", "", "E300");
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withValueOfFieldInSet(codes.getAbsolutePath(), "code");
+        final Automaton a = this.createAndCheckAutomaton(ta);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "code=E400"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "code=# Known error codes"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "E100"));
+        Assert.assertTrue(a.canProceed());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "failure code=E200"));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
+    @Test
+    public void testValueOfRegExpGroupIsLookedUpInSetOfValuesRelativeToTheAutomaton() throws IOException
+    {
+        this.writeSetOfValues("devices-lab.txt", "d-17", "d-42");
+        final TestAutomaton ta = new TestAutomaton().withBaseDirectory(this.testFolder.getRoot());
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withValueOfRegExpInSet("devices-${site}.txt", "device (\\S+) went offline", 1);
+        final Map<String, String> params = new HashMap<>();
+        params.put("site", "lab");
+        final Automaton a = this.createAndCheckAutomaton(ta, params);
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "device d-42 went online"));
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "device d-43 went offline"));
+        Assert.assertTrue(a.canProceed());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "device d-42 went offline"));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+        Assert.assertNull(a.getErrorReason());
+    }
+
+    @Test
+    public void testSetOfValuesIsReloadedWhenTheFileChanges() throws IOException
+    {
+        final File codes = this.writeSetOfValues("codes.txt", "E100");
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withValueOfFieldInSet(codes.getAbsolutePath(), "code");
+
+        final Automaton before = this.createAndCheckAutomaton(ta);
+        before.proceedWithLogEntry(new GenericLogEntry(1, 1, "code=E200"));
+        Assert.assertTrue(before.canProceed());
+
+        this.writeSetOfValues("codes.txt", "E100", "E200");
+        final Automaton after = this.createAndCheckAutomaton(ta);
+        after.proceedWithLogEntry(new GenericLogEntry(1, 1, "code=E200"));
+        Assert.assertTrue(after.succeeded());
+    }
+
+    @Test
+    public void testErrorIsRaisedIfASetOfValuesIsDefinedInvalidly() throws IOException
+    {
+        final String codes = this.writeSetOfValues("codes.txt", "E100").getAbsolutePath();
+        final String missing = new File(this.testFolder.getRoot(), "missing.txt").getAbsolutePath();
+        final List<Consumer<GenericEdgeBuilder>> invalidDefinitions = Arrays.asList(
+            edge -> edge.withValueOfFieldInSet(missing, "code"),
+            edge -> edge.withValueOfFieldInSet(null, "code"),
+            edge -> edge.withValueOfFieldInSet(codes, null),
+            edge -> edge.withValueOfRegExpInSet(codes, "code=(E\\d+)", 2),
+            edge -> edge.withValueOfRegExpInSet(codes, "[", null));
+        for (final Consumer<GenericEdgeBuilder> invalidDefinition : invalidDefinitions)
+        {
+            final TestAutomaton ta = new TestAutomaton();
+            final GenericNode n = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+            invalidDefinition.accept(ta.createEdge(n, n));
+            final Automaton a = this.createAutomaton(ta);
+            Assert.assertFalse(a.canProceed());
+            Assert.assertTrue(a.automatonDefect());
+        }
+    }
+
+    private File writeSetOfValues(final String fileName, final String... lines) throws IOException
+    {
+        final File file = new File(this.testFolder.getRoot(), fileName);
+        FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), Arrays.asList(lines));
+        return file;
+    }
+
     @Test
     public void testEofWorksEvenForChanneledEdges()
     {
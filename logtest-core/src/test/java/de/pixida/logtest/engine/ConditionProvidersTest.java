@@ -0,0 +1,93 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.pixida.logtest.automatondefinitions.GenericEdge;
+import de.pixida.logtest.automatondefinitions.GenericNode;
+import de.pixida.logtest.automatondefinitions.INodeDefinition;
+import de.pixida.logtest.automatondefinitions.TestAutomaton;
+import de.pixida.logtest.engine.conditions.CheckExpCondition;
+import de.pixida.logtest.engine.conditions.ConditionProviders;
+import de.pixida.logtest.engine.conditions.ICondition;
+import de.pixida.logtest.engine.conditions.IConditionProvider;
+import de.pixida.logtest.engine.conditions.RegExpCondition;
+import de.pixida.logtest.logreaders.GenericLogEntry;
+
+public class ConditionProvidersTest
+{
+    public ConditionProvidersTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testOnlyConfiguredConditionsAreCreated()
+    {
+        final GenericEdge edge = new GenericEdge("edge", new GenericNode("source"), new GenericNode("destination"));
+        Assert.assertTrue(ConditionProviders.createConditions(edge).isEmpty());
+
+        edge.setCheckExp("true");
+        edge.setRegExp("A");
+        final List<ICondition> conditions = ConditionProviders.createConditions(edge);
+        Assert.assertEquals(1 + 1, conditions.size());
+        // Check exp after reg exp so the results can be accessed
+        Assert.assertTrue(conditions.get(0) instanceof RegExpCondition);
+        Assert.assertTrue(conditions.get(1) instanceof CheckExpCondition);
+    }
+
+    @Test
+    public void testProvidersAreLoadedViaServiceLoaderAfterBuiltInProviders()
+    {
+        final List<IConditionProvider> providers = ConditionProviders.getProviders();
+        Assert.assertTrue(providers.get(providers.size() - 1) instanceof TestConditionProvider);
+        Assert.assertEquals(1, providers.stream().filter(provider -> provider instanceof TestConditionProvider).count());
+    }
+
+    @Test
+    public void testCustomConditionIsEvaluated()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).get().setName(TestConditionProvider.EDGE_NAME);
+
+        final Automaton a = new Automaton(ta, Collections.emptyMap());
+        Assert.assertFalse(a.automatonDefect());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "OTHER"));
+        Assert.assertTrue(a.canProceed());
+        Assert.assertFalse(a.succeeded());
+
+        a.proceedWithLogEntry(new GenericLogEntry(1 + 1, 1, TestConditionProvider.MATCHING_PAYLOAD));
+        Assert.assertFalse(a.canProceed());
+        Assert.assertTrue(a.succeeded());
+    }
+
+    @Test
+    public void testMatchingGroupsOfOtherEdgesAreNotVisibleInOnWalk()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode failure = ta.createNode().withType(INodeDefinition.Type.FAILURE).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        // First edge matches the regular expression but fails due to its check expression
+        ta.createEdge(initial, failure).withRegExp("(A)").withCheckExp("false");
+        ta.createEdge(initial, success).withTriggerAlways().withOnWalk("if (engine.getRegExpConditionMatchingGroups(1) != null) "
+            + "{ engine.reject('matching groups leaked'); }");
+
+        final Automaton a = new Automaton(ta, Collections.emptyMap());
+        a.proceedWithLogEntry(new GenericLogEntry(1, 1, "A"));
+        Assert.assertTrue(a.getErrorReason(), a.succeeded());
+    }
+}
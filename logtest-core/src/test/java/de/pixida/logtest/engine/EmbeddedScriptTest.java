@@ -48,6 +48,55 @@ public class EmbeddedScriptTest
         this.compile("y = x / 0").run();
     }
 
+    @Test
+    public void testInvocationsAreCounted()
+    {
+        final EmbeddedScript script = this.compile("true");
+        final int numInvocations = 3;
+        for (int i = 0; i < numInvocations; i++)
+        {
+            script.run();
+        }
+        Assert.assertEquals(numInvocations, script.getNumInvocations());
+        Assert.assertTrue(script.getTotalTimeNanos() >= 0);
+    }
+
+    @Test
+    public void testTimeIsOnlyMeasuredIfRequested()
+    {
+        final ScriptRunner runner = new ScriptRunner("test", 0, 0);
+        final EmbeddedScript script = new EmbeddedScript("var sum = 0; for (var i = 0; i < 100000; i++) { sum += i; } sum");
+        script.compile(this.scriptingEngine, runner);
+        script.run();
+        Assert.assertEquals(0L, script.getTotalTimeNanos());
+        Assert.assertEquals(0L, runner.getTotalTimeNanos());
+
+        runner.enableTimeMeasurement();
+        script.run();
+        Assert.assertTrue(script.getTotalTimeNanos() > 0);
+        Assert.assertEquals(script.getTotalTimeNanos(), runner.getTotalTimeNanos());
+        Assert.assertEquals(1 + 1, script.getNumInvocations());
+    }
+
+    @Test
+    public void testScriptsWithTimeBudgetAreRefusedIfTooManyAbandonedThreadsAreRunning()
+    {
+        // No abandoned thread at all is allowed, such that the test does not need to leave a runaway script behind
+        final ScriptRunner runner = new ScriptRunner("test", 1000, 0, 0);
+        final EmbeddedScript script = new EmbeddedScript("true");
+        script.compile(this.scriptingEngine, runner);
+        try
+        {
+            script.run();
+            Assert.fail("Expected execution exception");
+        }
+        catch (final ExecutionException ee)
+        {
+            Assert.assertTrue(ee.getMessage(), ee.getMessage().contains("Refusing to run script of automaton 'test' with a time budget"));
+        }
+        Assert.assertEquals(0, script.getNumInvocations());
+    }
+
     @Test
     public void testHashObjectsAreEvaluatedToFalse()
     {
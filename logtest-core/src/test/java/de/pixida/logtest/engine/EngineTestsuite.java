@@ -14,6 +14,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
                 AutomatonTest.class,
+                ConditionProvidersTest.class,
+                RegExpResultCacheTest.class,
                 EmbeddedScriptTest.class,
                 PregCallbackReplacerTest.class,
                 ScriptingEngineTest.class
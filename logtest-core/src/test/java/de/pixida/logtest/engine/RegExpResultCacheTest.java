@@ -0,0 +1,85 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.pixida.logtest.automatondefinitions.GenericNode;
+import de.pixida.logtest.automatondefinitions.INodeDefinition;
+import de.pixida.logtest.automatondefinitions.TestAutomaton;
+import de.pixida.logtest.engine.conditions.RegExpResultCache;
+import de.pixida.logtest.logreaders.GenericLogEntry;
+
+public class RegExpResultCacheTest
+{
+    public RegExpResultCacheTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted()
+    {
+        final RegExpResultCache cache = new RegExpResultCache("A", 1 + 1);
+        Assert.assertNull(cache.get("A"));
+        cache.put("A", Arrays.asList("A"));
+        cache.put("B", Collections.emptyList());
+        Assert.assertEquals(Arrays.asList("A"), cache.get("A")); // Now, "B" is the least recently used entry
+        cache.put("C", Collections.emptyList());
+        Assert.assertEquals(1 + 1, cache.getSize());
+        Assert.assertNull(cache.get("B"));
+        Assert.assertEquals(RegExpResultCache.NO_MATCH, cache.get("C"));
+        Assert.assertEquals(Arrays.asList("A"), cache.get("A"));
+        final long numLookups = 5;
+        final long numHits = 3;
+        Assert.assertEquals(numLookups, cache.getNumLookups());
+        Assert.assertEquals(numHits, cache.getNumHits());
+    }
+
+    @Test
+    public void testAutomatonWithCachedResultsBehavesLikeWithoutCache()
+    {
+        for (final Integer cacheSize : Arrays.asList(null, 0, 1, 1 + 1))
+        {
+            final TestAutomaton ta = new TestAutomaton().withRegExpResultCacheSize(cacheSize);
+            final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+            final GenericNode middle = ta.createNode().get();
+            final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+            ta.createEdge(initial, initial).withRegExp("HEARTBEAT ([0-9])")
+                .withOnWalk("if (engine.getRegExpConditionMatchingGroups(1) != '1') { engine.reject('unexpected group'); }");
+            ta.createEdge(initial, middle).withRegExp("START");
+            ta.createEdge(middle, middle).withRegExp("HEARTBEAT ([0-9])")
+                .withOnWalk("if (engine.getRegExpConditionMatchingGroups(1) != '2') { engine.reject('unexpected group'); }");
+            ta.createEdge(middle, success).withRegExp("STOP");
+
+            final Automaton a = new Automaton(ta, Collections.emptyMap());
+            Assert.assertFalse(a.automatonDefect());
+            int time = 0;
+            for (final String payload : Arrays.asList("HEARTBEAT 1", "HEARTBEAT 1", "START", "HEARTBEAT 2", "HEARTBEAT 2", "STOP"))
+            {
+                a.proceedWithLogEntry(new GenericLogEntry(time, time, payload));
+                time++;
+            }
+            Assert.assertTrue("Cache size: " + cacheSize + ", error: " + a.getErrorReason(), a.succeeded());
+        }
+    }
+
+    @Test
+    public void testNegativeCacheSizeMakesAutomatonDefect()
+    {
+        final TestAutomaton ta = new TestAutomaton().withRegExpResultCacheSize(-1);
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("A");
+        Assert.assertTrue(new Automaton(ta, Collections.emptyMap()).automatonDefect());
+    }
+}
@@ -0,0 +1,77 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.engine;
+
+import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
+import de.pixida.logtest.engine.conditions.ICondition;
+import de.pixida.logtest.engine.conditions.IConditionContext;
+import de.pixida.logtest.engine.conditions.IConditionProvider;
+import de.pixida.logtest.engine.conditions.IEventDescription;
+import de.pixida.logtest.engine.conditions.IScriptEnvironment;
+
+/** Registered via META-INF/services; matches the payload 'CUSTOM' on edges named {@link #EDGE_NAME} */
+public class TestConditionProvider implements IConditionProvider
+{
+    static final String EDGE_NAME = "edge with custom condition";
+    static final String MATCHING_PAYLOAD = "CUSTOM";
+
+    public TestConditionProvider()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Override
+    public boolean isConfiguredOn(final IEdgeDefinition edgeDefinition)
+    {
+        return EDGE_NAME.equals(edgeDefinition.getName());
+    }
+
+    @Override
+    public ICondition createCondition()
+    {
+        return new ICondition()
+        {
+            @Override
+            public void init(final IEdgeDefinition edgeDefinition, final IConditionContext context)
+            {
+                // Nothing to initialize
+            }
+
+            @Override
+            public boolean isActive()
+            {
+                return true;
+            }
+
+            @Override
+            public boolean isApplicable(final IEventDescription eventDescription)
+            {
+                return eventDescription.isLogEntry();
+            }
+
+            @Override
+            public boolean evaluate(final IEventDescription eventDescription, final TimingInfo timingInfo,
+                final IScriptEnvironment scriptEnvironment)
+            {
+                return MATCHING_PAYLOAD.equals(eventDescription.getLogEntryPayload());
+            }
+
+            @Override
+            public void beforeOnWalk(final IScriptEnvironment scriptEnvironment)
+            {
+                // Nothing to expose
+            }
+
+            @Override
+            public void afterOnWalk(final IScriptEnvironment scriptEnvironment)
+            {
+                // Nothing to reset
+            }
+        };
+    }
+}
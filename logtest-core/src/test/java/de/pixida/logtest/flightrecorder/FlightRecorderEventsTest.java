@@ -0,0 +1,89 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.flightrecorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest
+{
+    public FlightRecorderEventsTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testEventsAreNotCreatedIfNotEnabled()
+    {
+        Assert.assertFalse(FlightRecorderEvents.isEnabled());
+        Assert.assertNull(FlightRecorderEvents.beginJob());
+        Assert.assertNull(FlightRecorderEvents.beginAutomatonCreation());
+        Assert.assertNull(FlightRecorderEvents.beginConditionEvaluation());
+        FlightRecorderEvents.endJob(null, "log", 1, 1L, 1L);
+        FlightRecorderEvents.transition("automaton", "from", "to", "edge", 1L);
+    }
+
+    @Test
+    public void testEventsAreOnlyTimedWhileRecording()
+    {
+        final JfrFlightRecorder recorder = new JfrFlightRecorder();
+        Assert.assertNull(recorder.beginJob());
+        Assert.assertNull(recorder.beginConditionEvaluation());
+    }
+
+    @Test
+    public void testEventsAreRecorded() throws IOException
+    {
+        final JfrFlightRecorder recorder = new JfrFlightRecorder();
+        final Path file = Files.createTempFile("logtest", ".jfr");
+        try
+        {
+            try (final Recording recording = new Recording())
+            {
+                recording.enable("de.pixida.logtest.Job");
+                recording.enable("de.pixida.logtest.Transition");
+                recording.enable("de.pixida.logtest.SlowConditionEvaluation").withThreshold(java.time.Duration.ofDays(1));
+                recording.start();
+                recorder.endJob(recorder.beginJob(), "log.txt", 1 + 1, 1 + 1 + 1, 1 + 1 + 1 + 1);
+                recorder.transition("automaton", "from", "to", "edge", 1L);
+                recorder.endConditionEvaluation(recorder.beginConditionEvaluation(), "edge", this);
+                recording.stop();
+                recording.dump(file);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("de.pixida.logtest.")).collect(Collectors.toList());
+            Assert.assertEquals(1 + 1, events.size()); // The condition evaluation was below the threshold
+            final RecordedEvent job = events.get(0);
+            Assert.assertEquals("de.pixida.logtest.Job", job.getEventType().getName());
+            Assert.assertEquals("log.txt", job.getString("log"));
+            Assert.assertEquals(1 + 1, job.getInt("numAutomatons"));
+            Assert.assertEquals(1 + 1 + 1, job.getLong("numEntries"));
+            Assert.assertEquals(1 + 1 + 1 + 1, job.getLong("numBytes"));
+            final RecordedEvent transition = events.get(1);
+            Assert.assertEquals("de.pixida.logtest.Transition", transition.getEventType().getName());
+            Assert.assertEquals("from", transition.getString("fromNode"));
+            Assert.assertEquals("to", transition.getString("toNode"));
+            Assert.assertEquals(1L, transition.getLong("lineNumber"));
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.pixida.logtest.logreaders.FieldExtractor.Grammar;
+
+public class FieldExtractorTest
+{
+    public FieldExtractorTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testKeyValuePairsAreExtractedAndFreeTextIsIgnored()
+    {
+        final FieldView fields = FieldExtractor.DEFAULT.extract("Request done: status=200 user=\"John Doe\"  path = /index.html empty=");
+        Assert.assertEquals(3, fields.size());
+        Assert.assertEquals("200", fields.get("status"));
+        Assert.assertEquals("John Doe", fields.get("user"));
+        Assert.assertEquals("", fields.get("empty"));
+        Assert.assertTrue(fields.has("empty"));
+        Assert.assertFalse(fields.has("Request"));
+        Assert.assertFalse(fields.has("path")); // Delimiters around the key value delimiter are not allowed
+        Assert.assertNull(fields.get("done:"));
+        Assert.assertTrue(fields.valueEquals("status", "200"));
+        Assert.assertFalse(fields.valueEquals("status", "20"));
+        Assert.assertFalse(fields.valueEquals("missing", "200"));
+    }
+
+    @Test
+    public void testKeysAndUnquotedValuesAreTrimmedWithCustomDelimiters()
+    {
+        final FieldExtractor extractor = new FieldExtractor(Grammar.KEY_VALUE, ";", ":", null);
+        final FieldView fields = extractor.extract(" a : 1 ;b:\" 2 \";;c:x y");
+        Assert.assertEquals(3, fields.size());
+        Assert.assertEquals("1", fields.get("a"));
+        Assert.assertEquals(" 2 ", fields.get("b"));
+        Assert.assertEquals("x y", fields.get("c"));
+    }
+
+    @Test
+    public void testUnterminatedQuotesExtendToTheEndOfThePayload()
+    {
+        final FieldView fields = FieldExtractor.DEFAULT.extract("a=\"b c=d");
+        Assert.assertEquals(1, fields.size());
+        Assert.assertEquals("b c=d", fields.get("a"));
+    }
+
+    @Test
+    public void testDelimitedValuesAreNamedByPosition()
+    {
+        final FieldExtractor extractor = new FieldExtractor(Grammar.DELIMITED, "|", null, Arrays.asList("status", "user", "time"));
+        final FieldView fields = extractor.extract("200| John Doe ||ignored");
+        Assert.assertEquals("200", fields.get("status"));
+        Assert.assertEquals("John Doe", fields.get("user"));
+        Assert.assertEquals("", fields.get("time"));
+        Assert.assertFalse(fields.has("ignored"));
+
+        final FieldView incomplete = extractor.extract("200");
+        Assert.assertTrue(incomplete.has("status"));
+        Assert.assertFalse(incomplete.has("user"));
+    }
+
+    @Test
+    public void testWhitespaceDelimitedValuesIgnoreLeadingAndTrailingWhitespace()
+    {
+        final FieldExtractor extractor = new FieldExtractor(Grammar.DELIMITED, null, null, Arrays.asList("a", "b", "c"));
+        final FieldView fields = extractor.extract("  1 \t 2   ");
+        Assert.assertEquals(2, fields.size());
+        Assert.assertEquals("1", fields.get("a"));
+        Assert.assertEquals("2", fields.get("b"));
+        Assert.assertFalse(fields.has("c"));
+        Assert.assertEquals(0, extractor.extract("   ").size());
+    }
+
+    @Test
+    public void testNumbersAreParsedAndInvalidNumbersYieldNaN()
+    {
+        final FieldView fields = FieldExtractor.DEFAULT.extract("a=-1.5 b=1e3 c=abc");
+        Assert.assertEquals(-1.5, fields.getNumber("a"), 0.0);
+        Assert.assertEquals(1000.0, fields.getNumber("b"), 0.0);
+        Assert.assertTrue(Double.isNaN(fields.getNumber("c")));
+        Assert.assertTrue(Double.isNaN(fields.getNumber("d")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDelimitedGrammarRequiresFieldNames()
+    {
+        new FieldExtractor(Grammar.DELIMITED, "|", null, null);
+    }
+}
@@ -11,12 +11,17 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
 
 import de.pixida.logtest.logreaders.GenericLogReader.HandlingOfNonHeadlineLines;
+import de.pixida.logtest.regexp.RegExpEngine;
 
 public class GenericLogReaderTest
 {
@@ -31,6 +36,14 @@ public class GenericLogReaderTest
     private static final Boolean TEST_REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY = false;
     private static final HandlingOfNonHeadlineLines TEST_HANDLING_OF_NON_HEADLINE_LINES = GenericLogReader.HandlingOfNonHeadlineLines.ASSUME_LAST_TIMESTAMP;
     private static final String TEST_LOG_FILE_CHARSET = "ISO-8859-1";
+    private static final RegExpEngine TEST_REG_EXP_ENGINE = RegExpEngine.LINEAR;
+    private static final int TEST_REG_EXP_TIME_BUDGET_MS = 500;
+    private static final int TEST_REORDER_WINDOW_ENTRIES = 64;
+    private static final int TEST_REORDER_WINDOW_MS = 20;
+    private static final FieldExtractor.Grammar TEST_FIELD_GRAMMAR = FieldExtractor.Grammar.DELIMITED;
+    private static final String TEST_FIELD_DELIMITER = "|";
+    private static final String TEST_FIELD_KEY_VALUE_DELIMITER = ":";
+    private static final List<String> TEST_FIELD_NAMES = Arrays.asList("status", "user");
 
     private GenericLogReader lr;
 
@@ -63,6 +76,56 @@ public class GenericLogReaderTest
         this.lr.getNextEntry();
     }
 
+    @Test
+    public void testHeadlinePatternCanBeEvaluatedByTheLinearTimeEngine()
+    {
+        final String log = "1 C Entry 1\n"
+            + "Entry 1\n"
+            + "2 D Entry 2\n";
+        this.initLogReader(log);
+        this.lr.setRegExpEngine(RegExpEngine.LINEAR);
+        this.lr.setHeadlinePattern("^(([0-9]+) ([A-Z]) )");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1 + 1);
+        this.lr.setHeadlinePatternIndexOfChannel(1 + 1 + 1);
+        this.lr.setHandlingOfNonHeadlineLines(HandlingOfNonHeadlineLines.CREATE_MULTILINE_ENTRY);
+        this.checkNextResult(ONE, ONE, "C", "Entry 1\nEntry 1");
+        this.checkNextResult(THREE, TWO, "D", "Entry 2");
+        this.assumeNoMoreEntries();
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testPatternNotSupportedByTheLinearTimeEngineThrowsException()
+    {
+        final String log = "AA\n";
+        this.initLogReader(log);
+        this.lr.setRegExpEngine(RegExpEngine.LINEAR);
+        this.lr.setHeadlinePattern("^((A)\\2)");
+        this.lr.getNextEntry();
+    }
+
+    @Test
+    public void testHeadlinePatternExceedingItsTimeBudgetThrowsException()
+    {
+        final int timeBudgetMs = 50;
+        final int lineLength = 40;
+        final String log = "1 aab\n" + StringUtils.repeat('a', lineLength) + "c\n";
+        this.initLogReader(log);
+        this.lr.setRegExpTimeBudgetMs(timeBudgetMs);
+        this.lr.setHeadlinePattern("^(?:([0-9]+) )?(a+)+b");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1);
+        this.lr.setHandlingOfNonHeadlineLines(HandlingOfNonHeadlineLines.ASSUME_LAST_TIMESTAMP);
+        Assert.assertNotNull(this.lr.getNextEntry());
+        try
+        {
+            this.lr.getNextEntry();
+            Assert.fail("Expected log reader exception");
+        }
+        catch (final LogReaderException lre)
+        {
+            Assert.assertTrue(lre.getMessage(), lre.getMessage().endsWith("in line " + TWO));
+        }
+    }
+
     @Test
     public void testParsingMultilineEntry()
     {
@@ -260,6 +323,40 @@ public class GenericLogReaderTest
         this.assumeNoMoreEntries();
     }
 
+    @Test
+    public void testChannelsAreAssignedTheIdsOfTheDictionary()
+    {
+        final String log = "1 A Entry 1\n"
+            + "2 B Entry 2\n"
+            + "3 A Entry 3\n"
+            + "4 Entry 4";
+        this.initLogReader(log);
+        this.lr.setHeadlinePattern("^([0-9]+)( ([A-Z]))?( )");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1);
+        this.lr.setHeadlinePatternIndexOfChannel(1 + 1 + 1);
+        final ChannelDictionary channels = new ChannelDictionary();
+        final int idOfB = channels.getId("B");
+        this.lr.setChannelDictionary(channels);
+        final int idOfA = this.lr.getNextEntry().getChannelId();
+        Assert.assertEquals("A", channels.getName(idOfA));
+        Assert.assertEquals(idOfB, this.lr.getNextEntry().getChannelId());
+        Assert.assertEquals(idOfA, this.lr.getNextEntry().getChannelId());
+        Assert.assertEquals(ChannelDictionary.DEFAULT_CHANNEL_ID, this.lr.getNextEntry().getChannelId());
+        this.assumeNoMoreEntries();
+        Assert.assertEquals(1 + 1 + 1, channels.size());
+    }
+
+    @Test
+    public void testChannelIdsAreUnknownWithoutDictionary()
+    {
+        final String log = "1 A Entry 1";
+        this.initLogReader(log);
+        this.lr.setHeadlinePattern("^([0-9]+)( ([A-Z]))?( )");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1);
+        this.lr.setHeadlinePatternIndexOfChannel(1 + 1 + 1);
+        Assert.assertEquals(ChannelDictionary.UNKNOWN_CHANNEL_ID, this.lr.getNextEntry().getChannelId());
+    }
+
     @Test(expected = LogReaderException.class)
     public void testTimestampCanNotBeOptionallyDefined()
     {
@@ -294,6 +391,57 @@ public class GenericLogReaderTest
         Assert.assertNull(this.lr.getNextEntry());
     }
 
+    @Test
+    public void testEntriesAreReorderedByTimestampWithinTheWindow()
+    {
+        final String log = "1 Entry 1\n"
+            + "3 Entry 2\n"
+            + "2 Entry 3\n"
+            + "3 Entry 4\n"
+            + "10 Entry 5\n"
+            + "2 Entry 6";
+        this.initLogReader(log);
+        this.lr.setHeadlinePattern("^([0-9]+) ");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1);
+        this.lr.setReorderWindowMs(1 + 1);
+        this.checkNextResult(ONE, ONE, ILogEntry.DEFAULT_CHANNEL, "Entry 1");
+        this.checkNextResult(THREE, TWO, ILogEntry.DEFAULT_CHANNEL, "Entry 3");
+        this.checkNextResult(TWO, THREE, ILogEntry.DEFAULT_CHANNEL, "Entry 2");
+        this.checkNextResult(THREE + 1, THREE, ILogEntry.DEFAULT_CHANNEL, "Entry 4");
+
+        // Too late for the window
+        this.checkNextResult(THREE + THREE, TWO, ILogEntry.DEFAULT_CHANNEL, "Entry 6");
+        this.checkNextResult(THREE + TWO, THREE + THREE + THREE + 1, ILogEntry.DEFAULT_CHANNEL, "Entry 5");
+        this.assumeNoMoreEntries();
+        Assert.assertEquals(TWO, this.lr.getNumReorderedEntries());
+        Assert.assertEquals(ONE, this.lr.getNumLateEntries());
+    }
+
+    @Test
+    public void testEntriesAreReorderedWithinAWindowOfEntries()
+    {
+        final String log = "3 Entry 1\n"
+            + "2 Entry 2\n"
+            + "1 Entry 3";
+        this.initLogReader(log);
+        this.lr.setHeadlinePattern("^([0-9]+) ");
+        this.lr.setHeadlinePatternIndexOfTimestamp(1);
+        this.lr.setReorderWindowEntries((int) TWO);
+        this.checkNextResult(TWO, TWO, ILogEntry.DEFAULT_CHANNEL, "Entry 2");
+        this.checkNextResult(THREE, ONE, ILogEntry.DEFAULT_CHANNEL, "Entry 3");
+        this.checkNextResult(ONE, THREE, ILogEntry.DEFAULT_CHANNEL, "Entry 1");
+        this.assumeNoMoreEntries();
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testReorderWindowMustNotBeNegative()
+    {
+        this.initLogReader("");
+        final JSONObject configuration = new JSONObject();
+        configuration.put(GenericLogReaderJsonKey.REORDER_WINDOW_MS.getKey(), -1);
+        this.lr.overwriteCurrentSettingsWithSettingsInConfigurationFile(configuration);
+    }
+
     @Test
     public void testOverwritingConfiguration()
     {
@@ -333,6 +481,14 @@ public class GenericLogReaderTest
         Assert.assertTrue(TEST_REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY != virgin.getRemoveEmptyPayloadLinesFromMultilineEntry());
         Assert.assertTrue(!TEST_HANDLING_OF_NON_HEADLINE_LINES.equals(virgin.getHandlingOfNonHeadlineLines()));
         Assert.assertTrue(!TEST_LOG_FILE_CHARSET.equals(virgin.getLogFileCharset()));
+        Assert.assertTrue(!TEST_REG_EXP_ENGINE.equals(virgin.getRegExpEngine()));
+        Assert.assertTrue(TEST_REG_EXP_TIME_BUDGET_MS != virgin.getRegExpTimeBudgetMs());
+        Assert.assertTrue(TEST_REORDER_WINDOW_ENTRIES != virgin.getReorderWindowEntries());
+        Assert.assertTrue(TEST_REORDER_WINDOW_MS != virgin.getReorderWindowMs());
+        Assert.assertTrue(!TEST_FIELD_GRAMMAR.equals(virgin.getFieldGrammar()));
+        Assert.assertTrue(!TEST_FIELD_DELIMITER.equals(virgin.getFieldDelimiter()));
+        Assert.assertTrue(!TEST_FIELD_KEY_VALUE_DELIMITER.equals(virgin.getFieldKeyValueDelimiter()));
+        Assert.assertTrue(!TEST_FIELD_NAMES.equals(virgin.getFieldNames()));
     }
 
     private JSONObject createTestConfiguationJsonConfig()
@@ -346,6 +502,14 @@ public class GenericLogReaderTest
             TEST_REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY);
         configuration.put(GenericLogReaderJsonKey.HANDLING_OF_NON_HEADLINE_LINES.getKey(), TEST_HANDLING_OF_NON_HEADLINE_LINES.toString());
         configuration.put(GenericLogReaderJsonKey.LOG_FILE_CHARSET.getKey(), TEST_LOG_FILE_CHARSET);
+        configuration.put(GenericLogReaderJsonKey.REG_EXP_ENGINE.getKey(), TEST_REG_EXP_ENGINE.toString());
+        configuration.put(GenericLogReaderJsonKey.REG_EXP_TIME_BUDGET_MS.getKey(), TEST_REG_EXP_TIME_BUDGET_MS);
+        configuration.put(GenericLogReaderJsonKey.REORDER_WINDOW_ENTRIES.getKey(), TEST_REORDER_WINDOW_ENTRIES);
+        configuration.put(GenericLogReaderJsonKey.REORDER_WINDOW_MS.getKey(), TEST_REORDER_WINDOW_MS);
+        configuration.put(GenericLogReaderJsonKey.FIELD_GRAMMAR.getKey(), TEST_FIELD_GRAMMAR.toString());
+        configuration.put(GenericLogReaderJsonKey.FIELD_DELIMITER.getKey(), TEST_FIELD_DELIMITER);
+        configuration.put(GenericLogReaderJsonKey.FIELD_KEY_VALUE_DELIMITER.getKey(), TEST_FIELD_KEY_VALUE_DELIMITER);
+        configuration.put(GenericLogReaderJsonKey.FIELD_NAMES.getKey(), new JSONArray().put("status").put("user"));
         return configuration;
     }
 
@@ -358,6 +522,14 @@ public class GenericLogReaderTest
         Assert.assertEquals(TEST_REMOVE_EMPTY_PAYLOAD_LINES_FROM_MULTILINE_ENTRY, this.lr.getRemoveEmptyPayloadLinesFromMultilineEntry());
         Assert.assertEquals(TEST_HANDLING_OF_NON_HEADLINE_LINES, this.lr.getHandlingOfNonHeadlineLines());
         Assert.assertEquals(Charset.forName(TEST_LOG_FILE_CHARSET), this.lr.getLogFileCharset());
+        Assert.assertEquals(TEST_REG_EXP_ENGINE, this.lr.getRegExpEngine());
+        Assert.assertEquals(TEST_REG_EXP_TIME_BUDGET_MS, this.lr.getRegExpTimeBudgetMs());
+        Assert.assertEquals(TEST_REORDER_WINDOW_ENTRIES, this.lr.getReorderWindowEntries());
+        Assert.assertEquals(TEST_REORDER_WINDOW_MS, this.lr.getReorderWindowMs());
+        Assert.assertEquals(TEST_FIELD_GRAMMAR, this.lr.getFieldGrammar());
+        Assert.assertEquals(TEST_FIELD_DELIMITER, this.lr.getFieldDelimiter());
+        Assert.assertEquals(TEST_FIELD_KEY_VALUE_DELIMITER, this.lr.getFieldKeyValueDelimiter());
+        Assert.assertEquals(TEST_FIELD_NAMES, this.lr.getFieldNames());
     }
 
     private void initLogReader(final String log)
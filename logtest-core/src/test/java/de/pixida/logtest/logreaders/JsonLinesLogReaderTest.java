@@ -0,0 +1,131 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonLinesLogReaderTest
+{
+    private JsonLinesLogReader lr;
+
+    public JsonLinesLogReaderTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testConfiguredFieldsAreExtractedAndOtherFieldsAreSkipped()
+    {
+        final String log = "{\"ts\":1,\"level\":\"INFO\",\"ch\":\"db\",\"msg\":\"Connected\"}\n"
+            + "\n"
+            + "  { \"nested\" : {\"msg\":\"no\", \"list\":[1, {\"ts\":5}, \"]}\"]}, \"msg\" : \"Hello \\\"world\\\"\\n\\u00e4\", \"ts\" : 2 }\n"
+            + "{\"ts\":\"3\",\"msg\":{\"a\":[true,null]},\"ch\":null}";
+        this.initLogReader(log);
+        this.lr.setChannelField("ch");
+        this.checkNextResult(1L, 1L, "db", "Connected");
+        this.checkNextResult(1L + 1 + 1, 1L + 1, ILogEntry.DEFAULT_CHANNEL, "Hello \"world\"\nä");
+        this.checkNextResult(1L + 1 + 1 + 1, 1L + 1 + 1, ILogEntry.DEFAULT_CHANNEL, "{\"a\":[true,null]}");
+        Assert.assertNull(this.lr.getNextEntry());
+    }
+
+    @Test
+    public void testMissingPayloadIsEmpty()
+    {
+        this.initLogReader("{\"ts\":1}");
+        this.checkNextResult(1L, 1L, ILogEntry.DEFAULT_CHANNEL, "");
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testMissingTimestampThrowsException()
+    {
+        this.initLogReader("{\"msg\":\"Hello\"}");
+        this.lr.getNextEntry();
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testInvalidJsonThrowsException()
+    {
+        this.initLogReader("{\"ts\":1,\"msg\":\"Hello\"");
+        this.lr.getNextEntry();
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testTrailingCharactersThrowException()
+    {
+        this.initLogReader("{\"ts\":1} x");
+        this.lr.getNextEntry();
+    }
+
+    @Test
+    public void testChannelsAreAssignedTheIdsOfTheDictionary()
+    {
+        this.initLogReader("{\"ts\":1,\"ch\":\"A\"}\n{\"ts\":2}");
+        this.lr.setChannelField("ch");
+        final ChannelDictionary channels = new ChannelDictionary();
+        this.lr.setChannelDictionary(channels);
+        Assert.assertEquals(channels.getId("A"), this.lr.getNextEntry().getChannelId());
+        Assert.assertEquals(ChannelDictionary.DEFAULT_CHANNEL_ID, this.lr.getNextEntry().getChannelId());
+    }
+
+    @Test
+    public void testExportingConfiguration()
+    {
+        this.initLogReader("");
+        this.lr.setTimestampField("time");
+        this.lr.setChannelField("channel");
+        this.lr.setPayloadField("message");
+        this.lr.setLogFileCharset(StandardCharsets.ISO_8859_1);
+        final JSONObject configuration = this.lr.getSettingsForConfigurationFile();
+
+        final ILogReader reader = LogReaders.createLogReader(new File("some-log.jsonl"), configuration);
+        Assert.assertTrue(reader instanceof JsonLinesLogReader);
+        final JsonLinesLogReader jsonLinesReader = (JsonLinesLogReader) reader;
+        Assert.assertEquals("time", jsonLinesReader.getTimestampField());
+        Assert.assertEquals("channel", jsonLinesReader.getChannelField());
+        Assert.assertEquals("message", jsonLinesReader.getPayloadField());
+        Assert.assertEquals(StandardCharsets.ISO_8859_1, jsonLinesReader.getLogFileCharset());
+    }
+
+    @Test
+    public void testLogFormatOfTheLastConfigurationWins()
+    {
+        final JSONObject jsonLines = new JSONObject().put(JsonLinesLogReaderJsonKey.LOG_FORMAT.getKey(), LogFormat.JSON_LINES.toString());
+        final JSONObject generic = new JSONObject().put(JsonLinesLogReaderJsonKey.LOG_FORMAT.getKey(), LogFormat.GENERIC.toString());
+        Assert.assertTrue(LogReaders.createLogReader(new File("log.txt"), jsonLines, null, generic) instanceof GenericLogReader);
+        Assert.assertTrue(LogReaders.createLogReader(new File("log.txt"), generic, jsonLines) instanceof JsonLinesLogReader);
+        Assert.assertTrue(LogReaders.createLogReader(new File("log.txt")) instanceof GenericLogReader);
+    }
+
+    @Test(expected = LogReaderException.class)
+    public void testInvalidLogFormatThrowsException()
+    {
+        LogReaders.createLogReader(new File("log.txt"), new JSONObject().put(JsonLinesLogReaderJsonKey.LOG_FORMAT.getKey(), "XML"));
+    }
+
+    private void initLogReader(final String log)
+    {
+        this.lr = new JsonLinesLogReader(new BufferedReader(new StringReader(log)));
+        this.lr.open();
+    }
+
+    private void checkNextResult(final long lineNumber, final long time, final String channel, final String payload)
+    {
+        final ILogEntry e = this.lr.getNextEntry();
+        Assert.assertEquals(lineNumber, e.getLineNumber());
+        Assert.assertEquals(time, e.getTime());
+        Assert.assertEquals(channel, e.getChannel());
+        Assert.assertEquals(payload, e.getPayload());
+    }
+}
@@ -13,8 +13,11 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+                FieldExtractorTest.class,
                 GenericLogReaderTest.class,
-                PatternMatchingsStripperTest.class
+                JsonLinesLogReaderTest.class,
+                PatternMatchingsStripperTest.class,
+                ReorderBufferTest.class
 })
 public class LogReaderTestsuite
 {
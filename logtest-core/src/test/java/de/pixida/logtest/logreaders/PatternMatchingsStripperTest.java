@@ -7,12 +7,13 @@
 
 package de.pixida.logtest.logreaders;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.junit.Assert;
 import org.junit.Test;
 
+import de.pixida.logtest.regexp.IRegExpMatcher;
+import de.pixida.logtest.regexp.RegExpEngine;
+import de.pixida.logtest.regexp.RegExpPatterns;
+
 public class PatternMatchingsStripperTest
 {
     public PatternMatchingsStripperTest()
@@ -63,8 +64,18 @@ public class PatternMatchingsStripperTest
 
     private String strip(final String regex, final String value)
     {
-        final Matcher matcher = Pattern.compile(regex).matcher(value);
-        Assert.assertTrue(matcher.find());
-        return PatternMatchingsStripper.strip(matcher, value);
+        String result = null;
+        for (final RegExpEngine engine : RegExpEngine.values())
+        {
+            final IRegExpMatcher matcher = RegExpPatterns.compile(regex, engine).matcher(value);
+            Assert.assertTrue(matcher.find());
+            final String stripped = PatternMatchingsStripper.strip(matcher, value);
+            if (result != null)
+            {
+                Assert.assertEquals("Engine: " + engine, result, stripped);
+            }
+            result = stripped;
+        }
+        return result;
     }
 }
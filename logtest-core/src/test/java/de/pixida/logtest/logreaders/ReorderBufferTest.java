@@ -0,0 +1,82 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.logreaders;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReorderBufferTest
+{
+    public ReorderBufferTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testEntriesAreReleasedInTimestampOrderKeepingTheOrderOfEqualTimestamps()
+    {
+        final int numEntries = 1000;
+        final int maxTime = 50;
+        final Random random = new Random(1L);
+        final List<ILogEntry> input = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++)
+        {
+            input.add(new GenericLogEntry(i, random.nextInt(maxTime), "Entry " + i));
+        }
+
+        final ReorderBuffer buffer = new ReorderBuffer(numEntries, ReorderBuffer.NO_TIME_WINDOW);
+        input.forEach(entry -> buffer.add(entry));
+        final List<ILogEntry> output = new ArrayList<>();
+        ILogEntry entry;
+        while ((entry = buffer.poll()) != null)
+        {
+            output.add(entry);
+        }
+
+        final List<ILogEntry> expected = new ArrayList<>(input);
+        expected.sort(Comparator.comparingLong(ILogEntry::getTime)); // Stable
+        Assert.assertEquals(expected, output);
+        Assert.assertEquals(0L, buffer.getNumLateEntries());
+    }
+
+    @Test
+    public void testEntriesAreReleasedWhenTheBufferIsFull()
+    {
+        final ReorderBuffer buffer = new ReorderBuffer(1 + 1, ReorderBuffer.NO_TIME_WINDOW);
+        buffer.add(new GenericLogEntry(1L, 2L, "A"));
+        Assert.assertFalse(buffer.canRelease());
+        buffer.add(new GenericLogEntry(2L, 1L, "B"));
+        Assert.assertTrue(buffer.canRelease());
+        Assert.assertEquals("B", buffer.poll().getPayload());
+        Assert.assertEquals(1L, buffer.getNumReorderedEntries());
+    }
+
+    @Test
+    public void testEntriesAreReleasedWhenANewerEntryLeftTheTimeWindow()
+    {
+        final long windowMs = 10L;
+        final ReorderBuffer buffer = new ReorderBuffer(100, windowMs);
+        buffer.add(new GenericLogEntry(1L, 100L, "A"));
+        buffer.add(new GenericLogEntry(2L, 100L + windowMs, "B"));
+        Assert.assertFalse(buffer.canRelease());
+        buffer.add(new GenericLogEntry(1L + 1 + 1, 100L + windowMs + 1, "C"));
+        Assert.assertTrue(buffer.canRelease());
+        Assert.assertEquals("A", buffer.poll().getPayload());
+        Assert.assertFalse(buffer.canRelease());
+
+        // Older than what was already released; can not be put into order anymore
+        buffer.add(new GenericLogEntry(1L + 1 + 1 + 1, 100L - 1, "D"));
+        Assert.assertEquals(1L, buffer.getNumLateEntries());
+        Assert.assertEquals(1L, buffer.getNumReorderedEntries());
+    }
+}
@@ -8,15 +8,22 @@
 package de.pixida.logtest.processing;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.pixida.logtest.automatondefinitions.GenericNode;
 import de.pixida.logtest.automatondefinitions.IAutomatonDefinition;
@@ -30,6 +37,9 @@ import de.pixida.logtest.processing.EvaluationResult.Result;
 
 public class JobExecutorTest
 {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
     public JobExecutorTest()
     {
         // Empty constructor needed by checkstyle
@@ -57,9 +67,11 @@ public class JobExecutorTest
         invalidAutomaton3.createNode();
         final TestAutomaton invalidAutomaton4 = new TestAutomaton();
         invalidAutomaton4.createNode();
+        final TestAutomaton invalidAutomaton5 = new TestAutomaton();
+        invalidAutomaton5.createNode();
 
         final List<IAutomatonDefinition> automatons1 = Arrays.asList(invalidAutomaton1, invalidAutomaton2);
-        final List<IAutomatonDefinition> automatons2 = Arrays.asList(invalidAutomaton3, invalidAutomaton4);
+        final List<IAutomatonDefinition> automatons2 = Arrays.asList(invalidAutomaton3, invalidAutomaton4, invalidAutomaton5);
         final GenericLogReader input1 = new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD")));
         final GenericLogReader input2 = new GenericLogReader(new BufferedReader(new StringReader("")));
 
@@ -128,6 +140,180 @@ public class JobExecutorTest
         Assert.assertNotNull(results.get(1 + 1).getMessage());
     }
 
+    @Test
+    public void testMetricsAreCollectedIfRequested()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("WORLD");
+        final LogSink sink = new LogSink();
+        sink.setAutomaton(ta);
+        sink.setParameters(Collections.emptyMap());
+        final Job job = new Job();
+        job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+        job.setSinks(Arrays.asList(sink));
+
+        final JobExecutor withMetrics = new JobExecutor(Arrays.asList(job), true);
+        Assert.assertEquals(1, withMetrics.getMetrics().size());
+        Assert.assertEquals(1 + 1, withMetrics.getMetrics().get(0).get(0).getNumEvents());
+        Assert.assertEquals(1 + 1, withMetrics.getMetrics().get(0).get(0).getEdges().get(0).getNumEvaluations());
+
+        job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+        final JobExecutor withoutMetrics = new JobExecutor(Arrays.asList(job));
+        Assert.assertEquals(Arrays.asList(Arrays.asList((Object) null)), withoutMetrics.getMetrics());
+    }
+
+    @Test
+    public void testFailFastModeEndsTheJobAndSkipsTheRemainingJobs()
+    {
+        final TestAutomaton failing = new TestAutomaton();
+        final GenericNode initial1 = failing.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode failure1 = failing.createNode().withType(INodeDefinition.Type.FAILURE).get();
+        failing.createEdge(initial1, failure1).withRegExp("HELLO");
+        final TestAutomaton running = new TestAutomaton();
+        final GenericNode initial2 = running.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success2 = running.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        running.createEdge(initial2, success2).withRegExp("GOODBYE");
+
+        // The log is longer than a batch, such that the job is ended before the whole log was read
+        final String log = "1 HELLO\n" + StringUtils.repeat("2 WORLD\n", 1024);
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 1 + 1; i++)
+        {
+            final Job job = new Job();
+            job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader(log))));
+            job.setSinks(Arrays.asList(createSink(failing), createSink(running)));
+            jobs.add(job);
+        }
+
+        final List<List<EvaluationResult>> results = new JobExecutor(jobs, false, null, true, null).getResults();
+        Assert.assertEquals(jobs.size(), results.size());
+        Assert.assertEquals(Result.FAILURE, results.get(0).get(0).getResult());
+        Assert.assertEquals(Result.ABORTED, results.get(0).get(1).getResult());
+        Assert.assertTrue(results.get(1).stream().allMatch(result -> result.isAborted() && result.getMessage() != null));
+    }
+
+    @Test
+    public void testFailFastModeStillPushesEofIfTheWholeLogWasRead()
+    {
+        final TestAutomaton failing = new TestAutomaton();
+        final GenericNode initial1 = failing.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode failure1 = failing.createNode().withType(INodeDefinition.Type.FAILURE).get();
+        failing.createEdge(initial1, failure1).withRegExp("HELLO");
+        final TestAutomaton waitingForEof = new TestAutomaton();
+        final GenericNode initial2 = waitingForEof.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success2 = waitingForEof.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        waitingForEof.createEdge(initial2, success2).withEofCondition();
+
+        final Job job = new Job();
+        job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+        job.setSinks(Arrays.asList(createSink(failing), createSink(waitingForEof)));
+        final List<EvaluationResult> results = new JobExecutor(Arrays.asList(job), false, null, true, null).getResults().get(0);
+        Assert.assertEquals(Result.FAILURE, results.get(0).getResult());
+        Assert.assertEquals(Result.SUCCESS, results.get(1).getResult());
+    }
+
+    @Test
+    public void testBatchWithLogEntryWithoutPayloadIsRejectedForAllAutomatons()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("A");
+        final TestLogReader logReader = new TestLogReader();
+        logReader.addEntry(new GenericLogEntry(1, 0, "A"));
+        logReader.addEntry(new GenericLogEntry(1 + 1, 0, null));
+        logReader.addEntry(null); // EOF
+
+        final Job job = new Job();
+        job.setLogReader(logReader);
+        job.setSinks(Arrays.asList(createSink(ta), createSink(ta)));
+        final List<EvaluationResult> results = new JobExecutor(Arrays.asList(job)).getResults().get(0);
+        for (final EvaluationResult result : results)
+        {
+            Assert.assertEquals(Result.INTERNAL_ERROR, result.getResult());
+            Assert.assertEquals("Payload of log entry at index 1 is null", result.getMessage());
+        }
+    }
+
+    @Test
+    public void testJobBudgetEndsJobsWithAbortedResult()
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("WORLD");
+        final Job job = new Job();
+        job.setSinks(Arrays.asList(createSink(ta)));
+        final JobBudget budget = new JobBudget();
+
+        budget.setMaxEntries(1 + 1);
+        job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+        Assert.assertEquals(Result.SUCCESS, new JobExecutor(Arrays.asList(job), false, null, false, budget).getResults().get(0).get(0)
+            .getResult());
+
+        budget.setMaxEntries(1);
+        job.setLogReader(new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+        final EvaluationResult result = new JobExecutor(Arrays.asList(job), false, null, false, budget).getResults().get(0).get(0);
+        Assert.assertEquals(Result.ABORTED, result.getResult());
+        Assert.assertEquals("Job budget exceeded: More than 1 log entries", result.getMessage());
+    }
+
+    @Test
+    public void testProgressIsReportedWhileJobsRun() throws IOException
+    {
+        final TestAutomaton ta = new TestAutomaton();
+        final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+        final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+        ta.createEdge(initial, success).withRegExp("GOODBYE");
+        final int numLines = 4096;
+        final File log = this.tempFolder.newFile();
+        FileUtils.write(log, StringUtils.repeat("1 HELLO WORLD\n", numLines), StandardCharsets.UTF_8);
+        final Job job = new Job();
+        job.setLogReader(new GenericLogReader(log));
+        job.setSinks(Arrays.asList(createSink(ta)));
+
+        final List<JobProgress> progressReports = new ArrayList<>();
+        new JobExecutor(Arrays.asList(job), false, new IJobExecutionListener()
+        {
+            @Override
+            public void executionFinished(final Job finishedJob, final LogSink sink, final EvaluationResult evaluationResult,
+                final long timeMs)
+            {
+                // Not of interest
+            }
+
+            @Override
+            public void jobProgress(final JobProgress progress)
+            {
+                progressReports.add(progress);
+            }
+        });
+
+        // The first report is made as soon as some entries were processed, further ones are time based
+        Assert.assertFalse(progressReports.isEmpty());
+        final JobProgress progress = progressReports.get(0);
+        Assert.assertEquals(0, progress.getJobIndex());
+        Assert.assertEquals(1, progress.getNumJobs());
+        Assert.assertEquals(log.getName(), progress.getLogDisplayName());
+        Assert.assertTrue(progress.getNumEntries() > 0L && progress.getNumEntries() < numLines);
+        Assert.assertEquals(log.length(), progress.getSizeInBytes());
+        Assert.assertTrue(progress.getFractionDone() > 0.0 && progress.getFractionDone() <= 1.0);
+        Assert.assertEquals(1, progress.getNumAutomatonsRunning());
+        Assert.assertEquals(1, progress.getNumAutomatons());
+        Assert.assertEquals(Integer.valueOf((int) progress.getNumEntries()),
+            progress.getNumEventsByChannel().get(ILogEntry.DEFAULT_CHANNEL));
+    }
+
+    private static LogSink createSink(final IAutomatonDefinition automaton)
+    {
+        final LogSink sink = new LogSink();
+        sink.setAutomaton(automaton);
+        sink.setParameters(Collections.emptyMap());
+        return sink;
+    }
+
     private JobExecutor createJobExecutor(final List<LogSink> sinks, final ILogReader logReader)
     {
         final Job job = new Job();
@@ -161,4 +347,70 @@ public class JobExecutorTest
         Assert.assertTrue(!jobExecutor.getNumEventsByChannel().containsKey("XXX"));
         Assert.assertEquals(new Integer(1), jobExecutor.getNumEventsByChannel().get(ILogEntry.DEFAULT_CHANNEL));
     }
+
+    @Test
+    public void testAutomatonsOfManySinksAreCreatedAndEvaluatedInSinkOrder()
+    {
+        final int numSinks = 16;
+        final List<LogSink> sinks = new ArrayList<>();
+        for (int i = 0; i < numSinks; i++)
+        {
+            final TestAutomaton ta = new TestAutomaton();
+            final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+            final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+            // Every other automaton expects a line which does not exist
+            ta.createEdge(initial, success).withRegExp(i % (1 + 1) == 0 ? "HELLO" : "GOODBYE");
+            final LogSink sink = new LogSink();
+            sink.setAutomaton(ta);
+            sink.setParameters(Collections.emptyMap());
+            sinks.add(sink);
+        }
+
+        final JobExecutor jobExecutor = this.createJobExecutor(sinks,
+            new GenericLogReader(new BufferedReader(new StringReader("1 HELLO\n2 WORLD"))));
+
+        final List<EvaluationResult> results = jobExecutor.getResults().get(0);
+        Assert.assertEquals(numSinks, results.size());
+        for (int i = 0; i < numSinks; i++)
+        {
+            Assert.assertEquals(i % (1 + 1) == 0 ? Result.SUCCESS : Result.FAILURE, results.get(i).getResult());
+        }
+    }
+
+    @Test
+    public void testErrorOfFirstFailingSinkIsReportedWhenSeveralAutomatonsFailToLoad()
+    {
+        final List<LogSink> sinks = new ArrayList<>();
+        for (final String failure : Arrays.asList(null, "first failure", null, "second failure", "third failure"))
+        {
+            final TestAutomaton ta = new TestAutomaton()
+            {
+                @Override
+                public void load()
+                {
+                    if (failure != null)
+                    {
+                        throw new IllegalStateException(failure);
+                    }
+                }
+            };
+            final GenericNode initial = ta.createNode().withType(INodeDefinition.Type.INITIAL).get();
+            final GenericNode success = ta.createNode().withType(INodeDefinition.Type.SUCCESS).get();
+            ta.createEdge(initial, success).withTriggerAlways();
+            final LogSink sink = new LogSink();
+            sink.setAutomaton(ta);
+            sink.setParameters(Collections.emptyMap());
+            sinks.add(sink);
+        }
+
+        final JobExecutor jobExecutor = this.createJobExecutor(sinks, new TestLogReader());
+
+        final List<EvaluationResult> results = jobExecutor.getResults().get(0);
+        Assert.assertEquals(sinks.size(), results.size());
+        for (final EvaluationResult result : results)
+        {
+            Assert.assertEquals(Result.INTERNAL_ERROR, result.getResult());
+            Assert.assertEquals("first failure", result.getMessage());
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/* This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Copyright (c) 2016 Pixida GmbH
+ */
+
+package de.pixida.logtest.regexp;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegExpPatternsTest
+{
+    static final String BACKTRACKING_PATTERN = "^(a+)+b";
+    private static final int BACKTRACKING_INPUT_LENGTH = 40;
+    static final String BACKTRACKING_INPUT = StringUtils.repeat('a', BACKTRACKING_INPUT_LENGTH) + "c";
+    static final int SMALL_TIME_BUDGET_MS = 50;
+    private static final long TIME_TO_WAIT_TO_DETECT_HANGING_MATCH_MS = 10000;
+
+    public RegExpPatternsTest()
+    {
+        // Empty constructor needed by checkstyle
+    }
+
+    @Test
+    public void testBothEnginesReturnTheSameGroups()
+    {
+        for (final RegExpEngine engine : RegExpEngine.values())
+        {
+            final IRegExpMatcher matcher = RegExpPatterns.matcher(RegExpPatterns.compile("([0-9]+) (?:[A-Z]) (x)?", engine), "10 A B", 0);
+            Assert.assertTrue(matcher.find());
+            Assert.assertEquals(1 + 1, matcher.groupCount());
+            Assert.assertEquals("10 A ", matcher.group(0));
+            Assert.assertEquals("10", matcher.group(1));
+            Assert.assertNull(matcher.group(1 + 1));
+            Assert.assertEquals(0, matcher.start(1));
+            Assert.assertEquals(1 + 1, matcher.end(1));
+            Assert.assertEquals(engine, RegExpPatterns.compile("A", engine).getEngine());
+        }
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testLinearTimeEngineRejectsBackreferences()
+    {
+        RegExpPatterns.compile("(a)\\1", RegExpEngine.LINEAR);
+    }
+
+    @Test(timeout = TIME_TO_WAIT_TO_DETECT_HANGING_MATCH_MS)
+    public void testMatchIsAbortedWhenTheTimeBudgetIsExceeded()
+    {
+        final IRegExpPattern pattern = RegExpPatterns.compile(BACKTRACKING_PATTERN, RegExpEngine.JAVA);
+        try
+        {
+            RegExpPatterns.matcher(pattern, BACKTRACKING_INPUT, SMALL_TIME_BUDGET_MS).find();
+            Assert.fail("Expected match to be aborted");
+        }
+        catch (final RegExpTimeBudgetExceededException rtbee)
+        {
+            Assert.assertEquals(SMALL_TIME_BUDGET_MS, rtbee.getTimeBudgetMs());
+        }
+    }
+
+    @Test
+    public void testLinearTimeEngineMatchesBacktrackingPatternWithinTheTimeBudget()
+    {
+        final IRegExpPattern pattern = RegExpPatterns.compile(BACKTRACKING_PATTERN, RegExpEngine.LINEAR);
+        Assert.assertFalse(RegExpPatterns.matcher(pattern, BACKTRACKING_INPUT, SMALL_TIME_BUDGET_MS).find());
+    }
+
+    @Test
+    public void testPlainMatcherOfTheEngineIsUsedWithoutBudgetAndTimings()
+    {
+        for (final RegExpEngine engine : RegExpEngine.values())
+        {
+            final IRegExpPattern pattern = RegExpPatterns.compile("a", engine);
+            Assert.assertFalse(RegExpPatterns.matcher(pattern, "a", 0) instanceof WatchedRegExpMatcher);
+            Assert.assertTrue(RegExpPatterns.matcher(pattern, "a", 0, new RegExpTimings()) instanceof WatchedRegExpMatcher);
+            Assert.assertTrue(RegExpPatterns.matcher(pattern, "a", 1) instanceof WatchedRegExpMatcher);
+        }
+    }
+
+    @Test
+    public void testWorstCaseTimingsAreRecordedPerPattern()
+    {
+        final String regExp = "worst case timing test ([0-9]+)";
+        final IRegExpPattern pattern = RegExpPatterns.compile(regExp, RegExpEngine.JAVA);
+        final int numMatches = 3;
+        final RegExpTimings timings = new RegExpTimings();
+        for (int i = 0; i < numMatches; i++)
+        {
+            RegExpPatterns.matcher(pattern, "worst case timing test " + i, 0, timings).find();
+        }
+        RegExpPatterns.matcher(RegExpPatterns.compile("other pattern", RegExpEngine.JAVA), "other pattern", 0, timings).find();
+        RegExpPatterns.matcher(pattern, "worst case timing test without timings", 0).find();
+        final List<RegExpTimings.Timing> worstCaseTimings = timings.getWorstCaseTimings();
+        Assert.assertEquals(2, worstCaseTimings.size());
+        final RegExpTimings.Timing timing = worstCaseTimings.stream().filter(t -> t.getRegExp().equals(regExp)).findFirst().get();
+        Assert.assertEquals(RegExpEngine.JAVA, timing.getEngine());
+        Assert.assertEquals(numMatches, timing.getNumMatches());
+        Assert.assertTrue(timing.getWorstCaseNanos() > 0);
+        Assert.assertTrue(timing.getTotalNanos() >= timing.getWorstCaseNanos());
+    }
+}
@@ -7,6 +7,7 @@
 
 package de.pixida.logtest.reporting;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -108,4 +109,33 @@ public class ReportsGeneratorTest
         Assert.assertEquals(0, testReportGenerator.getNumExecutions());
         Assert.assertTrue(testReportGenerator.isFinished());
     }
+
+    @Test
+    public void testResultsAreStreamedFromConcurrentlyRunningJobs() throws InterruptedException
+    {
+        final ReportsGenerator rg = new ReportsGenerator();
+        final TestReportGenerator testReportGenerator = new TestReportGenerator();
+        rg.addReportGenerator(testReportGenerator);
+        rg.start();
+        Assert.assertTrue(testReportGenerator.isStarted());
+
+        final int numThreads = 4;
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++)
+        {
+            threads.add(new Thread(() -> new JobExecutor(JobExecutorTest.createSomeStupidJobs(), false, rg)));
+        }
+        threads.forEach(thread -> thread.start());
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        // All results arrived before the report generation finished
+        final long numExecutionsPerThread = JobExecutorTest.createSomeStupidJobs().stream().mapToLong(job -> job.getSinks().size()).sum();
+        Assert.assertEquals(numThreads * numExecutionsPerThread, testReportGenerator.getNumExecutions());
+        Assert.assertFalse(testReportGenerator.isFinished());
+        rg.finish();
+        Assert.assertTrue(testReportGenerator.isFinished());
+    }
 }
@@ -25,9 +25,12 @@ import de.pixida.logtest.automatondefinitions.GenericTimeInterval;
 import de.pixida.logtest.automatondefinitions.IDuration;
 import de.pixida.logtest.automatondefinitions.IEdgeDefinition;
 import de.pixida.logtest.automatondefinitions.INodeDefinition;
+import de.pixida.logtest.automatondefinitions.INumericRange;
 import de.pixida.logtest.automatondefinitions.ITimeInterval;
+import de.pixida.logtest.automatondefinitions.IValueInSet;
 import de.pixida.logtest.automatondefinitions.JsonTimeUnit;
 import de.pixida.logtest.designer.commons.Icons;
+import de.pixida.logtest.regexp.RegExpEngine;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.geometry.Point2D;
@@ -241,6 +244,7 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
     private String description;
     private String regExp;
     private final PropertyNode regExpPropertyNode;
+    private RegExpEngine regExpEngine;
     private String checkExp;
     private final PropertyNode checkExpPropertyNode;
     private Boolean triggerAlways;
@@ -256,6 +260,11 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
     private final PropertyNode timingConditionsPropertyNode;
     private String channel;
     private final PropertyNode channelPropertyNode;
+    // Field conditions are not editable yet, but kept when the automaton is saved
+    private Map<String, String> fieldEquals;
+    private Map<String, INumericRange> fieldRange;
+    private List<String> fieldPresent;
+    private IValueInSet valueInSet;
     private final PropertyNode descriptionPropertyNode;
 
     AutomatonEdge(final Graph graph)
@@ -551,6 +560,12 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
         this.regExp = this.regExpPropertyNode.apply(value);
     }
 
+    @Override
+    public RegExpEngine getRegExpEngine()
+    {
+        return this.regExpEngine;
+    }
+
     @Override
     public Boolean getTriggerAlways()
     {
@@ -663,6 +678,30 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
         this.channel = this.channelPropertyNode.apply(value);
     }
 
+    @Override
+    public Map<String, String> getFieldEquals()
+    {
+        return this.fieldEquals;
+    }
+
+    @Override
+    public Map<String, INumericRange> getFieldRange()
+    {
+        return this.fieldRange;
+    }
+
+    @Override
+    public List<String> getFieldPresent()
+    {
+        return this.fieldPresent;
+    }
+
+    @Override
+    public IValueInSet getValueInSet()
+    {
+        return this.valueInSet;
+    }
+
     void loadFromJson(final IEdgeDefinition edge, final JSONObject edgeDesignerConfig)
     {
         Validate.notNull(edge);
@@ -673,6 +712,7 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
         this.setDescription(edge.getDescription());
         this.setCheckExp(edge.getCheckExp());
         this.setRegExp(edge.getRegExp());
+        this.regExpEngine = edge.getRegExpEngine();
         this.setOnWalk(edge.getOnWalk());
         this.setTriggerOnEof(edge.getTriggerOnEof());
         this.setTriggerAlways(edge.getTriggerAlways());
@@ -683,6 +723,10 @@ class AutomatonEdge extends CircularNode implements IEdgeDefinition
         this.timeIntervalForEvent.fromTimeInterval(edge.getTimeIntervalForEvent());
         this.timingConditionsUpdated();
         this.setChannel(edge.getChannel());
+        this.fieldEquals = edge.getFieldEquals();
+        this.fieldRange = edge.getFieldRange();
+        this.fieldPresent = edge.getFieldPresent();
+        this.valueInSet = edge.getValueInSet();
 
         PropertyNode.loadAllPropertyNodesFromJson(this.getPropertyNodes(), edgeDesignerConfig);
 
@@ -47,6 +47,10 @@ class EditorAutomaton implements IAutomatonDefinition
 
     private final RectangularNode descriptionNode;
     private String scriptLanguage;
+    private Integer regExpResultCacheSize;
+    private Integer regExpTimeBudgetMs;
+    private Integer scriptTimeBudgetMs;
+    private Integer scriptTotalTimeBudgetMs;
 
     private final Graph graph;
 
@@ -140,6 +144,30 @@ class EditorAutomaton implements IAutomatonDefinition
         return this.scriptLanguage;
     }
 
+    @Override
+    public Integer getRegExpResultCacheSize()
+    {
+        return this.regExpResultCacheSize;
+    }
+
+    @Override
+    public Integer getRegExpTimeBudgetMs()
+    {
+        return this.regExpTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTimeBudgetMs()
+    {
+        return this.scriptTimeBudgetMs;
+    }
+
+    @Override
+    public Integer getScriptTotalTimeBudgetMs()
+    {
+        return this.scriptTotalTimeBudgetMs;
+    }
+
     Node getConfigFrame()
     {
         return this.configFrame;
@@ -173,6 +201,10 @@ class EditorAutomaton implements IAutomatonDefinition
 
         this.setDescription(def.getDescription());
         this.scriptLanguage = def.getScriptLanguage();
+        this.regExpResultCacheSize = def.getRegExpResultCacheSize();
+        this.regExpTimeBudgetMs = def.getRegExpTimeBudgetMs();
+        this.scriptTimeBudgetMs = def.getScriptTimeBudgetMs();
+        this.scriptTotalTimeBudgetMs = def.getScriptTotalTimeBudgetMs();
         this.onLoadInput.setText(def.getOnLoad());
 
         final JSONObject designerConfig = rawJson.optJSONObject(JSON_KEY_DESIGNER);
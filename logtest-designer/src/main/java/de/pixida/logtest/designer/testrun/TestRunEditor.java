@@ -41,8 +41,10 @@ import de.pixida.logtest.engine.AutomatonParameters;
 import de.pixida.logtest.logreaders.GenericLogReader;
 import de.pixida.logtest.processing.EvaluationResult;
 import de.pixida.logtest.processing.EvaluationResult.Result;
+import de.pixida.logtest.processing.IJobExecutionListener;
 import de.pixida.logtest.processing.Job;
 import de.pixida.logtest.processing.JobExecutor;
+import de.pixida.logtest.processing.JobProgress;
 import de.pixida.logtest.processing.LogSink;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -55,6 +57,7 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
@@ -151,36 +154,59 @@ public class TestRunEditor extends Editor
         @Override
         protected Task<EvaluationResult> createTask()
         {
-            return new Task<EvaluationResult>()
+            return new AutomatonTestRunTask();
+        }
+
+        private class AutomatonTestRunTask extends Task<EvaluationResult> implements IJobExecutionListener
+        {
+            AutomatonTestRunTask()
             {
-                @Override
-                protected EvaluationResult call()
-                {
-                    AutomatonTestRunService.this.engineLogger
-                        .setLevel(TestRunEditor.this.showDebugOutputProperty.get() ? Level.DEBUG : Level.INFO);
-                    final AutomatonLoggerListener logHook = new AutomatonLoggerListener();
-                    TestRunEditor.this.resultLogOutputText.setText("");
-                    AutomatonTestRunService.this.engineLogger.addAppender(logHook);
+                // Empty constructor needed by checkstyle
+            }
 
-                    try
-                    {
-                        final JobExecutor executor = new JobExecutor(Arrays.asList(AutomatonTestRunService.this.job));
-                        final EvaluationResult result = executor.getResults().get(0).get(0);
+            @Override
+            protected EvaluationResult call()
+            {
+                AutomatonTestRunService.this.engineLogger
+                    .setLevel(TestRunEditor.this.showDebugOutputProperty.get() ? Level.DEBUG : Level.INFO);
+                final AutomatonLoggerListener logHook = new AutomatonLoggerListener();
+                TestRunEditor.this.resultLogOutputText.setText("");
+                AutomatonTestRunService.this.engineLogger.addAppender(logHook);
 
-                        if (result.getResult() == Result.INTERNAL_ERROR)
-                        {
-                            throw new RuntimeException(result.getMessage());
-                        }
+                try
+                {
+                    final JobExecutor executor = new JobExecutor(Arrays.asList(AutomatonTestRunService.this.job), false, this);
+                    final EvaluationResult result = executor.getResults().get(0).get(0);
 
-                        return result;
-                    }
-                    finally
+                    if (result.getResult() == Result.INTERNAL_ERROR)
                     {
-                        AutomatonTestRunService.this.engineLogger.removeAppender(logHook);
+                        throw new RuntimeException(result.getMessage());
                     }
+
+                    return result;
                 }
+                finally
+                {
+                    AutomatonTestRunService.this.engineLogger.removeAppender(logHook);
+                }
+            }
+
+            @Override
+            public void executionFinished(final Job finishedJob, final LogSink sink, final EvaluationResult evaluationResult,
+                final long timeMs)
+            {
+                // The result is taken from the executor when the task is done
+            }
 
-            };
+            @Override
+            public void jobProgress(final JobProgress progress)
+            {
+                // Indeterminate if the size of the log is unknown, e.g. for entered text
+                final double fractionDone = progress.getFractionDone();
+                this.updateProgress(fractionDone < 0.0 ? -1.0 : fractionDone, 1.0);
+                this.updateMessage(String.format("%d entries, %d of %d automatons running", progress.getNumEntries(),
+                    progress.getNumAutomatonsRunning(), progress.getNumAutomatons()));
+            }
         }
     };
 
@@ -196,6 +222,12 @@ public class TestRunEditor extends Editor
             this.resultBarTextProperty.set("Running ...");
             this.resultBarBackgroundProperty.set(RESULT_BAR_BACKGROUND_PROGRESS);
         });
+        this.testRunService.messageProperty().addListener((observable, oldValue, newValue) -> {
+            if (this.testRunService.isRunning() && StringUtils.isNotEmpty(newValue))
+            {
+                this.resultBarTextProperty.set("Running ... " + newValue);
+            }
+        });
         this.testRunService.setOnFailed(event -> {
             final Throwable ex = event.getSource().getException();
             final String errorMsg = ex != null ? ex.getMessage() : "Unknown internal error.";
@@ -296,6 +328,11 @@ public class TestRunEditor extends Editor
         });
         final HBox startLine = new HBox();
         startLine.getChildren().add(startBtn);
+        final ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(this.testRunService.progressProperty());
+        progressBar.visibleProperty().bind(this.testRunService.runningProperty());
+        progressBar.managedProperty().bind(progressBar.visibleProperty());
+        progressBar.setMaxWidth(Double.MAX_VALUE);
         final VBox runLines = new VBox();
         final double linesSpacing = 10d;
         runLines.setSpacing(linesSpacing);
@@ -315,7 +352,7 @@ public class TestRunEditor extends Editor
         this.resultLogOutputText.setEditable(false);
         this.resultLogOutputText.setStyle("-fx-font-family: monospace");
         HBox.setHgrow(this.resultLogOutputText, Priority.ALWAYS);
-        runLines.getChildren().addAll(startLine, new Text("Recent results:"), resultBar, this.resultLogOutputText);
+        runLines.getChildren().addAll(startLine, progressBar, new Text("Recent results:"), resultBar, this.resultLogOutputText);
         final TitledPane runPane = new TitledPane("Run", runLines);
         runPane.setGraphic(Icons.getIconGraphics("lightning_go"));
         runPane.setCollapsible(false);